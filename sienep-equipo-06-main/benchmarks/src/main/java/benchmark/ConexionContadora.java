@@ -0,0 +1,70 @@
+package benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envuelve una conexión real y cuenta las sentencias ejecutadas (execute, executeQuery, executeUpdate, executeBatch).
+ * Los DAOs cierran la conexión en cada operación; aquí close() no hace nada para reutilizar la misma
+ * durante todo el benchmark. La conexión real se cierra con cerrar().
+ */
+public class ConexionContadora {
+    private final Connection real;
+    private final Connection proxy;
+    private final AtomicLong consultas = new AtomicLong();
+
+    public ConexionContadora(Connection real) {
+        this.real = real;
+        this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, this::invocarConexion);
+    }
+
+    public Connection getConexion() {
+        return proxy;
+    }
+
+    public long getConsultas() {
+        return consultas.get();
+    }
+
+    public void cerrar() throws Exception {
+        real.close();
+    }
+
+    // Métodos auxiliares
+
+    private Object invocarConexion(Object p, Method metodo, Object[] args) throws Throwable {
+        if (metodo.getName().equals("close")) {
+            return null;
+        }
+        Object resultado = invocar(real, metodo, args);
+        if (resultado instanceof Statement statement) {
+            // PreparedStatement / CallableStatement: se envuelve con la interfaz que devolvió el método
+            Class<?> tipo = metodo.getReturnType();
+            return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, contadorSentencia(statement));
+        }
+        return resultado;
+    }
+
+    private InvocationHandler contadorSentencia(Statement statement) {
+        return (p, metodo, args) -> {
+            if (metodo.getName().startsWith("execute")) {
+                consultas.incrementAndGet();
+            }
+            return invocar(statement, metodo, args);
+        };
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
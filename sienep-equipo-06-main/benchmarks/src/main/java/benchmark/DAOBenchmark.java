@@ -0,0 +1,112 @@
+package benchmark;
+
+import dao.impl.CacheReferencias;
+import dao.impl.EstudianteDAOImpl;
+import dao.impl.InstanciaDAOImpl;
+import dao.impl.RolDAOImpl;
+import dao.impl.UsuarioDAOImpl;
+import db.ConfiguracionSistema;
+import model.Estudiante;
+import model.Instancia;
+import model.Rol;
+import model.Usuario;
+import org.apache.log4j.Logger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminos calientes de los DAOs contra una base PostgreSQL sembrada (la de config.properties).
+ * Cada hilo usa su propia conexión contadora; el contador "consultas" (consultas/s) dividido por el
+ * throughput del benchmark da las consultas por operación, para detectar regresiones N+1.
+ * La tasa de asignación la reporta el profiler gc que agrega EjecutarBenchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DAOBenchmark {
+
+    // usuario activo de la base sembrada para validateCredentials
+    @Param({"admin@utec.edu.uy"})
+    public String email;
+
+    @Param({"admin"})
+    public String contrasenia;
+
+    private ConexionContadora conexion;
+    private InstanciaDAOImpl instanciaDAO;
+    private EstudianteDAOImpl estudianteDAO;
+    private UsuarioDAOImpl usuarioDAO;
+    private RolDAOImpl rolDAO;
+    private int idEstudiante;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Consultas {
+        public long consultas;
+        private long inicio;
+
+        @Setup(Level.Iteration)
+        public void iniciar(DAOBenchmark benchmark) {
+            consultas = 0;
+            inicio = benchmark.conexion.getConsultas();
+        }
+
+        @TearDown(Level.Iteration)
+        public void registrar(DAOBenchmark benchmark) {
+            consultas = benchmark.conexion.getConsultas() - inicio;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        // el log INFO por operación de los DAOs domina el tiempo medido
+        Logger.getRootLogger().setLevel(org.apache.log4j.Level.WARN);
+
+        conexion = new ConexionContadora(ConfiguracionSistema.getInstance().getConnection());
+        usuarioDAO = new UsuarioDAOImpl(conexion.getConexion());
+        estudianteDAO = new EstudianteDAOImpl(conexion.getConexion(), usuarioDAO);
+        instanciaDAO = new InstanciaDAOImpl(conexion.getConexion(), CacheReferencias.categorias(), estudianteDAO, usuarioDAO);
+        rolDAO = new RolDAOImpl(conexion.getConexion());
+
+        List<Estudiante> primero = estudianteDAO.findPage(0, 1);
+        if (primero.isEmpty()) {
+            throw new IllegalStateException("La base no tiene estudiantes: sembrarla antes de medir");
+        }
+        idEstudiante = primero.get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws Exception {
+        conexion.cerrar();
+    }
+
+    @Benchmark
+    public List<Instancia> instanciaFindAll(Consultas consultas) throws Exception {
+        return instanciaDAO.findAll();
+    }
+
+    @Benchmark
+    public List<Instancia> instanciaFindByEstudiante(Consultas consultas) throws Exception {
+        return instanciaDAO.findByEstudiante(idEstudiante);
+    }
+
+    @Benchmark
+    public List<Estudiante> estudianteFindAll(Consultas consultas) throws Exception {
+        return estudianteDAO.findAll();
+    }
+
+    @Benchmark
+    public Usuario usuarioValidateCredentials(Consultas consultas) throws Exception {
+        return usuarioDAO.validateCredentials(email, contrasenia);
+    }
+
+    @Benchmark
+    public List<Rol> rolFindAll(Consultas consultas) throws Exception {
+        return rolDAO.findAll();
+    }
+}
@@ -0,0 +1,35 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import utils.PasswordHasher;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de PasswordHasher según las iteraciones de PBKDF2, para elegir seguridad.hash.iteraciones.
+ * verify es lo que paga cada login; elegir el mayor costo cuyo tiempo entre en el objetivo de latencia del login.
+ * No necesita base de datos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHasherBenchmark {
+    @Param({"100000", "210000", "310000", "600000"})
+    public int iteraciones;
+
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        PasswordHasher.setIteraciones(iteraciones);
+        hash = PasswordHasher.hash("Clave@123");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return PasswordHasher.verify("Clave@123", hash);
+    }
+}
@@ -1,91 +1,190 @@
 package auth;
 
+import exception.AutenticacionFallidaException;
+import exception.CuentaInactivaException;
+import exception.IntentosExcedidosException;
+import dao.impl.CacheReferencias;
+import db.ConfiguracionSistema;
 import lombok.Getter;
-import model.Funcionario;
 import model.Usuario;
 import org.apache.log4j.Logger;
 import service.UsuarioService;
 import service.impl.UsuarioServiceImpl;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 @Getter
 // Singleton, maneja el login/logout usando UsuarioDAO (validateCredentials())
+// Cada operador se identifica por el token de su Sesion; varias sesiones conviven en el mismo proceso
 public class AuthManager {
     private static final Logger logger = Logger.getLogger(AuthManager.class);
     private static final int TIEMPO_INACTIVIDAD_MINUTOS = 15;
-    private static AuthManager instance;
-    private Usuario usuarioActual;
-    private LocalDateTime ultimaActividad;
+    private static final int INTERVALO_BARRIDO_SEGUNDOS = 30;
+    private static final int VENTANA_FALLOS_SEGUNDOS = 15 * 60;
+    private static volatile AuthManager instance;
     private final UsuarioService usuarioService;
+    private final RegistroSesiones sesiones;
+    // fallos por cuenta (frena adivinar una contraseña) y por origen (frena probar muchas cuentas desde un lugar)
+    private final LimitadorIntentos limitePorEmail;
+    private final LimitadorIntentos limitePorOrigen;
+    private final MotorPermisos motorPermisos;
 
-    private AuthManager(UsuarioService usuarioService) {
+    AuthManager(UsuarioService usuarioService, RegistroSesiones sesiones, MotorPermisos motorPermisos) {
+        this(usuarioService, sesiones, motorPermisos,
+                new LimitadorIntentos("email", 5, VENTANA_FALLOS_SEGUNDOS, 1, 15 * 60, 50_000),
+                new LimitadorIntentos("origen", 20, VENTANA_FALLOS_SEGUNDOS, 1, 15 * 60, 10_000));
+    }
+
+    AuthManager(UsuarioService usuarioService, RegistroSesiones sesiones, MotorPermisos motorPermisos,
+                LimitadorIntentos limitePorEmail, LimitadorIntentos limitePorOrigen) {
         this.usuarioService = usuarioService;
+        this.sesiones = sesiones;
+        this.motorPermisos = motorPermisos;
+        this.limitePorEmail = limitePorEmail;
+        this.limitePorOrigen = limitePorOrigen;
     }
 
     public static AuthManager getInstance() {
         if (instance == null) {
-            try{
-                instance = new AuthManager(new UsuarioServiceImpl());
-            } catch (Exception e) {
-                logger.fatal("No se pudo inicializar AuthManager", e);
-                throw new RuntimeException(e);
+            synchronized (AuthManager.class) {
+                if (instance == null) {
+                    try {
+                        RegistroSesiones sesiones = new RegistroSesiones(TIEMPO_INACTIVIDAD_MINUTOS);
+                        sesiones.iniciarBarrido(INTERVALO_BARRIDO_SEGUNDOS);
+                        MotorPermisos motorPermisos = new MotorPermisos(CacheReferencias.roles(), CacheReferencias.permisos(),
+                                ConfiguracionSistema.getInstance().getCacheReferenciaTtlSeconds());
+                        instance = new AuthManager(new UsuarioServiceImpl(), sesiones, motorPermisos);
+                        instance.limitePorEmail.iniciarPurga(INTERVALO_BARRIDO_SEGUNDOS);
+                        instance.limitePorOrigen.iniciarPurga(INTERVALO_BARRIDO_SEGUNDOS);
+                    } catch (Exception e) {
+                        logger.fatal("No se pudo inicializar AuthManager", e);
+                        throw new RuntimeException(e);
+                    }
+                }
             }
         }
         return instance;
     }
 
-    public boolean login(String email, String contrasenia) {
+    // Devuelve la sesión abierta, o null si las credenciales no son válidas.
+    // Con demasiados fallos recientes para el email o el origen se rechaza sin consultar la base.
+    public Sesion login(String email, String contrasenia, String origen) throws IntentosExcedidosException {
+        String claveEmail = claveEmail(email);
+        verificarEspera(claveEmail, email, origen);
         try {
-            usuarioActual = usuarioService.validarCredenciales(email, contrasenia);
-            ultimaActividad = LocalDateTime.now();
+            Usuario usuario = usuarioService.validarCredenciales(email, contrasenia);
+            Sesion sesion = sesiones.abrir(usuario);
+            limitePorEmail.registrarExito(claveEmail);
             logger.info("Usuaario autenticado: " + email);
-            return true;
+            return sesion;
+        } catch (AutenticacionFallidaException | CuentaInactivaException e) {
+            limitePorEmail.registrarFallo(claveEmail);
+            limitePorOrigen.registrarFallo(origen);
+            logger.warn("Login fallido para el usuario: " + email + " desde " + origen);
+            return null;
         } catch (Exception e) {
+            // errores de base u otros: no cuentan como intento fallido
             logger.error("Error en autenticación para el usuario: " + email, e);
-            return false;
+            return null;
+        }
+    }
+
+    // Primera entrada de una cuenta importada: canjea el código por la contraseña elegida y abre la sesión.
+    // null si el código no es válido; cuenta como intento fallido igual que una contraseña incorrecta.
+    // IllegalArgumentException si la contraseña nueva no cumple las reglas (no cuenta como fallo).
+    public Sesion activarCuenta(String email, String codigo, String nuevaContrasenia, String origen)
+            throws IntentosExcedidosException {
+        String claveEmail = claveEmail(email);
+        verificarEspera(claveEmail, email, origen);
+        try {
+            Usuario usuario = usuarioService.activarCuenta(email, codigo, nuevaContrasenia);
+            Sesion sesion = sesiones.abrir(usuario);
+            limitePorEmail.registrarExito(claveEmail);
+            logger.info("Cuenta activada y usuario autenticado: " + email);
+            return sesion;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (AutenticacionFallidaException e) {
+            limitePorEmail.registrarFallo(claveEmail);
+            limitePorOrigen.registrarFallo(origen);
+            logger.warn("Activación fallida para el usuario: " + email + " desde " + origen);
+            return null;
+        } catch (Exception e) {
+            logger.error("Error activando la cuenta del usuario: " + email, e);
+            return null;
         }
     }
 
-    public void logout() {
-        if(usuarioActual != null) {
-            logger.info("Usuario " + usuarioActual.getEmail() + " ha cerrado sesión.");
+    public void logout(String token) {
+        Sesion sesion = sesiones.cerrar(token);
+        if (sesion != null) {
+            logger.info("Usuario " + sesion.getUsuario().getEmail() + " ha cerrado sesión.");
         }
-        usuarioActual = null;
-        ultimaActividad = null;
     }
 
     // Método para actualizar la última actividad - llamado en cada acción del usuario
-    public void actualizarActividad() {
-        if(usuarioActual != null) {
-            ultimaActividad = LocalDateTime.now();
+    public void actualizarActividad(String token) {
+        Sesion sesion = sesiones.obtener(token);
+        if (sesion != null) {
+            sesion.actualizarActividad();
         }
     }
 
-    private void verificarInactividad() {
-        if (ultimaActividad == null) {
-            System.out.println("[DEBUG] ultimaActividad es null, retornando.");
-            return;
+    // RegistroSesiones descarta la sesión si pasó su vencimiento: un get en el mapa y una resta de nanoTime
+    public boolean isAutenticado(String token) {
+        boolean autenticado = sesiones.obtener(token) != null;
+        if (logger.isDebugEnabled()) {
+            logger.debug("Verificación de sesión: autenticado=" + autenticado);
         }
-        long minutosInactivo = ChronoUnit.MINUTES.between(ultimaActividad, LocalDateTime.now());
-        System.out.println("[DEBUG] Minutos inactivo: " + minutosInactivo);
-        if (minutosInactivo >= TIEMPO_INACTIVIDAD_MINUTOS) {
-            logger.warn("Sesión cerrada por inactividad: " + usuarioActual.getEmail() + "(inactivo por " + minutosInactivo + " minutos)");
-            logout();
+        return autenticado;
+    }
+
+    public Usuario getUsuario(String token) {
+        Sesion sesion = sesiones.obtener(token);
+        return sesion != null ? sesion.getUsuario() : null;
+    }
+
+    public String getRol(String token) {
+        Sesion sesion = sesiones.obtener(token);
+        return sesion != null ? sesion.getRol() : null;
+    }
+
+    // Autorización por permiso del rol (bitset compilado y guardado en la sesión); ante un error se deniega
+    public boolean tienePermiso(String token, int idPermiso) {
+        Sesion sesion = sesiones.obtener(token);
+        try {
+            return sesion != null && motorPermisos.tienePermiso(sesion, idPermiso);
+        } catch (Exception e) {
+            logger.error("Error al verificar el permiso " + idPermiso, e);
+            return false;
         }
     }
 
-    public boolean isAutenticado() {
-        System.out.println("[DEBUG] Verificando autenticación...");
-        verificarInactividad();
-        boolean autenticado = usuarioActual != null;
-        System.out.println("[DEBUG] Usuario autenticado: " + autenticado);
-        return autenticado;
+    public boolean tienePermiso(String token, String nombrePermiso) {
+        Sesion sesion = sesiones.obtener(token);
+        try {
+            return sesion != null && motorPermisos.tienePermiso(sesion, nombrePermiso);
+        } catch (Exception e) {
+            logger.error("Error al verificar el permiso " + nombrePermiso, e);
+            return false;
+        }
+    }
+
+    // Métodos auxiliares
+
+    private static String claveEmail(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
     }
 
-    public String getRolActual() {
-        return usuarioActual != null && usuarioActual instanceof Funcionario ? ((Funcionario) usuarioActual).getRol().getNombre() : null;
+    // Con demasiados fallos recientes para el email o el origen se rechaza sin consultar la base
+    private void verificarEspera(String claveEmail, String email, String origen) throws IntentosExcedidosException {
+        long espera = Math.max(limitePorEmail.esperaRestante(claveEmail), limitePorOrigen.esperaRestante(origen));
+        if (espera > 0) {
+            long segundos = (espera + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);  // redondeo hacia arriba
+            logger.warn("Login rechazado por exceso de intentos: " + email + " desde " + origen);
+            throw new IntentosExcedidosException("Demasiados intentos fallidos. Intente nuevamente en " +
+                    segundos + " segundos.", segundos);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package auth;
+
+import org.apache.log4j.Logger;
+import utils.TareaProgramada;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Limita los logins fallidos por clave (email u origen) con una ventana deslizante y espera exponencial.
+ * - Por clave se guardan los instantes (nanoTime) de los últimos {@code maxFallos} fallos en un anillo atómico.
+ * - Si al fallar el anillo entero cae dentro de la ventana, la clave queda bloqueada
+ *   esperaBase * 2^(excesos) (tope esperaMaxima); cada fallo posterior con la ventana llena duplica la espera.
+ * - Sin locks: sólo operaciones atómicas sobre el registro de la clave. Consultar una clave sin fallos
+ *   es un get en el mapa.
+ * - Tope duro de {@code maxClaves}: al dar de alta una clave por encima del tope se desaloja la más vieja sin bloqueo
+ *   vigente (orden de alta, cola FIFO; las bloqueadas pasan al final). Se revisan a lo sumo REVISION_MAXIMA entradas
+ *   por alta; si todas están bloqueadas la clave nueva no se registra: inundar el limitador con claves nuevas
+ *   no levanta el bloqueo de las atacadas ni reinicia su espera.
+ * - Los registros inactivos se purgan con un barrido programado ({@link #iniciarPurga}), no al registrar fallos.
+ */
+public class LimitadorIntentos {
+    private static final Logger logger = Logger.getLogger(LimitadorIntentos.class);
+    // entradas de la cola que revisa un alta buscando una clave desalojable
+    private static final int REVISION_MAXIMA = 32;
+
+    private final String nombre;
+    private final int maxFallos;
+    private final long ventanaNanos;
+    private final long esperaBaseNanos;
+    private final long esperaMaximaNanos;
+    private final int maxClaves;
+    private final Map<String, Registro> registros = new ConcurrentHashMap<>();
+    // orden de alta para desalojar; puede tener registros ya quitados (éxito, purga), se saltean y la purga los limpia
+    private final Queue<Registro> orden = new ConcurrentLinkedQueue<>();
+    // en el tope y sólo con claves bloqueadas; se avisa una vez hasta la próxima purga
+    private final AtomicBoolean saturado = new AtomicBoolean();
+    private final TareaProgramada purga;
+
+    public LimitadorIntentos(String nombre, int maxFallos, long ventanaSegundos, long esperaBaseSegundos,
+                             long esperaMaximaSegundos, int maxClaves) {
+        if (maxFallos <= 0 || ventanaSegundos <= 0 || esperaBaseSegundos <= 0) {
+            throw new IllegalArgumentException("Parámetros del limitador " + nombre + " deben ser mayores a 0");
+        }
+        this.nombre = nombre;
+        this.maxFallos = maxFallos;
+        this.ventanaNanos = TimeUnit.SECONDS.toNanos(ventanaSegundos);
+        this.esperaBaseNanos = TimeUnit.SECONDS.toNanos(esperaBaseSegundos);
+        this.esperaMaximaNanos = TimeUnit.SECONDS.toNanos(esperaMaximaSegundos);
+        this.maxClaves = maxClaves;
+        this.purga = new TareaProgramada("purga-intentos-" + nombre, () -> purgar(System.nanoTime()));
+    }
+
+    // 0 si la clave puede intentar; si no, nanosegundos que faltan para el próximo intento
+    public long esperaRestante(String clave) {
+        return esperaRestante(clave, System.nanoTime());
+    }
+
+    long esperaRestante(String clave, long ahoraNanos) {
+        Registro registro = registros.get(clave);
+        if (registro == null) {
+            return 0;
+        }
+        long resto = registro.bloqueadoHasta.get() - ahoraNanos;
+        return resto > 0 ? resto : 0;
+    }
+
+    public void registrarFallo(String clave) {
+        registrarFallo(clave, System.nanoTime());
+    }
+
+    void registrarFallo(String clave, long ahoraNanos) {
+        Registro registro = registros.get(clave);
+        if (registro == null) {
+            registro = alta(clave, ahoraNanos);
+            if (registro == null) {
+                return;
+            }
+        }
+        registro.ultimoFallo = ahoraNanos;
+        registro.fallos.set(Math.floorMod(registro.siguiente.getAndIncrement(), maxFallos), ahoraNanos);
+        if (!ventanaLlena(registro, ahoraNanos)) {
+            registro.excesos.set(0);
+        } else {
+            int excesos = registro.excesos.getAndIncrement();
+            long espera = Math.min(esperaMaximaNanos, esperaBaseNanos << Math.min(excesos, 30));
+            registro.bloqueadoHasta.set(ahoraNanos + espera);
+            logger.warn("Login bloqueado (" + nombre + "): " + clave + " por " +
+                    TimeUnit.NANOSECONDS.toSeconds(espera) + " s tras " + maxFallos + " fallos en la ventana");
+        }
+    }
+
+    public void registrarExito(String clave) {
+        registros.remove(clave);
+    }
+
+    public int cantidadClaves() {
+        return registros.size();
+    }
+
+    public void iniciarPurga(long intervaloSegundos) {
+        if (!purga.iniciar(intervaloSegundos, TimeUnit.SECONDS)) {
+            return;
+        }
+        logger.info("Purga del limitador " + nombre + " iniciada (cada " + intervaloSegundos + " s, tope " +
+                maxClaves + " claves)");
+    }
+
+    public void detenerPurga() {
+        purga.detener();
+    }
+
+    // Quita claves sin fallos dentro de la ventana y sin bloqueo vigente, y las entradas viejas de la cola de alta
+    void purgar(long ahoraNanos) {
+        registros.values().removeIf(r -> ahoraNanos - r.ultimoFallo >= ventanaNanos
+                && r.bloqueadoHasta.get() - ahoraNanos <= 0);
+        orden.removeIf(r -> registros.get(r.clave) != r);
+        saturado.set(false);
+    }
+
+    // Métodos auxiliares
+
+    private boolean ventanaLlena(Registro registro, long ahoraNanos) {
+        for (int i = 0; i < maxFallos; i++) {
+            if (ahoraNanos - registro.fallos.get(i) >= ventanaNanos) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // putIfAbsent: si dos hilos dan de alta la misma clave, gana uno y el otro usa ese registro.
+    // null si el limitador está en el tope y no hay clave desalojable
+    private Registro alta(String clave, long ahoraNanos) {
+        Registro nuevo = new Registro(clave, maxFallos, ahoraNanos - ventanaNanos);
+        Registro previo = registros.putIfAbsent(clave, nuevo);
+        if (previo != null) {
+            return previo;
+        }
+        while (registros.size() > maxClaves) {
+            if (!desalojarUna(ahoraNanos)) {
+                registros.remove(clave, nuevo);
+                if (saturado.compareAndSet(false, true)) {
+                    logger.warn("Limitador " + nombre + " en el tope de " + maxClaves +
+                            " claves, todas bloqueadas: no se registran claves nuevas hasta la próxima purga");
+                }
+                return null;
+            }
+        }
+        orden.add(nuevo);
+        return nuevo;
+    }
+
+    // remove(key, value): una entrada vieja de la cola no quita un registro dado de alta después para la misma clave
+    private boolean desalojarUna(long ahoraNanos) {
+        for (int i = 0; i < REVISION_MAXIMA; i++) {
+            Registro viejo = orden.poll();
+            if (viejo == null) {
+                return false;
+            }
+            if (registros.get(viejo.clave) != viejo) {
+                continue;
+            }
+            if (viejo.bloqueadoHasta.get() - ahoraNanos > 0) {
+                // bloqueo vigente: se conserva y la revisión sigue con la siguiente
+                orden.add(viejo);
+                continue;
+            }
+            if (registros.remove(viejo.clave, viejo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Registro {
+        final String clave;
+        final AtomicLongArray fallos;
+        final AtomicInteger siguiente = new AtomicInteger();
+        // fallos seguidos con la ventana llena: exponente de la espera
+        final AtomicInteger excesos = new AtomicInteger();
+        final AtomicLong bloqueadoHasta;
+        volatile long ultimoFallo;
+
+        Registro(String clave, int maxFallos, long fueraDeVentana) {
+            this.clave = clave;
+            fallos = new AtomicLongArray(maxFallos);
+            for (int i = 0; i < maxFallos; i++) {
+                fallos.set(i, fueraDeVentana);
+            }
+            bloqueadoHasta = new AtomicLong(fueraDeVentana);
+        }
+    }
+}
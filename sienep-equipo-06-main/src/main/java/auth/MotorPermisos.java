@@ -0,0 +1,93 @@
+package auth;
+
+import dao.impl.CachedDAO;
+import model.Funcionario;
+import model.Permiso;
+import model.Rol;
+import org.apache.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autorización por permisos del rol en tiempo constante.
+ * - Los permisos de cada rol se compilan a un bitset (PermisosCompilados) y cada Sesion guarda el suyo.
+ * - Un bitset sigue vigente mientras la generación de la cache de roles no cambie y no pase el TTL;
+ *   RolServiceImpl invalida esa cache al modificar un rol o sus permisos, así que el próximo chequeo recompila.
+ * El chequeo habitual es: leer la generación (volatile), un nanoTime y un AND sobre un long.
+ */
+public class MotorPermisos {
+    private static final Logger logger = Logger.getLogger(MotorPermisos.class);
+
+    private final CachedDAO<Rol> roles;
+    private final CachedDAO<Permiso> permisos;
+    private final long ttlNanos;
+    private final Map<Integer, PermisosCompilados> porRol = new ConcurrentHashMap<>();
+    // nombre de permiso -> id, reconstruido cuando cambia la cache de permisos
+    private volatile IdsPorNombre idsPorNombre;
+
+    public MotorPermisos(CachedDAO<Rol> roles, CachedDAO<Permiso> permisos, long ttlSegundos) {
+        this.roles = roles;
+        this.permisos = permisos;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+    }
+
+    public boolean tienePermiso(Sesion sesion, int idPermiso) throws Exception {
+        return permisosDe(sesion).contiene(idPermiso);
+    }
+
+    public boolean tienePermiso(Sesion sesion, String nombrePermiso) throws Exception {
+        Integer id = idsPorNombre().ids.get(nombrePermiso);
+        return id != null && tienePermiso(sesion, id);
+    }
+
+    PermisosCompilados permisosDe(Sesion sesion) throws Exception {
+        PermisosCompilados compilados = sesion.getPermisos();
+        if (compilados == null || !compilados.vigente(roles.getGeneracion(), System.nanoTime())) {
+            compilados = compilar(sesion.getUsuario() instanceof Funcionario f && f.getRol() != null ? f.getRol().getId() : null);
+            sesion.setPermisos(compilados);
+        }
+        return compilados;
+    }
+
+    // Métodos auxiliares
+
+    private PermisosCompilados compilar(Integer idRol) throws Exception {
+        // la generación se lee antes de cargar: si el rol cambia mientras tanto, el resultado ya nace vencido
+        long generacion = roles.getGeneracion();
+        long ahora = System.nanoTime();
+        if (idRol == null) {
+            return PermisosCompilados.compilar(List.of(), generacion, ahora + ttlNanos);
+        }
+        PermisosCompilados compilados = porRol.get(idRol);
+        if (compilados != null && compilados.vigente(generacion, ahora)) {
+            return compilados;
+        }
+        Rol rol = roles.findById(idRol);
+        compilados = PermisosCompilados.compilar(rol != null ? rol.getPermisos() : List.of(), generacion, ahora + ttlNanos);
+        porRol.put(idRol, compilados);
+        logger.debug("Permisos compilados para el rol ID " + idRol + " (generación " + generacion + ")");
+        return compilados;
+    }
+
+    private IdsPorNombre idsPorNombre() throws Exception {
+        IdsPorNombre actual = idsPorNombre;
+        long generacion = permisos.getGeneracion();
+        if (actual != null && actual.generacion == generacion && System.nanoTime() - actual.venceNanos < 0) {
+            return actual;
+        }
+        Map<String, Integer> ids = new HashMap<>();
+        for (Permiso p : permisos.findAll()) {
+            ids.put(p.getNombre(), p.getId());
+        }
+        actual = new IdsPorNombre(Map.copyOf(ids), generacion, System.nanoTime() + ttlNanos);
+        idsPorNombre = actual;
+        return actual;
+    }
+
+    private record IdsPorNombre(Map<String, Integer> ids, long generacion, long venceNanos) {
+    }
+}
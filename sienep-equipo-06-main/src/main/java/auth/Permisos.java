@@ -0,0 +1,20 @@
+package auth;
+
+/**
+ * Nombres de los permisos que consulta la consola. Se cargan en proyecto.permisos con la migración 007
+ * y cada rol recibe los suyos por proyecto.rol_permisos; el administrador puede reasignarlos sin tocar código.
+ */
+public final class Permisos {
+    public static final String GESTIONAR_USUARIOS = "GESTIONAR_USUARIOS";
+    public static final String GESTIONAR_ROLES = "GESTIONAR_ROLES";
+    public static final String GESTIONAR_CATEGORIAS = "GESTIONAR_CATEGORIAS";
+    public static final String GESTIONAR_INSTANCIAS = "GESTIONAR_INSTANCIAS";
+    public static final String GESTIONAR_INCIDENCIAS = "GESTIONAR_INCIDENCIAS";
+    public static final String VER_INSTANCIAS = "VER_INSTANCIAS";
+    public static final String VER_DATOS_CONFIDENCIALES = "VER_DATOS_CONFIDENCIALES";
+    public static final String VER_REPORTES = "VER_REPORTES";
+    public static final String VER_ESTUDIANTES = "VER_ESTUDIANTES";
+
+    private Permisos() {
+    }
+}
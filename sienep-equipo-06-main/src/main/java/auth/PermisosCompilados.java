@@ -0,0 +1,46 @@
+package auth;
+
+import model.Permiso;
+
+import java.util.List;
+
+// Permisos de un rol como bitset indexado por id de permiso: consultar es leer un long y un AND.
+// Inmutable; guarda la generación de la cache de roles y el vencimiento con los que se compiló.
+final class PermisosCompilados {
+    private final long[] bits;
+    private final long generacion;
+    private final long venceNanos;
+
+    private PermisosCompilados(long[] bits, long generacion, long venceNanos) {
+        this.bits = bits;
+        this.generacion = generacion;
+        this.venceNanos = venceNanos;
+    }
+
+    static PermisosCompilados compilar(List<Permiso> permisos, long generacion, long venceNanos) {
+        int maxId = -1;
+        if (permisos != null) {
+            for (Permiso p : permisos) {
+                maxId = Math.max(maxId, p.getId());
+            }
+        }
+        long[] bits = new long[(maxId >> 6) + 1];
+        if (permisos != null) {
+            for (Permiso p : permisos) {
+                if (p.getId() >= 0) {
+                    bits[p.getId() >> 6] |= 1L << p.getId();
+                }
+            }
+        }
+        return new PermisosCompilados(bits, generacion, venceNanos);
+    }
+
+    boolean contiene(int idPermiso) {
+        int palabra = idPermiso >> 6;
+        return idPermiso >= 0 && palabra < bits.length && (bits[palabra] & (1L << idPermiso)) != 0;
+    }
+
+    boolean vigente(long generacionActual, long ahoraNanos) {
+        return generacion == generacionActual && ahoraNanos - venceNanos < 0;
+    }
+}
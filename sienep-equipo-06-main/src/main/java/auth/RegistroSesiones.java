@@ -0,0 +1,109 @@
+package auth;
+
+import model.Usuario;
+import org.apache.log4j.Logger;
+import utils.TareaProgramada;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sesiones abiertas indexadas por token, seguras para varios hilos.
+ * - El token son 32 bytes aleatorios (SecureRandom) en Base64 URL: no dice nada del usuario.
+ * - Cada sesión guarda su vencimiento en nanoTime: consultarla es un get en el mapa y una resta.
+ *   Una sesión vencida se descarta al consultarla; el barrido programado libera las que nadie vuelve a consultar.
+ */
+public class RegistroSesiones {
+    private static final Logger logger = Logger.getLogger(RegistroSesiones.class);
+    private static final int BYTES_TOKEN = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Map<String, Sesion> sesiones = new ConcurrentHashMap<>();
+    private final long inactividadMinutos;
+    private final long inactividadNanos;
+    private final TareaProgramada barrido = new TareaProgramada("barrido-sesiones", this::barrer);
+
+    public RegistroSesiones(long inactividadMinutos) {
+        if (inactividadMinutos <= 0) {
+            throw new IllegalArgumentException("El tiempo de inactividad debe ser mayor a 0");
+        }
+        this.inactividadMinutos = inactividadMinutos;
+        this.inactividadNanos = TimeUnit.MINUTES.toNanos(inactividadMinutos);
+    }
+
+    public Sesion abrir(Usuario usuario) {
+        Sesion sesion = new Sesion(nuevoToken(), usuario, inactividadNanos);
+        sesiones.put(sesion.getToken(), sesion);
+        return sesion;
+    }
+
+    // null si el token no existe o la sesión ya fue cerrada/expirada
+    public Sesion obtener(String token) {
+        return obtener(token, System.nanoTime());
+    }
+
+    Sesion obtener(String token, long ahoraNanos) {
+        Sesion sesion = token == null ? null : sesiones.get(token);
+        if (sesion != null && sesion.vencida(ahoraNanos)) {
+            expirar(sesion);
+            return null;
+        }
+        return sesion;
+    }
+
+    public Sesion cerrar(String token) {
+        return token == null ? null : sesiones.remove(token);
+    }
+
+    public int cantidad() {
+        return sesiones.size();
+    }
+
+    // Quita las sesiones inactivas; devuelve cuántas se cerraron
+    public int barrer() {
+        return barrer(System.nanoTime());
+    }
+
+    int barrer(long ahoraNanos) {
+        int cerradas = 0;
+        for (Sesion sesion : sesiones.values()) {
+            if (sesion.vencida(ahoraNanos) && expirar(sesion)) {
+                cerradas++;
+            }
+        }
+        return cerradas;
+    }
+
+    public void iniciarBarrido(long intervaloSegundos) {
+        if (!barrido.iniciar(intervaloSegundos, TimeUnit.SECONDS)) {
+            return;
+        }
+        logger.info("Barrido de sesiones iniciado (cada " + intervaloSegundos + " s, inactividad máxima " +
+                inactividadMinutos + " min)");
+    }
+
+    public void detenerBarrido() {
+        barrido.detener();
+    }
+
+    // Métodos auxiliares
+
+    // remove(key, value): si otro hilo ya la quitó no se registra dos veces
+    private boolean expirar(Sesion sesion) {
+        if (!sesiones.remove(sesion.getToken(), sesion)) {
+            return false;
+        }
+        logger.warn("Sesión cerrada por inactividad: " + sesion.getUsuario().getEmail() +
+                " (más de " + inactividadMinutos + " min sin actividad)");
+        return true;
+    }
+
+    private static String nuevoToken() {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,47 @@
+package auth;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import model.Funcionario;
+import model.Usuario;
+
+@Getter
+// Sesión de un operador: token opaco, usuario autenticado y vencimiento por inactividad
+public class Sesion {
+    private final String token;
+    private final Usuario usuario;
+    private final long inactividadNanos;
+    // vencimiento en la escala de System.nanoTime(): monótono, no lo afectan cambios de hora del sistema
+    private volatile long vencimientoNanos;
+    // bitset de permisos del rol; lo compila y renueva MotorPermisos
+    @Getter(AccessLevel.NONE)
+    private volatile PermisosCompilados permisos;
+
+    Sesion(String token, Usuario usuario, long inactividadNanos) {
+        this.token = token;
+        this.usuario = usuario;
+        this.inactividadNanos = inactividadNanos;
+        actualizarActividad();
+    }
+
+    void actualizarActividad() {
+        vencimientoNanos = System.nanoTime() + inactividadNanos;
+    }
+
+    boolean vencida(long ahoraNanos) {
+        // resta en lugar de comparar directo: nanoTime puede desbordar
+        return ahoraNanos - vencimientoNanos >= 0;
+    }
+
+    PermisosCompilados getPermisos() {
+        return permisos;
+    }
+
+    void setPermisos(PermisosCompilados permisos) {
+        this.permisos = permisos;
+    }
+
+    public String getRol() {
+        return usuario instanceof Funcionario ? ((Funcionario) usuario).getRol().getNombre() : null;
+    }
+}
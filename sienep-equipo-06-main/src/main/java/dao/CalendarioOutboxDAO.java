@@ -0,0 +1,26 @@
+package dao;
+
+import model.EventoCalendarioPendiente;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CalendarioOutboxDAO {
+    // Encola la creación del evento de una instancia (llamar dentro de la transacción que guarda la instancia)
+    void encolarCreacion(EventoCalendarioPendiente evento) throws Exception;
+    // Igual que encolarCreacion, para altas masivas (un solo lote)
+    void encolarCreaciones(List<EventoCalendarioPendiente> eventos) throws Exception;
+    // Encola el borrado del evento y cancela la creación si todavía estaba pendiente
+    void encolarEliminacion(int idInstancia, String eventId) throws Exception;
+    // Toma hasta "limite" operaciones vencidas y las marca EN_PROCESO con la hora del reclamo (otros workers las saltean).
+    // A una creación sin event id le asigna uno en el mismo UPDATE, antes de llamar al calendario
+    List<EventoCalendarioPendiente> reclamarPendientes(int limite) throws Exception;
+    // Guarda los event id creados en sus instancias; devuelve los eventos cuya instancia ya no existe
+    List<EventoCalendarioPendiente> registrarCreados(List<EventoCalendarioPendiente> creados) throws Exception;
+    void marcarProcesados(List<Integer> ids) throws Exception;
+    // Devuelve la operación a PENDIENTE para "proximoIntento", o la deja FALLIDO si se agotaron los intentos
+    void reprogramar(int id, String error, LocalDateTime proximoIntento, boolean agotado) throws Exception;
+    // Lo que lleva más de "plazoSegundos" EN_PROCESO (su worker se cayó) vuelve a PENDIENTE; lo reclamado
+    // hace menos sigue siendo de su worker
+    int liberarReclamosVencidos(long plazoSegundos) throws Exception;
+}
@@ -0,0 +1,6 @@
+package dao;
+
+public interface ContadorCodigoDAO {
+    // Reserva "cantidad" números consecutivos del año y devuelve el último (el bloque es ultimo-cantidad+1 .. ultimo)
+    int reservarBloque(int anio, int cantidad) throws Exception;
+}
@@ -2,13 +2,29 @@ package dao;
 
 import model.Estudiante;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface EstudianteDAO extends GenericDAO<Estudiante> {
     // métodos específicos de Estudiante
+    // findById trae el estudiante completo; los listados (findAll, findBy*, findPage, scanAll) traen un resumen
+    // sin contraseña, foto, comentarios ni datos confidenciales (Estudiante.isDetalleCargado() == false)
     List<Estudiante> findByCarrera(String carrera) throws Exception;
     List<Estudiante> findByGrupo(String grupo) throws Exception;
     List<Estudiante> findBySistemaSalud(String sistemaSalud) throws Exception;
+    // Carga masiva por ids en una sola consulta (para hidratar listados de instancias)
+    List<Estudiante> findByIds(Collection<Integer> ids) throws Exception;
+    // Página de estudiantes activos ordenada por id (keyset): hasta "limite" con id > despuesDeId
+    List<Estudiante> findPage(int despuesDeId, int limite) throws Exception;
+    // Como findPage pero con los datos confidenciales (sólo para roles que pueden verlos)
+    List<Estudiante> findPageConfidencial(int despuesDeId, int limite) throws Exception;
+    // Completa un estudiante cargado como resumen con foto, comentarios, datos confidenciales y contraseña
+    void cargarDetalle(Estudiante estudiante) throws Exception;
+    // Estudiantes activos cuyo nombre, apellido, documento o email contiene todas las palabras de "texto",
+    // del más parecido al menos parecido. Sólo carga id, nombre, apellido, documento y email
+    List<Estudiante> buscarPorTexto(String texto, int limite) throws Exception;
 
     void updateTelefono(int id, String telefono) throws Exception;
+    // Agrega una observación confidencial al final de la lista del estudiante (un INSERT, no reescribe las anteriores)
+    void agregarObservacion(int idEstudiante, String texto) throws Exception;
 }
@@ -0,0 +1,22 @@
+package dao;
+
+import lombok.Getter;
+import lombok.Setter;
+import model.enums.Canal;
+
+import java.time.LocalDateTime;
+
+// Criterios de búsqueda de instancias (InstanciaDAO.buscar). Un campo null no filtra.
+// desde es inclusivo y hasta exclusivo sobre fecha_hora.
+@Getter
+@Setter
+public class FiltroInstancias {
+    private LocalDateTime desde;
+    private LocalDateTime hasta;
+    private Canal canal;
+    private Integer idCategoria;
+    private Boolean confidencial;
+    private String tipo;  // COMUN o INCIDENCIA
+    private Integer idCreador;
+    private Integer idEstudiante;
+}
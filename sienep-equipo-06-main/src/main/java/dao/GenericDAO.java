@@ -4,8 +4,23 @@ import java.util.List;
 // Interfaz genérica, contiene un crud básico sin implementar
 public interface GenericDAO<T> {
     void save(T entity) throws Exception;
+    // Alta de varias entidades; los DAOs con altas masivas lo redefinen con JDBC batch
+    default void saveAll(List<? extends T> entities) throws Exception {
+        for (T entity : entities) {
+            save(entity);
+        }
+    }
     T findById(int id) throws Exception;
     List<T> findAll() throws Exception;
     void update(T entity) throws Exception;
     void delete(int id) throws Exception;
+
+    // Recorre toda la tabla entregando cada entidad al procesador. Los DAOs de tablas grandes lo
+    // redefinen con un cursor del servidor (memoria constante); por defecto se apoya en findAll.
+    // Con cursor el procesador corre dentro de la transacción de la lectura: ver ProcesadorFila
+    default void scanAll(ProcesadorFila<? super T> procesador) throws Exception {
+        for (T entidad : findAll()) {
+            procesador.procesar(entidad);
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package dao;
+
+import model.Incidencia;
+
+import java.util.List;
+
+public interface IncidenciaDAO extends GenericDAO<Incidencia> {
+    // Incidencias en las que figura una persona cuyo nombre empieza con "persona" (sin distinguir mayúsculas)
+    List<Incidencia> findByPersona(String persona) throws Exception;
+    // Agrega una persona a la incidencia (un INSERT, no reescribe la lista)
+    void agregarPersona(int idIncidencia, String persona) throws Exception;
+}
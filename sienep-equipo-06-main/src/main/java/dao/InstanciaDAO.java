@@ -6,4 +6,11 @@ import java.util.List;
 
 public interface InstanciaDAO extends GenericDAO<Instancia> {
     List<Instancia> findByEstudiante(int idEstudiante) throws Exception;
+    // Página ordenada por id (keyset): hasta "limite" instancias con id > despuesDeId
+    List<Instancia> findPage(int despuesDeId, int limite) throws Exception;
+    // Búsqueda por criterios, de la más reciente a la más antigua (fecha_hora, id). Paginada por keyset:
+    // con despuesDe != null sigue después de esa instancia (la última de la página anterior)
+    List<Instancia> buscar(FiltroInstancias filtro, Instancia despuesDe, int limite) throws Exception;
+    // Búsqueda de texto (titulo, comentario, motivación, lugar) ordenada por relevancia; paginada por desplazamiento
+    List<Instancia> buscarTexto(String consulta, boolean incluirConfidenciales, int desplazamiento, int limite) throws Exception;
 }
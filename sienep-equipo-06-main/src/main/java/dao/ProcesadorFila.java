@@ -0,0 +1,10 @@
+package dao;
+
+// Recibe las entidades de un recorrido por cursor (scanAll) de a una, sin acumularlas en memoria.
+// Corre en el hilo que tiene prestada la conexión del cursor, dentro de su transacción: lo que escriba con
+// DAOs se suma a ella (Transaccion.ejecutar) y se confirma al terminar el recorrido, o se revierte si falla.
+// No debe hacer commit, rollback ni cambiar autocommit por su cuenta: eso cierra el cursor a mitad de camino
+@FunctionalInterface
+public interface ProcesadorFila<T> {
+    void procesar(T entidad) throws Exception;
+}
@@ -3,22 +3,34 @@ package dao;
 import model.Usuario;
 
 import java.sql.ResultSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface UsuarioDAO {
     // CRUD básico
     void save(Usuario usuario) throws Exception;
+    // Alta masiva en un solo lote; asigna los ids generados (ver UsuarioDAOImpl)
+    void saveAll(List<? extends Usuario> usuarios) throws Exception;
     Usuario findById(int id) throws Exception;
     List<Usuario> findAll() throws Exception;
+    // Página ordenada por id (keyset): hasta "limite" usuarios con id > despuesDeId
+    List<Usuario> findPage(int despuesDeId, int limite) throws Exception;
+    // Recorre todos los usuarios con un cursor del servidor, sin cargarlos en una lista
+    void scanAll(ProcesadorFila<? super Usuario> procesador) throws Exception;
     void update(Usuario usuario) throws Exception;
     void deleteLogical(int id) throws Exception;
 
     // Búsqueda por email (login)
     Usuario findByEmail(String email) throws Exception;
+    // De los emails dados, los que ya están registrados (una sola consulta)
+    Set<String> findEmailsExistentes(Collection<String> emails) throws Exception;
     // Validación de credenciales
     Usuario validateCredentials(String email, String contrasenia) throws Exception;
     // Cambiar contraseña
     void changePassword(int id, String nuevaContrasenia) throws Exception;
+    // Canjea el código de activación de una cuenta importada por la contraseña elegida (un solo uso)
+    Usuario activateAccount(String email, String codigo, String nuevaContrasenia) throws Exception;
     // Ver datos NO sensibles
     Usuario viewNonSensitiveData(int id) throws Exception;
 
@@ -0,0 +1,59 @@
+package dao.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache negativa de emails que no existen en proyecto.usuarios.
+ * Un login con un email desconocido no vuelve a consultar la base mientras la entrada esté vigente;
+ * UsuarioDAOImpl quita el email al dar de alta o modificar un usuario.
+ * Acotada a {@code maxEntradas}: al llenarse se descartan las vencidas y, si no alcanza, se vacía.
+ */
+public class CacheEmailsDesconocidos {
+    private final long ttlNanos;
+    private final int maxEntradas;
+    // email -> vencimiento en nanoTime
+    private final Map<String, Long> emails = new ConcurrentHashMap<>();
+
+    public CacheEmailsDesconocidos(long ttlSegundos, int maxEntradas) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+        this.maxEntradas = maxEntradas;
+    }
+
+    public boolean contiene(String email) {
+        Long vence = email == null ? null : emails.get(email);
+        if (vence == null) {
+            return false;
+        }
+        if (System.nanoTime() - vence >= 0) {
+            emails.remove(email, vence);
+            return false;
+        }
+        return true;
+    }
+
+    public void agregar(String email) {
+        if (email == null) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        if (emails.size() >= maxEntradas) {
+            emails.values().removeIf(vence -> ahora - vence >= 0);
+            if (emails.size() >= maxEntradas) {
+                emails.clear();
+            }
+        }
+        emails.put(email, ahora + ttlNanos);
+    }
+
+    public void quitar(String email) {
+        if (email != null) {
+            emails.remove(email);
+        }
+    }
+
+    public int cantidad() {
+        return emails.size();
+    }
+}
@@ -0,0 +1,62 @@
+package dao.impl;
+
+import db.ConfiguracionSistema;
+import model.Categoria;
+import model.Permiso;
+import model.Rol;
+import org.apache.log4j.Logger;
+
+import java.sql.SQLException;
+
+/**
+ * Caches compartidas de datos de referencia. Todos los DAOs y services usan las mismas instancias,
+ * así una escritura desde cualquier service invalida lo que leen los demás.
+ * TTL y tamaño se configuran con cache.referencia.* en config.properties.
+ */
+public class CacheReferencias {
+    private static final Logger logger = Logger.getLogger(CacheReferencias.class);
+    private static CachedDAO<Categoria> categorias;
+    private static CachedDAO<Permiso> permisos;
+    private static CachedDAO<Rol> roles;
+
+    private CacheReferencias() {
+    }
+
+    public static synchronized CachedDAO<Categoria> categorias() throws SQLException {
+        inicializar();
+        return categorias;
+    }
+
+    public static synchronized CachedDAO<Permiso> permisos() throws SQLException {
+        inicializar();
+        return permisos;
+    }
+
+    public static synchronized CachedDAO<Rol> roles() throws SQLException {
+        inicializar();
+        return roles;
+    }
+
+    public static synchronized String resumen() {
+        if (categorias == null) {
+            return "caches de referencia sin inicializar";
+        }
+        return categorias.resumen() + " | " + permisos.resumen() + " | " + roles.resumen();
+    }
+
+    private static void inicializar() throws SQLException {
+        if (categorias != null) {
+            return;
+        }
+        ConfiguracionSistema config = ConfiguracionSistema.getInstance();
+        long ttlMs = config.getCacheReferenciaTtlSeconds() * 1000L;
+        int maxEntradas = config.getCacheReferenciaMaxEntries();
+        categorias = new CachedDAO<>("categorias", new CategoriaDAOImpl(), Categoria::getId, ttlMs, maxEntradas);
+        permisos = new CachedDAO<>("permisos", new PermisoDAOImpl(), Permiso::getId, ttlMs, maxEntradas);
+        roles = new CachedDAO<>("roles", new RolDAOImpl(), Rol::getId, ttlMs, maxEntradas);
+        // un rol guarda copias de sus permisos: cambiar un permiso invalida los roles
+        permisos.agregarDependiente(roles);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> logger.info("Caches de referencia. " + resumen()), "cache-referencias-resumen"));
+        logger.info("Caches de referencia iniciadas (ttl=" + ttlMs + " ms, maxEntradas=" + maxEntradas + ")");
+    }
+}
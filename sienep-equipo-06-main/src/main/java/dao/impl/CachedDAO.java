@@ -0,0 +1,194 @@
+package dao.impl;
+
+import dao.GenericDAO;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache de lectura (read-through) sobre un GenericDAO de datos de referencia (categorías, permisos, roles).
+ * - findById y findAll se sirven desde memoria mientras la entrada no supere el TTL.
+ * - Como máximo {@code maxEntradas} entidades; al llenarse se descartan primero las vencidas y luego la más antigua.
+ * - save/update/delete pasan al DAO real y vacían la cache (y la de los dependientes, p.ej. permisos -> roles).
+ * Las entidades devueltas son compartidas: quien las modifique debe persistirlas con update.
+ */
+public class CachedDAO<T> implements GenericDAO<T> {
+    private static final Logger logger = Logger.getLogger(CachedDAO.class);
+
+    private final String nombre;
+    private final GenericDAO<T> delegado;
+    private final ToIntFunction<T> idDe;
+    private final long ttlMs;
+    private final int maxEntradas;
+
+    private final Map<Integer, Entrada<T>> porId = new ConcurrentHashMap<>();
+    private volatile Entrada<List<T>> todos;
+    // se incrementa en cada invalidación; una carga iniciada antes no se guarda (evita reinsertar datos viejos)
+    private final AtomicLong generacion = new AtomicLong();
+    private final List<CachedDAO<?>> dependientes = new CopyOnWriteArrayList<>();
+
+    // métricas
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    public CachedDAO(String nombre, GenericDAO<T> delegado, ToIntFunction<T> idDe, long ttlMs, int maxEntradas) {
+        this.nombre = nombre;
+        this.delegado = delegado;
+        this.idDe = idDe;
+        this.ttlMs = ttlMs;
+        this.maxEntradas = maxEntradas;
+    }
+
+    @Override
+    public T findById(int id) throws Exception {
+        Entrada<T> entrada = porId.get(id);
+        if (entrada != null && !entrada.vencida(ttlMs)) {
+            hits.increment();
+            return entrada.valor;
+        }
+        misses.increment();
+        long gen = generacion.get();
+        T valor = delegado.findById(id);
+        if (valor != null && gen == generacion.get()) {
+            guardar(id, valor);
+        }
+        return valor;
+    }
+
+    @Override
+    public List<T> findAll() throws Exception {
+        Entrada<List<T>> entrada = todos;
+        if (entrada != null && !entrada.vencida(ttlMs)) {
+            hits.increment();
+            return new ArrayList<>(entrada.valor);
+        }
+        misses.increment();
+        long gen = generacion.get();
+        List<T> lista = delegado.findAll();
+        if (lista != null && gen == generacion.get()) {
+            todos = new Entrada<>(List.copyOf(lista));
+            for (T t : lista) {
+                guardar(idDe.applyAsInt(t), t);
+            }
+        }
+        return lista;
+    }
+
+    @Override
+    public void save(T entity) throws Exception {
+        try {
+            delegado.save(entity);
+        } finally {
+            invalidarTodo();
+        }
+    }
+
+    @Override
+    public void update(T entity) throws Exception {
+        try {
+            delegado.update(entity);
+        } finally {
+            invalidarTodo();
+        }
+    }
+
+    @Override
+    public void delete(int id) throws Exception {
+        try {
+            delegado.delete(id);
+        } finally {
+            invalidarTodo();
+        }
+    }
+
+    // Invalida una entidad modificada por fuera del CRUD (p.ej. permisos agregados a un rol)
+    public void invalidar(int id) {
+        generacion.incrementAndGet();
+        porId.remove(id);
+        todos = null;
+        invalidaciones.increment();
+        dependientes.forEach(CachedDAO::invalidarTodo);
+    }
+
+    public void invalidarTodo() {
+        generacion.incrementAndGet();
+        porId.clear();
+        todos = null;
+        invalidaciones.increment();
+        dependientes.forEach(CachedDAO::invalidarTodo);
+    }
+
+    // Caches cuyas entidades contienen entidades de ésta (un rol contiene permisos)
+    public void agregarDependiente(CachedDAO<?> dependiente) {
+        dependientes.add(dependiente);
+    }
+
+    public String resumen() {
+        return nombre + ": hits=" + hits.sum() + ", misses=" + misses.sum() +
+                ", tasaAciertos=" + String.format("%.1f%%", getTasaAciertos() * 100) +
+                ", invalidaciones=" + invalidaciones.sum() + ", entradas=" + porId.size();
+    }
+
+    // Cambia en cada invalidación: quien derive datos de esta cache (p.ej. permisos compilados) la compara para saber si siguen vigentes
+    public long getGeneracion() {
+        return generacion.get();
+    }
+
+    // Métricas
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getInvalidaciones() {
+        return invalidaciones.sum();
+    }
+
+    public double getTasaAciertos() {
+        long total = hits.sum() + misses.sum();
+        return total == 0 ? 0 : hits.sum() / (double) total;
+    }
+
+    public int getEntradas() {
+        return porId.size();
+    }
+
+    // Métodos auxiliares
+
+    private void guardar(int id, T valor) {
+        if (porId.size() >= maxEntradas && !porId.containsKey(id)) {
+            porId.values().removeIf(e -> e.vencida(ttlMs));
+            if (porId.size() >= maxEntradas) {
+                porId.entrySet().stream()
+                        .min((a, b) -> Long.compare(a.getValue().creada, b.getValue().creada))
+                        .ifPresent(masAntigua -> porId.remove(masAntigua.getKey()));
+                logger.debug("Cache " + nombre + " llena (" + maxEntradas + "), se descarta la entrada más antigua");
+            }
+        }
+        porId.put(id, new Entrada<>(valor));
+    }
+
+    private static final class Entrada<V> {
+        private final V valor;
+        private final long creada = System.nanoTime();
+
+        private Entrada(V valor) {
+            this.valor = valor;
+        }
+
+        private boolean vencida(long ttlMs) {
+            return System.nanoTime() - creada >= ttlMs * 1_000_000;
+        }
+    }
+}
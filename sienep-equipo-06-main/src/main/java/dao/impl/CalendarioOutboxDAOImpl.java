@@ -0,0 +1,225 @@
+package dao.impl;
+
+import dao.CalendarioOutboxDAO;
+import db.ConfiguracionSistema;
+import db.ConnectionProvider;
+import db.Transaccion;
+import model.EventoCalendarioPendiente;
+import model.enums.OperacionCalendario;
+import org.apache.log4j.Logger;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CalendarioOutboxDAOImpl implements CalendarioOutboxDAO {
+    private static final Logger logger = Logger.getLogger(CalendarioOutboxDAOImpl.class);
+    private final ConnectionProvider connectionProvider;
+
+    private static final String INSERT_CREACION = "INSERT INTO proyecto.calendario_outbox (id_instancia, operacion, titulo, " +
+            "descripcion, fecha_hora, duracion_minutos, recordatorio_minutos) VALUES (?, 'CREAR', ?, ?, ?, ?, ?)";
+
+    public CalendarioOutboxDAOImpl() throws SQLException {
+        this.connectionProvider = ConfiguracionSistema.getInstance();
+    }
+
+    // constructor para pruebas unitarias
+    public CalendarioOutboxDAOImpl(Connection connection) {
+        this.connectionProvider = () -> connection;
+    }
+
+    @Override
+    public void encolarCreacion(EventoCalendarioPendiente evento) throws Exception {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_CREACION)) {
+            setParametrosCreacion(ps, evento);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Error encolando evento de calendario para instancia ID: " + evento.getIdInstancia(), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void encolarCreaciones(List<EventoCalendarioPendiente> eventos) throws Exception {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_CREACION)) {
+            for (EventoCalendarioPendiente evento : eventos) {
+                setParametrosCreacion(ps, evento);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            logger.error("Error encolando " + eventos.size() + " eventos de calendario", e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void encolarEliminacion(int idInstancia, String eventId) throws Exception {
+        Transaccion.ejecutar(connectionProvider, () -> {
+            try (Connection connection = connectionProvider.getConnection()) {
+                String cancelar = "UPDATE proyecto.calendario_outbox SET estado = 'CANCELADO' " +
+                        "WHERE id_instancia = ? AND operacion = 'CREAR' AND estado = 'PENDIENTE'";
+                try (PreparedStatement ps = connection.prepareStatement(cancelar)) {
+                    ps.setInt(1, idInstancia);
+                    ps.executeUpdate();
+                }
+                if (eventId != null) {
+                    insertarEliminacion(connection, idInstancia, eventId);
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<EventoCalendarioPendiente> reclamarPendientes(int limite) throws Exception {
+        // SKIP LOCKED: dos workers nunca toman la misma fila. El id del evento se fija en el primer reclamo
+        // (base32hex para Google) y queda guardado: los reintentos crean con el mismo id y no duplican
+        String query = "UPDATE proyecto.calendario_outbox SET estado = 'EN_PROCESO', intentos = intentos + 1, reclamado_en = now(), " +
+                "event_id = COALESCE(event_id, 'sienep' || replace(gen_random_uuid()::text, '-', '')) " +
+                "WHERE id IN (SELECT id FROM proyecto.calendario_outbox WHERE estado = 'PENDIENTE' AND proximo_intento <= now() " +
+                "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                "RETURNING id, id_instancia, operacion, titulo, descripcion, fecha_hora, duracion_minutos, recordatorio_minutos, event_id, intentos";
+        List<EventoCalendarioPendiente> eventos = new ArrayList<>();
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setInt(1, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    eventos.add(mapEventoFromRS(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error reclamando eventos de calendario pendientes", e);
+            throw e;
+        }
+        return eventos;
+    }
+
+    @Override
+    public List<EventoCalendarioPendiente> registrarCreados(List<EventoCalendarioPendiente> creados) throws Exception {
+        List<EventoCalendarioPendiente> huerfanos = new ArrayList<>();
+        if (creados.isEmpty()) {
+            return huerfanos;
+        }
+        Transaccion.ejecutar(connectionProvider, () -> {
+            try (Connection connection = connectionProvider.getConnection()) {
+                String actualizarInstancia = "UPDATE proyecto.instancias SET google_calendar_event_id = ? WHERE id = ?";
+                try (PreparedStatement ps = connection.prepareStatement(actualizarInstancia)) {
+                    for (EventoCalendarioPendiente e : creados) {
+                        ps.setString(1, e.getEventId());
+                        ps.setInt(2, e.getIdInstancia());
+                        ps.addBatch();
+                    }
+                    int[] filas = ps.executeBatch();
+                    for (int i = 0; i < filas.length; i++) {
+                        if (filas[i] == 0) {
+                            // la instancia se borró mientras se creaba el evento
+                            huerfanos.add(creados.get(i));
+                        }
+                    }
+                }
+                for (EventoCalendarioPendiente e : huerfanos) {
+                    insertarEliminacion(connection, e.getIdInstancia(), e.getEventId());
+                }
+                String procesado = "UPDATE proyecto.calendario_outbox SET estado = 'PROCESADO', event_id = ?, ultimo_error = NULL WHERE id = ?";
+                try (PreparedStatement ps = connection.prepareStatement(procesado)) {
+                    for (EventoCalendarioPendiente e : creados) {
+                        ps.setString(1, e.getEventId());
+                        ps.setInt(2, e.getId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+        });
+        return huerfanos;
+    }
+
+    @Override
+    public void marcarProcesados(List<Integer> ids) throws Exception {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String query = "UPDATE proyecto.calendario_outbox SET estado = 'PROCESADO', ultimo_error = NULL WHERE id = ANY(?)";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setArray(1, connection.createArrayOf("integer", ids.toArray()));
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Error marcando eventos de calendario como procesados", e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void reprogramar(int id, String error, LocalDateTime proximoIntento, boolean agotado) throws Exception {
+        String query = "UPDATE proyecto.calendario_outbox SET estado = ?, ultimo_error = ?, proximo_intento = ? WHERE id = ?";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setString(1, agotado ? "FALLIDO" : "PENDIENTE");
+            ps.setString(2, error);
+            ps.setTimestamp(3, Timestamp.valueOf(proximoIntento));
+            ps.setInt(4, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Error reprogramando evento de calendario ID: " + id, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public int liberarReclamosVencidos(long plazoSegundos) throws Exception {
+        // reclamado_en NULL: filas EN_PROCESO de antes de la migración 008
+        String query = "UPDATE proyecto.calendario_outbox SET estado = 'PENDIENTE', reclamado_en = NULL " +
+                "WHERE estado = 'EN_PROCESO' AND (reclamado_en IS NULL OR reclamado_en < now() - make_interval(secs => ?))";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setLong(1, plazoSegundos);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Error liberando eventos de calendario en proceso", e);
+            throw e;
+        }
+    }
+
+    // Métodos auxiliares
+    private void setParametrosCreacion(PreparedStatement ps, EventoCalendarioPendiente evento) throws SQLException {
+        ps.setInt(1, evento.getIdInstancia());
+        ps.setString(2, evento.getTitulo());
+        ps.setString(3, evento.getDescripcion());
+        ps.setTimestamp(4, Timestamp.valueOf(evento.getFechaHora()));
+        ps.setInt(5, evento.getDuracionMinutos());
+        ps.setInt(6, evento.getRecordatorioMinutos());
+    }
+
+    private void insertarEliminacion(Connection connection, int idInstancia, String eventId) throws SQLException {
+        String query = "INSERT INTO proyecto.calendario_outbox (id_instancia, operacion, event_id) VALUES (?, 'ELIMINAR', ?)";
+        try (PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setInt(1, idInstancia);
+            ps.setString(2, eventId);
+            ps.executeUpdate();
+        }
+    }
+
+    protected EventoCalendarioPendiente mapEventoFromRS(ResultSet rs) throws SQLException {
+        EventoCalendarioPendiente evento = new EventoCalendarioPendiente();
+        evento.setId(rs.getInt("id"));
+        evento.setIdInstancia(rs.getInt("id_instancia"));
+        evento.setOperacion(OperacionCalendario.valueOf(rs.getString("operacion")));
+        evento.setTitulo(rs.getString("titulo"));
+        evento.setDescripcion(rs.getString("descripcion"));
+        Timestamp fechaHora = rs.getTimestamp("fecha_hora");
+        evento.setFechaHora(fechaHora != null ? fechaHora.toLocalDateTime() : null);
+        evento.setDuracionMinutos(rs.getInt("duracion_minutos"));
+        evento.setRecordatorioMinutos(rs.getInt("recordatorio_minutos"));
+        evento.setEventId(rs.getString("event_id"));
+        evento.setIntentos(rs.getInt("intentos"));
+        return evento;
+    }
+}
@@ -2,6 +2,7 @@ package dao.impl;
 
 import dao.GenericDAO;
 import db.ConfiguracionSistema;
+import db.ConnectionProvider;
 import model.Categoria;
 import org.apache.log4j.Logger;
 
@@ -11,21 +12,22 @@ import java.util.List;
 
 public class CategoriaDAOImpl implements GenericDAO<Categoria> {
     private static final Logger logger = Logger.getLogger(CategoriaDAOImpl.class);
-    private final Connection connection;
+    private final ConnectionProvider connectionProvider;
 
     public CategoriaDAOImpl() throws SQLException {
-        this.connection = ConfiguracionSistema.getInstance().getConnection();
+        this.connectionProvider = ConfiguracionSistema.getInstance();
     }
 
     // constructor para inyección de dependencias en pruebas
     public CategoriaDAOImpl(Connection connection) {
-        this.connection = connection;
+        this.connectionProvider = () -> connection;
     }
 
     @Override
     public void save(Categoria categoria) throws Exception {
         String query = "INSERT INTO proyecto.categorias (nombre, descripcion) VALUES (?, ?) RETURNING id";
-        try (PreparedStatement ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, categoria.getNombre());
             ps.setString(2, categoria.getDescripcion());
             ps.executeUpdate();
@@ -44,7 +46,8 @@ public class CategoriaDAOImpl implements GenericDAO<Categoria> {
     @Override
     public Categoria findById(int id) throws Exception {
         String query = "SELECT * FROM proyecto.categorias WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -70,7 +73,8 @@ public class CategoriaDAOImpl implements GenericDAO<Categoria> {
     public List<Categoria> findAll() throws Exception {
         String query = "SELECT * FROM proyecto.categorias";
         List<Categoria> categorias = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query);
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 Categoria categoria = new Categoria(
@@ -91,7 +95,8 @@ public class CategoriaDAOImpl implements GenericDAO<Categoria> {
     @Override
     public void update(Categoria categoria) throws Exception {
         String query = "UPDATE proyecto.categorias SET nombre = ?, descripcion = ? WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, categoria.getNombre());
             ps.setString(2, categoria.getDescripcion());
             ps.setInt(3, categoria.getId());
@@ -110,7 +115,8 @@ public class CategoriaDAOImpl implements GenericDAO<Categoria> {
     @Override
     public void delete(int id) throws Exception {
         String query = "DELETE FROM proyecto.categorias WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, id);
             int filasAfectadas = ps.executeUpdate();
             if (filasAfectadas > 0) {
@@ -0,0 +1,49 @@
+package dao.impl;
+
+import dao.ContadorCodigoDAO;
+import db.ConfiguracionSistema;
+import db.ConnectionProvider;
+import org.apache.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class ContadorCodigoDAOImpl implements ContadorCodigoDAO {
+    private static final Logger logger = Logger.getLogger(ContadorCodigoDAOImpl.class);
+    private final ConnectionProvider connectionProvider;
+
+    public ContadorCodigoDAOImpl() throws SQLException {
+        this.connectionProvider = ConfiguracionSistema.getInstance();
+    }
+
+    // constructor para pruebas unitarias
+    public ContadorCodigoDAOImpl(Connection connection) {
+        this.connectionProvider = () -> connection;
+    }
+
+    @Override
+    public int reservarBloque(int anio, int cantidad) throws Exception {
+        // un solo statement atómico: crea el año si no existe o suma el bloque al último número
+        String query = "INSERT INTO proyecto.contador_codigos (anio, ultimo) VALUES (?, ?) " +
+                "ON CONFLICT (anio) DO UPDATE SET ultimo = proyecto.contador_codigos.ultimo + EXCLUDED.ultimo " +
+                "RETURNING ultimo";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setInt(1, anio);
+            ps.setInt(2, cantidad);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    int ultimo = rs.getInt("ultimo");
+                    logger.info("Bloque de códigos reservado para " + anio + ": " + (ultimo - cantidad + 1) + " a " + ultimo);
+                    return ultimo;
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error reservando bloque de códigos para el año " + anio, e);
+            throw e;
+        }
+        throw new SQLException("No se pudo reservar un bloque de códigos para el año " + anio);
+    }
+}
@@ -1,8 +1,11 @@
 package dao.impl;
 
 import dao.EstudianteDAO;
+import dao.ProcesadorFila;
 import dao.UsuarioDAO;
 import db.ConfiguracionSistema;
+import db.ConnectionProvider;
+import db.Transaccion;
 import model.Estudiante;
 import model.enums.EstadoUsuario;
 import model.enums.TipoUsuario;
@@ -10,38 +13,47 @@ import org.apache.log4j.Logger;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 public class EstudianteDAOImpl implements EstudianteDAO {
     private static final Logger logger = Logger.getLogger(EstudianteDAOImpl.class);
-    private final Connection connection;
+    // columnas de usuarios JOIN estudiantes que consume mapEstudianteFromRS (un estudiante completo)
+    private static final String SELECT_ESTUDIANTE = "SELECT u.id, u.nombre, u.apellido, u.email, u.contrasenia, u.documento, u.estado, u.tipo, " +
+            "e.motivo_derivacion, e.carrera, e.grupo, e.telefono, e.calle, e.numero_puerta, e.fecha_nacimiento, e.foto, e.sistema_salud, e.comentarios_generales, e.estado_salud, " +
+            "ARRAY(SELECT o.texto FROM proyecto.estudiantes_observaciones o WHERE o.id_estudiante = e.id ORDER BY o.id) AS observaciones_confidenciales " +
+            "FROM proyecto.usuarios u JOIN proyecto.estudiantes e ON u.id = e.id ";
+    // listados: sin contraseña, foto, comentarios ni datos confidenciales (se piden aparte con cargarDetalle)
+    private static final String SELECT_RESUMEN = "SELECT u.id, u.nombre, u.apellido, u.email, u.documento, u.estado, u.tipo, " +
+            "e.motivo_derivacion, e.carrera, e.grupo, e.telefono, e.calle, e.numero_puerta, e.fecha_nacimiento, e.sistema_salud " +
+            "FROM proyecto.usuarios u JOIN proyecto.estudiantes e ON u.id = e.id ";
+    private final ConnectionProvider connectionProvider;
     private final UsuarioDAO usuarioDAO;
 
     public EstudianteDAOImpl() throws SQLException {
-        this.connection = ConfiguracionSistema.getInstance().getConnection();
+        this.connectionProvider = ConfiguracionSistema.getInstance();
         this.usuarioDAO = new UsuarioDAOImpl();
     }
 
     // constructor para pruebas unitarias
     public EstudianteDAOImpl(Connection connection, UsuarioDAO usuarioDAO) {
-        this.connection = connection;
+        this.connectionProvider = () -> connection;
         this.usuarioDAO = usuarioDAO;
     }
 
 
     @Override
     public List<Estudiante> findByCarrera(String carrera) throws Exception {
-        String query = "SELECT u.id FROM proyecto.usuarios u JOIN proyecto.estudiantes e ON u.id = e.id " +
+        String query = SELECT_RESUMEN +
                 "WHERE e.carrera = ? AND u.tipo = 'ESTUDIANTE' AND u.estado = 'ACTIVO'";
         List<Estudiante> estudiantes = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, carrera);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Estudiante e = findById(rs.getInt("id"));
-                    if (e != null) {
-                        estudiantes.add(e);
-                    }
+                    estudiantes.add(mapResumenFromRS(rs));
                 }
             }
         } catch (SQLException e) {
@@ -54,17 +66,15 @@ public class EstudianteDAOImpl implements EstudianteDAO {
 
     @Override
     public List<Estudiante> findByGrupo(String grupo) throws Exception {
-        String query = "SELECT u.id FROM proyecto.usuarios u JOIN proyecto.estudiantes e ON u.id = e.id " +
+        String query = SELECT_RESUMEN +
                 "WHERE e.grupo = ? AND u.tipo = 'ESTUDIANTE' AND u.estado = 'ACTIVO'";
         List<Estudiante> estudiantes = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, grupo);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Estudiante e = findById(rs.getInt("id"));
-                    if (e != null) {
-                        estudiantes.add(e);
-                    }
+                    estudiantes.add(mapResumenFromRS(rs));
                 }
             }
         } catch (SQLException e) {
@@ -77,17 +87,15 @@ public class EstudianteDAOImpl implements EstudianteDAO {
 
     @Override
     public List<Estudiante> findBySistemaSalud(String sistemaSalud) throws Exception {
-        String query = "SELECT u.id FROM proyecto.usuarios u JOIN proyecto.estudiantes e ON u.id = e.id " +
+        String query = SELECT_RESUMEN +
                 "WHERE e.sistema_salud = ? AND u.tipo = 'ESTUDIANTE' AND u.estado = 'ACTIVO'";
         List<Estudiante> estudiantes = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, sistemaSalud);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Estudiante e = findById(rs.getInt("id"));
-                    if (e != null) {
-                        estudiantes.add(e);
-                    }
+                    estudiantes.add(mapResumenFromRS(rs));
                 }
             }
         } catch (SQLException e) {
@@ -100,75 +108,51 @@ public class EstudianteDAOImpl implements EstudianteDAO {
 
     @Override
     public void save(Estudiante estudiante) throws Exception {
-        connection.setAutoCommit(false); // inicio de la transacción
-        // primero insert como usuario
         try {
-            usuarioDAO.save(estudiante);
-            // campos especificos de estudiante
-            String query = "INSERT INTO proyecto.estudiantes (id, motivo_derivacion, carrera, grupo, telefono, " +
-                    "calle, numero_puerta, fecha_nacimiento, foto, sistema_salud, comentarios_generales, estado_salud, " +
-                    "observaciones_confidenciales) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+            Transaccion.ejecutar(connectionProvider, () -> {
+                try (Connection connection = connectionProvider.getConnection()) {
+                    // primero insert como usuario
+                    usuarioDAO.save(estudiante);
+                    // campos especificos de estudiante
+                    String query = "INSERT INTO proyecto.estudiantes (id, motivo_derivacion, carrera, grupo, telefono, " +
+                            "calle, numero_puerta, fecha_nacimiento, foto, sistema_salud, comentarios_generales, estado_salud) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-            try(PreparedStatement ps = connection.prepareStatement(query)) {
-                ps.setInt(1, estudiante.getId());
-                ps.setString(2, estudiante.getMotivoDerivacion());
-                ps.setString(3, estudiante.getCarrera());
-                ps.setString(4, estudiante.getGrupo());
-                ps.setString(5, estudiante.getTelefono());
-                ps.setString(6, estudiante.getCalle());
-                ps.setString(7, estudiante.getNumeroPuerta());
-                ps.setDate(8, Date.valueOf(estudiante.getFechaNacimiento()));
-                ps.setString(9, estudiante.getFoto());
-                ps.setString(10, estudiante.getSistemaSalud());
-                ps.setString(11, estudiante.getComentariosGenerales());
-                ps.setString(12, estudiante.getEstadoSalud());
-                ps.setString(13, String.join(",", estudiante.getObservacionesConfidenciales()));  // List a String
-                ps.executeUpdate();
-            }
-            connection.commit();
+                    try(PreparedStatement ps = connection.prepareStatement(query)) {
+                        ps.setInt(1, estudiante.getId());
+                        ps.setString(2, estudiante.getMotivoDerivacion());
+                        ps.setString(3, estudiante.getCarrera());
+                        ps.setString(4, estudiante.getGrupo());
+                        ps.setString(5, estudiante.getTelefono());
+                        ps.setString(6, estudiante.getCalle());
+                        ps.setString(7, estudiante.getNumeroPuerta());
+                        ps.setDate(8, Date.valueOf(estudiante.getFechaNacimiento()));
+                        ps.setString(9, estudiante.getFoto());
+                        ps.setString(10, estudiante.getSistemaSalud());
+                        ps.setString(11, estudiante.getComentariosGenerales());
+                        ps.setString(12, estudiante.getEstadoSalud());
+                        ps.executeUpdate();
+                    }
+                    insertarObservaciones(connection, List.of(estudiante));
+                }
+            });
             logger.info("Estudiante guardado: " + estudiante.getNombre() + " " + estudiante.getApellido());
         } catch (SQLException e) {
-            connection.rollback();
             logger.error("Error guardando estudiante: " + estudiante.getNombre() + " " + estudiante.getApellido(), e);
             throw e;
-        } finally {
-            connection.setAutoCommit(true);
         }
     }
 
     @Override
     public Estudiante findById(int id) throws Exception {
-        String query = "SELECT u.id, u.nombre, u.apellido, u.email, u.contrasenia, u.documento, u.estado, u.tipo, " +
-                "e.motivo_derivacion, e.carrera, e.grupo, e.telefono, e.calle, e.numero_puerta, e.fecha_nacimiento, e.foto, e.sistema_salud, e.comentarios_generales, e.estado_salud, e.observaciones_confidenciales " +
-                "FROM proyecto.usuarios u JOIN proyecto.estudiantes e ON u.id = e.id " +
+        String query = SELECT_ESTUDIANTE +
                 "WHERE u.id = ? AND u.estado = 'ACTIVO'";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    Estudiante estudiante = new Estudiante();
-                    // Mapea campos de usuarios
-                    estudiante.setId(rs.getInt("id"));
-                    estudiante.setNombre(rs.getString("nombre"));
-                    estudiante.setApellido(rs.getString("apellido"));
-                    estudiante.setEmail(rs.getString("email"));
-                    estudiante.setContrasenia(rs.getString("contrasenia"));
-                    estudiante.setDocumento(rs.getString("documento"));
-                    estudiante.setEstado(EstadoUsuario.valueOf(rs.getString("estado")));
-                    estudiante.setTipo(TipoUsuario.valueOf(rs.getString("tipo")));
-                    // Mapea campos de estudiantes
-                    estudiante.setMotivoDerivacion(rs.getString("motivo_derivacion"));
-                    estudiante.setCarrera(rs.getString("carrera"));
-                    estudiante.setGrupo(rs.getString("grupo"));
-                    estudiante.setTelefono(rs.getString("telefono"));
-                    estudiante.setCalle(rs.getString("calle"));
-                    estudiante.setNumeroPuerta(rs.getString("numero_puerta"));
-                    estudiante.setFechaNacimiento(rs.getDate("fecha_nacimiento").toLocalDate());
-                    estudiante.setFoto(rs.getString("foto"));
-                    estudiante.setSistemaSalud(rs.getString("sistema_salud"));
-                    estudiante.setComentariosGenerales(rs.getString("comentarios_generales"));
-                    estudiante.setEstadoSalud(rs.getString("estado_salud"));
-                    estudiante.setObservacionesConfidenciales(List.of(rs.getString("observaciones_confidenciales").split(",")));
+                    Estudiante estudiante = mapEstudianteFromRS(rs);
                     logger.info("Estudiante encontrado: ID " + id);
                     return estudiante;
                 }
@@ -180,18 +164,80 @@ public class EstudianteDAOImpl implements EstudianteDAO {
         return null;
     }
 
+    @Override
+    public List<Estudiante> findByIds(Collection<Integer> ids) throws Exception {
+        List<Estudiante> estudiantes = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) {
+            return estudiantes;
+        }
+        String query = SELECT_RESUMEN +
+                "WHERE u.id = ANY(?) AND u.estado = 'ACTIVO'";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setArray(1, connection.createArrayOf("integer", ids.toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    estudiantes.add(mapResumenFromRS(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error buscando estudiantes por IDs (" + ids.size() + ")", e);
+            throw e;
+        }
+        return estudiantes;
+    }
+
+    // Alta masiva: usuarios y estudiantes en un lote cada uno, en una sola transacción
+    @Override
+    public void saveAll(List<? extends Estudiante> estudiantes) throws Exception {
+        if (estudiantes.isEmpty()) {
+            return;
+        }
+        try {
+            Transaccion.ejecutar(connectionProvider, () -> {
+                usuarioDAO.saveAll(estudiantes);
+                String query = "INSERT INTO proyecto.estudiantes (id, motivo_derivacion, carrera, grupo, telefono, " +
+                        "calle, numero_puerta, fecha_nacimiento, foto, sistema_salud, comentarios_generales, estado_salud) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                try (Connection connection = connectionProvider.getConnection()) {
+                    try (PreparedStatement ps = connection.prepareStatement(query)) {
+                        for (Estudiante estudiante : estudiantes) {
+                            ps.setInt(1, estudiante.getId());
+                            ps.setString(2, estudiante.getMotivoDerivacion());
+                            ps.setString(3, estudiante.getCarrera());
+                            ps.setString(4, estudiante.getGrupo());
+                            ps.setString(5, estudiante.getTelefono());
+                            ps.setString(6, estudiante.getCalle());
+                            ps.setString(7, estudiante.getNumeroPuerta());
+                            ps.setDate(8, Date.valueOf(estudiante.getFechaNacimiento()));
+                            ps.setString(9, estudiante.getFoto());
+                            ps.setString(10, estudiante.getSistemaSalud());
+                            ps.setString(11, estudiante.getComentariosGenerales());
+                            ps.setString(12, estudiante.getEstadoSalud());
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                    insertarObservaciones(connection, estudiantes);
+                }
+            });
+            logger.info("Estudiantes guardados en lote: " + estudiantes.size());
+        } catch (SQLException e) {
+            logger.error("Error guardando lote de " + estudiantes.size() + " estudiantes", e);
+            throw e;
+        }
+    }
+
     @Override
     public List<Estudiante> findAll() throws Exception {
-        String query = "SELECT u.id FROM proyecto.usuarios u JOIN proyecto.estudiantes e ON u.id = e.id " +
+        String query = SELECT_RESUMEN +
                 "WHERE u.tipo = 'ESTUDIANTE' AND u.estado = 'ACTIVO'";
         List<Estudiante> estudiantes = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Estudiante e = findById(rs.getInt("id"));
-                    if (e != null) {
-                        estudiantes.add(e);
-                    }
+                    estudiantes.add(mapResumenFromRS(rs));
                 }
             }
         } catch (SQLException e) {
@@ -203,37 +249,168 @@ public class EstudianteDAOImpl implements EstudianteDAO {
     }
 
     @Override
-    public void update(Estudiante estudiante) throws Exception {
-        connection.setAutoCommit(false);
+    public void scanAll(ProcesadorFila<? super Estudiante> procesador) throws Exception {
+        String query = SELECT_RESUMEN + "WHERE u.tipo = 'ESTUDIANTE' AND u.estado = 'ACTIVO' ORDER BY u.id";
         try {
-            // Actualiza usuarios
-            usuarioDAO.update(estudiante);
-            // Actualiza estudiantes
-            String query = "UPDATE proyecto.estudiantes SET motivo_derivacion = ?, carrera = ?, grupo = ?, telefono = ?, calle = ?, numero_puerta = ?, fecha_nacimiento = ?, foto = ?, sistema_salud = ?, comentarios_generales = ?, estado_salud = ?, observaciones_confidenciales = ? WHERE id = ?";
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
-                ps.setString(1, estudiante.getMotivoDerivacion());
-                ps.setString(2, estudiante.getCarrera());
-                ps.setString(3, estudiante.getGrupo());
-                ps.setString(4, estudiante.getTelefono());
-                ps.setString(5, estudiante.getCalle());
-                ps.setString(6, estudiante.getNumeroPuerta());
-                ps.setDate(7, Date.valueOf(estudiante.getFechaNacimiento()));
-                ps.setString(8, estudiante.getFoto());
-                ps.setString(9, estudiante.getSistemaSalud());
-                ps.setString(10, estudiante.getComentariosGenerales());
-                ps.setString(11, estudiante.getEstadoSalud());
-                ps.setString(12, String.join(",", estudiante.getObservacionesConfidenciales()));
-                ps.setInt(13, estudiante.getId());
-                ps.executeUpdate();
+            LecturaCursor.recorrer(connectionProvider, query, (connection, rs) -> procesador.procesar(mapResumenFromRS(rs)));
+        } catch (SQLException e) {
+            logger.error("Error recorriendo estudiantes con cursor", e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Estudiante> findPage(int despuesDeId, int limite) throws Exception {
+        String query = SELECT_RESUMEN +
+                "WHERE u.tipo = 'ESTUDIANTE' AND u.estado = 'ACTIVO' AND u.id > ? ORDER BY u.id LIMIT ?";
+        List<Estudiante> estudiantes = new ArrayList<>();
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setInt(1, despuesDeId);
+            ps.setInt(2, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    estudiantes.add(mapResumenFromRS(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error obteniendo página de estudiantes después del ID: " + despuesDeId, e);
+            throw e;
+        }
+        return estudiantes;
+    }
+
+    @Override
+    public List<Estudiante> buscarPorTexto(String texto, int limite) throws Exception {
+        String[] palabras = texto.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        // misma expresión que el índice trigram de la migración 005
+        String documento = "proyecto.usuario_texto_busqueda(u.nombre, u.apellido, u.documento, u.email)";
+        StringBuilder query = new StringBuilder("SELECT u.id, u.nombre, u.apellido, u.documento, u.email FROM proyecto.usuarios u " +
+                "WHERE u.tipo = 'ESTUDIANTE' AND u.estado = 'ACTIVO'");
+        for (int i = 0; i < palabras.length; i++) {
+            query.append(" AND ").append(documento).append(" LIKE ? ESCAPE '\\'");
+        }
+        query.append(" ORDER BY similarity(").append(documento).append(", ?) DESC, u.id LIMIT ?");
+        List<Estudiante> estudiantes = new ArrayList<>();
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query.toString())) {
+            int i = 1;
+            for (String palabra : palabras) {
+                ps.setString(i++, "%" + escaparLike(palabra) + "%");
+            }
+            ps.setString(i++, String.join(" ", palabras));
+            ps.setInt(i, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Estudiante estudiante = new Estudiante();
+                    estudiante.setId(rs.getInt("id"));
+                    estudiante.setNombre(rs.getString("nombre"));
+                    estudiante.setApellido(rs.getString("apellido"));
+                    estudiante.setDocumento(rs.getString("documento"));
+                    estudiante.setEmail(rs.getString("email"));
+                    estudiante.setDetalleCargado(false);
+                    estudiantes.add(estudiante);
+                }
             }
-            connection.commit();
+        } catch (SQLException e) {
+            logger.error("Error buscando estudiantes por texto: " + texto, e);
+            throw e;
+        }
+        return estudiantes;
+    }
+
+    @Override
+    public List<Estudiante> findPageConfidencial(int despuesDeId, int limite) throws Exception {
+        String query = SELECT_ESTUDIANTE +
+                "WHERE u.tipo = 'ESTUDIANTE' AND u.estado = 'ACTIVO' AND u.id > ? ORDER BY u.id LIMIT ?";
+        List<Estudiante> estudiantes = new ArrayList<>();
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setInt(1, despuesDeId);
+            ps.setInt(2, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    estudiantes.add(mapEstudianteFromRS(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error obteniendo página de estudiantes con datos confidenciales después del ID: " + despuesDeId, e);
+            throw e;
+        }
+        return estudiantes;
+    }
+
+    @Override
+    public void cargarDetalle(Estudiante estudiante) throws Exception {
+        if (estudiante.isDetalleCargado()) {
+            return;
+        }
+        String query = "SELECT u.contrasenia, e.foto, e.comentarios_generales, e.estado_salud, " +
+                "ARRAY(SELECT o.texto FROM proyecto.estudiantes_observaciones o WHERE o.id_estudiante = e.id ORDER BY o.id) AS observaciones_confidenciales " +
+                "FROM proyecto.usuarios u JOIN proyecto.estudiantes e ON u.id = e.id WHERE u.id = ?";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setInt(1, estudiante.getId());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    mapDetalle(rs, estudiante);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error cargando el detalle del estudiante ID: " + estudiante.getId(), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void update(Estudiante estudiante) throws Exception {
+        // un resumen no trae contraseña ni datos confidenciales: guardarlo los borraría
+        if (!estudiante.isDetalleCargado()) {
+            throw new IllegalStateException("El estudiante ID " + estudiante.getId() + " se cargó como resumen; cargar el detalle antes de actualizarlo.");
+        }
+        try {
+            Transaccion.ejecutar(connectionProvider, () -> {
+                try (Connection connection = connectionProvider.getConnection()) {
+                    // Actualiza usuarios
+                    usuarioDAO.update(estudiante);
+                    // Actualiza estudiantes (las observaciones no se reescriben: se agregan con agregarObservacion)
+                    String query = "UPDATE proyecto.estudiantes SET motivo_derivacion = ?, carrera = ?, grupo = ?, telefono = ?, calle = ?, numero_puerta = ?, fecha_nacimiento = ?, foto = ?, sistema_salud = ?, comentarios_generales = ?, estado_salud = ? WHERE id = ?";
+                    try (PreparedStatement ps = connection.prepareStatement(query)) {
+                        ps.setString(1, estudiante.getMotivoDerivacion());
+                        ps.setString(2, estudiante.getCarrera());
+                        ps.setString(3, estudiante.getGrupo());
+                        ps.setString(4, estudiante.getTelefono());
+                        ps.setString(5, estudiante.getCalle());
+                        ps.setString(6, estudiante.getNumeroPuerta());
+                        ps.setDate(7, Date.valueOf(estudiante.getFechaNacimiento()));
+                        ps.setString(8, estudiante.getFoto());
+                        ps.setString(9, estudiante.getSistemaSalud());
+                        ps.setString(10, estudiante.getComentariosGenerales());
+                        ps.setString(11, estudiante.getEstadoSalud());
+                        ps.setInt(12, estudiante.getId());
+                        ps.executeUpdate();
+                    }
+                }
+            });
             logger.info("Estudiante actualizado: ID " + estudiante.getId());
         } catch (SQLException e) {
-            connection.rollback();
             logger.error("Error actualizando estudiante: ID " + estudiante.getId(), e);
             throw e;
-        } finally {
-            connection.setAutoCommit(true);
+        }
+    }
+
+    @Override
+    public void agregarObservacion(int idEstudiante, String texto) throws Exception {
+        String query = "INSERT INTO proyecto.estudiantes_observaciones (id_estudiante, texto) VALUES (?, ?)";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setInt(1, idEstudiante);
+            ps.setString(2, texto);
+            ps.executeUpdate();
+            logger.info("Observación agregada al estudiante ID " + idEstudiante);
+        } catch (SQLException e) {
+            logger.error("Error agregando observación al estudiante ID: " + idEstudiante, e);
+            throw e;
         }
     }
 
@@ -247,7 +424,8 @@ public class EstudianteDAOImpl implements EstudianteDAO {
     @Override
     public void updateTelefono(int id, String telefono) throws Exception {
         String query = "UPDATE proyecto.estudiantes SET telefono = ? WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, telefono);
             ps.setInt(2, id);
             ps.executeUpdate();
@@ -256,4 +434,76 @@ public class EstudianteDAOImpl implements EstudianteDAO {
             throw e;
         }
     }
+
+    // Métodos auxiliares
+    // Mapea una fila de usuarios JOIN estudiantes (SELECT_ESTUDIANTE)
+    protected Estudiante mapEstudianteFromRS(ResultSet rs) throws SQLException {
+        Estudiante estudiante = mapResumenFromRS(rs);
+        mapDetalle(rs, estudiante);
+        return estudiante;
+    }
+
+    // Mapea una fila de SELECT_RESUMEN; el estudiante queda marcado como resumen
+    protected Estudiante mapResumenFromRS(ResultSet rs) throws SQLException {
+        Estudiante estudiante = new Estudiante();
+        // Mapea campos de usuarios
+        estudiante.setId(rs.getInt("id"));
+        estudiante.setNombre(rs.getString("nombre"));
+        estudiante.setApellido(rs.getString("apellido"));
+        estudiante.setEmail(rs.getString("email"));
+        estudiante.setDocumento(rs.getString("documento"));
+        estudiante.setEstado(EstadoUsuario.valueOf(rs.getString("estado")));
+        estudiante.setTipo(TipoUsuario.valueOf(rs.getString("tipo")));
+        // Mapea campos de estudiantes
+        estudiante.setMotivoDerivacion(rs.getString("motivo_derivacion"));
+        estudiante.setCarrera(rs.getString("carrera"));
+        estudiante.setGrupo(rs.getString("grupo"));
+        estudiante.setTelefono(rs.getString("telefono"));
+        estudiante.setCalle(rs.getString("calle"));
+        estudiante.setNumeroPuerta(rs.getString("numero_puerta"));
+        estudiante.setFechaNacimiento(rs.getDate("fecha_nacimiento").toLocalDate());
+        estudiante.setSistemaSalud(rs.getString("sistema_salud"));
+        estudiante.setDetalleCargado(false);
+        return estudiante;
+    }
+
+    // Campos que el resumen deja afuera
+    private static void mapDetalle(ResultSet rs, Estudiante estudiante) throws SQLException {
+        estudiante.setContrasenia(rs.getString("contrasenia"));
+        estudiante.setFoto(rs.getString("foto"));
+        estudiante.setComentariosGenerales(rs.getString("comentarios_generales"));
+        estudiante.setEstadoSalud(rs.getString("estado_salud"));
+        Array observaciones = rs.getArray("observaciones_confidenciales");
+        estudiante.setObservacionesConfidenciales(observaciones == null ? List.of() : List.of((String[]) observaciones.getArray()));
+        estudiante.setDetalleCargado(true);
+    }
+
+    // Observaciones de estudiantes recién insertados, en un solo lote y en la conexión de la transacción
+    private static void insertarObservaciones(Connection connection, List<? extends Estudiante> estudiantes) throws SQLException {
+        String query = "INSERT INTO proyecto.estudiantes_observaciones (id_estudiante, texto) VALUES (?, ?)";
+        try (PreparedStatement ps = connection.prepareStatement(query)) {
+            int filas = 0;
+            for (Estudiante estudiante : estudiantes) {
+                if (estudiante.getObservacionesConfidenciales() == null) {
+                    continue;
+                }
+                for (String texto : estudiante.getObservacionesConfidenciales()) {
+                    if (texto != null && !texto.isBlank()) {
+                        ps.setInt(1, estudiante.getId());
+                        ps.setString(2, texto.trim());
+                        ps.addBatch();
+                        filas++;
+                    }
+                }
+            }
+            if (filas > 0) {
+                ps.executeBatch();
+            }
+        }
+    }
+
+    // % y _ del texto ingresado se buscan literalmente
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
@@ -4,7 +4,10 @@ import dao.FuncionarioDAO;
 import dao.GenericDAO;
 import dao.UsuarioDAO;
 import db.ConfiguracionSistema;
+import db.ConnectionProvider;
+import db.Transaccion;
 import model.Funcionario;
+import model.Permiso;
 import model.Rol;
 import model.enums.EstadoUsuario;
 import model.enums.TipoUsuario;
@@ -15,24 +18,31 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class FuncionarioDAOImpl implements FuncionarioDAO {
     private static final Logger logger = Logger.getLogger(FuncionarioDAOImpl.class);
-    private final Connection connection;
+    // funcionario con su rol en una sola fila; los permisos se cargan aparte con loadPermisosMasivo
+    private static final String SELECT_FUNCIONARIO = "SELECT u.id, u.nombre, u.apellido, u.email, u.contrasenia, u.documento, u.estado, u.tipo, " +
+            "f.id_rol, r.nombre AS rol_nombre " +
+            "FROM proyecto.usuarios u JOIN proyecto.funcionarios f ON u.id = f.id " +
+            "LEFT JOIN proyecto.roles r ON f.id_rol = r.id ";
+    private final ConnectionProvider connectionProvider;
     private final UsuarioDAO usuarioDAO;
     private final GenericDAO<Rol> rolDAO;
 
 
     public FuncionarioDAOImpl() throws SQLException {
-        this.connection = ConfiguracionSistema.getInstance().getConnection();
+        this.connectionProvider = ConfiguracionSistema.getInstance();
         this.usuarioDAO = new UsuarioDAOImpl();
-        this.rolDAO = new RolDAOImpl();
+        this.rolDAO = CacheReferencias.roles();
     }
 
     // constructor para pruebas unitarias
     public FuncionarioDAOImpl(Connection connection, UsuarioDAO usuarioDAO, GenericDAO<Rol> rolDAO) {
-        this.connection = connection;
+        this.connectionProvider = () -> connection;
         this.usuarioDAO = usuarioDAO;
         this.rolDAO = rolDAO;
     }
@@ -40,7 +50,8 @@ public class FuncionarioDAOImpl implements FuncionarioDAO {
     @Override
     public void assignRol(int idFuncionario, Rol rol) throws Exception {
         String query = "UPDATE proyecto.funcionarios SET id_rol = ? WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, rol.getId());
             ps.setInt(2, idFuncionario);
             ps.executeUpdate();
@@ -53,21 +64,19 @@ public class FuncionarioDAOImpl implements FuncionarioDAO {
 
     @Override
     public List<Funcionario> findByRol(String nombreRol) throws Exception {
-        String query = "SELECT u.id FROM proyecto.usuarios u " +
-                "JOIN proyecto.funcionarios f ON u.id = f.id " +
-                "JOIN proyecto.roles r ON f.id_rol = r.id " +
+        String query = SELECT_FUNCIONARIO +
                 "WHERE r.nombre = ? AND u.tipo = 'FUNCIONARIO' AND u.estado = 'ACTIVO'";
         List<Funcionario> funcionarios = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, nombreRol);
+            Map<Integer, Rol> roles = new HashMap<>();
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Funcionario f = findById(rs.getInt("id"));
-                    if (f != null) {
-                        funcionarios.add(f);
-                    }
+                    funcionarios.add(mapFuncionarioFromRS(rs, roles));
                 }
             }
+            loadPermisosMasivo(connection, roles);
         } catch (SQLException e) {
             logger.error("Error buscando funcionarios por rol: " + nombreRol, e);
             throw e;
@@ -78,32 +87,31 @@ public class FuncionarioDAOImpl implements FuncionarioDAO {
 
     @Override
     public void save(Funcionario funcionario) throws Exception {
-        connection.setAutoCommit(false);
         try {
-            // PRIMERO: inserción en usuarios
-            usuarioDAO.save(funcionario);
-
-            // SEGUNDO: verificar que el rol existe
-            if (funcionario.getRol() == null) {
-                throw new SQLException("El funcionario debe tener un rol asignado");
-            }
+            Transaccion.ejecutar(connectionProvider, () -> {
+                try (Connection connection = connectionProvider.getConnection()) {
+                    // PRIMERO: inserción en usuarios
+                    usuarioDAO.save(funcionario);
+
+                    // SEGUNDO: verificar que el rol existe
+                    if (funcionario.getRol() == null) {
+                        throw new SQLException("El funcionario debe tener un rol asignado");
+                    }
 
-            // TERCERO: Inserta en funcionarios CON EL ROL
-            String query = "INSERT INTO proyecto.funcionarios (id, id_rol) VALUES (?, ?)";
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
-                ps.setInt(1, funcionario.getId());
-                ps.setInt(2, funcionario.getRol().getId());
-                ps.executeUpdate();
-            }
+                    // TERCERO: Inserta en funcionarios CON EL ROL
+                    String query = "INSERT INTO proyecto.funcionarios (id, id_rol) VALUES (?, ?)";
+                    try (PreparedStatement ps = connection.prepareStatement(query)) {
+                        ps.setInt(1, funcionario.getId());
+                        ps.setInt(2, funcionario.getRol().getId());
+                        ps.executeUpdate();
+                    }
 
-            connection.commit();
+                }
+            });
             logger.info("Funcionario guardado: " + funcionario.getNombre() + " con rol " + funcionario.getRol().getNombre());
         } catch (SQLException e) {
-            connection.rollback();
             logger.error("Error guardando funcionario: " + funcionario.getNombre(), e);
             throw e;
-        } finally {
-            connection.setAutoCommit(true);
         }
     }
 
@@ -113,7 +121,8 @@ public class FuncionarioDAOImpl implements FuncionarioDAO {
                 "f.id_rol " +
                 "FROM proyecto.usuarios u JOIN proyecto.funcionarios f ON u.id = f.id " +
                 "WHERE u.id = ? AND u.estado = 'ACTIVO'";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -146,18 +155,18 @@ public class FuncionarioDAOImpl implements FuncionarioDAO {
 
     @Override
     public List<Funcionario> findAll() throws Exception {
-        String query = "SELECT u.id FROM proyecto.usuarios u JOIN proyecto.funcionarios f ON u.id = f.id " +
+        String query = SELECT_FUNCIONARIO +
                 "WHERE u.tipo = 'FUNCIONARIO' AND u.estado = 'ACTIVO'";
         List<Funcionario> funcionarios = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            Map<Integer, Rol> roles = new HashMap<>();
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Funcionario f = findById(rs.getInt("id"));
-                    if (f != null) {
-                        funcionarios.add(f);
-                    }
+                    funcionarios.add(mapFuncionarioFromRS(rs, roles));
                 }
             }
+            loadPermisosMasivo(connection, roles);
         } catch (SQLException e) {
             logger.error("Error obteniendo todos los funcionarios", e);
             throw e;
@@ -168,29 +177,28 @@ public class FuncionarioDAOImpl implements FuncionarioDAO {
 
     @Override
     public void update(Funcionario funcionario) throws Exception {
-        connection.setAutoCommit(false);
         try {
-            // Actualiza usuarios
-            usuarioDAO.update(funcionario);
-            // Actualiza funcionarios
-            String query = "UPDATE proyecto.funcionarios SET id_rol = ? WHERE id = ?";
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
-                if(funcionario.getRol() != null) {
-                    ps.setInt(1, funcionario.getRol().getId());
-                } else {
-                    ps.setNull(1, java.sql.Types.INTEGER);
+            Transaccion.ejecutar(connectionProvider, () -> {
+                try (Connection connection = connectionProvider.getConnection()) {
+                    // Actualiza usuarios
+                    usuarioDAO.update(funcionario);
+                    // Actualiza funcionarios
+                    String query = "UPDATE proyecto.funcionarios SET id_rol = ? WHERE id = ?";
+                    try (PreparedStatement ps = connection.prepareStatement(query)) {
+                        if(funcionario.getRol() != null) {
+                            ps.setInt(1, funcionario.getRol().getId());
+                        } else {
+                            ps.setNull(1, java.sql.Types.INTEGER);
+                        }
+                        ps.setInt(2, funcionario.getId());
+                        ps.executeUpdate();
+                    }
                 }
-                ps.setInt(2, funcionario.getId());
-                ps.executeUpdate();
-            }
-            connection.commit();
+            });
             logger.info("Funcionario actualizado: ID " + funcionario.getId());
         } catch (SQLException e) {
-            connection.rollback();
             logger.error("Error actualizando funcionario: ID " + funcionario.getId(), e);
             throw e;
-        } finally {
-            connection.setAutoCommit(true);
         }
     }
 
@@ -201,4 +209,45 @@ public class FuncionarioDAOImpl implements FuncionarioDAO {
         usuarioDAO.deleteLogical(id);
         logger.info("Funcionario marcado como inactivo: ID " + id);
     }
+
+    // Métodos auxiliares
+    // Mapea una fila de SELECT_FUNCIONARIO. Los funcionarios con el mismo rol comparten la instancia de Rol
+    private Funcionario mapFuncionarioFromRS(ResultSet rs, Map<Integer, Rol> roles) throws SQLException {
+        Funcionario funcionario = new Funcionario();
+        funcionario.setId(rs.getInt("id"));
+        funcionario.setNombre(rs.getString("nombre"));
+        funcionario.setApellido(rs.getString("apellido"));
+        funcionario.setEmail(rs.getString("email"));
+        funcionario.setContrasenia(rs.getString("contrasenia"));
+        funcionario.setDocumento(rs.getString("documento"));
+        funcionario.setEstado(EstadoUsuario.valueOf(rs.getString("estado")));
+        funcionario.setTipo(TipoUsuario.valueOf(rs.getString("tipo")));
+        int idRol = rs.getInt("id_rol");
+        if (!rs.wasNull()) {
+            String nombreRol = rs.getString("rol_nombre");
+            funcionario.setRol(roles.computeIfAbsent(idRol, id -> new Rol(id, nombreRol, new ArrayList<>())));
+        }
+        return funcionario;
+    }
+
+    // Carga en una sola consulta los permisos de todos los roles distintos del listado
+    private void loadPermisosMasivo(Connection connection, Map<Integer, Rol> roles) throws SQLException {
+        if (roles.isEmpty()) {
+            return;
+        }
+        String query = "SELECT rp.id_rol, p.id, p.nombre FROM proyecto.rol_permisos rp " +
+                "JOIN proyecto.permisos p ON p.id = rp.id_permiso " +
+                "WHERE rp.id_rol = ANY(?)";
+        try (PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setArray(1, connection.createArrayOf("integer", roles.keySet().toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Rol rol = roles.get(rs.getInt("id_rol"));
+                    if (rol != null) {
+                        rol.getPermisos().add(new Permiso(rs.getInt("id"), rs.getString("nombre")));
+                    }
+                }
+            }
+        }
+    }
 }
@@ -1,56 +1,99 @@
 package dao.impl;
 
-import dao.GenericDAO;
-import dao.InstanciaDAO;
+import dao.IncidenciaDAO;
 import dao.UsuarioDAO;
 import db.ConfiguracionSistema;
+import db.ConnectionProvider;
+import db.Transaccion;
 import model.Funcionario;
 import model.Incidencia;
 import model.Instancia;
 import org.apache.log4j.Logger;
 
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
-public class IncidenciaDAOImpl implements GenericDAO<Incidencia> {
+public class IncidenciaDAOImpl implements IncidenciaDAO {
     private static final Logger logger = Logger.getLogger(IncidenciaDAOImpl.class);
-    private final Connection connection;
-    private final InstanciaDAO instanciaDAO;  // delega los campos comunes
+    private final ConnectionProvider connectionProvider;
+    private final InstanciaDAOImpl instanciaDAO;  // delega los campos comunes y su mapeo
     private final UsuarioDAO usuarioDAO;  // para cargar reportadoPor
 
     public IncidenciaDAOImpl() throws SQLException {
-        this.connection = ConfiguracionSistema.getInstance().getConnection();
+        this.connectionProvider = ConfiguracionSistema.getInstance();
         this.instanciaDAO = new InstanciaDAOImpl();
         this.usuarioDAO = new UsuarioDAOImpl();
     }
 
+    // constructor para pruebas unitarias
+    public IncidenciaDAOImpl(Connection connection, InstanciaDAOImpl instanciaDAO, UsuarioDAO usuarioDAO) {
+        this.connectionProvider = () -> connection;
+        this.instanciaDAO = instanciaDAO;
+        this.usuarioDAO = usuarioDAO;
+    }
+
     @Override
     public void save(Incidencia incidencia) throws Exception {
-        connection.setAutoCommit(false);
+        // si el service ya abrió una transacción (p.ej. para encolar el evento de calendario) se suma a ella
         try {
-            // delega save de campos comunes
-            instanciaDAO.save(incidencia);
-            // guarda campos específicos en incidencias
-            String query = "INSERT INTO proyecto.incidencias (id, lugar, personas_involucradas, id_reportado_por) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
-                ps.setInt(1, incidencia.getId());
-                ps.setString(2, incidencia.getLugar());
-                ps.setString(3, String.join(",", incidencia.getPersonasInvolucradas()));
-                ps.setInt(4, incidencia.getReportadoPor().getId());
-                ps.executeUpdate();
-            }
-            connection.commit();
+            Transaccion.ejecutar(connectionProvider, () -> {
+                // delega save de campos comunes
+                instanciaDAO.save(incidencia);
+                // guarda campos específicos en incidencias
+                String query = "INSERT INTO proyecto.incidencias (id, lugar, id_reportado_por) VALUES (?, ?, ?)";
+                try (Connection connection = connectionProvider.getConnection()) {
+                    try (PreparedStatement ps = connection.prepareStatement(query)) {
+                        ps.setInt(1, incidencia.getId());
+                        ps.setString(2, incidencia.getLugar());
+                        ps.setInt(3, incidencia.getReportadoPor().getId());
+                        ps.executeUpdate();
+                    }
+                    insertarPersonas(connection, List.of(incidencia));
+                }
+            });
             logger.info("Incidencia guardada: ID " + incidencia.getId());
         } catch (SQLException e) {
-            connection.rollback();
             logger.error("Error guardando Incidencia: " + incidencia.getTitulo(), e);
             throw e;
-        } finally {
-            connection.setAutoCommit(true);
+        }
+    }
+
+    @Override
+    public void saveAll(List<? extends Incidencia> incidencias) throws Exception {
+        if (incidencias.isEmpty()) {
+            return;
+        }
+        try {
+            Transaccion.ejecutar(connectionProvider, () -> {
+                // filas padre en lote (asigna los ids), después las hijas en otro lote
+                instanciaDAO.saveAll(incidencias);
+                String query = "INSERT INTO proyecto.incidencias (id, lugar, id_reportado_por) VALUES (?, ?, ?)";
+                try (Connection connection = connectionProvider.getConnection()) {
+                    try (PreparedStatement ps = connection.prepareStatement(query)) {
+                        for (Incidencia incidencia : incidencias) {
+                            ps.setInt(1, incidencia.getId());
+                            ps.setString(2, incidencia.getLugar());
+                            ps.setInt(3, incidencia.getReportadoPor().getId());
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                    insertarPersonas(connection, incidencias);
+                }
+            });
+            logger.info("Incidencias guardadas en lote: " + incidencias.size());
+        } catch (SQLException e) {
+            logger.error("Error guardando lote de " + incidencias.size() + " Incidencias", e);
+            throw e;
         }
     }
 
@@ -61,13 +104,15 @@ public class IncidenciaDAOImpl implements GenericDAO<Incidencia> {
         if (instancia instanceof Incidencia) {
             Incidencia incidencia = (Incidencia) instancia;
             // carga campos específicos
-            String query = "SELECT lugar, personas_involucradas, id_reportado_por FROM proyecto.incidencias WHERE id = ?";
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
+            String query = "SELECT inc.lugar, inc.id_reportado_por, ARRAY(SELECT p.persona FROM proyecto.incidencias_personas p WHERE p.id_incidencia = inc.id ORDER BY p.id) AS personas_involucradas " +
+                    "FROM proyecto.incidencias inc WHERE inc.id = ?";
+            try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
                 ps.setInt(1, id);
                 try (ResultSet rs = ps.executeQuery()) {
                     if (rs.next()) {
                         incidencia.setLugar(rs.getString("lugar"));
-                        incidencia.setPersonasInvolucradas(List.of(rs.getString("personas_involucradas").split(",")));
+                        incidencia.setPersonasInvolucradas(leerPersonas(rs));
                         incidencia.setReportadoPor((Funcionario) usuarioDAO.findById(rs.getInt("id_reportado_por")));
                     }
                 }
@@ -80,41 +125,86 @@ public class IncidenciaDAOImpl implements GenericDAO<Incidencia> {
 
     @Override
     public List<Incidencia> findAll() throws Exception {
-        // delega findAll y filtra por tipo
-        List<Instancia> instancias = instanciaDAO.findAll();
+        List<Incidencia> incidencias = listar("", null);
+        logger.info("Incidencias obtenidas: " + incidencias.size());
+        return incidencias;
+    }
+
+    // usa el índice sobre lower(persona) de la migración 006
+    @Override
+    public List<Incidencia> findByPersona(String persona) throws Exception {
+        String prefijo = persona.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return listar(" AND EXISTS (SELECT 1 FROM proyecto.incidencias_personas p " +
+                "WHERE p.id_incidencia = inc.id AND lower(p.persona) LIKE ? ESCAPE '\\')", prefijo);
+    }
+
+    @Override
+    public void agregarPersona(int idIncidencia, String persona) throws Exception {
+        String query = "INSERT INTO proyecto.incidencias_personas (id_incidencia, persona) VALUES (?, ?)";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setInt(1, idIncidencia);
+            ps.setString(2, persona.trim());
+            ps.executeUpdate();
+            logger.info("Persona agregada a la incidencia ID " + idIncidencia);
+        } catch (SQLException e) {
+            logger.error("Error agregando persona a la incidencia ID: " + idIncidencia, e);
+            throw e;
+        }
+    }
+
+    // une con incidencias y filtra por tipo en la base; los campos propios salen de la misma fila
+    private List<Incidencia> listar(String condicion, String parametro) throws Exception {
+        String query = "SELECT i.*, inc.lugar, inc.id_reportado_por, ARRAY(SELECT p.persona FROM proyecto.incidencias_personas p WHERE p.id_incidencia = inc.id ORDER BY p.id) AS personas_involucradas " +
+                "FROM proyecto.instancias i JOIN proyecto.incidencias inc ON inc.id = i.id " +
+                "WHERE i.tipo = 'INCIDENCIA'" + condicion;
         List<Incidencia> incidencias = new ArrayList<>();
-        for (Instancia i : instancias) {
-            if (i instanceof Incidencia) {
-                incidencias.add((Incidencia) i);
+        Map<Incidencia, Integer> reportadoPor = new HashMap<>();
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            if (parametro != null) {
+                ps.setString(1, parametro);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Incidencia incidencia = (Incidencia) instanciaDAO.mapInstanciaFromRS(rs);
+                    incidencia.setLugar(rs.getString("lugar"));
+                    incidencia.setPersonasInvolucradas(leerPersonas(rs));
+                    reportadoPor.put(incidencia, rs.getInt("id_reportado_por"));
+                    incidencias.add(incidencia);
+                }
             }
+            instanciaDAO.cargarRelacionesMasivo(connection, incidencias);
+            cargarReportadoPorMasivo(connection, reportadoPor);
+        } catch (SQLException e) {
+            logger.error("Error obteniendo incidencias" + (parametro == null ? "" : " de la persona: " + parametro), e);
+            throw e;
         }
-        logger.info("Incidencias obtenidas: " + incidencias.size());
         return incidencias;
     }
 
     @Override
     public void update(Incidencia incidencia) throws Exception {
-        connection.setAutoCommit(false);
         try {
-            // delega update de campos comunes
-            instanciaDAO.update(incidencia);
-            // actualización de campos específicos
-            String query = "UPDATE proyecto.incidencias SET lugar = ?, personas_involucradas = ?, id_reportado_por = ? WHERE id = ?";
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
-                ps.setString(1, incidencia.getLugar());
-                ps.setString(2, String.join(",", incidencia.getPersonasInvolucradas()));
-                ps.setInt(3, incidencia.getReportadoPor().getId());
-                ps.setInt(4, incidencia.getId());
-                ps.executeUpdate();
-            }
-            connection.commit();
+            Transaccion.ejecutar(connectionProvider, () -> {
+                try (Connection connection = connectionProvider.getConnection()) {
+                    // delega update de campos comunes
+                    instanciaDAO.update(incidencia);
+                    // actualización de campos específicos (las personas se agregan con agregarPersona)
+                    String query = "UPDATE proyecto.incidencias SET lugar = ?, id_reportado_por = ? WHERE id = ?";
+                    try (PreparedStatement ps = connection.prepareStatement(query)) {
+                        ps.setString(1, incidencia.getLugar());
+                        ps.setInt(2, incidencia.getReportadoPor().getId());
+                        ps.setInt(3, incidencia.getId());
+                        ps.executeUpdate();
+                    }
+                }
+            });
             logger.info("Incidencia actualizada: ID " + incidencia.getId());
         } catch (SQLException e) {
-            connection.rollback();
             logger.error("Error actualizando Incidencia: ID " + incidencia.getId(), e);
             throw e;
-        } finally {
-            connection.setAutoCommit(true);
         }
     }
 
@@ -124,4 +214,54 @@ public class IncidenciaDAOImpl implements GenericDAO<Incidencia> {
         instanciaDAO.delete(id);
         logger.info("Incidencia eliminada: ID " + id);
     }
+
+    // Métodos auxiliares
+    // Personas de incidencias recién insertadas, en un solo lote y en la conexión de la transacción
+    private static void insertarPersonas(Connection connection, List<? extends Incidencia> incidencias) throws SQLException {
+        String query = "INSERT INTO proyecto.incidencias_personas (id_incidencia, persona) VALUES (?, ?)";
+        try (PreparedStatement ps = connection.prepareStatement(query)) {
+            int filas = 0;
+            for (Incidencia incidencia : incidencias) {
+                if (incidencia.getPersonasInvolucradas() == null) {
+                    continue;
+                }
+                for (String persona : incidencia.getPersonasInvolucradas()) {
+                    if (persona != null && !persona.isBlank()) {
+                        ps.setInt(1, incidencia.getId());
+                        ps.setString(2, persona.trim());
+                        ps.addBatch();
+                        filas++;
+                    }
+                }
+            }
+            if (filas > 0) {
+                ps.executeBatch();
+            }
+        }
+    }
+
+    private static List<String> leerPersonas(ResultSet rs) throws SQLException {
+        Array personas = rs.getArray("personas_involucradas");
+        return personas == null ? List.of() : List.of((String[]) personas.getArray());
+    }
+
+    // Carga en una sola consulta los funcionarios que reportaron las incidencias del listado
+    private void cargarReportadoPorMasivo(Connection connection, Map<Incidencia, Integer> reportadoPor) throws Exception {
+        if (reportadoPor.isEmpty()) {
+            return;
+        }
+        Map<Integer, Funcionario> funcionarios = new HashMap<>();
+        String query = "SELECT * FROM proyecto.usuarios WHERE id = ANY(?)";
+        try (PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setArray(1, connection.createArrayOf("integer", new HashSet<>(reportadoPor.values()).toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (usuarioDAO.mapUsuarioFromRS(rs) instanceof Funcionario f) {
+                        funcionarios.put(f.getId(), f);
+                    }
+                }
+            }
+        }
+        reportadoPor.forEach((incidencia, idFuncionario) -> incidencia.setReportadoPor(funcionarios.get(idFuncionario)));
+    }
 }
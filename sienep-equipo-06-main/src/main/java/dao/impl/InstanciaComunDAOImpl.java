@@ -1,8 +1,9 @@
 package dao.impl;
 
 import dao.GenericDAO;
-import dao.InstanciaDAO;
 import db.ConfiguracionSistema;
+import db.ConnectionProvider;
+import db.Transaccion;
 import model.Instancia;
 import model.InstanciaComun;
 import org.apache.log4j.Logger;
@@ -16,35 +17,61 @@ import java.util.List;
 
 public class InstanciaComunDAOImpl implements GenericDAO<InstanciaComun> {
     private static final Logger logger = Logger.getLogger(InstanciaComunDAOImpl.class);
-    private final Connection connection;
-    private final InstanciaDAO instanciaDAO;
+    private final ConnectionProvider connectionProvider;
+    private final InstanciaDAOImpl instanciaDAO;  // delega los campos comunes y su mapeo
 
     public InstanciaComunDAOImpl() throws SQLException {
-        this.connection = ConfiguracionSistema.getInstance().getConnection();
+        this.connectionProvider = ConfiguracionSistema.getInstance();
         this.instanciaDAO = new InstanciaDAOImpl();
     }
 
     @Override
     public void save(InstanciaComun instanciaComun) throws Exception {
-        connection.setAutoCommit(false);
+        // si el service ya abrió una transacción (p.ej. para encolar el evento de calendario) se suma a ella
         try {
-            // delega save de campos comunes a InstanciaDAO
-            instanciaDAO.save(instanciaComun);
-            // guarda motivacion en instancias_comunes
-            String query = "INSERT INTO proyecto.instancias_comunes (id, motivacion) VALUES (?, ?)";
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
-                ps.setInt(1, instanciaComun.getId());
-                ps.setString(2, instanciaComun.getMotivacion());
-                ps.executeUpdate();
-            }
-            connection.commit();
+            Transaccion.ejecutar(connectionProvider, () -> {
+                // delega save de campos comunes a InstanciaDAO
+                instanciaDAO.save(instanciaComun);
+                // guarda motivacion en instancias_comunes
+                String query = "INSERT INTO proyecto.instancias_comunes (id, motivacion) VALUES (?, ?)";
+                try (Connection connection = connectionProvider.getConnection();
+                     PreparedStatement ps = connection.prepareStatement(query)) {
+                    ps.setInt(1, instanciaComun.getId());
+                    ps.setString(2, instanciaComun.getMotivacion());
+                    ps.executeUpdate();
+                }
+            });
             logger.info("InstanciaComun guardada: ID " + instanciaComun.getId());
         } catch (SQLException e) {
-            connection.rollback();
             logger.error("Error guardando InstanciaComun: " + instanciaComun.getTitulo(), e);
             throw e;
-        } finally {
-            connection.setAutoCommit(true);
+        }
+    }
+
+    @Override
+    public void saveAll(List<? extends InstanciaComun> instancias) throws Exception {
+        if (instancias.isEmpty()) {
+            return;
+        }
+        try {
+            Transaccion.ejecutar(connectionProvider, () -> {
+                // filas padre en lote (asigna los ids), después las hijas en otro lote
+                instanciaDAO.saveAll(instancias);
+                String query = "INSERT INTO proyecto.instancias_comunes (id, motivacion) VALUES (?, ?)";
+                try (Connection connection = connectionProvider.getConnection();
+                     PreparedStatement ps = connection.prepareStatement(query)) {
+                    for (InstanciaComun instanciaComun : instancias) {
+                        ps.setInt(1, instanciaComun.getId());
+                        ps.setString(2, instanciaComun.getMotivacion());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            });
+            logger.info("InstanciasComunes guardadas en lote: " + instancias.size());
+        } catch (SQLException e) {
+            logger.error("Error guardando lote de " + instancias.size() + " InstanciasComunes", e);
+            throw e;
         }
     }
 
@@ -56,7 +83,8 @@ public class InstanciaComunDAOImpl implements GenericDAO<InstanciaComun> {
             InstanciaComun instanciaComun = (InstanciaComun) instancia;
             // carga motivacion
             String query = "SELECT motivacion FROM proyecto.instancias_comunes WHERE id = ?";
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
+            try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
                 ps.setInt(1, id);
                 try (ResultSet rs = ps.executeQuery()) {
                     if (rs.next()) {
@@ -72,13 +100,24 @@ public class InstanciaComunDAOImpl implements GenericDAO<InstanciaComun> {
 
     @Override
     public List<InstanciaComun> findAll() throws Exception {
-        // delega findAll y filtra por tipo
-        List<Instancia> instancias = instanciaDAO.findAll();
+        // une con instancias_comunes y filtra por tipo en la base
+        String query = "SELECT i.*, c.motivacion " +
+                "FROM proyecto.instancias i JOIN proyecto.instancias_comunes c ON c.id = i.id " +
+                "WHERE i.tipo = 'COMUN'";
         List<InstanciaComun> comunes = new ArrayList<>();
-        for (Instancia i : instancias) {
-            if (i instanceof InstanciaComun) {
-                comunes.add((InstanciaComun) i);
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    InstanciaComun instanciaComun = (InstanciaComun) instanciaDAO.mapInstanciaFromRS(rs);
+                    instanciaComun.setMotivacion(rs.getString("motivacion"));
+                    comunes.add(instanciaComun);
+                }
             }
+            instanciaDAO.cargarRelacionesMasivo(connection, comunes);
+        } catch (SQLException e) {
+            logger.error("Error obteniendo todas las InstanciaComun", e);
+            throw e;
         }
         logger.info("InstanciaComun obtenidas: " + comunes.size());
         return comunes;
@@ -86,25 +125,24 @@ public class InstanciaComunDAOImpl implements GenericDAO<InstanciaComun> {
 
     @Override
     public void update(InstanciaComun instanciaComun) throws Exception {
-        connection.setAutoCommit(false);
         try {
-            // delega update de campos comunes
-            instanciaDAO.update(instanciaComun);
-            // actualización de motivacion
-            String query = "UPDATE proyecto.instancias_comunes SET motivacion = ? WHERE id = ?";
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
-                ps.setString(1, instanciaComun.getMotivacion());
-                ps.setInt(2, instanciaComun.getId());
-                ps.executeUpdate();
-            }
-            connection.commit();
+            Transaccion.ejecutar(connectionProvider, () -> {
+                try (Connection connection = connectionProvider.getConnection()) {
+                    // delega update de campos comunes
+                    instanciaDAO.update(instanciaComun);
+                    // actualización de motivacion
+                    String query = "UPDATE proyecto.instancias_comunes SET motivacion = ? WHERE id = ?";
+                    try (PreparedStatement ps = connection.prepareStatement(query)) {
+                        ps.setString(1, instanciaComun.getMotivacion());
+                        ps.setInt(2, instanciaComun.getId());
+                        ps.executeUpdate();
+                    }
+                }
+            });
             logger.info("InstanciaComun actualizada: ID " + instanciaComun.getId());
         } catch (SQLException e) {
-            connection.rollback();
             logger.error("Error actualizando InstanciaComun: ID " + instanciaComun.getId(), e);
             throw e;
-        } finally {
-            connection.setAutoCommit(true);
         }
     }
 
@@ -1,35 +1,46 @@
 package dao.impl;
 
 import dao.EstudianteDAO;
+import dao.FiltroInstancias;
 import dao.GenericDAO;
 import dao.InstanciaDAO;
+import dao.ProcesadorFila;
 import dao.UsuarioDAO;
 import db.ConfiguracionSistema;
+import db.ConnectionProvider;
 import model.*;
 import model.enums.Canal;
 import org.apache.log4j.Logger;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class InstanciaDAOImpl implements InstanciaDAO {
     private static final Logger logger = Logger.getLogger(InstanciaDAOImpl.class);
-    private final Connection connection;
+    private final ConnectionProvider connectionProvider;
     private final GenericDAO<Categoria> categoriaDAO;
     private final EstudianteDAO estudianteDAO;
     private final UsuarioDAO usuarioDAO;
 
+    private static final String INSERT_INSTANCIA = "INSERT INTO proyecto.instancias (titulo, codigo, fecha_hora, canal, " +
+            "comentario, confidencial, id_categoria, id_estudiante, id_creador, tipo, google_calendar_event_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     public InstanciaDAOImpl() throws SQLException {
-        this.connection = ConfiguracionSistema.getInstance().getConnection();
-        this.categoriaDAO = new CategoriaDAOImpl();
+        this.connectionProvider = ConfiguracionSistema.getInstance();
+        this.categoriaDAO = CacheReferencias.categorias();
         this.estudianteDAO = new EstudianteDAOImpl();
         this.usuarioDAO = new UsuarioDAOImpl();
     }
 
     // constructor para pruebas unitarias
     public InstanciaDAOImpl(Connection connection, GenericDAO<Categoria> categoriaDAO, EstudianteDAO estudianteDAO, UsuarioDAO usuarioDAO) {
-        this.connection = connection;
+        this.connectionProvider = () -> connection;
         this.categoriaDAO = categoriaDAO;
         this.estudianteDAO = estudianteDAO;
         this.usuarioDAO = usuarioDAO;
@@ -37,21 +48,11 @@ public class InstanciaDAOImpl implements InstanciaDAO {
 
     @Override
     public void save(Instancia instancia) throws Exception {
-        String query = "INSERT INTO proyecto.instancias (titulo, codigo, fecha_hora, canal, comentario, confidencial, id_categoria, id_estudiante, id_creador, tipo, google_calendar_event_id) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id";
+        String query = INSERT_INSTANCIA + " RETURNING id";
 
-        try(PreparedStatement ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, instancia.getTitulo());
-            ps.setString(2, instancia.getCodigo());
-            ps.setTimestamp(3, Timestamp.valueOf(instancia.getFechaHora()));
-            ps.setString(4, instancia.getCanal().toString());
-            ps.setString(5, instancia.getComentario());
-            ps.setBoolean(6, instancia.isConfidencial());
-            ps.setInt(7, instancia.getCategoria().getId());
-            ps.setInt(8, instancia.getEstudianteAsociado().getId());
-            ps.setInt(9, instancia.getCreador().getId());
-            ps.setString(10, instancia.getTipo());
-            ps.setString(11, instancia.getGoogleCalendarEventId());
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            setParametrosInsert(ps, instancia);
             ps.executeUpdate();
 
             try(ResultSet rs = ps.getGeneratedKeys()) {
@@ -66,14 +67,45 @@ public class InstanciaDAOImpl implements InstanciaDAO {
         }
     }
 
+    // Alta masiva: un solo executeBatch para todas las filas; el driver devuelve los ids generados en el mismo orden
+    @Override
+    public void saveAll(List<? extends Instancia> instancias) throws Exception {
+        if (instancias.isEmpty()) {
+            return;
+        }
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_INSTANCIA, new String[]{"id"})) {
+            for (Instancia instancia : instancias) {
+                setParametrosInsert(ps, instancia);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                for (Instancia instancia : instancias) {
+                    if (!rs.next()) {
+                        throw new SQLException("El lote no devolvió todos los ids generados");
+                    }
+                    instancia.setId(rs.getInt(1));
+                }
+            }
+            logger.info("Instancias guardadas en lote: " + instancias.size());
+        } catch (SQLException e) {
+            logger.error("Error guardando lote de " + instancias.size() + " instancias", e);
+            throw e;
+        }
+    }
+
     @Override
     public Instancia findById(int id) throws Exception {
         String query = "SELECT * FROM proyecto.instancias WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return mapInstanciaFromRS(rs);
+                    Instancia instancia = mapInstanciaFromRS(rs);
+                    cargarRelaciones(instancia);
+                    return instancia;
                 }
             }
         } catch (SQLException e) {
@@ -87,11 +119,13 @@ public class InstanciaDAOImpl implements InstanciaDAO {
     public List<Instancia> findAll() throws Exception {
         String query = "SELECT * FROM proyecto.instancias";
         List<Instancia> instancias = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query);
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 instancias.add(mapInstanciaFromRS(rs));
             }
+            cargarRelacionesMasivo(connection, instancias);
         } catch (SQLException e) {
             logger.error("Error obteniendo todas las instancias", e);
             throw e;
@@ -100,10 +134,156 @@ public class InstanciaDAOImpl implements InstanciaDAO {
         return instancias;
     }
 
+    // Recorre todas las instancias con cursor. Las relaciones se cargan por bloques de
+    // TAMANIO_FETCH filas con cargarRelacionesMasivo, así la memoria no depende del tamaño de la tabla
+    @Override
+    public void scanAll(ProcesadorFila<? super Instancia> procesador) throws Exception {
+        String query = "SELECT * FROM proyecto.instancias ORDER BY id";
+        List<Instancia> bloque = new ArrayList<>(LecturaCursor.TAMANIO_FETCH);
+        try {
+            LecturaCursor.recorrer(connectionProvider, query, (connection, rs) -> {
+                bloque.add(mapInstanciaFromRS(rs));
+                if (bloque.size() == LecturaCursor.TAMANIO_FETCH) {
+                    procesarBloque(connection, bloque, procesador);
+                }
+            });
+            if (!bloque.isEmpty()) {
+                try (Connection connection = connectionProvider.getConnection()) {
+                    procesarBloque(connection, bloque, procesador);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error recorriendo instancias con cursor", e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Instancia> findPage(int despuesDeId, int limite) throws Exception {
+        String query = "SELECT * FROM proyecto.instancias WHERE id > ? ORDER BY id LIMIT ?";
+        List<Instancia> instancias = new ArrayList<>();
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setInt(1, despuesDeId);
+            ps.setInt(2, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    instancias.add(mapInstanciaFromRS(rs));
+                }
+            }
+            cargarRelacionesMasivo(connection, instancias);
+        } catch (SQLException e) {
+            logger.error("Error obteniendo página de instancias después del ID: " + despuesDeId, e);
+            throw e;
+        }
+        return instancias;
+    }
+
+    // Arma el WHERE sólo con los criterios presentes. Las columnas de igualdad más la ventana de fechas
+    // y el orden (fecha_hora, id) coinciden con los índices de 003_indices_busqueda_instancias.sql,
+    // así cada página es un recorrido de índice que corta en LIMIT.
+    @Override
+    public List<Instancia> buscar(FiltroInstancias filtro, Instancia despuesDe, int limite) throws Exception {
+        StringBuilder query = new StringBuilder("SELECT * FROM proyecto.instancias WHERE TRUE");
+        List<Object> parametros = new ArrayList<>();
+        if (filtro.getIdCategoria() != null) {
+            query.append(" AND id_categoria = ?");
+            parametros.add(filtro.getIdCategoria());
+        }
+        if (filtro.getIdCreador() != null) {
+            query.append(" AND id_creador = ?");
+            parametros.add(filtro.getIdCreador());
+        }
+        if (filtro.getIdEstudiante() != null) {
+            query.append(" AND id_estudiante = ?");
+            parametros.add(filtro.getIdEstudiante());
+        }
+        if (filtro.getCanal() != null) {
+            query.append(" AND canal = ?");
+            parametros.add(filtro.getCanal().toString());
+        }
+        if (filtro.getTipo() != null) {
+            query.append(" AND tipo = ?");
+            parametros.add(filtro.getTipo());
+        }
+        if (filtro.getConfidencial() != null) {
+            query.append(" AND confidencial = ?");
+            parametros.add(filtro.getConfidencial());
+        }
+        if (filtro.getDesde() != null) {
+            query.append(" AND fecha_hora >= ?");
+            parametros.add(Timestamp.valueOf(filtro.getDesde()));
+        }
+        if (filtro.getHasta() != null) {
+            query.append(" AND fecha_hora < ?");
+            parametros.add(Timestamp.valueOf(filtro.getHasta()));
+        }
+        if (despuesDe != null) {
+            query.append(" AND (fecha_hora, id) < (?, ?)");
+            parametros.add(Timestamp.valueOf(despuesDe.getFechaHora()));
+            parametros.add(despuesDe.getId());
+        }
+        query.append(" ORDER BY fecha_hora DESC, id DESC LIMIT ?");
+        parametros.add(limite);
+
+        List<Instancia> instancias = new ArrayList<>();
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query.toString())) {
+            for (int i = 0; i < parametros.size(); i++) {
+                ps.setObject(i + 1, parametros.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    instancias.add(mapInstanciaFromRS(rs));
+                }
+            }
+            cargarRelacionesMasivo(connection, instancias);
+        } catch (SQLException e) {
+            logger.error("Error buscando instancias por criterios", e);
+            throw e;
+        }
+        return instancias;
+    }
+
+    // websearch_to_tsquery acepta lo que escribe el usuario ("frases", -excluir, or) sin errores de sintaxis.
+    // El documento y su índice GIN los mantienen triggers (004_busqueda_texto_instancias.sql).
+    // El orden por relevancia no tiene un keyset estable: se pagina con OFFSET, pensado para las primeras páginas.
+    @Override
+    public List<Instancia> buscarTexto(String consulta, boolean incluirConfidenciales, int desplazamiento, int limite) throws Exception {
+        String query = """
+            SELECT i.*
+            FROM proyecto.instancias_busqueda b
+            JOIN proyecto.instancias i ON i.id = b.id
+            CROSS JOIN websearch_to_tsquery('spanish', ?) q
+            WHERE b.documento @@ q AND (? OR NOT i.confidencial)
+            ORDER BY ts_rank_cd(b.documento, q) DESC, i.id DESC
+            LIMIT ? OFFSET ?
+        """;
+        List<Instancia> instancias = new ArrayList<>();
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setString(1, consulta);
+            ps.setBoolean(2, incluirConfidenciales);
+            ps.setInt(3, limite);
+            ps.setInt(4, desplazamiento);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    instancias.add(mapInstanciaFromRS(rs));
+                }
+            }
+            cargarRelacionesMasivo(connection, instancias);
+        } catch (SQLException e) {
+            logger.error("Error en la búsqueda de texto de instancias: " + consulta, e);
+            throw e;
+        }
+        return instancias;
+    }
+
     @Override
     public void update(Instancia instancia) throws Exception {
         String query = "UPDATE proyecto.instancias SET titulo = ?, codigo = ?, fecha_hora = ?, canal = ?, comentario = ?, confidencial = ?, id_categoria = ?, id_estudiante = ?, id_creador = ?, tipo = ? WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, instancia.getTitulo());
             ps.setString(2, instancia.getCodigo());
             ps.setTimestamp(3, Timestamp.valueOf(instancia.getFechaHora()));
@@ -126,7 +306,8 @@ public class InstanciaDAOImpl implements InstanciaDAO {
     @Override
     public void delete(int id) throws Exception {
         String query = "DELETE FROM proyecto.instancias WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, id);
             int filasAfectadas = ps.executeUpdate();
             if (filasAfectadas > 0) {
@@ -144,13 +325,15 @@ public class InstanciaDAOImpl implements InstanciaDAO {
     public List<Instancia> findByEstudiante(int idEstudiante) throws Exception {
         String query = "SELECT * FROM proyecto.instancias WHERE id_estudiante = ?";
         List<Instancia> instancias = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, idEstudiante);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     instancias.add(mapInstanciaFromRS(rs));
                 }
             }
+            cargarRelacionesMasivo(connection, instancias);
         } catch (SQLException e) {
             logger.error("Error buscando instancias por estudiante: " + idEstudiante, e);
             throw e;
@@ -162,13 +345,15 @@ public class InstanciaDAOImpl implements InstanciaDAO {
     public List<Instancia> getInstaciasByCategoria(int idCategoria) throws Exception {
         String query = "SELECT * FROM proyecto.instancias WHERE id_categoria = ?";
         List<Instancia> instancias = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, idCategoria);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     instancias.add(mapInstanciaFromRS(rs));
                 }
             }
+            cargarRelacionesMasivo(connection, instancias);
         } catch (SQLException e) {
             logger.error("Error buscando instancias por categoria: " + idCategoria, e);
             throw e;
@@ -178,6 +363,22 @@ public class InstanciaDAOImpl implements InstanciaDAO {
     }
 
     // Métodos auxiliares
+
+    private void setParametrosInsert(PreparedStatement ps, Instancia instancia) throws SQLException {
+        ps.setString(1, instancia.getTitulo());
+        ps.setString(2, instancia.getCodigo());
+        ps.setTimestamp(3, Timestamp.valueOf(instancia.getFechaHora()));
+        ps.setString(4, instancia.getCanal().toString());
+        ps.setString(5, instancia.getComentario());
+        ps.setBoolean(6, instancia.isConfidencial());
+        ps.setInt(7, instancia.getCategoria().getId());
+        ps.setInt(8, instancia.getEstudianteAsociado().getId());
+        ps.setInt(9, instancia.getCreador().getId());
+        ps.setString(10, instancia.getTipo());
+        ps.setString(11, instancia.getGoogleCalendarEventId());
+    }
+    // Mapea los campos propios de la instancia. Categoría, estudiante y creador quedan como
+    // referencias que solo tienen el id; se completan con cargarRelaciones / cargarRelacionesMasivo
     protected Instancia mapInstanciaFromRS(ResultSet rs) throws Exception {
         Instancia instancia;
         String tipo = rs.getString("tipo");
@@ -193,11 +394,80 @@ public class InstanciaDAOImpl implements InstanciaDAO {
         instancia.setCanal(Canal.valueOf(rs.getString("canal")));
         instancia.setComentario(rs.getString("comentario"));
         instancia.setConfidencial(rs.getBoolean("confidencial"));
-        instancia.setCategoria(categoriaDAO.findById(rs.getInt("id_categoria")));
-        instancia.setEstudianteAsociado(estudianteDAO.findById(rs.getInt("id_estudiante")));
-        instancia.setCreador((Funcionario) usuarioDAO.findById(rs.getInt("id_creador")));
+        Categoria categoria = new Categoria();
+        categoria.setId(rs.getInt("id_categoria"));
+        instancia.setCategoria(categoria);
+        Estudiante estudiante = new Estudiante();
+        estudiante.setId(rs.getInt("id_estudiante"));
+        instancia.setEstudianteAsociado(estudiante);
+        Funcionario creador = new Funcionario();
+        creador.setId(rs.getInt("id_creador"));
+        instancia.setCreador(creador);
         instancia.setTipo(tipo);
         instancia.setGoogleCalendarEventId(rs.getString("google_calendar_event_id"));
         return instancia;
     }
+
+    private void procesarBloque(Connection connection, List<Instancia> bloque, ProcesadorFila<? super Instancia> procesador) throws Exception {
+        cargarRelacionesMasivo(connection, bloque);
+        for (Instancia instancia : bloque) {
+            procesador.procesar(instancia);
+        }
+        bloque.clear();
+    }
+
+    // Completa las referencias de una sola instancia (findById)
+    private void cargarRelaciones(Instancia instancia) throws Exception {
+        instancia.setCategoria(categoriaDAO.findById(instancia.getCategoria().getId()));
+        // resumen: las vistas de instancias no necesitan los datos confidenciales del estudiante
+        List<Estudiante> estudiante = estudianteDAO.findByIds(List.of(instancia.getEstudianteAsociado().getId()));
+        instancia.setEstudianteAsociado(estudiante.isEmpty() ? null : estudiante.get(0));
+        instancia.setCreador((Funcionario) usuarioDAO.findById(instancia.getCreador().getId()));
+    }
+
+    // Completa las referencias de un listado con una consulta por entidad (id = ANY(?)) en lugar de
+    // tres consultas por fila. Las entidades repetidas se comparten entre instancias (mapa de identidad).
+    protected void cargarRelacionesMasivo(Connection connection, List<? extends Instancia> instancias) throws Exception {
+        if (instancias.isEmpty()) {
+            return;
+        }
+        Set<Integer> idsCategorias = new HashSet<>();
+        Set<Integer> idsEstudiantes = new HashSet<>();
+        Set<Integer> idsCreadores = new HashSet<>();
+        for (Instancia i : instancias) {
+            idsCategorias.add(i.getCategoria().getId());
+            idsEstudiantes.add(i.getEstudianteAsociado().getId());
+            idsCreadores.add(i.getCreador().getId());
+        }
+
+        // pocas categorías distintas y cacheadas (CacheReferencias): se resuelven sin ir a la base
+        Map<Integer, Categoria> categorias = new HashMap<>();
+        for (Integer idCategoria : idsCategorias) {
+            categorias.put(idCategoria, categoriaDAO.findById(idCategoria));
+        }
+
+        Map<Integer, Estudiante> estudiantes = new HashMap<>();
+        for (Estudiante e : estudianteDAO.findByIds(idsEstudiantes)) {
+            estudiantes.put(e.getId(), e);
+        }
+
+        Map<Integer, Funcionario> creadores = new HashMap<>();
+        String queryCreadores = "SELECT * FROM proyecto.usuarios WHERE id = ANY(?)";
+        try (PreparedStatement ps = connection.prepareStatement(queryCreadores)) {
+            ps.setArray(1, connection.createArrayOf("integer", idsCreadores.toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (usuarioDAO.mapUsuarioFromRS(rs) instanceof Funcionario f) {
+                        creadores.put(f.getId(), f);
+                    }
+                }
+            }
+        }
+
+        for (Instancia i : instancias) {
+            i.setCategoria(categorias.get(i.getCategoria().getId()));
+            i.setEstudianteAsociado(estudiantes.get(i.getEstudianteAsociado().getId()));
+            i.setCreador(creadores.get(i.getCreador().getId()));
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package dao.impl;
+
+import db.ConnectionProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Lectura de consultas grandes con cursor del servidor.
+ * El driver de PostgreSQL sólo usa cursor si autocommit está apagado y hay fetch size; así trae
+ * TAMANIO_FETCH filas por viaje en vez de materializar todo el resultado en memoria.
+ * Conexión, statement y result set se cierran al terminar, también si el procesador lanza una excepción.
+ * El procesador recibe la conexión del cursor con la transacción abierta: las escrituras de DAOs hechas
+ * desde él se suman a esa transacción (Transaccion.ejecutar) y no cierran el cursor.
+ */
+final class LecturaCursor {
+    static final int TAMANIO_FETCH = 500;
+
+    @FunctionalInterface
+    interface Fila {
+        void procesar(Connection connection, ResultSet rs) throws Exception;
+    }
+
+    private LecturaCursor() {
+    }
+
+    static void recorrer(ConnectionProvider connectionProvider, String query, Fila fila) throws Exception {
+        try (Connection connection = connectionProvider.getConnection()) {
+            // si ya hay una transacción abierta (préstamo reentrante) se lee dentro de ella y no se toca
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            try (PreparedStatement ps = connection.prepareStatement(query)) {
+                ps.setFetchSize(TAMANIO_FETCH);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        fila.procesar(connection, rs);
+                    }
+                }
+                if (autoCommit) {
+                    connection.commit();
+                }
+            } catch (Exception e) {
+                if (autoCommit) {
+                    connection.rollback();
+                }
+                throw e;
+            } finally {
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        }
+    }
+}
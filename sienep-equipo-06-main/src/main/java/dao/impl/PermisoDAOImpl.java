@@ -2,6 +2,7 @@ package dao.impl;
 
 import dao.GenericDAO;
 import db.ConfiguracionSistema;
+import db.ConnectionProvider;
 import model.Permiso;
 import org.apache.log4j.Logger;
 
@@ -11,23 +12,24 @@ import java.util.List;
 
 public class PermisoDAOImpl implements GenericDAO<Permiso> {
     private static final Logger logger = Logger.getLogger(PermisoDAOImpl.class);
-    private final Connection connection;
+    private final ConnectionProvider connectionProvider;
 
     // constructor default
     public PermisoDAOImpl() throws SQLException {
-        this.connection = ConfiguracionSistema.getInstance().getConnection();
+        this.connectionProvider = ConfiguracionSistema.getInstance();
     }
 
     // constructor para tests, para crear el mock de Connection
     public PermisoDAOImpl(Connection connection) {
-        this.connection = connection;
+        this.connectionProvider = () -> connection;
     }
 
     @Override
     public void save(Permiso permiso) throws Exception {
         String query = "INSERT INTO proyecto.permisos (nombre) VALUES (?);";
 
-        try(PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, permiso.getNombre());
             ps.executeUpdate();
             logger.info("Permiso guardado correctamente: " + permiso.getNombre());
@@ -40,7 +42,8 @@ public class PermisoDAOImpl implements GenericDAO<Permiso> {
     @Override
     public Permiso findById(int id) throws Exception {
         String query = "SELECT * FROM proyecto.permisos WHERE id = ?";
-        try(PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, id);
             try(ResultSet rs = ps.executeQuery()) {
                 if(rs.next()) {
@@ -65,7 +68,8 @@ public class PermisoDAOImpl implements GenericDAO<Permiso> {
     public List<Permiso> findAll() throws Exception {
         String query = "SELECT * FROM proyecto.permisos;";
         List<Permiso> permisos = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query);
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 Permiso permiso = new Permiso(
@@ -85,7 +89,8 @@ public class PermisoDAOImpl implements GenericDAO<Permiso> {
     @Override
     public void update(Permiso permiso) throws Exception {
         String query = "UPDATE proyecto.permisos SET nombre = ? WHERE id = ?;";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, permiso.getNombre());
             ps.setInt(2, permiso.getId());
             ps.executeUpdate();
@@ -99,7 +104,8 @@ public class PermisoDAOImpl implements GenericDAO<Permiso> {
     @Override
     public void delete(int id) throws Exception {
         String query = "DELETE FROM proyecto.permisos WHERE id = ?;";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, id);
             ps.executeUpdate();
             logger.info("Permiso eliminado correctamente: ID " + id);
@@ -2,6 +2,7 @@ package dao.impl;
 
 import dao.GenericDAO;
 import db.ConfiguracionSistema;
+import db.ConnectionProvider;
 import model.Permiso;
 import model.Rol;
 import org.apache.log4j.Logger;
@@ -14,20 +15,21 @@ import java.util.Map;
 
 public class RolDAOImpl implements GenericDAO<Rol> {
     private static final Logger logger = Logger.getLogger(RolDAOImpl.class);
-    private final Connection connection;
+    private final ConnectionProvider connectionProvider;
 
     public RolDAOImpl() throws SQLException {
-        this.connection = ConfiguracionSistema.getInstance().getConnection();
+        this.connectionProvider = ConfiguracionSistema.getInstance();
     }
     // constructor para inyección de dependencias para las pruebas unitarias
     public RolDAOImpl(Connection connection) {
-        this.connection = connection;
+        this.connectionProvider = () -> connection;
     }
 
     @Override
     public void save(Rol rol) throws Exception {
         String sql = "INSERT INTO proyecto.roles (nombre) VALUES (?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, rol.getNombre());
             int rows = ps.executeUpdate();
             if (rows == 0) {
@@ -40,7 +42,7 @@ public class RolDAOImpl implements GenericDAO<Rol> {
                 }
             }
             if (rol.getPermisos() != null && !rol.getPermisos().isEmpty()) {
-                savePermisos(rol);
+                savePermisos(connection, rol);
             }
             logger.info("Rol guardado: " + rol.getNombre());
         }
@@ -49,7 +51,8 @@ public class RolDAOImpl implements GenericDAO<Rol> {
     @Override
     public Rol findById(int id) throws Exception {
         String sql = "SELECT id, nombre FROM proyecto.roles WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, id);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -69,7 +72,8 @@ public class RolDAOImpl implements GenericDAO<Rol> {
 
     public Rol findByNombre(String nombre) throws Exception {
         String sql = "SELECT id, nombre FROM proyecto.roles WHERE nombre = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, nombre);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -86,7 +90,8 @@ public class RolDAOImpl implements GenericDAO<Rol> {
     // método para verificar si un rol tiene funcionarios asociados
     public boolean rolTieneFuncionarios(int idRol) throws Exception {
         String sql = "SELECT 1 FROM proyecto.funcionarios WHERE id_rol = ? LIMIT 1";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, idRol);
             try (ResultSet rs = ps.executeQuery()) {
                 return rs.next();
@@ -100,7 +105,8 @@ public class RolDAOImpl implements GenericDAO<Rol> {
 
         List<Rol> roles = new ArrayList<>();
 
-        try (PreparedStatement ps = connection.prepareStatement(sql);
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
@@ -122,7 +128,8 @@ public class RolDAOImpl implements GenericDAO<Rol> {
     public void update(Rol rol) throws Exception {
         String sql = "UPDATE proyecto.roles SET nombre = ? WHERE id = ?";
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, rol.getNombre());
             ps.setInt(2, rol.getId());
 
@@ -133,10 +140,10 @@ public class RolDAOImpl implements GenericDAO<Rol> {
             }
 
             // Primero borramos permisos del rol, luego agregamos nuevos
-            deletePermisos(rol.getId());
+            deletePermisos(connection, rol.getId());
 
             if (rol.getPermisos() != null && !rol.getPermisos().isEmpty()) {
-                savePermisos(rol);
+                savePermisos(connection, rol);
             }
 
             logger.info("Rol actualizado ID=" + rol.getId());
@@ -147,7 +154,8 @@ public class RolDAOImpl implements GenericDAO<Rol> {
     public void delete(int id) throws Exception {
         String sql = "DELETE FROM proyecto.roles WHERE id = ?";
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, id);
 
             int rows = ps.executeUpdate();
@@ -162,7 +170,7 @@ public class RolDAOImpl implements GenericDAO<Rol> {
 
     // metodos auxiliares
     // Este método asocia los permisos al rol en la tabla rol_permisos
-    private void savePermisos(Rol rol) throws SQLException {
+    private void savePermisos(Connection connection, Rol rol) throws SQLException {
         String query = "INSERT INTO proyecto.rol_permisos (id_rol, id_permiso) VALUES (?, ?)";
         try (PreparedStatement ps = connection.prepareStatement(query)) {
             for (Permiso permiso : rol.getPermisos()) {
@@ -176,7 +184,7 @@ public class RolDAOImpl implements GenericDAO<Rol> {
     }
 
     // Este método elimina todas las asociaciones de permisos para un rol dado
-    private void deletePermisos(int idRol) throws SQLException {
+    private void deletePermisos(Connection connection, int idRol) throws SQLException {
         String query = "DELETE FROM proyecto.rol_permisos WHERE id_rol = ?";
         try (PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, idRol);
@@ -191,7 +199,8 @@ public class RolDAOImpl implements GenericDAO<Rol> {
                 "JOIN proyecto.rol_permisos rp ON p.id = rp.id_permiso " +
                 "WHERE rp.id_rol = ?";
         List<Permiso> permisos = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, idRol);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -212,7 +221,8 @@ public class RolDAOImpl implements GenericDAO<Rol> {
             JOIN proyecto.permisos p ON p.id = rp.id_permiso
         """;
 
-        try (PreparedStatement ps = connection.prepareStatement(sql);
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
@@ -235,36 +245,37 @@ public class RolDAOImpl implements GenericDAO<Rol> {
             throw new Exception("Rol no encontrado.");
         }
 
-
-        String checkPermisoSql = "SELECT 1 FROM proyecto.permisos WHERE id = ?";
-        try (PreparedStatement psCheck = connection.prepareStatement(checkPermisoSql)) {
-            psCheck.setInt(1, idPermiso);
-            try (ResultSet rs = psCheck.executeQuery()) {
-                if (!rs.next()) {
-                    throw new Exception("Permiso no encontrado.");
+        try (Connection connection = connectionProvider.getConnection()) {
+            String checkPermisoSql = "SELECT 1 FROM proyecto.permisos WHERE id = ?";
+            try (PreparedStatement psCheck = connection.prepareStatement(checkPermisoSql)) {
+                psCheck.setInt(1, idPermiso);
+                try (ResultSet rs = psCheck.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new Exception("Permiso no encontrado.");
+                    }
                 }
             }
-        }
 
-        // Verificar si ya está asignado
-        String checkAsignadoSql = "SELECT 1 FROM proyecto.rol_permisos WHERE id_rol = ? AND id_permiso = ?";
-        try (PreparedStatement psCheckAsignado = connection.prepareStatement(checkAsignadoSql)) {
-            psCheckAsignado.setInt(1, idRol);
-            psCheckAsignado.setInt(2, idPermiso);
-            try (ResultSet rs = psCheckAsignado.executeQuery()) {
-                if (rs.next()) {
-                    throw new Exception("El permiso ya está asignado al rol.");
+            // Verificar si ya está asignado
+            String checkAsignadoSql = "SELECT 1 FROM proyecto.rol_permisos WHERE id_rol = ? AND id_permiso = ?";
+            try (PreparedStatement psCheckAsignado = connection.prepareStatement(checkAsignadoSql)) {
+                psCheckAsignado.setInt(1, idRol);
+                psCheckAsignado.setInt(2, idPermiso);
+                try (ResultSet rs = psCheckAsignado.executeQuery()) {
+                    if (rs.next()) {
+                        throw new Exception("El permiso ya está asignado al rol.");
+                    }
                 }
             }
-        }
 
-        // Insertar la asociación
-        String insertSql = "INSERT INTO proyecto.rol_permisos (id_rol, id_permiso) VALUES (?, ?)";
-        try (PreparedStatement psInsert = connection.prepareStatement(insertSql)) {
-            psInsert.setInt(1, idRol);
-            psInsert.setInt(2, idPermiso);
-            psInsert.executeUpdate();
-            logger.info("Permiso " + idPermiso + " agregado al rol " + idRol);
+            // Insertar la asociación
+            String insertSql = "INSERT INTO proyecto.rol_permisos (id_rol, id_permiso) VALUES (?, ?)";
+            try (PreparedStatement psInsert = connection.prepareStatement(insertSql)) {
+                psInsert.setInt(1, idRol);
+                psInsert.setInt(2, idPermiso);
+                psInsert.executeUpdate();
+                logger.info("Permiso " + idPermiso + " agregado al rol " + idRol);
+            }
         }
     }
 
@@ -274,36 +285,38 @@ public class RolDAOImpl implements GenericDAO<Rol> {
             throw new Exception("Rol no encontrado.");
         }
 
-        // Verificar que el permiso existe
-        String checkPermisoSql = "SELECT 1 FROM proyecto.permisos WHERE id = ?";
-        try (PreparedStatement psCheck = connection.prepareStatement(checkPermisoSql)) {
-            psCheck.setInt(1, idPermiso);
-            try (ResultSet rs = psCheck.executeQuery()) {
-                if (!rs.next()) {
-                    throw new Exception("Permiso no encontrado.");
+        try (Connection connection = connectionProvider.getConnection()) {
+            // Verificar que el permiso existe
+            String checkPermisoSql = "SELECT 1 FROM proyecto.permisos WHERE id = ?";
+            try (PreparedStatement psCheck = connection.prepareStatement(checkPermisoSql)) {
+                psCheck.setInt(1, idPermiso);
+                try (ResultSet rs = psCheck.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new Exception("Permiso no encontrado.");
+                    }
                 }
             }
-        }
 
-        // Verificar si está asignado
-        String checkAsignadoSql = "SELECT 1 FROM proyecto.rol_permisos WHERE id_rol = ? AND id_permiso = ?";
-        try (PreparedStatement psCheckAsignado = connection.prepareStatement(checkAsignadoSql)) {
-            psCheckAsignado.setInt(1, idRol);
-            psCheckAsignado.setInt(2, idPermiso);
-            try (ResultSet rs = psCheckAsignado.executeQuery()) {
-                if (!rs.next()) {
-                    throw new Exception("El permiso no está asignado al rol.");
+            // Verificar si está asignado
+            String checkAsignadoSql = "SELECT 1 FROM proyecto.rol_permisos WHERE id_rol = ? AND id_permiso = ?";
+            try (PreparedStatement psCheckAsignado = connection.prepareStatement(checkAsignadoSql)) {
+                psCheckAsignado.setInt(1, idRol);
+                psCheckAsignado.setInt(2, idPermiso);
+                try (ResultSet rs = psCheckAsignado.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new Exception("El permiso no está asignado al rol.");
+                    }
                 }
             }
-        }
 
-        // Eliminar la asociación
-        String deleteSql = "DELETE FROM proyecto.rol_permisos WHERE id_rol = ? AND id_permiso = ?";
-        try (PreparedStatement psDelete = connection.prepareStatement(deleteSql)) {
-            psDelete.setInt(1, idRol);
-            psDelete.setInt(2, idPermiso);
-            psDelete.executeUpdate();
-            logger.info("Permiso " + idPermiso + " quitado del rol " + idRol);
+            // Eliminar la asociación
+            String deleteSql = "DELETE FROM proyecto.rol_permisos WHERE id_rol = ? AND id_permiso = ?";
+            try (PreparedStatement psDelete = connection.prepareStatement(deleteSql)) {
+                psDelete.setInt(1, idRol);
+                psDelete.setInt(2, idPermiso);
+                psDelete.executeUpdate();
+                logger.info("Permiso " + idPermiso + " quitado del rol " + idRol);
+            }
         }
     }
 
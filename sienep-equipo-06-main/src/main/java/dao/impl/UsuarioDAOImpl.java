@@ -1,7 +1,9 @@
 package dao.impl;
 
+import dao.ProcesadorFila;
 import dao.UsuarioDAO;
 import db.ConfiguracionSistema;
+import db.ConnectionProvider;
 import exception.AutenticacionFallidaException;
 import exception.CuentaInactivaException;
 import model.Estudiante;
@@ -14,28 +16,37 @@ import org.apache.log4j.Logger;
 import utils.PasswordHasher;
 
 import java.sql.*;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class UsuarioDAOImpl implements UsuarioDAO {
     private static final Logger logger = Logger.getLogger(UsuarioDAOImpl.class);
-    private Connection connection;
+    // emails sin cuenta: compartida por todas las instancias para que un alta invalide lo que ven los logins
+    private static final CacheEmailsDesconocidos EMAILS_DESCONOCIDOS = new CacheEmailsDesconocidos(60, 10_000);
+    private final ConnectionProvider connectionProvider;
+    private final CacheEmailsDesconocidos emailsDesconocidos;
 
     public UsuarioDAOImpl() throws SQLException {
-        this.connection = ConfiguracionSistema.getInstance().getConnection();
+        this.connectionProvider = ConfiguracionSistema.getInstance();
+        this.emailsDesconocidos = EMAILS_DESCONOCIDOS;
     }
 
     // constructor para inyección de dependencias en tests
     public UsuarioDAOImpl(Connection connection) {
-        this.connection = connection;
+        this.connectionProvider = () -> connection;
+        this.emailsDesconocidos = new CacheEmailsDesconocidos(60, 10_000);
     }
 
     @Override
     public void save(Usuario usuario) throws Exception {
-        String passwordHash = PasswordHasher.hash(usuario.getContrasenia());
+        String passwordHash = contraseniaAGuardar(usuario.getContrasenia());
         usuario.setContrasenia(passwordHash);
 
         String query = "INSERT INTO proyecto.usuarios (nombre, apellido, email, contrasenia, documento, estado, tipo) VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id";
-        try (PreparedStatement ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, usuario.getNombre());
             ps.setString(2, usuario.getApellido());
             ps.setString(3, usuario.getEmail());
@@ -51,16 +62,57 @@ public class UsuarioDAOImpl implements UsuarioDAO {
                     logger.info("Usuario guardado con ID: " + usuario.getId());
                 }
             }
+            emailsDesconocidos.quitar(usuario.getEmail());
         } catch (SQLException e) {
             logger.error("Error al guardar el usuario: " + usuario.getEmail(), e);
             throw e;
         }
     }
 
+    // Alta masiva: los hashes se calculan en paralelo y las filas van en un solo executeBatch.
+    // A diferencia de save, no reemplaza la contraseña del modelo por el hash (por si el lote se revierte y se reintenta).
+    @Override
+    public void saveAll(List<? extends Usuario> usuarios) throws Exception {
+        if (usuarios.isEmpty()) {
+            return;
+        }
+        List<String> hashes = usuarios.parallelStream().map(u -> contraseniaAGuardar(u.getContrasenia())).toList();
+        String query = "INSERT INTO proyecto.usuarios (nombre, apellido, email, contrasenia, documento, estado, tipo) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query, new String[]{"id"})) {
+            for (int i = 0; i < usuarios.size(); i++) {
+                Usuario usuario = usuarios.get(i);
+                ps.setString(1, usuario.getNombre());
+                ps.setString(2, usuario.getApellido());
+                ps.setString(3, usuario.getEmail());
+                ps.setString(4, hashes.get(i));
+                ps.setString(5, usuario.getDocumento());
+                ps.setString(6, usuario.getEstado().toString().toUpperCase());
+                ps.setString(7, usuario.getTipo().toString().toUpperCase());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                for (Usuario usuario : usuarios) {
+                    if (!rs.next()) {
+                        throw new SQLException("El lote no devolvió todos los ids generados");
+                    }
+                    usuario.setId(rs.getInt(1));
+                }
+            }
+            usuarios.forEach(u -> emailsDesconocidos.quitar(u.getEmail()));
+            logger.info("Usuarios guardados en lote: " + usuarios.size());
+        } catch (SQLException e) {
+            logger.error("Error guardando lote de " + usuarios.size() + " usuarios", e);
+            throw e;
+        }
+    }
+
     @Override
     public Usuario findById(int id) throws Exception {
         String query = "SELECT * FROM proyecto.usuarios WHERE id = ?";
-        try(PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, id);
             try(ResultSet rs = ps.executeQuery()) {
                 if(rs.next()) {
@@ -80,7 +132,8 @@ public class UsuarioDAOImpl implements UsuarioDAO {
     @Override
     public List<Usuario> findAll() throws Exception {
         String query = "SELECT * FROM proyecto.usuarios";
-        try(PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             try(ResultSet rs = ps.executeQuery()) {
                 List<Usuario> usuarios = new java.util.ArrayList<>();
                 while(rs.next()) {
@@ -95,10 +148,42 @@ public class UsuarioDAOImpl implements UsuarioDAO {
         }
     }
 
+    @Override
+    public List<Usuario> findPage(int despuesDeId, int limite) throws Exception {
+        String query = "SELECT * FROM proyecto.usuarios WHERE id > ? ORDER BY id LIMIT ?";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setInt(1, despuesDeId);
+            ps.setInt(2, limite);
+            try(ResultSet rs = ps.executeQuery()) {
+                List<Usuario> usuarios = new java.util.ArrayList<>();
+                while(rs.next()) {
+                    usuarios.add(mapUsuarioFromRS(rs));
+                }
+                return usuarios;
+            }
+        } catch (SQLException e) {
+            logger.error("Error al recuperar la página de usuarios después del ID: " + despuesDeId, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void scanAll(ProcesadorFila<? super Usuario> procesador) throws Exception {
+        String query = "SELECT * FROM proyecto.usuarios ORDER BY id";
+        try {
+            LecturaCursor.recorrer(connectionProvider, query, (connection, rs) -> procesador.procesar(mapUsuarioFromRS(rs)));
+        } catch (SQLException e) {
+            logger.error("Error recorriendo usuarios con cursor", e);
+            throw e;
+        }
+    }
+
     @Override
     public void update(Usuario usuario) throws Exception {
         String query = "UPDATE proyecto.usuarios SET nombre = ?, apellido = ?, email = ?, contrasenia = ?, documento = ?, estado = ?, tipo = ? WHERE id = ?";
-        try(PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, usuario.getNombre());
             ps.setString(2, usuario.getApellido());
             ps.setString(3, usuario.getEmail());
@@ -110,6 +195,7 @@ public class UsuarioDAOImpl implements UsuarioDAO {
 
             int rowsAffected = ps.executeUpdate();
             if(rowsAffected > 0) {
+                emailsDesconocidos.quitar(usuario.getEmail());
                 logger.info("Usuario actualizado con ID: " + usuario.getId());
             } else {
                 logger.warn("No se encontró usuario para actualizar con ID: " + usuario.getId());
@@ -123,7 +209,8 @@ public class UsuarioDAOImpl implements UsuarioDAO {
     @Override
     public void deleteLogical(int id) throws Exception {
         String query = "UPDATE proyecto.usuarios SET estado = 'INACTIVO' WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, id);
             int filasAfectadas = ps.executeUpdate();
             if (filasAfectadas > 0) {
@@ -147,7 +234,8 @@ public class UsuarioDAOImpl implements UsuarioDAO {
         WHERE u.email = ?
     """;
 
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, email);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -176,12 +264,44 @@ public class UsuarioDAOImpl implements UsuarioDAO {
     }
 
 
+    @Override
+    public Set<String> findEmailsExistentes(Collection<String> emails) throws Exception {
+        Set<String> existentes = new HashSet<>();
+        if (emails.isEmpty()) {
+            return existentes;
+        }
+        String query = "SELECT email FROM proyecto.usuarios WHERE email = ANY(?)";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setArray(1, connection.createArrayOf("varchar", emails.toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    existentes.add(rs.getString("email"));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error buscando emails existentes", e);
+            throw e;
+        }
+        return existentes;
+    }
+
     @Override
     public Usuario validateCredentials(String email, String contrasenia) throws Exception {
+        // email ya buscado sin resultado: se rechaza sin consultar la base
+        if (emailsDesconocidos.contiene(email)) {
+            throw new AutenticacionFallidaException("Credenciales inválidas para el usuario: " + email);
+        }
         Usuario usuario = findByEmail(email);
+        if (usuario == null) {
+            emailsDesconocidos.agregar(email);
+        }
         if (usuario != null && usuario.getEstado() == EstadoUsuario.ACTIVO) {
             if (PasswordHasher.verify(contrasenia, usuario.getContrasenia())) {
                 logger.info("Autenticación exitosa para: " + email);
+                if (PasswordHasher.necesitaRehash(usuario.getContrasenia())) {
+                    rehashear(usuario, contrasenia);
+                }
                 return usuario;
             } else {
                 logger.warn("Contraseña incorrecta para el usuario: " + email);
@@ -191,11 +311,31 @@ public class UsuarioDAOImpl implements UsuarioDAO {
     }
 
 
+    // Migración perezosa: con la contraseña en claro recién verificada se guarda el hash con el esquema y costo actuales.
+    // Si falla no se corta el login; se vuelve a intentar en el próximo.
+    private void rehashear(Usuario usuario, String contrasenia) {
+        String nuevoHash = PasswordHasher.hash(contrasenia);
+        String query = "UPDATE proyecto.usuarios SET contrasenia = ? WHERE id = ? AND contrasenia = ?";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setString(1, nuevoHash);
+            ps.setInt(2, usuario.getId());
+            ps.setString(3, usuario.getContrasenia());  // no pisa un cambio de contraseña concurrente
+            if (ps.executeUpdate() > 0) {
+                usuario.setContrasenia(nuevoHash);
+                logger.info("Hash de contraseña actualizado para el usuario ID " + usuario.getId());
+            }
+        } catch (SQLException e) {
+            logger.warn("No se pudo actualizar el hash de contraseña del usuario ID " + usuario.getId() + ": " + e.getMessage());
+        }
+    }
+
     @Override
     public void changePassword(int id, String nuevaContrasenia) throws Exception {
         String hashedPassword = PasswordHasher.hash(nuevaContrasenia);
         String query = "UPDATE proyecto.usuarios SET contrasenia = ? WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, hashedPassword);
             ps.setInt(2, id);
             int filasAfectadas = ps.executeUpdate();
@@ -210,10 +350,37 @@ public class UsuarioDAOImpl implements UsuarioDAO {
         }
     }
 
+    @Override
+    public Usuario activateAccount(String email, String codigo, String nuevaContrasenia) throws Exception {
+        Usuario usuario = findByEmail(email);
+        if (usuario == null || usuario.getEstado() != EstadoUsuario.ACTIVO
+                || !PasswordHasher.verifyActivacion(codigo, usuario.getContrasenia())) {
+            throw new AutenticacionFallidaException("Código de activación inválido para el usuario: " + email);
+        }
+        String hashedPassword = PasswordHasher.hash(nuevaContrasenia);
+        String query = "UPDATE proyecto.usuarios SET contrasenia = ? WHERE id = ? AND contrasenia = ?";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setString(1, hashedPassword);
+            ps.setInt(2, usuario.getId());
+            ps.setString(3, usuario.getContrasenia());  // dos canjes simultáneos del mismo código: gana uno
+            if (ps.executeUpdate() == 0) {
+                throw new AutenticacionFallidaException("El código de activación ya fue usado: " + email);
+            }
+        } catch (SQLException e) {
+            logger.error("Error activando la cuenta: " + email, e);
+            throw e;
+        }
+        usuario.setContrasenia(hashedPassword);
+        logger.info("Cuenta activada para el usuario ID " + usuario.getId());
+        return usuario;
+    }
+
     @Override
     public Usuario viewNonSensitiveData(int id) throws Exception {
         String query = "SELECT id, nombre, apellido, email, documento, estado FROM proyecto.usuarios WHERE id = ?";
-        try(PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setInt(1, id);
             try(ResultSet rs = ps.executeQuery()){
                 if(rs.next()) {
@@ -229,6 +396,11 @@ public class UsuarioDAOImpl implements UsuarioDAO {
 
     // Métodos auxiliares
 
+    // las cuentas importadas llegan con el hash del código de activación ya calculado: se guarda tal cual
+    private static String contraseniaAGuardar(String contrasenia) {
+        return PasswordHasher.esActivacion(contrasenia) ? contrasenia : PasswordHasher.hash(contrasenia);
+    }
+
     @Override
     public Usuario mapUsuarioFromRS(ResultSet rs) throws Exception {
         String tipo = rs.getString("tipo");
@@ -2,32 +2,65 @@ package db;
 
 import lombok.Getter;
 import org.apache.log4j.Logger;
+import utils.PasswordHasher;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
 @Getter
-public class ConfiguracionSistema {
+public class ConfiguracionSistema implements ConnectionProvider {
     private static final Logger logger = Logger.getLogger(ConfiguracionSistema.class);
     private static ConfiguracionSistema instance;
-    private Connection connection;
+    private ConnectionPool pool;
 
     private String dbUrl;
     private String dbUser;
     private String dbPassword;
     private String dbDriver;
 
+    // dimensionamiento del pool (db.pool.* en config.properties)
+    private int poolMaxSize;
+    private int poolMinIdle;
+    private long poolBorrowTimeoutMs;
+    private long poolMaxLifetimeMs;
+    private long poolIdleTimeoutMs;
+    private int poolValidationTimeoutSeconds;
+
+    // caches de datos de referencia (cache.referencia.* en config.properties)
+    private int cacheReferenciaTtlSeconds;
+    private int cacheReferenciaMaxEntries;
+
+    // cantidad de códigos de instancia reservados por viaje a la base
+    private int codigoBloque;
+
+    // sincronización con el calendario (calendario.* en config.properties)
+    private String calendarioModo;  // google | local | desactivado
+    private long calendarioIntervaloSegundos;
+    private int calendarioLote;
+    private int calendarioMaxIntentos;
+    private long calendarioEsperaBaseSegundos;
+    private long calendarioEsperaMaximaSegundos;
+    private long calendarioPlazoReclamoSegundos;
+
+    // costo de PBKDF2 para los hashes de contraseña nuevos (seguridad.hash.iteraciones)
+    private int hashIteraciones;
+
+    // búsqueda de estudiantes con índice de prefijos en memoria en lugar del índice trigram (estudiantes.busqueda.indiceMemoria)
+    private boolean busquedaIndiceMemoria;
+
     private ConfiguracionSistema() {
         logger.info("Iniciando configuración del sistema...");
         cargarConfiguracion();
+        this.pool = new ConnectionPool(dbUrl, dbUser, dbPassword, poolMaxSize, poolMinIdle,
+                poolBorrowTimeoutMs, poolMaxLifetimeMs, poolIdleTimeoutMs, poolValidationTimeoutSeconds);
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "pool-conexiones-cierre"));
         logger.info("Configuración del sistema cargada correctamente.");
     }
 
-    public static ConfiguracionSistema getInstance() {
+    public static synchronized ConfiguracionSistema getInstance() {
         if(instance == null) {
             logger.info("Creando instancia de ConfiguracionSistema...");
             instance = new ConfiguracionSistema();
@@ -35,13 +68,10 @@ public class ConfiguracionSistema {
         return instance;
     }
 
-    // Devuelve una conexión válida, creando una nueva si es necesario
+    // Presta una conexión del pool; quien la pide debe cerrarla (try-with-resources) para devolverla
+    @Override
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-            logger.info("Conexión establecida con la base de datos.");
-        }
-        return connection;
+        return pool.getConnection();
     }
 
     // Carga de propiedades desde config.properties
@@ -56,6 +86,26 @@ public class ConfiguracionSistema {
             this.dbUser = props.getProperty("db.user");
             this.dbPassword = props.getProperty("db.password");
             this.dbDriver = props.getProperty("db.driver", "org.postgresql.Driver");
+            this.poolMaxSize = Integer.parseInt(props.getProperty("db.pool.maxSize", "10"));
+            this.poolMinIdle = Integer.parseInt(props.getProperty("db.pool.minIdle", "2"));
+            this.poolBorrowTimeoutMs = Long.parseLong(props.getProperty("db.pool.borrowTimeoutMs", "5000"));
+            this.poolMaxLifetimeMs = Long.parseLong(props.getProperty("db.pool.maxLifetimeMs", "1800000"));
+            this.poolIdleTimeoutMs = Long.parseLong(props.getProperty("db.pool.idleTimeoutMs", "600000"));
+            this.poolValidationTimeoutSeconds = Integer.parseInt(props.getProperty("db.pool.validationTimeoutSeconds", "2"));
+            this.cacheReferenciaTtlSeconds = Integer.parseInt(props.getProperty("cache.referencia.ttlSeconds", "300"));
+            this.cacheReferenciaMaxEntries = Integer.parseInt(props.getProperty("cache.referencia.maxEntries", "500"));
+            this.codigoBloque = Integer.parseInt(props.getProperty("instancia.codigo.bloque", "50"));
+            this.calendarioModo = props.getProperty("calendario.modo", "google");
+            this.calendarioIntervaloSegundos = Long.parseLong(props.getProperty("calendario.intervaloSegundos", "10"));
+            this.calendarioLote = Integer.parseInt(props.getProperty("calendario.lote", "20"));
+            this.calendarioMaxIntentos = Integer.parseInt(props.getProperty("calendario.maxIntentos", "8"));
+            this.calendarioEsperaBaseSegundos = Long.parseLong(props.getProperty("calendario.esperaBaseSegundos", "30"));
+            this.calendarioEsperaMaximaSegundos = Long.parseLong(props.getProperty("calendario.esperaMaximaSegundos", "3600"));
+            this.calendarioPlazoReclamoSegundos = Long.parseLong(props.getProperty("calendario.plazoReclamoSegundos", "300"));
+            this.hashIteraciones = Integer.parseInt(props.getProperty("seguridad.hash.iteraciones",
+                    String.valueOf(PasswordHasher.ITERACIONES_POR_DEFECTO)));
+            PasswordHasher.setIteraciones(hashIteraciones);
+            this.busquedaIndiceMemoria = Boolean.parseBoolean(props.getProperty("estudiantes.busqueda.indiceMemoria", "false"));
 
             if (dbUrl == null || dbUser == null || dbPassword == null) {
                 throw new RuntimeException("Propiedades de base de datos faltantes en config.properties");
@@ -0,0 +1,353 @@
+package db;
+
+import org.apache.log4j.Logger;
+import utils.TareaProgramada;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ * - Como máximo {@code maxSize} conexiones físicas prestadas a la vez; el resto espera hasta {@code borrowTimeoutMs}.
+ * - Cada préstamo valida la conexión con {@link Connection#isValid(int)} si estuvo ociosa más de medio segundo.
+ * - Las conexiones se descartan al superar {@code maxLifetimeMs} y las ociosas se desalojan tras {@code idleTimeoutMs}.
+ * - Se mantienen al menos {@code minIdle} conexiones ociosas (sin pasar de {@code maxSize} físicas): se abren al crear
+ *   el pool y se reponen en cada ronda de desalojo, así un pico tras un rato sin uso no paga el connect.
+ * - Dentro de un mismo hilo los préstamos son reentrantes: un DAO que llama a otro DAO dentro de una
+ *   transacción recibe la misma conexión física, y ésta vuelve al pool cuando se cierra el último préstamo.
+ */
+public class ConnectionPool implements ConnectionProvider {
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class);
+    // si la conexión se usó hace menos de esto no se vuelve a validar (evita un round trip por préstamo)
+    private static final long VALIDACION_OMITIDA_MS = 500;
+
+    // abre una conexión física nueva
+    private final ConnectionProvider fabrica;
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long idleTimeoutMs;
+    private final int validationTimeoutSeconds;
+
+    private final Semaphore permisos;
+    private final Deque<ConexionFisica> ociosas = new ConcurrentLinkedDeque<>();
+    private final ThreadLocal<Prestamo> prestamoActual = new ThreadLocal<>();
+    private final TareaProgramada desalojador = new TareaProgramada("pool-conexiones-desalojo",
+            () -> desalojarOciosas(System.currentTimeMillis()));
+    private volatile boolean cerrado;
+
+    // métricas
+    private final AtomicInteger totalConexiones = new AtomicInteger();
+    private final LongAdder prestamos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder creadas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle,
+                          long borrowTimeoutMs, long maxLifetimeMs, long idleTimeoutMs, int validationTimeoutSeconds) {
+        this(() -> DriverManager.getConnection(url, user, password), maxSize, minIdle,
+                borrowTimeoutMs, maxLifetimeMs, idleTimeoutMs, validationTimeoutSeconds);
+    }
+
+    // constructor para inyección de dependencias en tests
+    ConnectionPool(ConnectionProvider fabrica, int maxSize, int minIdle,
+                   long borrowTimeoutMs, long maxLifetimeMs, long idleTimeoutMs, int validationTimeoutSeconds) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo del pool debe ser mayor a 0");
+        }
+        this.fabrica = fabrica;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permisos = new Semaphore(maxSize, true);
+
+        completarMinimo();
+        long periodo = Math.max(1000, Math.min(idleTimeoutMs, maxLifetimeMs) / 2);
+        desalojador.iniciar(periodo, TimeUnit.MILLISECONDS);
+        logger.info("Pool de conexiones iniciado (max=" + maxSize + ", minIdle=" + this.minIdle + ")");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+        // préstamo reentrante: el hilo ya tiene una conexión abierta (p.ej. dentro de una transacción)
+        Prestamo actual = prestamoActual.get();
+        if (actual != null) {
+            actual.referencias++;
+            return actual.nuevoHandle();
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            if (!permisos.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                logger.warn("Timeout esperando conexión del pool (" + borrowTimeoutMs + " ms, activas=" + getConexionesActivas() + ")");
+                throw new SQLTimeoutException("No hay conexiones disponibles tras " + borrowTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando una conexión del pool", e);
+        }
+        registrarEspera(System.nanoTime() - inicio);
+
+        ConexionFisica fisica;
+        try {
+            fisica = obtenerConexionValida();
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+        prestamos.increment();
+        Prestamo prestamo = new Prestamo(fisica);
+        prestamoActual.set(prestamo);
+        return prestamo.nuevoHandle();
+    }
+
+    public void close() {
+        cerrado = true;
+        desalojador.detener();
+        ConexionFisica fisica;
+        while ((fisica = ociosas.pollFirst()) != null) {
+            descartar(fisica);
+        }
+        logger.info("Pool de conexiones cerrado. " + resumen());
+    }
+
+    public String resumen() {
+        return "prestamos=" + prestamos.sum() + ", timeouts=" + timeouts.sum() +
+                ", esperaPromedioMs=" + String.format("%.3f", getEsperaPromedioMillis()) +
+                ", esperaMaximaMs=" + String.format("%.3f", getEsperaMaximaMillis()) +
+                ", creadas=" + creadas.sum() + ", descartadas=" + descartadas.sum() +
+                ", activas=" + getConexionesActivas() + ", ociosas=" + getConexionesOciosas();
+    }
+
+    // Métricas
+    public long getPrestamos() {
+        return prestamos.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getConexionesCreadas() {
+        return creadas.sum();
+    }
+
+    public long getConexionesDescartadas() {
+        return descartadas.sum();
+    }
+
+    public double getEsperaPromedioMillis() {
+        long n = prestamos.sum() + timeouts.sum();
+        return n == 0 ? 0 : esperaTotalNanos.sum() / (double) n / 1_000_000;
+    }
+
+    public double getEsperaMaximaMillis() {
+        return esperaMaximaNanos.get() / 1_000_000.0;
+    }
+
+    public int getConexionesActivas() {
+        return maxSize - permisos.availablePermits();
+    }
+
+    public int getConexionesOciosas() {
+        return ociosas.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    // Métodos auxiliares
+
+    private ConexionFisica obtenerConexionValida() throws SQLException {
+        ConexionFisica fisica;
+        while ((fisica = ociosas.pollFirst()) != null) {
+            long ahora = System.currentTimeMillis();
+            if (fisica.expirada(ahora, maxLifetimeMs)) {
+                descartar(fisica);
+                continue;
+            }
+            if (ahora - fisica.ultimoUso > VALIDACION_OMITIDA_MS && !esValida(fisica)) {
+                logger.warn("Conexión inválida descartada del pool");
+                descartar(fisica);
+                continue;
+            }
+            return fisica;
+        }
+        return crear();
+    }
+
+    private boolean esValida(ConexionFisica fisica) {
+        try {
+            return fisica.conexion.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private ConexionFisica crear() throws SQLException {
+        Connection conexion = fabrica.getConnection();
+        totalConexiones.incrementAndGet();
+        creadas.increment();
+        logger.info("Conexión establecida con la base de datos (total=" + totalConexiones.get() + ").");
+        return new ConexionFisica(conexion);
+    }
+
+    private void devolver(ConexionFisica fisica) {
+        try {
+            // una transacción que quedó abierta no debe filtrarse al próximo préstamo
+            if (!fisica.conexion.getAutoCommit()) {
+                fisica.conexion.rollback();
+                fisica.conexion.setAutoCommit(true);
+            }
+            if (cerrado || fisica.expirada(System.currentTimeMillis(), maxLifetimeMs) || fisica.conexion.isClosed()) {
+                descartar(fisica);
+            } else {
+                fisica.ultimoUso = System.currentTimeMillis();
+                ociosas.offerFirst(fisica);
+            }
+        } catch (SQLException e) {
+            logger.warn("Error devolviendo conexión al pool, se descarta", e);
+            descartar(fisica);
+        } finally {
+            permisos.release();
+        }
+    }
+
+    private void descartar(ConexionFisica fisica) {
+        try {
+            fisica.conexion.close();
+        } catch (SQLException e) {
+            logger.warn("Error cerrando conexión descartada", e);
+        }
+        totalConexiones.decrementAndGet();
+        descartadas.increment();
+    }
+
+    void desalojarOciosas(long ahora) {
+        for (ConexionFisica fisica : ociosas) {
+            boolean expirada = fisica.expirada(ahora, maxLifetimeMs);
+            boolean ociosaDemasiado = ahora - fisica.ultimoUso > idleTimeoutMs && ociosas.size() > minIdle;
+            // remove() devuelve false si otro hilo la tomó entre tanto
+            if ((expirada || ociosaDemasiado) && ociosas.remove(fisica)) {
+                descartar(fisica);
+            }
+        }
+        completarMinimo();
+    }
+
+    // Si la base no responde se deja para la próxima ronda: los préstamos abren conexiones a demanda igual
+    private void completarMinimo() {
+        while (!cerrado && ociosas.size() < minIdle && totalConexiones.get() < maxSize) {
+            ConexionFisica fisica;
+            try {
+                fisica = crear();
+            } catch (SQLException e) {
+                logger.warn("No se pudo completar el mínimo de " + minIdle + " conexiones ociosas: " + e.getMessage());
+                return;
+            }
+            ociosas.offerLast(fisica);
+            // close() concurrente: ya vació la lista, la recién creada no debe quedar abierta
+            if (cerrado && ociosas.remove(fisica)) {
+                descartar(fisica);
+            }
+        }
+    }
+
+    private void registrarEspera(long nanos) {
+        esperaTotalNanos.add(nanos);
+        esperaMaximaNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static final class ConexionFisica {
+        private final Connection conexion;
+        private final long creada = System.currentTimeMillis();
+        private volatile long ultimoUso = creada;
+
+        private ConexionFisica(Connection conexion) {
+            this.conexion = conexion;
+        }
+
+        private boolean expirada(long ahora, long maxLifetimeMs) {
+            return ahora - creada > maxLifetimeMs;
+        }
+    }
+
+    // Un préstamo por hilo; cada getConnection() reentrante entrega un handle distinto sobre la misma conexión
+    private final class Prestamo {
+        private final ConexionFisica fisica;
+        private int referencias = 1;
+
+        private Prestamo(ConexionFisica fisica) {
+            this.fisica = fisica;
+        }
+
+        private Connection nuevoHandle() {
+            boolean[] handleCerrado = {false};
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close" -> {
+                                if (!handleCerrado[0]) {
+                                    handleCerrado[0] = true;
+                                    liberar();
+                                }
+                                return null;
+                            }
+                            case "isClosed" -> {
+                                return handleCerrado[0] || fisica.conexion.isClosed();
+                            }
+                            case "equals" -> {
+                                return proxy == args[0];
+                            }
+                            case "hashCode" -> {
+                                return System.identityHashCode(proxy);
+                            }
+                            case "toString" -> {
+                                return "ConexionPool[" + fisica.conexion + "]";
+                            }
+                            default -> {
+                                if (handleCerrado[0]) {
+                                    throw new SQLException("La conexión ya fue devuelta al pool");
+                                }
+                                try {
+                                    return method.invoke(fisica.conexion, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                            }
+                        }
+                    });
+        }
+
+        private void liberar() {
+            if (--referencias == 0) {
+                prestamoActual.remove();
+                devolver(fisica);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Origen de conexiones para los DAOs: cada operación pide una conexión y la cierra al terminar
+@FunctionalInterface
+public interface ConnectionProvider {
+    Connection getConnection() throws SQLException;
+}
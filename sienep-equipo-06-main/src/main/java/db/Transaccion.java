@@ -0,0 +1,39 @@
+package db;
+
+import java.sql.Connection;
+
+/**
+ * Ejecuta varias operaciones de DAOs en una sola transacción.
+ * Mientras dura el trabajo el hilo tiene la conexión prestada, así que los DAOs llamados adentro
+ * reciben la misma conexión (préstamo reentrante del pool). Si ya había una transacción abierta,
+ * el trabajo se suma a ella y el commit queda a cargo de quien la abrió.
+ */
+public final class Transaccion {
+
+    @FunctionalInterface
+    public interface Trabajo {
+        void ejecutar() throws Exception;
+    }
+
+    private Transaccion() {
+    }
+
+    public static void ejecutar(ConnectionProvider connectionProvider, Trabajo trabajo) throws Exception {
+        try (Connection connection = connectionProvider.getConnection()) {
+            if (!connection.getAutoCommit()) {
+                trabajo.ejecutar();
+                return;
+            }
+            connection.setAutoCommit(false);
+            try {
+                trabajo.ejecutar();
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package db.semilla;
+
+import org.postgresql.copy.PGCopyOutputStream;
+import org.postgresql.core.BaseConnection;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+// Envía filas a un COPY ... FROM STDIN en formato texto, sin armar el lote entero en memoria
+class EscritorCopy implements AutoCloseable {
+    private final BufferedWriter writer;
+    private long filas;
+
+    EscritorCopy(BaseConnection connection, String tabla, String columnas) throws SQLException {
+        String sql = "COPY " + tabla + " (" + columnas + ") FROM STDIN";
+        this.writer = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(connection, sql, 1 << 16), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    void fila(Object... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                writer.write('\t');
+            }
+            writer.write(campo(valores[i]));
+        }
+        writer.write('\n');
+        filas++;
+    }
+
+    long getFilas() {
+        return filas;
+    }
+
+    // cerrar termina el COPY; si el servidor rechazó algo la excepción sale acá
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    static String campo(Object valor) {
+        if (valor == null) {
+            return "\\N";
+        }
+        String texto = valor.toString();
+        StringBuilder sb = new StringBuilder(texto.length());
+        for (char c : texto.toCharArray()) {
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
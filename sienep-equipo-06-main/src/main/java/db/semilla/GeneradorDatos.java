@@ -0,0 +1,124 @@
+package db.semilla;
+
+import model.*;
+import model.enums.Canal;
+import model.enums.EstadoUsuario;
+import model.enums.TipoUsuario;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Arma modelos sintéticos a partir de una semilla.
+ * Cada fila depende sólo de (semilla, tipo, número), no del orden de generación: la misma fila se
+ * puede volver a generar para cargar la tabla hija sin guardar el millón de objetos en memoria.
+ */
+public class GeneradorDatos {
+    private static final String[] NOMBRES = {"Ana", "Bruno", "Camila", "Diego", "Elena", "Facundo", "Gabriela",
+            "Hernán", "Inés", "Joaquín", "Lucía", "Martín", "Natalia", "Pablo", "Romina", "Santiago", "Valentina"};
+    private static final String[] APELLIDOS = {"Rodríguez", "González", "Fernández", "Silva", "Pereira", "Martínez",
+            "Sosa", "Suárez", "López", "Gómez", "Díaz", "Castro", "Núñez", "Álvarez", "Méndez", "Acosta"};
+    private static final String[] CARRERAS = {"Tecnólogo en Informática", "Ingeniería en Mecatrónica",
+            "Ingeniería en Logística", "Tecnólogo en Química", "Licenciatura en Análisis Alimentario"};
+    private static final String[] SISTEMAS_SALUD = {"ASSE", "CASMU", "Médica Uruguaya", "SMI", "Española"};
+    private static final String[] MOTIVOS = {"Dificultades de aprendizaje", "Ansiedad ante evaluaciones",
+            "Situación familiar", "Bajo rendimiento", "Problemas de integración"};
+    private static final String[] CALLES = {"18 de Julio", "Rivera", "Bulevar Artigas", "Colonia", "Sarandí"};
+    private static final String[] TITULOS = {"Seguimiento académico", "Entrevista inicial", "Consulta de orientación",
+            "Reunión con tutor", "Revisión de avance"};
+    private static final String[] LUGARES = {"Aula 101", "Biblioteca", "Laboratorio", "Patio", "Cantina"};
+    private static final Canal[] CANALES = Canal.values();
+
+    // separa las secuencias de cada tipo de fila
+    private static final long ESTUDIANTE = 1, FUNCIONARIO = 2, INSTANCIA = 3;
+
+    private final long semilla;
+
+    public GeneradorDatos(long semilla) {
+        this.semilla = semilla;
+    }
+
+    public Estudiante estudiante(int n) {
+        Random rnd = random(ESTUDIANTE, n);
+        String nombre = elegir(rnd, NOMBRES);
+        String apellido = elegir(rnd, APELLIDOS);
+        List<String> observaciones = new ArrayList<>();
+        for (int i = rnd.nextInt(3); i > 0; i--) {
+            observaciones.add("Observación " + (rnd.nextInt(900) + 100));
+        }
+        return new Estudiante(nombre, apellido, "estudiante." + semilla + "." + n + "@estudiantes.utec.edu.uy", null,
+                documento(ESTUDIANTE, n), EstadoUsuario.ACTIVO, TipoUsuario.ESTUDIANTE, elegir(rnd, MOTIVOS),
+                elegir(rnd, CARRERAS), "G" + (rnd.nextInt(20) + 1), "09" + (1_000_000 + rnd.nextInt(9_000_000)),
+                elegir(rnd, CALLES), String.valueOf(rnd.nextInt(4000) + 1),
+                LocalDate.of(1995, 1, 1).plusDays(rnd.nextInt(365 * 12)), null, elegir(rnd, SISTEMAS_SALUD),
+                rnd.nextInt(4) == 0 ? "Requiere seguimiento" : null, rnd.nextInt(5) == 0 ? "Reservado" : null,
+                observaciones);
+    }
+
+    public Funcionario funcionario(int n, List<Rol> roles) {
+        Random rnd = random(FUNCIONARIO, n);
+        return new Funcionario(elegir(rnd, NOMBRES), elegir(rnd, APELLIDOS), "funcionario." + semilla + "." + n + "@utec.edu.uy",
+                null, documento(FUNCIONARIO, n), EstadoUsuario.ACTIVO, TipoUsuario.FUNCIONARIO, roles.get(rnd.nextInt(roles.size())));
+    }
+
+    // Las instancias referencian estudiantes y funcionarios por id (stubs), como las devuelve el DAO
+    public InstanciaComun instanciaComun(int n, List<Categoria> categorias, int[] idsEstudiantes, int[] idsFuncionarios) {
+        Random rnd = random(INSTANCIA, n);
+        InstanciaComun instancia = new InstanciaComun();
+        completarInstancia(instancia, rnd, categorias, idsEstudiantes, idsFuncionarios);
+        instancia.setMotivacion(elegir(rnd, MOTIVOS));
+        return instancia;
+    }
+
+    public Incidencia incidencia(int n, List<Categoria> categorias, int[] idsEstudiantes, int[] idsFuncionarios) {
+        Random rnd = random(INSTANCIA, n);
+        Incidencia incidencia = new Incidencia();
+        completarInstancia(incidencia, rnd, categorias, idsEstudiantes, idsFuncionarios);
+        incidencia.setLugar(elegir(rnd, LUGARES));
+        List<String> personas = new ArrayList<>();
+        for (int i = rnd.nextInt(3) + 1; i > 0; i--) {
+            personas.add(elegir(rnd, NOMBRES) + " " + elegir(rnd, APELLIDOS));
+        }
+        incidencia.setPersonasInvolucradas(personas);
+        incidencia.setReportadoPor(funcionarioStub(idsFuncionarios[rnd.nextInt(idsFuncionarios.length)]));
+        return incidencia;
+    }
+
+    // Métodos auxiliares
+
+    private void completarInstancia(Instancia instancia, Random rnd, List<Categoria> categorias,
+                                    int[] idsEstudiantes, int[] idsFuncionarios) {
+        instancia.setTitulo(elegir(rnd, TITULOS));
+        instancia.setFechaHora(LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(rnd.nextInt(60 * 24 * 730)));
+        instancia.setCanal(CANALES[rnd.nextInt(CANALES.length)]);
+        instancia.setComentario(rnd.nextInt(3) == 0 ? "Comentario " + rnd.nextInt(10_000) : null);
+        instancia.setConfidencial(rnd.nextInt(10) == 0);
+        instancia.setCategoria(categorias.get(rnd.nextInt(categorias.size())));
+        Estudiante estudiante = new Estudiante();
+        estudiante.setId(idsEstudiantes[rnd.nextInt(idsEstudiantes.length)]);
+        instancia.setEstudianteAsociado(estudiante);
+        instancia.setCreador(funcionarioStub(idsFuncionarios[rnd.nextInt(idsFuncionarios.length)]));
+    }
+
+    private static Funcionario funcionarioStub(int id) {
+        Funcionario funcionario = new Funcionario();
+        funcionario.setId(id);
+        return funcionario;
+    }
+
+    private Random random(long tipo, int n) {
+        return new Random(semilla * 1_000_003L + tipo * 4_000_000_007L + n);
+    }
+
+    private String documento(long tipo, int n) {
+        // 8 dígitos: prefijo por tipo y semilla, sufijo por número (hasta 99.999 filas por tipo)
+        return String.format("%03d%05d", Math.floorMod(semilla * 10 + tipo, 1000), n);
+    }
+
+    private static <T> T elegir(Random rnd, T[] valores) {
+        return valores[rnd.nextInt(valores.length)];
+    }
+}
@@ -0,0 +1,222 @@
+package db.semilla;
+
+import dao.impl.CategoriaDAOImpl;
+import dao.impl.ContadorCodigoDAOImpl;
+import dao.impl.RolDAOImpl;
+import db.ConfiguracionSistema;
+import db.Transaccion;
+import model.*;
+import org.apache.log4j.Logger;
+import org.postgresql.core.BaseConnection;
+import service.impl.GeneradorCodigoInstancia;
+import utils.PasswordHasher;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Siembra el esquema proyecto con datos sintéticos a escala de producción, para benchmarks y pruebas de carga.
+ * Uso: SembrarBase [--semilla=42] [--estudiantes=20000] [--funcionarios=500] [--instancias=800000] [--incidencias=200000]
+ * Requiere roles y categorías cargados. Todo se inserta con COPY en una sola transacción; los ids se reservan
+ * de las secuencias de antemano para que las tablas hijas no tengan que leer lo insertado.
+ * Todos los usuarios sintéticos tienen la contraseña {@value #CONTRASENIA}.
+ */
+public class SembrarBase {
+    private static final Logger logger = Logger.getLogger(SembrarBase.class);
+    public static final String CONTRASENIA = "sienep2025";
+    private static final int LOTE_CODIGOS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Long> opciones = leerOpciones(args);
+        long semilla = opciones.getOrDefault("semilla", 42L);
+        int estudiantes = opciones.getOrDefault("estudiantes", 20_000L).intValue();
+        int funcionarios = opciones.getOrDefault("funcionarios", 500L).intValue();
+        int comunes = opciones.getOrDefault("instancias", 800_000L).intValue();
+        int incidencias = opciones.getOrDefault("incidencias", 200_000L).intValue();
+
+        long inicio = System.nanoTime();
+        ConfiguracionSistema config = ConfiguracionSistema.getInstance();
+        Transaccion.ejecutar(config, () -> {
+            try (Connection connection = config.getConnection()) {
+                new SembrarBase(connection, new GeneradorDatos(semilla))
+                        .sembrar(estudiantes, funcionarios, comunes, incidencias);
+            }
+        });
+        logger.info("Siembra terminada en " + (System.nanoTime() - inicio) / 1_000_000_000 + " s");
+    }
+
+    private final Connection connection;
+    private final BaseConnection pg;
+    private final GeneradorDatos generador;
+
+    SembrarBase(Connection connection, GeneradorDatos generador) throws SQLException {
+        this.connection = connection;
+        this.pg = connection.unwrap(BaseConnection.class);
+        this.generador = generador;
+    }
+
+    // Los DAOs se crean con el constructor por defecto: el pool les presta esta misma conexión (y transacción)
+    void sembrar(int estudiantes, int funcionarios, int comunes, int incidencias) throws Exception {
+        List<Rol> roles = new RolDAOImpl().findAll();
+        List<Categoria> categorias = new CategoriaDAOImpl().findAll();
+        if (roles.isEmpty() || categorias.isEmpty()) {
+            throw new IllegalStateException("Cargar roles y categorías antes de sembrar");
+        }
+        if (estudiantes == 0 || funcionarios == 0) {
+            throw new IllegalArgumentException("Se necesita al menos un estudiante y un funcionario");
+        }
+
+        int primerUsuario = reservarIds("proyecto.usuarios", estudiantes + funcionarios);
+        int[] idsEstudiantes = rango(primerUsuario, estudiantes);
+        int[] idsFuncionarios = rango(primerUsuario + estudiantes, funcionarios);
+        copiarUsuarios(idsEstudiantes, idsFuncionarios, roles);
+        copiarEstudiantes(idsEstudiantes);
+        copiarFuncionarios(idsFuncionarios, roles);
+
+        int primeraInstancia = reservarIds("proyecto.instancias", comunes + incidencias);
+        copiarInstancias(primeraInstancia, comunes, incidencias, categorias, idsEstudiantes, idsFuncionarios);
+        copiarSubtipos(primeraInstancia, comunes, incidencias, categorias, idsEstudiantes, idsFuncionarios);
+    }
+
+    // Métodos auxiliares
+
+    private void copiarUsuarios(int[] idsEstudiantes, int[] idsFuncionarios, List<Rol> roles) throws Exception {
+        String hash = PasswordHasher.hash(CONTRASENIA);  // un solo hash para todos
+        try (EscritorCopy copy = new EscritorCopy(pg, "proyecto.usuarios",
+                "id, nombre, apellido, email, contrasenia, documento, estado, tipo")) {
+            for (int n = 0; n < idsEstudiantes.length; n++) {
+                filaUsuario(copy, idsEstudiantes[n], generador.estudiante(n), hash);
+            }
+            for (int n = 0; n < idsFuncionarios.length; n++) {
+                filaUsuario(copy, idsFuncionarios[n], generador.funcionario(n, roles), hash);
+            }
+            logger.info("Usuarios sembrados: " + copy.getFilas());
+        }
+    }
+
+    private void filaUsuario(EscritorCopy copy, int id, Usuario u, String hash) throws Exception {
+        copy.fila(id, u.getNombre(), u.getApellido(), u.getEmail(), hash, u.getDocumento(), u.getEstado(), u.getTipo());
+    }
+
+    private void copiarEstudiantes(int[] ids) throws Exception {
+        try (EscritorCopy copy = new EscritorCopy(pg, "proyecto.estudiantes",
+                "id, motivo_derivacion, carrera, grupo, telefono, calle, numero_puerta, fecha_nacimiento, foto, " +
+                        "sistema_salud, comentarios_generales, estado_salud")) {
+            for (int n = 0; n < ids.length; n++) {
+                Estudiante e = generador.estudiante(n);
+                copy.fila(ids[n], e.getMotivoDerivacion(), e.getCarrera(), e.getGrupo(), e.getTelefono(), e.getCalle(),
+                        e.getNumeroPuerta(), e.getFechaNacimiento(), e.getFoto(), e.getSistemaSalud(),
+                        e.getComentariosGenerales(), e.getEstadoSalud());
+            }
+            logger.info("Estudiantes sembrados: " + copy.getFilas());
+        }
+        // segunda pasada para la tabla hija, igual que los subtipos de instancias
+        try (EscritorCopy copy = new EscritorCopy(pg, "proyecto.estudiantes_observaciones", "id_estudiante, texto")) {
+            for (int n = 0; n < ids.length; n++) {
+                for (String observacion : generador.estudiante(n).getObservacionesConfidenciales()) {
+                    copy.fila(ids[n], observacion);
+                }
+            }
+            logger.info("Observaciones sembradas: " + copy.getFilas());
+        }
+    }
+
+    private void copiarFuncionarios(int[] ids, List<Rol> roles) throws Exception {
+        try (EscritorCopy copy = new EscritorCopy(pg, "proyecto.funcionarios", "id, id_rol")) {
+            for (int n = 0; n < ids.length; n++) {
+                copy.fila(ids[n], generador.funcionario(n, roles).getRol().getId());
+            }
+            logger.info("Funcionarios sembrados: " + copy.getFilas());
+        }
+    }
+
+    private void copiarInstancias(int primerId, int comunes, int incidencias, List<Categoria> categorias,
+                                  int[] idsEstudiantes, int[] idsFuncionarios) throws Exception {
+        GeneradorCodigoInstancia codigos = new GeneradorCodigoInstancia(new ContadorCodigoDAOImpl(), LOTE_CODIGOS);
+        int total = comunes + incidencias;
+        try (EscritorCopy copy = new EscritorCopy(pg, "proyecto.instancias",
+                "id, titulo, codigo, fecha_hora, canal, comentario, confidencial, id_categoria, id_estudiante, id_creador, tipo")) {
+            for (int desde = 0; desde < total; desde += LOTE_CODIGOS) {
+                List<String> lote = codigos.siguientes(Math.min(LOTE_CODIGOS, total - desde));
+                for (int i = 0; i < lote.size(); i++) {
+                    int n = desde + i;
+                    Instancia inst = n < comunes
+                            ? generador.instanciaComun(n, categorias, idsEstudiantes, idsFuncionarios)
+                            : generador.incidencia(n, categorias, idsEstudiantes, idsFuncionarios);
+                    copy.fila(primerId + n, inst.getTitulo(), lote.get(i), inst.getFechaHora(), inst.getCanal(),
+                            inst.getComentario(), inst.isConfidencial(), inst.getCategoria().getId(),
+                            inst.getEstudianteAsociado().getId(), inst.getCreador().getId(), inst.getTipo());
+                }
+            }
+            logger.info("Instancias sembradas: " + copy.getFilas());
+        }
+    }
+
+    // Segunda pasada: se regeneran las mismas filas para las tablas de subtipo (COPY no admite dos tablas a la vez)
+    private void copiarSubtipos(int primerId, int comunes, int incidencias, List<Categoria> categorias,
+                                int[] idsEstudiantes, int[] idsFuncionarios) throws Exception {
+        try (EscritorCopy copy = new EscritorCopy(pg, "proyecto.instancias_comunes", "id, motivacion")) {
+            for (int n = 0; n < comunes; n++) {
+                copy.fila(primerId + n, generador.instanciaComun(n, categorias, idsEstudiantes, idsFuncionarios).getMotivacion());
+            }
+            logger.info("Instancias comunes sembradas: " + copy.getFilas());
+        }
+        try (EscritorCopy copy = new EscritorCopy(pg, "proyecto.incidencias", "id, lugar, id_reportado_por")) {
+            for (int n = comunes; n < comunes + incidencias; n++) {
+                Incidencia i = generador.incidencia(n, categorias, idsEstudiantes, idsFuncionarios);
+                copy.fila(primerId + n, i.getLugar(), i.getReportadoPor().getId());
+            }
+            logger.info("Incidencias sembradas: " + copy.getFilas());
+        }
+        try (EscritorCopy copy = new EscritorCopy(pg, "proyecto.incidencias_personas", "id_incidencia, persona")) {
+            for (int n = comunes; n < comunes + incidencias; n++) {
+                for (String persona : generador.incidencia(n, categorias, idsEstudiantes, idsFuncionarios).getPersonasInvolucradas()) {
+                    copy.fila(primerId + n, persona);
+                }
+            }
+            logger.info("Personas involucradas sembradas: " + copy.getFilas());
+        }
+    }
+
+    // Adelanta la secuencia de la tabla "cantidad" valores y devuelve el primero reservado
+    private int reservarIds(String tabla, int cantidad) throws SQLException {
+        if (cantidad == 0) {
+            return 0;
+        }
+        String query = "SELECT setval(pg_get_serial_sequence(?, 'id'), nextval(pg_get_serial_sequence(?, 'id')) + ? - 1)";
+        try (PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setString(1, tabla);
+            ps.setString(2, tabla);
+            ps.setInt(3, cantidad);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return (int) (rs.getLong(1) - cantidad + 1);
+            }
+        }
+    }
+
+    private static int[] rango(int desde, int cantidad) {
+        int[] ids = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            ids[i] = desde + i;
+        }
+        return ids;
+    }
+
+    private static Map<String, Long> leerOpciones(String[] args) {
+        Map<String, Long> opciones = new HashMap<>();
+        for (String arg : args) {
+            String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Opción inválida: " + arg + " (formato --nombre=valor)");
+            }
+            opciones.put(partes[0], Long.parseLong(partes[1]));
+        }
+        return opciones;
+    }
+}
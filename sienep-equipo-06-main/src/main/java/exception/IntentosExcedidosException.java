@@ -0,0 +1,14 @@
+package exception;
+
+public class IntentosExcedidosException extends Exception {
+    private final long esperaSegundos;
+
+    public IntentosExcedidosException(String mensaje, long esperaSegundos) {
+        super(mensaje);
+        this.esperaSegundos = esperaSegundos;
+    }
+
+    public long getEsperaSegundos() {
+        return esperaSegundos;
+    }
+}
@@ -1,19 +1,30 @@
 package facade;
 
 import auth.AuthManager;
+import auth.Permisos;
+import auth.Sesion;
+import dao.FiltroInstancias;
 import model.*;
+import model.enums.Canal;
 import model.enums.EstadoUsuario;
 import model.enums.TipoUsuario;
 import service.*;
 import service.impl.PermisoServiceImpl;
+import utils.Paginador;
 
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
 
 public class AdminFacade implements MenuFacade {
     private final AuthManager authManager;
+    private final Sesion sesion;
     private final UsuarioService usuarioService;
     private final RolService rolService;
     private final CategoriaService categoriaService;
@@ -23,11 +34,12 @@ public class AdminFacade implements MenuFacade {
     private final PermisoService permisoService;
     private final Scanner scanner = new Scanner(System.in);
 
-    public AdminFacade(AuthManager authManager, UsuarioService usuarioService, RolService rolService,
+    public AdminFacade(AuthManager authManager, Sesion sesion, UsuarioService usuarioService, RolService rolService,
                        CategoriaService categoriaService, InstanciaService instanciaService,
                        EstudianteService estudianteService, FuncionarioService funcionarioService,
                        PermisoService permisoService) {
         this.authManager = authManager;
+        this.sesion = sesion;
         this.usuarioService = usuarioService;
         this.rolService = rolService;
         this.categoriaService = categoriaService;
@@ -44,25 +56,29 @@ public class AdminFacade implements MenuFacade {
         System.out.println("2. Gestionar roles");
         System.out.println("3. Gestionar categorías");
         System.out.println("4. Ver instancias");
+        System.out.println("5. Buscar instancias");
         System.out.println("0. Cerrar sesión");
         System.out.print("Ingrese una opción: ");
     }
 
     @Override
     public void ejecutarOpcion(int opcion) {
+        if (!ControlAcceso.permitido(authManager, sesion, permisoDeOpcion(opcion))) {
+            return;
+        }
         try {
             switch (opcion) {
                 case 1 -> gestionarUsuarios();
                 case 2 -> gestionarRoles();
                 case 3 -> gestionarCategorias();
                 case 4 -> {
-                    List<Instancia> instancias = instanciaService.listarTodasLasInstancias();
-                    for(Instancia i : instancias) {
-                        System.out.println("ID: " + i.getId() + ", Titulo: " + i.getTitulo() + ", Estudiante: " + i.getEstudianteAsociado().getNombre() + " " + i.getEstudianteAsociado().getApellido());
-                    }
+                    Paginador.recorrer(instanciaService::listarInstanciasPagina, Instancia::getId, i ->
+                            System.out.println("ID: " + i.getId() + ", Titulo: " + i.getTitulo() + ", Estudiante: " + i.getEstudianteAsociado().getNombre() + " " + i.getEstudianteAsociado().getApellido()),
+                            scanner);
                 }
+                case 5 -> buscarInstancias();
                 case 0 -> {
-                    authManager.logout();
+                    authManager.logout(sesion.getToken());
                     System.out.println("Sesión cerrada.");
                 }
                 default -> System.out.println("Opción no válida.");
@@ -72,6 +88,16 @@ public class AdminFacade implements MenuFacade {
         }
     }
 
+    private static String permisoDeOpcion(int opcion) {
+        return switch (opcion) {
+            case 1 -> Permisos.GESTIONAR_USUARIOS;
+            case 2 -> Permisos.GESTIONAR_ROLES;
+            case 3 -> Permisos.GESTIONAR_CATEGORIAS;
+            case 4, 5 -> Permisos.VER_INSTANCIAS;
+            default -> null;
+        };
+    }
+
     private void gestionarUsuarios() throws Exception {
         System.out.println("=== Gestión de Usuarios ===");
         System.out.println("1. Ver usuarios");
@@ -79,14 +105,14 @@ public class AdminFacade implements MenuFacade {
         System.out.println("3. Editar usuario");
         System.out.println("4. Eliminar usuario");
         System.out.println("5. Cambiar contraseña");
+        System.out.println("6. Importar estudiantes desde CSV");
         System.out.println("Ingresar opción: ");
         int subOpcion = Integer.parseInt(scanner.nextLine());
         switch (subOpcion) {
             case 1 -> {
-                List<Usuario> usuarios = usuarioService.listarUsuarios();
-                for (Usuario u : usuarios) {
-                    System.out.println("ID: " + u.getId() + ", Nombre: " + u.getNombre() + ", Email: " + u.getEmail() + " , Tipo: " + u.getTipo());
-                }
+                Paginador.recorrer(usuarioService::listarUsuariosPagina, Usuario::getId, u ->
+                        System.out.println("ID: " + u.getId() + ", Nombre: " + u.getNombre() + ", Email: " + u.getEmail() + " , Tipo: " + u.getTipo()),
+                        scanner);
             }
             case 2 -> {
                 System.out.println("=== Crear Usuario ===");
@@ -127,8 +153,8 @@ public class AdminFacade implements MenuFacade {
                     estudiante.setComentariosGenerales(scanner.nextLine());
                     System.out.print("Estado Salud: ");
                     estudiante.setEstadoSalud(scanner.nextLine());
-                    System.out.print("Observaciones Confidenciales (separadas por coma): ");
-                    estudiante.setObservacionesConfidenciales(List.of(scanner.nextLine().split(",")));
+                    System.out.println("Observaciones Confidenciales (una por línea; línea vacía para terminar): ");
+                    estudiante.setObservacionesConfidenciales(leerLineas());
 
                     estudiante.setEstado(EstadoUsuario.ACTIVO);
 
@@ -189,21 +215,12 @@ public class AdminFacade implements MenuFacade {
                 int option = Integer.parseInt(scanner.nextLine());
 
                 if(option == 1 || option == 2) {
-                    // listar estudiantes
-                    List<Estudiante> estudiantes = estudianteService.listarTodosEstudiantes();
-                    if(estudiantes == null || estudiantes.isEmpty()) {
-                        System.out.println("No hay estudiantes registrados.");
+                    // buscar el estudiante a editar
+                    Integer idEstudiante = SelectorEstudiante.elegir(estudianteService, scanner);
+                    if(idEstudiante == null) {
                         return;
                     }
 
-                    System.out.println("=== Estudiantes Registrados ===");
-                    for(Estudiante e : estudiantes) {
-                        System.out.println("ID: " + e.getId() + ", Nombre: " + e.getNombre() + " " + e.getApellido() + "(" + e.getDocumento() +")");
-                    }
-
-                    System.out.println("ID del estudiante a editar: ");
-                    int idEstudiante = Integer.parseInt(scanner.nextLine());
-
                     Estudiante estudiante = estudianteService.buscarEstudiantePorId(idEstudiante);
                     if(estudiante == null) {
                         System.out.println("Estudiante no encontrado.");
@@ -248,10 +265,9 @@ public class AdminFacade implements MenuFacade {
             case 5 -> {
                 System.out.println("=== Cambiar Contraseña ===");
                 // mostrar ID de usuarios nombre y apellido
-                List<Usuario> usuarios = usuarioService.listarUsuarios();
-                for (Usuario u : usuarios) {
-                    System.out.println("ID: " + u.getId() + ", Nombre: " + u.getNombre() + " " + u.getApellido());
-                }
+                Paginador.recorrer(usuarioService::listarUsuariosPagina, Usuario::getId, u ->
+                        System.out.println("ID: " + u.getId() + ", Nombre: " + u.getNombre() + " " + u.getApellido()),
+                        scanner);
                 System.out.println("ID del usuario: ");
                 int id = Integer.parseInt(scanner.nextLine());
 
@@ -280,9 +296,81 @@ public class AdminFacade implements MenuFacade {
                 usuarioService.cambiarContrasenia(id, nuevaContrasenia);
                 System.out.println("Contraseña actualizada exitosamente.");
             }
+            case 6 -> importarEstudiantes();
+        }
+    }
+
+    private void importarEstudiantes() throws Exception {
+        System.out.println("=== Importar Estudiantes ===");
+        System.out.println("Columnas obligatorias: nombre, apellido, email, documento, fecha_nacimiento (YYYY-MM-DD)");
+        System.out.println("Opcionales: motivo_derivacion, carrera, grupo, telefono, calle, numero_puerta, sistema_salud, " +
+                "comentarios_generales, estado_salud, observaciones_confidenciales (separadas por |)");
+        System.out.print("Ruta del archivo CSV: ");
+        Path archivo = Path.of(scanner.nextLine().trim());
+        if (!Files.isRegularFile(archivo)) {
+            System.out.println("No se encontró el archivo.");
+            return;
+        }
+        ResultadoImportacion resultado;
+        try (Reader reader = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            resultado = estudianteService.importarEstudiantes(reader);
+        }
+        System.out.println("Filas leídas: " + resultado.getFilasLeidas() + ", importadas: " + resultado.getImportadas() +
+                ", con error: " + resultado.getErrores().size());
+        int mostrados = 0;
+        for (ResultadoImportacion.ErrorFila error : resultado.getErrores()) {
+            if (mostrados++ == 50) {
+                System.out.println("... y " + (resultado.getErrores().size() - 50) + " errores más.");
+                break;
+            }
+            System.out.println("Línea " + error.linea() + ": " + error.mensaje());
+        }
+        if (!resultado.getActivaciones().isEmpty()) {
+            // un código por cuenta creada; el estudiante lo canjea en el login (contraseña vacía) por la suya
+            Path codigos = archivo.resolveSibling(archivo.getFileName() + ".activacion.csv");
+            List<String> lineas = new ArrayList<>();
+            lineas.add("email,codigo");
+            resultado.getActivaciones().forEach(a -> lineas.add(a.email() + "," + a.codigo()));
+            Files.write(codigos, lineas, StandardCharsets.UTF_8);
+            System.out.println("Códigos de activación (de un solo uso, entregar a cada estudiante): " + codigos);
         }
     }
 
+    // Cada criterio es opcional (Enter para omitirlo); la búsqueda se filtra y pagina en la base
+    private void buscarInstancias() throws Exception {
+        System.out.println("=== Buscar Instancias ===");
+        FiltroInstancias filtro = new FiltroInstancias();
+        String valor = leerCriterio("Desde (YYYY-MM-DD)");
+        if (valor != null) filtro.setDesde(LocalDate.parse(valor).atStartOfDay());
+        valor = leerCriterio("Hasta (YYYY-MM-DD, inclusive)");
+        if (valor != null) filtro.setHasta(LocalDate.parse(valor).plusDays(1).atStartOfDay());
+        valor = leerCriterio("Canal " + Arrays.toString(Canal.values()));
+        if (valor != null) filtro.setCanal(Canal.valueOf(valor.toUpperCase()));
+        valor = leerCriterio("ID de categoría");
+        if (valor != null) filtro.setIdCategoria(Integer.parseInt(valor));
+        valor = leerCriterio("Tipo (COMUN/INCIDENCIA)");
+        if (valor != null) filtro.setTipo(valor.toUpperCase());
+        valor = leerCriterio("Confidencial (s/n)");
+        if (valor != null) filtro.setConfidencial(valor.equalsIgnoreCase("s"));
+        valor = leerCriterio("ID del creador");
+        if (valor != null) filtro.setIdCreador(Integer.parseInt(valor));
+
+        int mostrados = Paginador.recorrer((Instancia ultima, int tamanio) -> instanciaService.buscarInstancias(filtro, ultima, tamanio),
+                i -> System.out.println("ID: " + i.getId() + ", Fecha: " + i.getFechaHora() + ", Tipo: " + i.getTipo() +
+                        ", Canal: " + i.getCanal() + ", Titulo: " + i.getTitulo() +
+                        ", Estudiante: " + i.getEstudianteAsociado().getNombre() + " " + i.getEstudianteAsociado().getApellido()),
+                scanner);
+        if (mostrados == 0) {
+            System.out.println("No se encontraron instancias con esos criterios.");
+        }
+    }
+
+    private String leerCriterio(String etiqueta) {
+        System.out.print(etiqueta + " (Enter para omitir): ");
+        String valor = scanner.nextLine().trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
     private void gestionarRoles() throws Exception {
         System.out.println("=== Gestionar Roles ===");
         System.out.println("1. Ver roles");
@@ -640,4 +728,14 @@ public class AdminFacade implements MenuFacade {
             default -> System.out.println("Opción inválida.");
         }
     }
+
+    // Una entrada por línea hasta una línea vacía (los textos pueden llevar comas)
+    private List<String> leerLineas() {
+        List<String> lineas = new ArrayList<>();
+        String linea;
+        while (!(linea = scanner.nextLine().trim()).isEmpty()) {
+            lineas.add(linea);
+        }
+        return lineas;
+    }
 }
@@ -0,0 +1,20 @@
+package facade;
+
+import auth.AuthManager;
+import auth.Sesion;
+
+// Verificación de permisos por opción de menú: consulta el bitset del rol en AuthManager y avisa si se deniega
+class ControlAcceso {
+
+    private ControlAcceso() {
+    }
+
+    // permiso null = opción sin restricción (cerrar sesión, opción inválida)
+    static boolean permitido(AuthManager authManager, Sesion sesion, String permiso) {
+        if (permiso == null || authManager.tienePermiso(sesion.getToken(), permiso)) {
+            return true;
+        }
+        System.out.println("No tiene permiso para realizar esta acción.");
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package facade;
 
 import auth.AuthManager;
+import auth.Sesion;
 import model.Estudiante;
 import model.Instancia;
 import service.InstanciaService;
@@ -11,14 +12,16 @@ import java.util.Scanner;
 
 public class EstudianteFacade implements MenuFacade {
     private final AuthManager authManager;
+    private final Sesion sesion;
     private final UsuarioService usuarioService;
     private final Scanner scanner = new Scanner(System.in);
     private final InstanciaService instanciaService;
 
-    public EstudianteFacade( AuthManager authManager,
+    public EstudianteFacade(AuthManager authManager, Sesion sesion,
                              UsuarioService usuarioService,
                              InstanciaService instanciaService) {
         this.authManager = authManager;
+        this.sesion = sesion;
         this.usuarioService = usuarioService;
         this.instanciaService = instanciaService;
     }
@@ -35,7 +38,7 @@ public class EstudianteFacade implements MenuFacade {
 
     @Override
     public void ejecutarOpcion(int opcion) {
-        Estudiante estudiante = (Estudiante) authManager.getUsuarioActual();
+        Estudiante estudiante = (Estudiante) sesion.getUsuario();
         try {
             switch (opcion) {
                 case 1 ->{
@@ -98,7 +101,7 @@ public class EstudianteFacade implements MenuFacade {
                     System.out.println("Contraseña cambiada exitosamente.");
                 }
                 case 0 -> {
-                    authManager.logout();
+                    authManager.logout(sesion.getToken());
                     System.out.println("Sesión cerrada. Regresando al login...");
                 }
                 default -> {
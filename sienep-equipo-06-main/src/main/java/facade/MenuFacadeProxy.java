@@ -1,14 +1,31 @@
 package facade;
 
 import auth.AuthManager;
+import auth.Permisos;
+import auth.Sesion;
+import exception.IntentosExcedidosException;
 import dao.impl.*;
+import model.Funcionario;
 import service.*;
 import service.impl.*;
 
+import java.util.Locale;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
+/**
+ * Un proxy por operador: guarda la sesión propia; AuthManager y su registro de sesiones son compartidos.
+ * iniciar() conduce la consola como máquina de estados (LOGIN -> MENU -> FIN) en un solo bucle,
+ * sin recursión: reintentar el login o volver a mostrar el menú no apila llamadas.
+ * El facade del rol se crea una vez por sesión y se descarta al cerrarla.
+ */
 public class MenuFacadeProxy implements MenuFacade {
+    private enum Estado { LOGIN, MENU, FIN }
+
     private MenuFacade realFacade;
+    private Sesion sesion;
+    // identifica la terminal del operador para el límite de intentos de login
+    private final String origen;
     private final AuthManager authManager;
     private final EstudianteService estudianteService;
     private final InstanciaService instanciaService;
@@ -20,6 +37,11 @@ public class MenuFacadeProxy implements MenuFacade {
     private final Scanner scanner = new Scanner(System.in);
 
     public MenuFacadeProxy() throws Exception {
+        this("consola-local");
+    }
+
+    public MenuFacadeProxy(String origen) throws Exception {
+        this.origen = origen;
         this.authManager = AuthManager.getInstance();
         // Instancia DAOs
         EstudianteDAOImpl estudianteDAO = new EstudianteDAOImpl();
@@ -29,54 +51,61 @@ public class MenuFacadeProxy implements MenuFacade {
         UsuarioDAOImpl usuarioDAO = new UsuarioDAOImpl();
         RolDAOImpl rolDAO = new RolDAOImpl();
         CategoriaDAOImpl categoriaDAO = new CategoriaDAOImpl();
-        // Instancia Services con inyección
-        this.estudianteService = new EstudianteServiceImpl(estudianteDAO);
+        // Instancia Services con inyección (el índice de estudiantes en memoria es opcional, null si está apagado)
+        IndiceEstudiantes indiceEstudiantes = IndiceEstudiantes.compartido();
+        this.estudianteService = new EstudianteServiceImpl(estudianteDAO, usuarioDAO, indiceEstudiantes);
         this.instanciaService = new InstanciaServiceImpl(instanciaDAO, incidenciaDAO, instanciaComunDAO);
-        this.usuarioService = new UsuarioServiceImpl();
+        this.usuarioService = new UsuarioServiceImpl(indiceEstudiantes);
         this.rolService = new RolServiceImpl();
         this.categoriaService = new CategoriaServiceImpl();
         this.funcionarioService = new FuncionarioServiceImpl();
         this.permisoService = new PermisoServiceImpl();
     }
 
+    // Bucle principal de la consola; termina con la opción 0 o al cerrarse la entrada
+    public void iniciar() {
+        Estado estado = Estado.LOGIN;
+        try {
+            while (estado != Estado.FIN) {
+                estado = switch (estado) {
+                    case LOGIN -> pasoLogin();
+                    case MENU -> pasoMenu();
+                    case FIN -> Estado.FIN;
+                };
+            }
+        } catch (NoSuchElementException e) {
+            // fin de la entrada estándar (Ctrl+D o entrada redirigida agotada)
+            if (sesion != null) {
+                authManager.logout(sesion.getToken());
+            }
+        }
+        System.out.println("\n¡Hasta pronto!");
+    }
+
     @Override
     public void mostrarMenu() {
-        if(!authManager.isAutenticado()) {
-            mostrarLogin();
-            return;
+        while (!sesionActiva()) {
+            pasoLogin();
         }
-
         // Actualizar actividad al mostrar el menú
-        authManager.actualizarActividad();
-
-        String rol = authManager.getRolActual();
-        if ("ADMINISTRADOR".equals(rol)) {
-            realFacade = new AdminFacade(authManager, usuarioService, rolService, categoriaService,instanciaService, estudianteService, funcionarioService, permisoService);
-        } else if ("PSICOPEDAGOGO".equals(rol)) {
-            realFacade = new PsicopedagogoFacade(authManager, instanciaService, estudianteService,categoriaService);
-        } else if ("TUTOR".equals(rol)) {
-            realFacade = new TutorFacade(authManager, instanciaService, estudianteService);
-        } else if ("DOCENTE".equals(rol)) {
-            realFacade = new DocenteFacade(authManager, instanciaService, estudianteService);
-        } else {
-            realFacade = new EstudianteFacade(authManager, usuarioService, instanciaService);
-        }
+        authManager.actualizarActividad(sesion.getToken());
         realFacade.mostrarMenu();
     }
 
     @Override
     public void ejecutarOpcion(int opcion) {
-        if(!authManager.isAutenticado()) {
+        if(!sesionActiva()) {
             System.out.println("Su sesión ha expirado por inactividad. Por favor, inicie sesión nuevamente.");
             return;
         }
         // actualización de la última actividad en cada interacción
-        authManager.actualizarActividad();
+        authManager.actualizarActividad(sesion.getToken());
         realFacade.ejecutarOpcion(opcion);
     }
 
-    private void mostrarLogin() {
-        Scanner scanner = new Scanner(System.in);
+    // Métodos auxiliares
+
+    private Estado pasoLogin() {
         System.out.println("=== Bienvenido a SIENEP (equipo 06) ===");
         System.out.print("Email: ");
         String email = scanner.nextLine();
@@ -86,15 +115,100 @@ public class MenuFacadeProxy implements MenuFacade {
             System.out.println("Email ajustado por espacios en blanco.");  // Opcional: feedback al usuario
         }
 
-        System.out.print("Contraseña: ");
+        System.out.print("Contraseña (Enter si tiene un código de activación): ");
         String contrasenia = scanner.nextLine();
 
-        if (authManager.login(email, contrasenia)) {
-            System.out.println("Login exitoso. Redirigiendo...");
-            mostrarMenu();  // Recarga menú
-        } else {
+        try {
+            sesion = contrasenia.isEmpty() ? activarCuenta(email) : authManager.login(email, contrasenia, origen);
+        } catch (IntentosExcedidosException | IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return Estado.LOGIN;
+        }
+        if (sesion == null) {
             System.out.println("Credenciales inválidas. Intente de nuevo.");
-            mostrarLogin();  // Retry
+            return Estado.LOGIN;
+        }
+        realFacade = crearFacade(sesion);
+        if (realFacade == null) {
+            System.out.println("Su rol no tiene permisos asignados. Consulte con el administrador.");
+            authManager.logout(sesion.getToken());
+            sesion = null;
+            return Estado.LOGIN;
+        }
+        System.out.println("Login exitoso. Redirigiendo...");
+        return Estado.MENU;
+    }
+
+    // Cuenta importada: el código entregado por el administrador se canjea por la contraseña elegida
+    private Sesion activarCuenta(String email) throws IntentosExcedidosException {
+        System.out.print("Código de activación: ");
+        String codigo = scanner.nextLine();
+        System.out.print("Nueva contraseña: ");
+        String nuevaContrasenia = scanner.nextLine();
+        System.out.print("Confirmar nueva contraseña: ");
+        if (!nuevaContrasenia.equals(scanner.nextLine())) {
+            throw new IllegalArgumentException("Las contraseñas no coinciden.");
+        }
+        return authManager.activarCuenta(email, codigo, nuevaContrasenia, origen);
+    }
+
+    private Estado pasoMenu() {
+        if (!sesionActiva()) {
+            System.out.println("Su sesión ha finalizado. Por favor, inicie sesión nuevamente.");
+            return Estado.LOGIN;
+        }
+        authManager.actualizarActividad(sesion.getToken());
+        realFacade.mostrarMenu();
+        int opcion;
+        try {
+            opcion = Integer.parseInt(scanner.nextLine().trim());
+        } catch (NumberFormatException e) {
+            System.out.println("\n Por favor ingrese un número válido.\n");
+            return Estado.MENU;
+        }
+        ejecutarOpcion(opcion);
+        if (opcion == 0) {
+            return Estado.FIN;
+        }
+        // Pequeña pausa para que el usuario vea los resultados
+        System.out.println("\nPresione Enter para continuar...");
+        scanner.nextLine();
+        return Estado.MENU;
+    }
+
+    // El menú se elige por los permisos del rol (rol_permisos), no por su nombre: un rol nuevo o renombrado
+    // recibe el menú que corresponde a lo que se le asignó. null si el funcionario no tiene permisos de menú.
+    private MenuFacade crearFacade(Sesion sesion) {
+        if (!(sesion.getUsuario() instanceof Funcionario)) {
+            return new EstudianteFacade(authManager, sesion, usuarioService, instanciaService);
+        }
+        String token = sesion.getToken();
+        if (authManager.tienePermiso(token, Permisos.GESTIONAR_USUARIOS)) {
+            return new AdminFacade(authManager, sesion, usuarioService, rolService, categoriaService,instanciaService, estudianteService, funcionarioService, permisoService);
+        } else if (authManager.tienePermiso(token, Permisos.GESTIONAR_INSTANCIAS)) {
+            return new PsicopedagogoFacade(authManager, sesion, instanciaService, estudianteService,categoriaService);
+        } else if (authManager.tienePermiso(token, Permisos.VER_REPORTES)) {
+            return new ReportesFacade(authManager, sesion, instanciaService, estudianteService, tituloMenu(sesion.getRol()));
+        }
+        return null;
+    }
+
+    // "TUTOR" -> "Menú Tutor"; el nombre del rol sólo se muestra, no decide qué menú se arma
+    private static String tituloMenu(String rol) {
+        if (rol == null || rol.isBlank()) {
+            return "Menú de Reportes";
+        }
+        String nombre = rol.trim().toLowerCase(Locale.ROOT);
+        return "Menú " + Character.toUpperCase(nombre.charAt(0)) + nombre.substring(1);
+    }
+
+    // La sesión puede haberse cerrado por logout o por el barrido de inactividad
+    private boolean sesionActiva() {
+        if (sesion != null && authManager.isAutenticado(sesion.getToken())) {
+            return true;
         }
+        sesion = null;
+        realFacade = null;
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -1,26 +1,32 @@
 package facade;
 
 import auth.AuthManager;
+import auth.Permisos;
+import auth.Sesion;
 import model.*;
 import model.enums.Canal;
 import service.CategoriaService;
 import service.EstudianteService;
 import service.InstanciaService;
+import utils.Paginador;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
 public class PsicopedagogoFacade implements MenuFacade {
     private final AuthManager authManager;
+    private final Sesion sesion;
     private final InstanciaService instanciaService;
     private final EstudianteService estudianteService;
     private final Scanner scanner = new Scanner(System.in);
     private final CategoriaService categoriaService;
 
-    public PsicopedagogoFacade(AuthManager authManager, InstanciaService instanciaService,
+    public PsicopedagogoFacade(AuthManager authManager, Sesion sesion, InstanciaService instanciaService,
                                EstudianteService estudianteService, CategoriaService categoriaService) {
         this.authManager = authManager;
+        this.sesion = sesion;
         this.instanciaService = instanciaService;
         this.estudianteService = estudianteService;
         this.categoriaService = categoriaService;
@@ -33,33 +39,35 @@ public class PsicopedagogoFacade implements MenuFacade {
         System.out.println("2. Gestionar Incidencias");
         System.out.println("3. Listar estudiantes (DATOS SENSIBLES)");
         System.out.println("4. Ver instancias asociadas a un Estudiante");
+        System.out.println("5. Buscar intervenciones por palabras clave");
+        System.out.println("6. Agregar observación confidencial a un estudiante");
         System.out.println("0. Cerrar sesión");
         System.out.print("Ingrese una opción: ");
     }
 
     @Override
     public void ejecutarOpcion(int opcion) {
-        Funcionario psicopedagogo = (Funcionario) authManager.getUsuarioActual();
+        if (!ControlAcceso.permitido(authManager, sesion, permisoDeOpcion(opcion))) {
+            return;
+        }
+        Funcionario psicopedagogo = (Funcionario) sesion.getUsuario();
         try {
             switch (opcion) {
                 case 1 -> gestionarInstanciasComunes(psicopedagogo);
                 case 2 -> gestionarIncidencias(psicopedagogo);
                 case 3 -> {
                     // Lista de estudiantes con datos sensibles
-                    List<Estudiante> estudiantes = estudianteService.listarTodosEstudiantes();
                     System.out.println("=== Lista de Estudiantes ===");
-                    for (Estudiante e : estudiantes) {
-                        System.out.println("ID: " + e.getId() + ", Nombre: " + e.getNombre() + ", Salud: " + e.getEstadoSalud() + ", Observaciones: " + e.getObservacionesConfidenciales());
-                    }
+                    Paginador.recorrer(estudianteService::listarEstudiantesConfidencialPagina, Estudiante::getId, e ->
+                            System.out.println("ID: " + e.getId() + ", Nombre: " + e.getNombre() + ", Salud: " + e.getEstadoSalud() + ", Observaciones: " + e.getObservacionesConfidenciales()),
+                            scanner);
                 }
                 case 4 -> {
-                    // mostrar estudiantes del sistema
-                    List<Estudiante> estudiantes = estudianteService.listarTodosEstudiantes();
-                    for (Estudiante e : estudiantes) {
-                        System.out.println("ID: " + e.getId() + ", Nombre: " + e.getNombre() + " " + e.getApellido());
+                    // elegir el estudiante
+                    Integer estudianteId = SelectorEstudiante.elegir(estudianteService, scanner);
+                    if (estudianteId == null) {
+                        return;
                     }
-                    System.out.print("Ingrese el ID del Estudiante: ");
-                    int estudianteId = Integer.parseInt(scanner.nextLine());
                     List<Instancia> instancias = instanciaService.getInstanciasByEstudiante(estudianteId);
                     System.out.println("=== Instancias asociadas al Estudiante ID " + estudianteId + " ===");
                     for (Instancia instancia : instancias) {
@@ -70,8 +78,18 @@ public class PsicopedagogoFacade implements MenuFacade {
                         System.out.println("ID: " + instancia.getId() + ", Título: " + instancia.getTitulo() + ", Tipo: " + instancia.getTipo() + ", Fecha: " + instancia.getFechaHora());
                     }
                 }
+                case 5 -> buscarPorTexto();
+                case 6 -> {
+                    Integer estudianteId = SelectorEstudiante.elegir(estudianteService, scanner);
+                    if (estudianteId == null) {
+                        return;
+                    }
+                    System.out.print("Observación: ");
+                    estudianteService.agregarObservacion(estudianteId, scanner.nextLine());
+                    System.out.println("Observación agregada.");
+                }
                 case 0 -> {
-                    authManager.logout();
+                    authManager.logout(sesion.getToken());
                     System.out.println("Sesión cerrada.");
                 }
                 default -> System.out.println("Opción inválida. Intente nuevamente.");
@@ -81,6 +99,37 @@ public class PsicopedagogoFacade implements MenuFacade {
         }
     }
 
+    private static String permisoDeOpcion(int opcion) {
+        return switch (opcion) {
+            case 1 -> Permisos.GESTIONAR_INSTANCIAS;
+            case 2 -> Permisos.GESTIONAR_INCIDENCIAS;
+            case 3, 6 -> Permisos.VER_DATOS_CONFIDENCIALES;
+            case 4, 5 -> Permisos.VER_INSTANCIAS;
+            default -> null;
+        };
+    }
+
+    // Busca en título, comentario, motivación y lugar; el psicopedagogo ve también las confidenciales
+    private void buscarPorTexto() throws Exception {
+        System.out.print("Palabras clave: ");
+        String consulta = scanner.nextLine();
+        // los resultados van por relevancia y se paginan por desplazamiento: se lleva la cuenta de lo ya mostrado
+        int[] desplazamiento = {0};
+        boolean incluirConfidenciales = authManager.tienePermiso(sesion.getToken(), Permisos.VER_DATOS_CONFIDENCIALES);
+        int mostrados = Paginador.recorrer((Instancia ultima, int tamanio) -> {
+                    List<Instancia> pagina = instanciaService.buscarPorTexto(consulta, incluirConfidenciales, desplazamiento[0], tamanio);
+                    desplazamiento[0] += pagina.size();
+                    return pagina;
+                },
+                i -> System.out.println("ID: " + i.getId() + ", Fecha: " + i.getFechaHora() + ", Tipo: " + i.getTipo() +
+                        (i.isConfidencial() ? " (confidencial)" : "") + ", Título: " + i.getTitulo() +
+                        ", Estudiante: " + i.getEstudianteAsociado().getNombre() + " " + i.getEstudianteAsociado().getApellido()),
+                scanner);
+        if (mostrados == 0) {
+            System.out.println("No se encontraron intervenciones con esas palabras.");
+        }
+    }
+
     private void gestionarInstanciasComunes(Funcionario psicopedagogo) {
         while (true) {
             System.out.println("=== Gestionar Instancias Comunes ===");
@@ -171,6 +220,8 @@ public class PsicopedagogoFacade implements MenuFacade {
             System.out.println("5. Eliminar incidencia");
             System.out.println("6. Editar canal de notificación de una incidencia");
             System.out.println("7. Ver incidencias de un estudiante");
+            System.out.println("8. Buscar incidencias por persona involucrada");
+            System.out.println("9. Agregar persona involucrada a una incidencia");
             System.out.println("0. Volver al menú principal");
             System.out.print("Ingrese una opción: ");
             int subOpcion = Integer.parseInt(scanner.nextLine());
@@ -262,13 +313,10 @@ public class PsicopedagogoFacade implements MenuFacade {
                     }
                     case 7 -> {
                         // Ver incidencias de un estudiante
-                        // mostrar estudiantes del sistema
-                        List<Estudiante> estudiantes = estudianteService.listarTodosEstudiantes();
-                        for (Estudiante e : estudiantes) {
-                            System.out.println("ID: " + e.getId() + ", Nombre: " + e.getNombre() + " " + e.getApellido());
+                        Integer estudianteId = SelectorEstudiante.elegir(estudianteService, scanner);
+                        if (estudianteId == null) {
+                            return;
                         }
-                        System.out.print("Ingrese el ID del Estudiante: ");
-                        int estudianteId = Integer.parseInt(scanner.nextLine());
                         List<Incidencia> incidenciasEstudiante = instanciaService.listarIncidencias().stream()
                                 .filter(incidencia -> incidencia.getEstudianteAsociado().getId() == estudianteId)
                                 .toList();
@@ -281,6 +329,24 @@ public class PsicopedagogoFacade implements MenuFacade {
                             System.out.println("ID: " + incidencia.getId() + ", Título: " + incidencia.getTitulo() + ", Fecha: " + incidencia.getFechaHora());
                         }
                     }
+                    case 8 -> {
+                        System.out.print("Nombre de la persona (o su comienzo): ");
+                        List<Incidencia> incidenciasPersona = instanciaService.buscarIncidenciasPorPersona(scanner.nextLine());
+                        if (incidenciasPersona.isEmpty()) {
+                            System.out.println("No hay incidencias con esa persona.");
+                        }
+                        for (Incidencia incidencia : incidenciasPersona) {
+                            System.out.println("ID: " + incidencia.getId() + ", Título: " + incidencia.getTitulo() + ", Fecha: " + incidencia.getFechaHora()
+                                    + ", Personas: " + String.join("; ", incidencia.getPersonasInvolucradas()));
+                        }
+                    }
+                    case 9 -> {
+                        System.out.print("ID de la incidencia: ");
+                        int idIncidencia = Integer.parseInt(scanner.nextLine());
+                        System.out.print("Nombre y apellido de la persona: ");
+                        instanciaService.agregarPersonaIncidencia(idIncidencia, scanner.nextLine());
+                        System.out.println("Persona agregada.");
+                    }
                     case 0 -> {
                         return;  // Volver al menú principal
                     }
@@ -298,15 +364,11 @@ public class PsicopedagogoFacade implements MenuFacade {
         System.out.print("Comentario: ");
         String comentario = scanner.nextLine();
 
-        // mostrar ID estudiantes + nombre  + apellidp
-        List<Estudiante> estudiantes = estudianteService.listarTodosEstudiantes();
-        for (Estudiante e : estudiantes) {
-            System.out.println("ID: " + e.getId() + ", Nombre: " + e.getNombre() + " " + e.getApellido());
+        // elegir el estudiante
+        Integer estudianteId = SelectorEstudiante.elegir(estudianteService, scanner);
+        if (estudianteId == null) {
+            return;
         }
-
-
-        System.out.print("ID Estudiante: ");
-        int estudianteId = Integer.parseInt(scanner.nextLine());
         System.out.print("Motivación: ");
         String motivacion = scanner.nextLine();
         System.out.println("Canales de notificación...");
@@ -342,7 +404,8 @@ public class PsicopedagogoFacade implements MenuFacade {
             return;
         }
 
-        Estudiante estudiante = estudianteService.buscarEstudiantePorId(estudianteId);
+        // para asociarlo a la instancia alcanza el resumen: no se traen los datos confidenciales
+        Estudiante estudiante = estudianteService.buscarResumenPorId(estudianteId);
         if (estudiante == null) {
             System.out.println("Estudiante no encontrado.");
             return;
@@ -397,17 +460,15 @@ public class PsicopedagogoFacade implements MenuFacade {
         String titulo = scanner.nextLine();
         System.out.print("Comentario: ");
         String comentario = scanner.nextLine();
-        // mostrar ID estudiantes + nombre  + apellidp
-        List<Estudiante> estudiantes = estudianteService.listarTodosEstudiantes();
-        for (Estudiante e : estudiantes) {
-            System.out.println("ID: " + e.getId() + ", Nombre: " + e.getNombre() + " " + e.getApellido());
+        // elegir el estudiante
+        Integer estudianteId = SelectorEstudiante.elegir(estudianteService, scanner);
+        if (estudianteId == null) {
+            return;
         }
-        System.out.print("ID Estudiante: ");
-        int estudianteId = Integer.parseInt(scanner.nextLine());
         System.out.print("Lugar: ");
         String lugar = scanner.nextLine();
-        System.out.print("Personas involucradas (nombre y apellido separados por coma): ");
-        String personas = scanner.nextLine();
+        System.out.println("Personas involucradas (nombre y apellido, una por línea; línea vacía para terminar): ");
+        List<String> personas = leerLineas();
         System.out.println("Fecha y hora de la incidencia (YYYY-MM-DD HH:MM): ");
         String fechaHoraStr = scanner.nextLine();
 
@@ -418,7 +479,8 @@ public class PsicopedagogoFacade implements MenuFacade {
         }
         LocalDateTime fechaHora = LocalDateTime.parse(fechaHoraStr.replace(" ", "T"));
 
-        Estudiante estudiante = estudianteService.buscarEstudiantePorId(estudianteId);
+        // para asociarlo a la instancia alcanza el resumen: no se traen los datos confidenciales
+        Estudiante estudiante = estudianteService.buscarResumenPorId(estudianteId);
         if (estudiante == null) {
             System.out.println("Estudiante no encontrado.");
             return;
@@ -461,7 +523,7 @@ public class PsicopedagogoFacade implements MenuFacade {
         incidencia.setConfidencial(true);
         incidencia.setCategoria(categoriaSeleccionada);
         incidencia.setLugar(lugar);
-        incidencia.setPersonasInvolucradas(List.of(personas.split(",")));
+        incidencia.setPersonasInvolucradas(personas);
         incidencia.setReportadoPor(psicopedagogo);
         incidencia.setTipo("INCIDENCIA");
 
@@ -479,4 +541,14 @@ public class PsicopedagogoFacade implements MenuFacade {
         instanciaService.eliminarInstanciaPorId(id);
         System.out.println("Instancia común eliminada exitosamente.");
     }
+
+    // Una entrada por línea hasta una línea vacía (los textos pueden llevar comas)
+    private List<String> leerLineas() {
+        List<String> lineas = new ArrayList<>();
+        String linea;
+        while (!(linea = scanner.nextLine().trim()).isEmpty()) {
+            lineas.add(linea);
+        }
+        return lineas;
+    }
 }
@@ -0,0 +1,133 @@
+package facade;
+
+import auth.AuthManager;
+import auth.Permisos;
+import auth.Sesion;
+import dao.FiltroInstancias;
+import model.Estudiante;
+import model.Incidencia;
+import model.Instancia;
+import model.InstanciaComun;
+import service.EstudianteService;
+import service.InstanciaService;
+import utils.Paginador;
+
+import java.util.List;
+import java.util.Scanner;
+
+// Menú de consulta de reportes (permiso VER_REPORTES): el mismo para tutores, docentes o cualquier rol con ese permiso;
+// sólo cambia el título
+public class ReportesFacade implements MenuFacade {
+    private final AuthManager authManager;
+    private final Sesion sesion;
+    private final InstanciaService instanciaService;
+    private final EstudianteService estudianteService;
+    private final String titulo;
+    private final Scanner scanner = new Scanner(System.in);
+
+    public ReportesFacade(AuthManager authManager, Sesion sesion, InstanciaService instanciaService, EstudianteService estudianteService,
+                          String titulo) {
+        this.authManager = authManager;
+        this.sesion = sesion;
+        this.instanciaService = instanciaService;
+        this.estudianteService = estudianteService;
+        this.titulo = titulo;
+    }
+
+    @Override
+    public void mostrarMenu() {
+        System.out.println("=== " + titulo + " ===");
+        System.out.println("1. Ver reportes de instancias");
+        System.out.println("2. Ver reportes de incidencias");
+        System.out.println("3. Listas estudiantes");
+        System.out.println("0. Cerrar sesión");
+        System.out.print("Ingrese una opción: ");
+    }
+
+    @Override
+    public void ejecutarOpcion(int opcion) {
+        if (!ControlAcceso.permitido(authManager, sesion, permisoDeOpcion(opcion))) {
+            return;
+        }
+        try {
+            switch (opcion) {
+                case 1 -> {
+                    // Case 1: Ver reportes de instancias comunes
+                    Integer idEstudiante = SelectorEstudiante.elegir(estudianteService, scanner);
+                    if (idEstudiante == null) {
+                        return;
+                    }
+
+                    // el filtro por tipo y confidencialidad se resuelve en la base
+                    FiltroInstancias filtro = filtroReportes(idEstudiante, "COMUN");
+                    System.out.println("=== Reportes de Instancias Comunes ===");
+                    int mostrados = Paginador.recorrer((Instancia ultima, int tamanio) -> instanciaService.buscarInstancias(filtro, ultima, tamanio),
+                            ic -> System.out.println("ID: " + ic.getId()
+                                    + ", Título: " + ic.getTitulo()
+                                    + ", Estudiante: " + ic.getEstudianteAsociado().getNombre()
+                                    + " " + ic.getEstudianteAsociado().getApellido()),
+                            scanner);
+                    if (mostrados == 0) {
+                        System.out.println("No hay instancias registradas para este estudiante.");
+                    }
+                }
+                case 2 -> {
+                    // Case 2: Ver reportes de incidencias
+                    Integer idEstudiante = SelectorEstudiante.elegir(estudianteService, scanner);
+                    if (idEstudiante == null) {
+                        return;
+                    }
+
+                    FiltroInstancias filtro = filtroReportes(idEstudiante, "INCIDENCIA");
+                    System.out.println("=== Reportes de Incidencias ===");
+                    int mostrados = Paginador.recorrer((Instancia ultima, int tamanio) -> instanciaService.buscarInstancias(filtro, ultima, tamanio),
+                            i -> {
+                                Incidencia inc = (Incidencia) i;
+                                System.out.println("ID: " + inc.getId()
+                                        + ", Título: " + inc.getTitulo()
+                                        + ", Lugar: " + inc.getLugar());
+                            },
+                            scanner);
+                    if (mostrados == 0) {
+                        System.out.println("No hay incidencias registradas para este estudiante.");
+                    }
+                }
+                case 3 -> {
+                    System.out.println("=== Lista de Estudiantes ===");
+                    int mostrados = Paginador.recorrer(estudianteService::listarEstudiantesPagina, Estudiante::getId, e ->
+                            System.out.println("ID: " + e.getId()
+                                    + ", Nombre: " + e.getNombre()
+                                    + " " + e.getApellido()),
+                            scanner);
+                    if (mostrados == 0) {
+                        System.out.println("No hay estudiantes registrados.");
+                    }
+                }
+                case 0 -> {
+                    authManager.logout(sesion.getToken());
+                    System.out.println("Sesión cerrada.");
+                }
+                default -> System.out.println("Opción no válida.");
+            }
+        } catch (Exception e) {
+            System.out.println("Error al ejecutar la opción: " + e.getMessage());
+        }
+    }
+
+    private static String permisoDeOpcion(int opcion) {
+        return switch (opcion) {
+            case 1, 2 -> Permisos.VER_REPORTES;
+            case 3 -> Permisos.VER_ESTUDIANTES;
+            default -> null;
+        };
+    }
+
+    // Reportes para el tutor/docente: sólo instancias no confidenciales del estudiante y del tipo pedido
+    private static FiltroInstancias filtroReportes(int idEstudiante, String tipo) {
+        FiltroInstancias filtro = new FiltroInstancias();
+        filtro.setIdEstudiante(idEstudiante);
+        filtro.setTipo(tipo);
+        filtro.setConfidencial(false);
+        return filtro;
+    }
+}
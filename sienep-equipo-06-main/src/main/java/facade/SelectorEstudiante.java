@@ -0,0 +1,58 @@
+package facade;
+
+import model.Estudiante;
+import service.EstudianteService;
+
+import java.util.List;
+import java.util.Scanner;
+
+// Elegir un estudiante escribiendo parte de su nombre, apellido, documento o email en lugar de recorrer el listado completo
+class SelectorEstudiante {
+    static final int MAXIMO_RESULTADOS = 10;
+
+    private SelectorEstudiante() {
+    }
+
+    // Devuelve el id del estudiante elegido, o null si se cancela (Enter sin texto)
+    static Integer elegir(EstudianteService estudianteService, Scanner scanner) {
+        while (true) {
+            System.out.print("Buscar estudiante (nombre, apellido, documento o email; Enter para cancelar): ");
+            String texto = scanner.nextLine().trim();
+            if (texto.isEmpty()) {
+                System.out.println("Operación cancelada.");
+                return null;
+            }
+            List<Estudiante> encontrados = estudianteService.buscarEstudiantes(texto, MAXIMO_RESULTADOS);
+            if (encontrados == null) {
+                System.out.println("Error al buscar estudiantes.");
+                return null;
+            }
+            if (encontrados.isEmpty()) {
+                System.out.println("Sin coincidencias.");
+                continue;
+            }
+            for (int i = 0; i < encontrados.size(); i++) {
+                Estudiante e = encontrados.get(i);
+                System.out.println((i + 1) + ". " + e.getNombre() + " " + e.getApellido()
+                        + " (" + e.getDocumento() + ", " + e.getEmail() + ") - ID: " + e.getId());
+            }
+            if (encontrados.size() == MAXIMO_RESULTADOS) {
+                System.out.println("Hay más coincidencias: escriba más para acotar.");
+            }
+            System.out.print("Elija un número (Enter para buscar de nuevo): ");
+            String eleccion = scanner.nextLine().trim();
+            if (eleccion.isEmpty()) {
+                continue;
+            }
+            try {
+                int indice = Integer.parseInt(eleccion);
+                if (indice >= 1 && indice <= encontrados.size()) {
+                    return encontrados.get(indice - 1).getId();
+                }
+            } catch (NumberFormatException ignored) {
+                // se informa abajo
+            }
+            System.out.println("Opción no válida.");
+        }
+    }
+}
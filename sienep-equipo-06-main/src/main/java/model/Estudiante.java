@@ -24,6 +24,8 @@ public class Estudiante extends Usuario {
     // Confidencial:
     private String estadoSalud;
     private List<String> observacionesConfidenciales;
+    // false si se leyó como resumen (sin contraseña, foto, comentarios ni datos confidenciales); ver EstudianteDAO.cargarDetalle
+    private boolean detalleCargado = true;
 
     // Constructores
     public Estudiante() {
@@ -0,0 +1,37 @@
+package model;
+
+import lombok.Getter;
+import lombok.Setter;
+import model.enums.OperacionCalendario;
+
+import java.time.LocalDateTime;
+
+// Fila de proyecto.calendario_outbox: operación sobre Google Calendar pendiente de sincronizar
+@Getter
+@Setter
+public class EventoCalendarioPendiente {
+    private int id;
+    private int idInstancia;
+    private OperacionCalendario operacion;
+    private String titulo;
+    private String descripcion;
+    private LocalDateTime fechaHora;
+    private int duracionMinutos;
+    private int recordatorioMinutos;
+    private String eventId;  // creado por el worker (CREAR) o a eliminar (ELIMINAR)
+    private int intentos;
+
+    // Constructores
+    public EventoCalendarioPendiente() {
+    }
+    public EventoCalendarioPendiente(int idInstancia, String titulo, String descripcion, LocalDateTime fechaHora,
+                                     int duracionMinutos, int recordatorioMinutos) {
+        this.idInstancia = idInstancia;
+        this.operacion = OperacionCalendario.CREAR;
+        this.titulo = titulo;
+        this.descripcion = descripcion;
+        this.fechaHora = fechaHora;
+        this.duracionMinutos = duracionMinutos;
+        this.recordatorioMinutos = recordatorioMinutos;
+    }
+}
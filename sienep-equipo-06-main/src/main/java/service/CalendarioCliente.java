@@ -0,0 +1,12 @@
+package service;
+
+import java.time.LocalDateTime;
+
+// Operaciones de calendario que usa la sincronización de instancias (Google Calendar o el stub local)
+public interface CalendarioCliente {
+    // Crea el evento con el id elegido por quien llama. Idempotente: si ya existe un evento con ese id
+    // (un intento anterior que sí llegó al calendario) no se crea otro y se devuelve el mismo id
+    String crearEventoConRecordatorio(String eventId, String titulo, String descripcion, LocalDateTime fechaHora,
+                                      int duracionMinutos, int recordatorioMinutos) throws Exception;
+    void eliminarEvento(String eventId) throws Exception;
+}
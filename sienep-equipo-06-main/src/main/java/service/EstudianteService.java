@@ -3,6 +3,7 @@ package service;
 import exception.InvalidInputException;
 import model.Estudiante;
 
+import java.io.Reader;
 import java.util.List;
 
 public interface EstudianteService {
@@ -11,7 +12,19 @@ public interface EstudianteService {
     List<Estudiante> listarEstudiantePorSistemaSalud(String sistemaSalud);
     void guardarEstudiante(Estudiante estudiante) throws Exception;
     Estudiante buscarEstudiantePorId(int id);
+    // Sólo el resumen (sin salud ni observaciones): para asociar el estudiante a algo sin mostrar ni editar su ficha
+    Estudiante buscarResumenPorId(int id);
     List<Estudiante> listarTodosEstudiantes();
+    // Páginas de resúmenes (sin datos confidenciales); la versión confidencial es para el psicopedagogo
+    List<Estudiante> listarEstudiantesPagina(int despuesDeId, int tamanio);
+    List<Estudiante> listarEstudiantesConfidencialPagina(int despuesDeId, int tamanio);
     void actualizarEstudiante(Estudiante estudiante) throws InvalidInputException;
     void eliminarEstudiante(int id);
+    // Agrega una observación confidencial sin reescribir las anteriores
+    void agregarObservacion(int idEstudiante, String texto) throws Exception;
+    // Alta masiva desde CSV (encabezado con los nombres de columna de proyecto.usuarios/estudiantes)
+    ResultadoImportacion importarEstudiantes(Reader csv) throws Exception;
+    // Selector de estudiantes: hasta "maximo" estudiantes activos que coinciden con lo escrito
+    // (fragmentos de nombre, apellido, documento o email). Sólo trae id, nombre, apellido, documento y email
+    List<Estudiante> buscarEstudiantes(String texto, int maximo);
 }
\ No newline at end of file
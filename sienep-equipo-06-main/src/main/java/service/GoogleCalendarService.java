@@ -6,6 +6,7 @@ import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
@@ -29,7 +30,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
-public class GoogleCalendarService {
+public class GoogleCalendarService implements CalendarioCliente {
     private static final Logger logger = Logger.getLogger(GoogleCalendarService.class);
     private static final String APPLICATION_NAME = "SIENEP - Sistema de Seguimiento";
     private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
@@ -66,6 +67,7 @@ public class GoogleCalendarService {
 
     /**
      * Crea un evento en Google Calendar con recordatorio
+     * @param eventId ID del evento (base32hex: a-v y 0-9); si ya existe, el evento no se vuelve a crear
      * @param titulo Título del evento
      * @param descripcion Descripción del evento
      * @param fechaHora Fecha y hora del evento
@@ -74,10 +76,12 @@ public class GoogleCalendarService {
      * @return ID del evento creado
      */
 
-    public String crearEventoConRecordatorio(String titulo, String descripcion,
+    @Override
+    public String crearEventoConRecordatorio(String eventId, String titulo, String descripcion,
                                              LocalDateTime fechaHora, int duracionMinutos,
                                              int recordatorioMinutos) throws IOException {
         Event event = new Event()
+                .setId(eventId)
                 .setSummary(titulo)
                 .setDescription(descripcion);
 
@@ -111,7 +115,16 @@ public class GoogleCalendarService {
 
         // insert evento en el calendario
         String calendarId = "primary";
-        event = service.events().insert(calendarId, event).execute();
+        try {
+            event = service.events().insert(calendarId, event).execute();
+        } catch (GoogleJsonResponseException e) {
+            // 409: un intento anterior ya lo creó (la respuesta se perdió o no se pudo registrar)
+            if (e.getStatusCode() == 409) {
+                logger.info("Evento ya existente en Google Calendar: " + eventId);
+                return eventId;
+            }
+            throw e;
+        }
 
         logger.info("Evento creado en Google Calendar: " + event.getHtmlLink());
         return event.getId();
@@ -141,6 +154,7 @@ public class GoogleCalendarService {
     /**
      * Elimina un evento
      */
+    @Override
     public void eliminarEvento(String eventId) throws IOException {
         service.events().delete("primary", eventId).execute();
         logger.info("Evento eliminado de Google Calendar: " + eventId);
@@ -1,5 +1,6 @@
 package service;
 
+import dao.FiltroInstancias;
 import model.Incidencia;
 import model.Instancia;
 import model.InstanciaComun;
@@ -10,11 +11,22 @@ import java.util.List;
 public interface InstanciaService {
     void createInstanciaComun(InstanciaComun instancia) throws Exception;
     void createIncidencia(Incidencia incidencia) throws Exception;
+    // Altas masivas (p.ej. sesiones grupales de fin de semestre): inserts en lote, un commit por lote
+    void createInstanciasComunes(List<InstanciaComun> instancias) throws Exception;
+    void createIncidencias(List<Incidencia> incidencias) throws Exception;
     List<Instancia> getInstanciasByEstudiante(int idEstudiante) throws Exception;
     String generateCodigo() throws Exception;
     List<Instancia> listarTodasLasInstancias() throws Exception;
+    List<Instancia> listarInstanciasPagina(int despuesDeId, int tamanio) throws Exception;
+    // Búsqueda filtrada en la base, de la más reciente a la más antigua; despuesDe = última de la página anterior (o null)
+    List<Instancia> buscarInstancias(FiltroInstancias filtro, Instancia despuesDe, int tamanio) throws Exception;
+    // Búsqueda por palabras clave ordenada por relevancia; las confidenciales sólo si el rol puede verlas
+    List<Instancia> buscarPorTexto(String consulta, boolean incluirConfidenciales, int desplazamiento, int tamanio) throws Exception;
     List<InstanciaComun> listarInstanciasComunes() throws Exception;
     List<Incidencia> listarIncidencias() throws Exception;
+    // Incidencias en las que figura una persona (por el comienzo del nombre)
+    List<Incidencia> buscarIncidenciasPorPersona(String persona) throws Exception;
+    void agregarPersonaIncidencia(int idIncidencia, String persona) throws Exception;
     void actualizarFechaInstanciaComun(int id, LocalDateTime nuevaFecha) throws Exception;
     void actualizarComentarioInstanciaComun(int id, String nuevoComentario) throws Exception;
     void actualizarFechaIncidencia(int id, LocalDateTime nuevaFecha) throws Exception;
@@ -0,0 +1,28 @@
+package service;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// Resumen de una importación masiva: cuántas filas se leyeron, cuántas se guardaron, el error de cada fila rechazada
+// y el código de activación de cada cuenta creada (para entregárselo a su dueño)
+@Getter
+public class ResultadoImportacion {
+    private final int filasLeidas;
+    private final int importadas;
+    private final List<ErrorFila> errores;
+    private final List<CodigoActivacion> activaciones;
+
+    public record ErrorFila(int linea, String mensaje) {
+    }
+
+    public record CodigoActivacion(String email, String codigo) {
+    }
+
+    public ResultadoImportacion(int filasLeidas, int importadas, List<ErrorFila> errores, List<CodigoActivacion> activaciones) {
+        this.filasLeidas = filasLeidas;
+        this.importadas = importadas;
+        this.errores = errores;
+        this.activaciones = activaciones;
+    }
+}
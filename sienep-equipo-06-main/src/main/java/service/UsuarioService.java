@@ -9,10 +9,12 @@ public interface UsuarioService {
     void guardarUsuario(Usuario usuario);
     Usuario buscarUsuarioPorId(int id);
     List<Usuario> listarUsuarios();
+    List<Usuario> listarUsuariosPagina(int despuesDeId, int tamanio);
     void actualizarUsuario(Usuario usuario);
     void eliminarUsuario(int id);
     Usuario buscarUsuarioPorEmail(String email);
     Usuario validarCredenciales(String email, String contrasenia)  throws Exception;
     void cambiarContrasenia(int idUsuario, String nuevaContrasenia);
+    Usuario activarCuenta(String email, String codigo, String nuevaContrasenia) throws Exception;
     Usuario verDatosBasicos(int idUsuario);
 }
@@ -0,0 +1,39 @@
+package service.impl;
+
+import org.apache.log4j.Logger;
+import service.CalendarioCliente;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Calendario en memoria para trabajar sin conexión a Google (calendario.modo=local) y para pruebas
+public class CalendarioLocal implements CalendarioCliente {
+    private static final Logger logger = Logger.getLogger(CalendarioLocal.class);
+    private final Map<String, String> eventos = new ConcurrentHashMap<>();
+
+    @Override
+    public String crearEventoConRecordatorio(String eventId, String titulo, String descripcion, LocalDateTime fechaHora,
+                                             int duracionMinutos, int recordatorioMinutos) {
+        if (eventos.putIfAbsent(eventId, titulo + " (" + fechaHora + ")") != null) {
+            logger.info("Evento local ya existente: " + eventId);
+        } else {
+            logger.info("Evento local creado: " + eventId + " - " + titulo);
+        }
+        return eventId;
+    }
+
+    @Override
+    public void eliminarEvento(String eventId) {
+        eventos.remove(eventId);
+        logger.info("Evento local eliminado: " + eventId);
+    }
+
+    public boolean existeEvento(String eventId) {
+        return eventos.containsKey(eventId);
+    }
+
+    public int cantidadEventos() {
+        return eventos.size();
+    }
+}
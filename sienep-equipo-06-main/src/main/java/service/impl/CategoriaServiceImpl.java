@@ -1,7 +1,7 @@
 package service.impl;
 
 import dao.GenericDAO;
-import dao.impl.CategoriaDAOImpl;
+import dao.impl.CacheReferencias;
 import model.Categoria;
 import org.apache.log4j.Logger;
 import service.CategoriaService;
@@ -13,7 +13,7 @@ public class CategoriaServiceImpl implements CategoriaService {
     private final GenericDAO<Categoria> categoriaDAO;
 
     public CategoriaServiceImpl() throws Exception {
-        this.categoriaDAO = new CategoriaDAOImpl();
+        this.categoriaDAO = CacheReferencias.categorias();
     }
 
 
@@ -1,12 +1,15 @@
 package service.impl;
 
 import dao.EstudianteDAO;
+import dao.UsuarioDAO;
 import exception.InvalidInputException;
 import model.Estudiante;
 import org.apache.log4j.Logger;
 import service.EstudianteService;
+import service.ResultadoImportacion;
 import utils.ValidationUtils;
 
+import java.io.Reader;
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.List;
@@ -15,12 +18,22 @@ import java.util.regex.Pattern;
 public class EstudianteServiceImpl implements EstudianteService {
     private static final Logger logger = Logger.getLogger(EstudianteServiceImpl.class);
     private final EstudianteDAO estudianteDAO;
+    private final UsuarioDAO usuarioDAO;
+    // índice de prefijos en memoria; null = buscar en la base (índice trigram)
+    private final IndiceEstudiantes indice;
+    private static final int TAMANIO_LOTE_IMPORTACION = 500;
 
     // patron regex para validar el formato de correo estudiantil
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[\\w-\\.]+@estudiantes\\.utec\\.edu\\.uy$");
 
-    public EstudianteServiceImpl(EstudianteDAO estudianteDAO) {
+    public EstudianteServiceImpl(EstudianteDAO estudianteDAO, UsuarioDAO usuarioDAO) {
+        this(estudianteDAO, usuarioDAO, null);
+    }
+
+    public EstudianteServiceImpl(EstudianteDAO estudianteDAO, UsuarioDAO usuarioDAO, IndiceEstudiantes indice) {
         this.estudianteDAO = estudianteDAO;
+        this.usuarioDAO = usuarioDAO;
+        this.indice = indice;
     }
 
     @Override
@@ -60,6 +73,9 @@ public class EstudianteServiceImpl implements EstudianteService {
 
         try {
             estudianteDAO.save(estudiante);
+            if (indice != null) {
+                indice.agregar(estudiante);
+            }
             logger.info("Estudiante guardado con ID: " + estudiante.getId());
         } catch (Exception e) {
             logger.error("Error al guardar estudiante: " + estudiante, e);
@@ -68,14 +84,14 @@ public class EstudianteServiceImpl implements EstudianteService {
     }
 
     // Calcula la edad a partir de la fecha de nacimiento
-    private int calcularEdad(LocalDate fechaNacimiento) throws InvalidInputException {
+    private static int calcularEdad(LocalDate fechaNacimiento) throws InvalidInputException {
         if(fechaNacimiento.isAfter(LocalDate.now())) {
             throw new InvalidInputException("La fecha de nacimiento no puede ser en el futuro.");
         }
         return Period.between(fechaNacimiento, LocalDate.now()).getYears();
     }
 
-    private void validarEdadEstudiante(LocalDate fechanacimiento) throws InvalidInputException {
+    private static void validarEdadEstudiante(LocalDate fechanacimiento) throws InvalidInputException {
         int edad = calcularEdad(fechanacimiento);
         if(edad < 18) {
             throw new InvalidInputException("El usuario debe ser mayor a 18 años.");
@@ -83,10 +99,17 @@ public class EstudianteServiceImpl implements EstudianteService {
     }
 
     // metodo centralizado para validar datos del estudiante
-    private void validateEstudianteData(Estudiante estudiante) throws InvalidInputException {
+    static void validateEstudianteData(Estudiante estudiante) throws InvalidInputException {
+        validateEstudianteData(estudiante, true);
+    }
+
+    // la importación masiva crea las cuentas sin contraseña (se elige al activarlas): valida todo lo demás
+    static void validateEstudianteData(Estudiante estudiante, boolean conContrasenia) throws InvalidInputException {
         try {
             ValidationUtils.validateDocumento(estudiante.getDocumento());
-            ValidationUtils.validatePassword(estudiante.getContrasenia());
+            if (conContrasenia) {
+                ValidationUtils.validatePassword(estudiante.getContrasenia());
+            }
         } catch (IllegalArgumentException e) {
             throw new InvalidInputException(e.getMessage());  // Convierte a InvalidInputException si usas esa
         }
@@ -124,6 +147,17 @@ public class EstudianteServiceImpl implements EstudianteService {
         }
     }
 
+    @Override
+    public Estudiante buscarResumenPorId(int id) {
+        try {
+            List<Estudiante> encontrados = estudianteDAO.findByIds(List.of(id));
+            return encontrados.isEmpty() ? null : encontrados.get(0);
+        } catch (Exception e) {
+            logger.error("Error al buscar el resumen del estudiante con ID: " + id, e);
+            return null;
+        }
+    }
+
     @Override
     public List<Estudiante> listarTodosEstudiantes() {
         try {
@@ -134,12 +168,35 @@ public class EstudianteServiceImpl implements EstudianteService {
         }
     }
 
+    @Override
+    public List<Estudiante> listarEstudiantesPagina(int despuesDeId, int tamanio) {
+        try {
+            return estudianteDAO.findPage(despuesDeId, tamanio);
+        } catch (Exception e) {
+            logger.error("Error al listar la página de estudiantes después del ID: " + despuesDeId, e);
+            return null;
+        }
+    }
+
+    @Override
+    public List<Estudiante> listarEstudiantesConfidencialPagina(int despuesDeId, int tamanio) {
+        try {
+            return estudianteDAO.findPageConfidencial(despuesDeId, tamanio);
+        } catch (Exception e) {
+            logger.error("Error al listar la página de estudiantes con datos confidenciales después del ID: " + despuesDeId, e);
+            return null;
+        }
+    }
+
     @Override
     public void actualizarEstudiante(Estudiante estudiante) throws InvalidInputException {
         // Validar todos los datos antes de actualizar (incluyendo edad si cambia fecha)
         try {
             validateEstudianteData(estudiante);
             estudianteDAO.update(estudiante);
+            if (indice != null) {
+                indice.agregar(estudiante);
+            }
             logger.info("Estudiante actualizado con ID: " + estudiante.getId());
         } catch (InvalidInputException e) {
             logger.warn("Validación fallida al actualizar estudiante ID: " + estudiante.getId() + " - " + e.getMessage());
@@ -149,10 +206,47 @@ public class EstudianteServiceImpl implements EstudianteService {
         }
     }
 
+    @Override
+    public ResultadoImportacion importarEstudiantes(Reader csv) throws Exception {
+        if (indice == null) {
+            return new ImportadorEstudiantesCsv(estudianteDAO, usuarioDAO, TAMANIO_LOTE_IMPORTACION).importar(csv);
+        }
+        return new ImportadorEstudiantesCsv(estudianteDAO, usuarioDAO, TAMANIO_LOTE_IMPORTACION, indice::agregar).importar(csv);
+    }
+
+    @Override
+    public List<Estudiante> buscarEstudiantes(String texto, int maximo) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        try {
+            return indice != null ? indice.buscar(texto, maximo) : estudianteDAO.buscarPorTexto(texto, maximo);
+        } catch (Exception e) {
+            logger.error("Error al buscar estudiantes por texto: " + texto, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void agregarObservacion(int idEstudiante, String texto) throws Exception {
+        if (texto == null || texto.isBlank()) {
+            throw new InvalidInputException("La observación no puede estar vacía.");
+        }
+        try {
+            estudianteDAO.agregarObservacion(idEstudiante, texto.trim());
+        } catch (Exception e) {
+            logger.error("Error al agregar observación al estudiante ID: " + idEstudiante, e);
+            throw e;
+        }
+    }
+
     @Override
     public void eliminarEstudiante(int id) {
         try {
             estudianteDAO.delete(id);
+            if (indice != null) {
+                indice.quitar(id);
+            }
             logger.info("Estudiante eliminado con ID: " + id);
         } catch (Exception e) {
             logger.error("Error al eliminar estudiante con ID: " + id, e);
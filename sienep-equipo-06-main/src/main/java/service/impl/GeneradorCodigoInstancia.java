@@ -0,0 +1,65 @@
+package service.impl;
+
+import dao.ContadorCodigoDAO;
+import org.apache.log4j.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Genera códigos de instancia INST-<año>-NNNN únicos y crecientes.
+ * Reserva en la base bloques de {@code tamanioBloque} números por año y los entrega desde memoria,
+ * así la mayoría de los códigos no requiere ir a la base. Los números de un bloque sin usar al cerrar
+ * la aplicación se pierden (quedan huecos, nunca repetidos).
+ */
+public class GeneradorCodigoInstancia {
+    private static final Logger logger = Logger.getLogger(GeneradorCodigoInstancia.class);
+
+    private final ContadorCodigoDAO contadorDAO;
+    private final int tamanioBloque;
+
+    // bloque vigente: siguiente número a entregar y último reservado, para el año actual
+    private int anio;
+    private int siguiente;
+    private int ultimo = -1;
+
+    public GeneradorCodigoInstancia(ContadorCodigoDAO contadorDAO, int tamanioBloque) {
+        if (tamanioBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor a 0");
+        }
+        this.contadorDAO = contadorDAO;
+        this.tamanioBloque = tamanioBloque;
+    }
+
+    public synchronized String siguiente() throws Exception {
+        return siguientes(1).get(0);
+    }
+
+    // Para altas masivas: entrega "cantidad" códigos, reservando de una vez lo que falte del bloque actual
+    public synchronized List<String> siguientes(int cantidad) throws Exception {
+        int anioActual = LocalDate.now().getYear();
+        if (anioActual != anio) {
+            // cambio de año: el bloque anterior ya no sirve
+            anio = anioActual;
+            ultimo = -1;
+        }
+        List<String> codigos = new ArrayList<>(cantidad);
+        while (codigos.size() < cantidad) {
+            if (ultimo < 0 || siguiente > ultimo) {
+                int faltan = cantidad - codigos.size();
+                int reservar = Math.max(tamanioBloque, faltan);
+                ultimo = contadorDAO.reservarBloque(anio, reservar);
+                siguiente = ultimo - reservar + 1;
+                logger.debug("Nuevo bloque de códigos " + anio + ": " + siguiente + ".." + ultimo);
+            }
+            codigos.add(formatear(anio, siguiente++));
+        }
+        return codigos;
+    }
+
+    static String formatear(int anio, int numero) {
+        // segun el RF14, debia seguir un formato tipo: INST-2025-XXXX
+        return "INST-" + anio + "-" + String.format("%04d", numero);
+    }
+}
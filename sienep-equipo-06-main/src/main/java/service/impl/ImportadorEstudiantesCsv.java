@@ -0,0 +1,260 @@
+package service.impl;
+
+import dao.EstudianteDAO;
+import dao.UsuarioDAO;
+import exception.InvalidInputException;
+import model.Estudiante;
+import model.enums.EstadoUsuario;
+import org.apache.log4j.Logger;
+import service.ResultadoImportacion;
+import service.ResultadoImportacion.CodigoActivacion;
+import service.ResultadoImportacion.ErrorFila;
+import utils.PasswordHasher;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Importa estudiantes desde un CSV con encabezado (separador coma, comillas dobles opcionales).
+ * 1. Valida todas las filas en paralelo con las mismas reglas que el alta manual (usuario + estudiante).
+ * 2. Descarta emails repetidos en el archivo o ya registrados, con una sola consulta.
+ * 3. Guarda las válidas con EstudianteDAO.saveAll en lotes de tamanioLote, un commit por lote. Si un lote
+ *    falla se reintenta fila por fila para informar cuál es la que falla.
+ * Las cuentas se crean sin contraseña utilizable: cada una recibe un código de activación de un solo uso
+ * (ResultadoImportacion.getActivaciones) y el estudiante elige su contraseña al canjearlo desde el login.
+ * Hashear una contraseña por fila con el PBKDF2 del login cuesta ~90 ms de CPU cada una (minutos para 10.000 filas);
+ * así ese costo se paga una vez por estudiante en su primera entrada y la importación queda limitada por la base.
+ * La columna contrasenia, si viene, se ignora.
+ */
+public class ImportadorEstudiantesCsv {
+    private static final Logger logger = Logger.getLogger(ImportadorEstudiantesCsv.class);
+    private static final List<String> OBLIGATORIAS = List.of("nombre", "apellido", "email", "documento", "fecha_nacimiento");
+
+    private final EstudianteDAO estudianteDAO;
+    private final UsuarioDAO usuarioDAO;
+    private final int tamanioLote;
+    // se llama con cada estudiante que quedó guardado (p. ej. para actualizar el índice de búsqueda)
+    private final Consumer<Estudiante> alGuardar;
+
+    private record FilaCsv(int linea, List<String> campos) {
+    }
+
+    // resultado de validar una fila: el estudiante armado con su código de activación, o el motivo del rechazo
+    private record FilaValidada(int linea, Estudiante estudiante, String codigo, String error) {
+    }
+
+    public ImportadorEstudiantesCsv(EstudianteDAO estudianteDAO, UsuarioDAO usuarioDAO, int tamanioLote) {
+        this(estudianteDAO, usuarioDAO, tamanioLote, estudiante -> {
+        });
+    }
+
+    public ImportadorEstudiantesCsv(EstudianteDAO estudianteDAO, UsuarioDAO usuarioDAO, int tamanioLote, Consumer<Estudiante> alGuardar) {
+        this.estudianteDAO = estudianteDAO;
+        this.usuarioDAO = usuarioDAO;
+        this.tamanioLote = tamanioLote;
+        this.alGuardar = alGuardar;
+    }
+
+    public ResultadoImportacion importar(Reader csv) throws Exception {
+        List<FilaCsv> filas = leerCsv(csv);
+        if (filas.isEmpty()) {
+            throw new InvalidInputException("El archivo está vacío.");
+        }
+        Map<String, Integer> columnas = leerEncabezado(filas.get(0));
+        List<FilaCsv> datos = filas.subList(1, filas.size());
+
+        List<FilaValidada> validadas = datos.parallelStream().map(f -> validar(f, columnas)).toList();
+
+        List<ErrorFila> errores = new ArrayList<>();
+        List<FilaValidada> aceptadas = new ArrayList<>();
+        Set<String> emailsArchivo = new HashSet<>();
+        for (FilaValidada fila : validadas) {
+            if (fila.error() != null) {
+                errores.add(new ErrorFila(fila.linea(), fila.error()));
+            } else if (!emailsArchivo.add(fila.estudiante().getEmail())) {
+                errores.add(new ErrorFila(fila.linea(), "Email repetido en el archivo: " + fila.estudiante().getEmail()));
+            } else {
+                aceptadas.add(fila);
+            }
+        }
+        Set<String> registrados = usuarioDAO.findEmailsExistentes(emailsArchivo);
+        if (!registrados.isEmpty()) {
+            aceptadas.removeIf(fila -> {
+                boolean existe = registrados.contains(fila.estudiante().getEmail());
+                if (existe) {
+                    errores.add(new ErrorFila(fila.linea(), "Ya existe un usuario con el email " + fila.estudiante().getEmail()));
+                }
+                return existe;
+            });
+        }
+
+        List<CodigoActivacion> activaciones = new ArrayList<>();
+        for (int desde = 0; desde < aceptadas.size(); desde += tamanioLote) {
+            guardarLote(aceptadas.subList(desde, Math.min(desde + tamanioLote, aceptadas.size())), errores, activaciones);
+        }
+        errores.sort(Comparator.comparingInt(ErrorFila::linea));
+        logger.info("Importación de estudiantes: " + datos.size() + " filas, " + activaciones.size() + " importadas, " + errores.size() + " con error");
+        return new ResultadoImportacion(datos.size(), activaciones.size(), errores, activaciones);
+    }
+
+    // Métodos auxiliares
+
+    private void guardarLote(List<FilaValidada> lote, List<ErrorFila> errores, List<CodigoActivacion> activaciones) {
+        try {
+            List<Estudiante> estudiantes = lote.stream().map(FilaValidada::estudiante).toList();
+            estudianteDAO.saveAll(estudiantes);
+            lote.forEach(fila -> guardada(fila, activaciones));
+            return;
+        } catch (Exception e) {
+            logger.warn("Lote de " + lote.size() + " estudiantes rechazado, se reintenta fila por fila: " + e.getMessage());
+        }
+        for (FilaValidada fila : lote) {
+            try {
+                estudianteDAO.save(fila.estudiante());
+                guardada(fila, activaciones);
+            } catch (Exception e) {
+                errores.add(new ErrorFila(fila.linea(), "No se pudo guardar: " + e.getMessage()));
+            }
+        }
+    }
+
+    private void guardada(FilaValidada fila, List<CodigoActivacion> activaciones) {
+        alGuardar.accept(fila.estudiante());
+        activaciones.add(new CodigoActivacion(fila.estudiante().getEmail(), fila.codigo()));
+    }
+
+    private FilaValidada validar(FilaCsv fila, Map<String, Integer> columnas) {
+        try {
+            Estudiante estudiante = aEstudiante(fila, columnas);
+            UsuarioServiceImpl.validateUsuarioData(estudiante);
+            EstudianteServiceImpl.validateEstudianteData(estudiante, false);
+            String codigo = PasswordHasher.codigoActivacion();
+            estudiante.setContrasenia(PasswordHasher.hashActivacion(codigo));
+            return new FilaValidada(fila.linea(), estudiante, codigo, null);
+        } catch (IllegalArgumentException | InvalidInputException e) {
+            return new FilaValidada(fila.linea(), null, null, e.getMessage());
+        } catch (DateTimeParseException e) {
+            return new FilaValidada(fila.linea(), null, null, "La fecha de nacimiento debe tener el formato YYYY-MM-DD.");
+        }
+    }
+
+    private Estudiante aEstudiante(FilaCsv fila, Map<String, Integer> columnas) throws InvalidInputException {
+        if (fila.campos().size() != columnas.size()) {
+            throw new InvalidInputException("Se esperaban " + columnas.size() + " columnas y hay " + fila.campos().size() + ".");
+        }
+        Estudiante estudiante = new Estudiante();
+        estudiante.setNombre(campo(fila, columnas, "nombre"));
+        estudiante.setApellido(campo(fila, columnas, "apellido"));
+        estudiante.setEmail(campo(fila, columnas, "email"));
+        estudiante.setDocumento(campo(fila, columnas, "documento"));
+        estudiante.setMotivoDerivacion(campo(fila, columnas, "motivo_derivacion"));
+        estudiante.setCarrera(campo(fila, columnas, "carrera"));
+        estudiante.setGrupo(campo(fila, columnas, "grupo"));
+        estudiante.setTelefono(campo(fila, columnas, "telefono"));
+        estudiante.setCalle(campo(fila, columnas, "calle"));
+        estudiante.setNumeroPuerta(campo(fila, columnas, "numero_puerta"));
+        String fecha = campo(fila, columnas, "fecha_nacimiento");
+        estudiante.setFechaNacimiento(fecha == null ? null : LocalDate.parse(fecha));
+        estudiante.setSistemaSalud(campo(fila, columnas, "sistema_salud"));
+        estudiante.setComentariosGenerales(campo(fila, columnas, "comentarios_generales"));
+        estudiante.setEstadoSalud(campo(fila, columnas, "estado_salud"));
+        String observaciones = campo(fila, columnas, "observaciones_confidenciales");
+        // varias observaciones en la celda separadas por | (así una observación puede llevar comas)
+        estudiante.setObservacionesConfidenciales(observaciones == null ? new ArrayList<>()
+                : Arrays.stream(observaciones.split("\\|")).map(String::trim).filter(o -> !o.isEmpty()).toList());
+        estudiante.setEstado(EstadoUsuario.ACTIVO);
+        return estudiante;
+    }
+
+    // columna opcional ausente o celda vacía -> null
+    private static String campo(FilaCsv fila, Map<String, Integer> columnas, String nombre) {
+        Integer indice = columnas.get(nombre);
+        if (indice == null) {
+            return null;
+        }
+        String valor = fila.campos().get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static Map<String, Integer> leerEncabezado(FilaCsv encabezado) throws InvalidInputException {
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < encabezado.campos().size(); i++) {
+            columnas.put(encabezado.campos().get(i).trim().toLowerCase(), i);
+        }
+        for (String obligatoria : OBLIGATORIAS) {
+            if (!columnas.containsKey(obligatoria)) {
+                throw new InvalidInputException("Falta la columna obligatoria '" + obligatoria + "' en el encabezado.");
+            }
+        }
+        return columnas;
+    }
+
+    // Parser CSV mínimo (RFC 4180): comillas dobles, "" como comilla escapada, saltos de línea dentro de comillas
+    static List<FilaCsv> leerCsv(Reader entrada) throws IOException {
+        Reader reader = entrada.markSupported() ? entrada : new BufferedReader(entrada);
+        List<FilaCsv> filas = new ArrayList<>();
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        boolean filaVacia = true;
+        int linea = 1;
+        int inicioFila = 1;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (entreComillas) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        campo.append('"');
+                    } else {
+                        reader.reset();
+                        entreComillas = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linea++;
+                    }
+                    campo.append((char) c);
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    entreComillas = true;
+                    filaVacia = false;
+                }
+                case ',' -> {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                    filaVacia = false;
+                }
+                case '\r' -> {
+                }
+                case '\n' -> {
+                    if (!filaVacia || campo.length() > 0) {
+                        campos.add(campo.toString());
+                        filas.add(new FilaCsv(inicioFila, campos));
+                    }
+                    campos = new ArrayList<>();
+                    campo.setLength(0);
+                    filaVacia = true;
+                    inicioFila = ++linea;
+                }
+                default -> {
+                    campo.append((char) c);
+                    filaVacia = false;
+                }
+            }
+        }
+        if (!filaVacia || campo.length() > 0) {
+            campos.add(campo.toString());
+            filas.add(new FilaCsv(inicioFila, campos));
+        }
+        return filas;
+    }
+}
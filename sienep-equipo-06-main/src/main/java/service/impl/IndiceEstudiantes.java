@@ -0,0 +1,146 @@
+package service.impl;
+
+import dao.impl.EstudianteDAOImpl;
+import db.ConfiguracionSistema;
+import model.Estudiante;
+import model.Usuario;
+import model.enums.EstadoUsuario;
+import model.enums.TipoUsuario;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice de prefijos en memoria para buscar estudiantes mientras se escribe (opcional:
+ * estudiantes.busqueda.indiceMemoria en config.properties; si está apagado se usa el índice trigram de la base).
+ * - Cada estudiante activo aporta sus palabras en minúsculas (nombre, apellido, documento, email y las partes del email).
+ *   Un mapa ordenado palabra -> ids resuelve un prefijo con subMap, sin recorrer el resto.
+ * - Se carga una vez con un recorrido por cursor; después lo actualizan las altas, modificaciones y bajas
+ *   que pasan por EstudianteServiceImpl y UsuarioServiceImpl.
+ * Las búsquedas no toman locks; las escrituras (pocas) se serializan entre sí.
+ */
+public class IndiceEstudiantes {
+    private static final Logger logger = Logger.getLogger(IndiceEstudiantes.class);
+    // candidatos como máximo a revisar por búsqueda (prefijos muy cortos como "a")
+    private static final int LIMITE_CANDIDATOS = 5_000;
+    private static IndiceEstudiantes compartido;
+    private static boolean cargado;
+
+    private final ConcurrentSkipListMap<String, Set<Integer>> porPalabra = new ConcurrentSkipListMap<>();
+    // datos mínimos para mostrar y verificar cada candidato
+    private final Map<Integer, Estudiante> resumenes = new ConcurrentHashMap<>();
+
+    // Instancia común a todos los services; null si el índice en memoria está desactivado
+    public static synchronized IndiceEstudiantes compartido() throws Exception {
+        if (!cargado) {
+            cargado = true;
+            if (ConfiguracionSistema.getInstance().isBusquedaIndiceMemoria()) {
+                IndiceEstudiantes indice = new IndiceEstudiantes();
+                new EstudianteDAOImpl().scanAll(indice::agregar);
+                compartido = indice;
+                logger.info("Índice de estudiantes en memoria cargado: " + indice.cantidad() + " estudiantes");
+            }
+        }
+        return compartido;
+    }
+
+    // Alta o modificación; los usuarios que no son estudiantes activos se quitan
+    public synchronized void agregar(Usuario usuario) {
+        quitar(usuario.getId());
+        if (usuario.getTipo() != TipoUsuario.ESTUDIANTE || usuario.getEstado() != EstadoUsuario.ACTIVO) {
+            return;
+        }
+        Estudiante resumen = new Estudiante();
+        resumen.setId(usuario.getId());
+        resumen.setNombre(usuario.getNombre());
+        resumen.setApellido(usuario.getApellido());
+        resumen.setDocumento(usuario.getDocumento());
+        resumen.setEmail(usuario.getEmail());
+        resumenes.put(resumen.getId(), resumen);
+        for (String palabra : palabras(resumen)) {
+            porPalabra.computeIfAbsent(palabra, p -> ConcurrentHashMap.newKeySet()).add(resumen.getId());
+        }
+    }
+
+    public synchronized void quitar(int id) {
+        Estudiante anterior = resumenes.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (String palabra : palabras(anterior)) {
+            porPalabra.computeIfPresent(palabra, (p, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    // Cada palabra de la consulta debe ser prefijo de alguna palabra del estudiante. Orden: apellido, nombre
+    public List<Estudiante> buscar(String texto, int maximo) {
+        String[] consulta = texto.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        if (consulta[0].isEmpty()) {
+            return List.of();
+        }
+        // la palabra más larga suele ser la más selectiva: de ahí salen los candidatos
+        String guia = Arrays.stream(consulta).max(Comparator.comparingInt(String::length)).get();
+        Set<Integer> candidatos = new LinkedHashSet<>();
+        for (Set<Integer> ids : porPalabra.subMap(guia, true, guia + Character.MAX_VALUE, false).values()) {
+            candidatos.addAll(ids);
+            if (candidatos.size() >= LIMITE_CANDIDATOS) {
+                break;
+            }
+        }
+        List<Estudiante> encontrados = new ArrayList<>();
+        for (Integer id : candidatos) {
+            Estudiante e = resumenes.get(id);
+            if (e != null && coincide(palabras(e), consulta)) {
+                encontrados.add(e);
+            }
+        }
+        encontrados.sort(Comparator.comparing((Estudiante e) -> e.getApellido(), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(Estudiante::getNombre, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparingInt(Estudiante::getId));
+        return encontrados.size() > maximo ? encontrados.subList(0, maximo) : encontrados;
+    }
+
+    public int cantidad() {
+        return resumenes.size();
+    }
+
+    // Métodos auxiliares
+
+    private static boolean coincide(Set<String> palabras, String[] consulta) {
+        for (String buscada : consulta) {
+            if (palabras.stream().noneMatch(p -> p.startsWith(buscada))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Set<String> palabras(Estudiante e) {
+        Set<String> palabras = new LinkedHashSet<>();
+        for (String campo : new String[]{e.getNombre(), e.getApellido(), e.getDocumento(), e.getEmail()}) {
+            if (campo == null || campo.isBlank()) {
+                continue;
+            }
+            String minusculas = campo.toLowerCase(Locale.ROOT);
+            palabras.add(minusculas.replaceAll("\\s+", " ").trim());
+            for (String parte : minusculas.split("[\\s@._-]+")) {
+                if (!parte.isEmpty()) {
+                    palabras.add(parte);
+                }
+            }
+        }
+        return palabras;
+    }
+}
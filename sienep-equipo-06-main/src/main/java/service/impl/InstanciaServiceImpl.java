@@ -1,39 +1,67 @@
 package service.impl;
 
+import dao.CalendarioOutboxDAO;
+import dao.FiltroInstancias;
 import dao.GenericDAO;
+import dao.IncidenciaDAO;
 import dao.InstanciaDAO;
+import dao.impl.CalendarioOutboxDAOImpl;
+import dao.impl.ContadorCodigoDAOImpl;
+import db.ConfiguracionSistema;
+import db.ConnectionProvider;
+import db.Transaccion;
+import model.EventoCalendarioPendiente;
 import model.Incidencia;
 import model.Instancia;
 import model.InstanciaComun;
 import org.apache.log4j.Logger;
+import service.CalendarioCliente;
 import service.GoogleCalendarService;
 import service.InstanciaService;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 public class InstanciaServiceImpl implements InstanciaService {
     private static final Logger logger = Logger.getLogger(InstanciaServiceImpl.class);
     private final InstanciaDAO instanciaDAO;
-    private final GenericDAO<Incidencia> incidenciaDAO;
+    private final IncidenciaDAO incidenciaDAO;
     private final GenericDAO<InstanciaComun> instanciaComunDAO;
-    private GoogleCalendarService googleCalendarService;
+    private final GeneradorCodigoInstancia generadorCodigo;
+    // los eventos de calendario se encolan en la misma transacción y los crea SincronizadorCalendario
+    private final CalendarioOutboxDAO outboxDAO;
+    private final ConnectionProvider connectionProvider;
+    private final boolean calendarioHabilitado;
+    private static SincronizadorCalendario sincronizador;
+    private static final int TAMANIO_LOTE = 500;  // filas por commit en las altas masivas
 
     public InstanciaServiceImpl(InstanciaDAO instanciaDAO,
-                                GenericDAO<Incidencia> incidenciaDAO,
-                                GenericDAO<InstanciaComun> instanciaComunDAO) {
+                                IncidenciaDAO incidenciaDAO,
+                                GenericDAO<InstanciaComun> instanciaComunDAO) throws Exception {
+        this(instanciaDAO, incidenciaDAO, instanciaComunDAO,
+                new GeneradorCodigoInstancia(new ContadorCodigoDAOImpl(), ConfiguracionSistema.getInstance().getCodigoBloque()),
+                new CalendarioOutboxDAOImpl(), ConfiguracionSistema.getInstance(),
+                !"desactivado".equals(ConfiguracionSistema.getInstance().getCalendarioModo()));
+        if (calendarioHabilitado) {
+            iniciarSincronizador(ConfiguracionSistema.getInstance(), outboxDAO);
+        }
+    }
+
+    public InstanciaServiceImpl(InstanciaDAO instanciaDAO,
+                                IncidenciaDAO incidenciaDAO,
+                                GenericDAO<InstanciaComun> instanciaComunDAO,
+                                GeneradorCodigoInstancia generadorCodigo,
+                                CalendarioOutboxDAO outboxDAO,
+                                ConnectionProvider connectionProvider,
+                                boolean calendarioHabilitado) {
         this.instanciaDAO = instanciaDAO;
         this.incidenciaDAO = incidenciaDAO;
         this.instanciaComunDAO = instanciaComunDAO;
-
-        try {
-            this.googleCalendarService = new GoogleCalendarService();
-        } catch (Exception e) {
-            logger.warn("No se pudo inicializar Google Calendar Service: " + e.getMessage());
-            this.googleCalendarService = null;
-        }
-
+        this.generadorCodigo = generadorCodigo;
+        this.outboxDAO = outboxDAO;
+        this.connectionProvider = connectionProvider;
+        this.calendarioHabilitado = calendarioHabilitado;
     }
 
     @Override
@@ -41,67 +69,47 @@ public class InstanciaServiceImpl implements InstanciaService {
         instancia.setTipo("COMUN");
         instancia.setCodigo(generateCodigo());
 
-        // Crear evento en Google Calendar
-        if (googleCalendarService != null) {
-            try {
-                String descripcion = "Instancia común - " + instancia.getMotivacion() +
-                        "\nEstudiante: " + instancia.getEstudianteAsociado().getNombre() +
-                        " " + instancia.getEstudianteAsociado().getApellido() +
-                        "\nCategoría: " + instancia.getCategoria().getNombre();
-
-                String eventId = googleCalendarService.crearEventoConRecordatorio(
-                        instancia.getTitulo(),
-                        descripcion,
-                        instancia.getFechaHora(),
-                        60, // 60 minutos de duración por defecto
-                        30  // recordatorio 30 minutos antes
-                );
-
-                instancia.setGoogleCalendarEventId(eventId);
-                logger.info("Evento creado en Google Calendar para instancia: " + instancia.getCodigo());
-            } catch (Exception e) {
-                logger.error("Error al crear evento en Google Calendar: " + e.getMessage(), e);
-                // Continúa sin el evento de calendar si falla
+        Transaccion.ejecutar(connectionProvider, () -> {
+            instanciaComunDAO.save(instancia);
+            if (calendarioHabilitado) {
+                outboxDAO.encolarCreacion(eventoDe(instancia));
             }
-        }
-
-        instanciaComunDAO.save(instancia);
+        });
         logger.info("InstanciaComun creada con código: " + instancia.getCodigo());
     }
 
+    @Override
+    public void createInstanciasComunes(List<InstanciaComun> instancias) throws Exception {
+        for (InstanciaComun instancia : instancias) {
+            instancia.setTipo("COMUN");
+        }
+        guardarEnLotes(instancias, instanciaComunDAO, this::eventoDe);
+        logger.info("InstanciasComunes creadas en lote: " + instancias.size());
+    }
+
     @Override
     public void createIncidencia(Incidencia incidencia) throws Exception {
         incidencia.setTipo("INCIDENCIA");
         incidencia.setCodigo(generateCodigo());
 
-        // Crear evento en Google Calendar para incidencias
-        if (googleCalendarService != null) {
-            try {
-                String descripcion = "INCIDENCIA - CONFIDENCIAL" +
-                        "\nLugar: " + incidencia.getLugar() +
-                        "\nEstudiante: " + incidencia.getEstudianteAsociado().getNombre() +
-                        " " + incidencia.getEstudianteAsociado().getApellido() +
-                        "\nReportado por: " + incidencia.getReportadoPor().getNombre();
-
-                String eventId = googleCalendarService.crearEventoConRecordatorio(
-                        "INCIDENCIA: " + incidencia.getTitulo(),
-                        descripcion,
-                        incidencia.getFechaHora(),
-                        90, // 90 minutos para incidencias
-                        60  // recordatorio 60 minutos antes
-                );
-
-                incidencia.setGoogleCalendarEventId(eventId);
-                logger.info("Evento creado en Google Calendar para incidencia: " + incidencia.getCodigo());
-            } catch (Exception e) {
-                logger.error("Error al crear evento en Google Calendar: " + e.getMessage(), e);
+        Transaccion.ejecutar(connectionProvider, () -> {
+            incidenciaDAO.save(incidencia);
+            if (calendarioHabilitado) {
+                outboxDAO.encolarCreacion(eventoDe(incidencia));
             }
-        }
-
-        incidenciaDAO.save(incidencia);
+        });
         logger.info("Incidencia creada con código: " + incidencia.getCodigo());
     }
 
+    @Override
+    public void createIncidencias(List<Incidencia> incidencias) throws Exception {
+        for (Incidencia incidencia : incidencias) {
+            incidencia.setTipo("INCIDENCIA");
+        }
+        guardarEnLotes(incidencias, incidenciaDAO, this::eventoDe);
+        logger.info("Incidencias creadas en lote: " + incidencias.size());
+    }
+
     @Override
     public List<Instancia> getInstanciasByEstudiante(int idEstudiante) throws Exception {
         return instanciaDAO.findByEstudiante(idEstudiante);
@@ -109,10 +117,8 @@ public class InstanciaServiceImpl implements InstanciaService {
 
     @Override
     public String generateCodigo() throws Exception {
-        // segun el RF14, debia seguir un formato tipo: INST-2025-XXXX
-        int contador = (int) (Math.random() * 10000);
-        return "INST-" + LocalDate.now().getYear() + "-" + String.format("%04d", contador);
-
+        // INST-<año>-NNNN desde el contador por año en la base (bloques reservados, sin colisiones)
+        return generadorCodigo.siguiente();
     }
 
     // método para listar todas las instancias
@@ -121,6 +127,28 @@ public class InstanciaServiceImpl implements InstanciaService {
         return instanciaDAO.findAll();
     }
 
+    // página de instancias ordenada por id, a partir de la última mostrada
+    @Override
+    public List<Instancia> listarInstanciasPagina(int despuesDeId, int tamanio) throws Exception {
+        return instanciaDAO.findPage(despuesDeId, tamanio);
+    }
+
+    @Override
+    public List<Instancia> buscarInstancias(FiltroInstancias filtro, Instancia despuesDe, int tamanio) throws Exception {
+        if (filtro.getDesde() != null && filtro.getHasta() != null && !filtro.getDesde().isBefore(filtro.getHasta())) {
+            throw new IllegalArgumentException("La fecha desde debe ser anterior a la fecha hasta.");
+        }
+        return instanciaDAO.buscar(filtro, despuesDe, tamanio);
+    }
+
+    @Override
+    public List<Instancia> buscarPorTexto(String consulta, boolean incluirConfidenciales, int desplazamiento, int tamanio) throws Exception {
+        if (consulta == null || consulta.isBlank()) {
+            throw new IllegalArgumentException("Ingrese al menos una palabra para buscar.");
+        }
+        return instanciaDAO.buscarTexto(consulta.trim(), incluirConfidenciales, desplazamiento, tamanio);
+    }
+
     @Override
     public List<InstanciaComun> listarInstanciasComunes() throws Exception {
         try {
@@ -131,6 +159,32 @@ public class InstanciaServiceImpl implements InstanciaService {
         }
     }
 
+    @Override
+    public List<Incidencia> buscarIncidenciasPorPersona(String persona) throws Exception {
+        if (persona == null || persona.isBlank()) {
+            return List.of();
+        }
+        try {
+            return incidenciaDAO.findByPersona(persona);
+        } catch (Exception e) {
+            logger.error("Error al buscar incidencias de la persona: " + persona, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void agregarPersonaIncidencia(int idIncidencia, String persona) throws Exception {
+        if (persona == null || persona.isBlank()) {
+            throw new IllegalArgumentException("El nombre de la persona es obligatorio.");
+        }
+        try {
+            incidenciaDAO.agregarPersona(idIncidencia, persona);
+        } catch (Exception e) {
+            logger.error("Error al agregar persona a la incidencia ID: " + idIncidencia, e);
+            throw e;
+        }
+    }
+
     @Override
     public List<Incidencia> listarIncidencias() throws Exception {
         try {
@@ -213,17 +267,13 @@ public class InstanciaServiceImpl implements InstanciaService {
                 throw new Exception("Instancia no encontrada.");
             }
 
-            // Eliminar evento de Google Calendar si existe
-            if (googleCalendarService != null && instancia.getGoogleCalendarEventId() != null) {
-                try {
-                    googleCalendarService.eliminarEvento(instancia.getGoogleCalendarEventId());
-                    logger.info("Evento de Google Calendar eliminado para instancia ID: " + id);
-                } catch (Exception e) {
-                    logger.error("Error al eliminar evento de Google Calendar para instancia ID: " + id, e);
+            // el borrado del evento de Google Calendar se encola junto con el delete
+            Transaccion.ejecutar(connectionProvider, () -> {
+                if (calendarioHabilitado) {
+                    outboxDAO.encolarEliminacion(id, instancia.getGoogleCalendarEventId());
                 }
-            }
-
-            instanciaDAO.delete(id);
+                instanciaDAO.delete(id);
+            });
             logger.info("Instancia eliminada con ID: " + id);
         } catch (Exception e) {
             logger.error("Error al eliminar instancia con ID: " + id, e);
@@ -272,4 +322,74 @@ public class InstanciaServiceImpl implements InstanciaService {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    // Métodos auxiliares
+
+    // Alta masiva: códigos reservados de una vez, inserts con JDBC batch y un commit por lote de TAMANIO_LOTE.
+    // Si falla un lote, los anteriores ya quedaron guardados.
+    private <T extends Instancia> void guardarEnLotes(List<T> instancias, GenericDAO<T> dao,
+                                                       Function<T, EventoCalendarioPendiente> evento) throws Exception {
+        List<String> codigos = generadorCodigo.siguientes(instancias.size());
+        for (int i = 0; i < instancias.size(); i++) {
+            instancias.get(i).setCodigo(codigos.get(i));
+        }
+        for (int desde = 0; desde < instancias.size(); desde += TAMANIO_LOTE) {
+            List<T> lote = instancias.subList(desde, Math.min(desde + TAMANIO_LOTE, instancias.size()));
+            Transaccion.ejecutar(connectionProvider, () -> {
+                dao.saveAll(lote);
+                if (calendarioHabilitado) {
+                    outboxDAO.encolarCreaciones(lote.stream().map(evento).toList());
+                }
+            });
+        }
+    }
+
+    private EventoCalendarioPendiente eventoDe(InstanciaComun instancia) {
+        String descripcion = "Instancia común - " + instancia.getMotivacion() +
+                "\nEstudiante: " + instancia.getEstudianteAsociado().getNombre() +
+                " " + instancia.getEstudianteAsociado().getApellido() +
+                "\nCategoría: " + instancia.getCategoria().getNombre();
+        return new EventoCalendarioPendiente(instancia.getId(), instancia.getTitulo(),
+                descripcion, instancia.getFechaHora(),
+                60, // 60 minutos de duración por defecto
+                30  // recordatorio 30 minutos antes
+        );
+    }
+
+    private EventoCalendarioPendiente eventoDe(Incidencia incidencia) {
+        String descripcion = "INCIDENCIA - CONFIDENCIAL" +
+                "\nLugar: " + incidencia.getLugar() +
+                "\nEstudiante: " + incidencia.getEstudianteAsociado().getNombre() +
+                " " + incidencia.getEstudianteAsociado().getApellido() +
+                "\nReportado por: " + incidencia.getReportadoPor().getNombre();
+        return new EventoCalendarioPendiente(incidencia.getId(),
+                "INCIDENCIA: " + incidencia.getTitulo(), descripcion, incidencia.getFechaHora(),
+                90, // 90 minutos para incidencias
+                60  // recordatorio 60 minutos antes
+        );
+    }
+
+    // Un único sincronizador por proceso, aunque se creen varios services
+    private static synchronized void iniciarSincronizador(ConfiguracionSistema config, CalendarioOutboxDAO outboxDAO) {
+        if (sincronizador != null) {
+            return;
+        }
+        CalendarioCliente calendario;
+        if ("local".equals(config.getCalendarioModo())) {
+            calendario = new CalendarioLocal();
+        } else {
+            try {
+                calendario = new GoogleCalendarService();
+            } catch (Exception e) {
+                // las operaciones quedan en el outbox hasta que el calendario esté disponible
+                logger.warn("No se pudo inicializar Google Calendar Service: " + e.getMessage());
+                return;
+            }
+        }
+        sincronizador = new SincronizadorCalendario(outboxDAO, calendario, config.getCalendarioLote(),
+                config.getCalendarioMaxIntentos(), config.getCalendarioEsperaBaseSegundos(), config.getCalendarioEsperaMaximaSegundos(),
+                config.getCalendarioPlazoReclamoSegundos());
+        sincronizador.iniciar(config.getCalendarioIntervaloSegundos());
+        Runtime.getRuntime().addShutdownHook(new Thread(sincronizador::detener, "sincronizador-calendario-cierre"));
+    }
+}
@@ -1,7 +1,7 @@
 package service.impl;
 
 import dao.GenericDAO;
-import dao.impl.PermisoDAOImpl;
+import dao.impl.CacheReferencias;
 import model.Permiso;
 import org.apache.log4j.Logger;
 import service.PermisoService;
@@ -13,7 +13,7 @@ public class PermisoServiceImpl implements PermisoService {
     private final GenericDAO<Permiso> permisoDAO;
 
     public PermisoServiceImpl() throws Exception {
-        this.permisoDAO = new PermisoDAOImpl();
+        this.permisoDAO = CacheReferencias.permisos();
     }
 
     @Override
@@ -1,5 +1,7 @@
 package service.impl;
 
+import dao.impl.CacheReferencias;
+import dao.impl.CachedDAO;
 import dao.impl.RolDAOImpl;
 import model.Rol;
 import org.apache.log4j.Logger;
@@ -9,10 +11,12 @@ import java.util.List;
 
 public class RolServiceImpl implements RolService {
     private static final Logger logger = Logger.getLogger(RolServiceImpl.class);
-    private final RolDAOImpl rolDAO;
+    private final RolDAOImpl rolDAO;  // consultas propias de roles (por nombre, permisos, funcionarios)
+    private final CachedDAO<Rol> rolCache;  // CRUD a través de la cache compartida
 
     public RolServiceImpl() throws Exception {
         this.rolDAO = new RolDAOImpl();
+        this.rolCache = CacheReferencias.roles();
     }
 
 
@@ -27,7 +31,7 @@ public class RolServiceImpl implements RolService {
             if (rol.getPermisos() == null || rol.getPermisos().isEmpty()) {
                 throw new IllegalArgumentException("Un rol debe tener al menos un permiso asignado.");
             }
-            rolDAO.save(rol);
+            rolCache.save(rol);
         } catch (Exception e) {
             logger.error("Error al guardar rol", e);
         }
@@ -36,7 +40,7 @@ public class RolServiceImpl implements RolService {
     @Override
     public Rol buscarRolPorId(int id) {
         try {
-            return rolDAO.findById(id);
+            return rolCache.findById(id);
         } catch (Exception e) {
             logger.error("Error al buscar el rol con ID: " + id, e);
             return null;
@@ -46,7 +50,7 @@ public class RolServiceImpl implements RolService {
     @Override
     public List<Rol> obtenerTodosLosRoles() {
         try {
-            return rolDAO.findAll();
+            return rolCache.findAll();
         } catch (Exception e) {
             logger.error("Error al obtener todos los roles", e);
             return null;
@@ -56,7 +60,7 @@ public class RolServiceImpl implements RolService {
     @Override
     public void actualizarRol(Rol rol) {
         try {
-            rolDAO.update(rol);
+            rolCache.update(rol);
             logger.info("Rol actualizado exitosamente: " + rol);
         } catch (Exception e) {
             logger.error("Error al actualizar el rol: " + rol, e);
@@ -70,7 +74,7 @@ public class RolServiceImpl implements RolService {
             if (rolDAO.rolTieneFuncionarios(id)) {
                 throw new IllegalStateException("No se puede eliminar un rol que está asignado a funcionarios.");
             }
-            rolDAO.delete(id);
+            rolCache.delete(id);
             logger.info("Rol eliminado: " + id);
         } catch (Exception e) {
             logger.error("Error al eliminar el rol: " + id, e);
@@ -81,11 +85,12 @@ public class RolServiceImpl implements RolService {
     @Override
     public void agregarPermisoARol(int idRol, int idPermiso) throws Exception {
         try {
-            Rol rol = rolDAO.findById(idRol);
+            Rol rol = rolCache.findById(idRol);
             if (rol == null) {
                 throw new Exception("Rol no encontrado.");
             }
             rolDAO.addPermisoToRol(idRol, idPermiso);
+            rolCache.invalidar(idRol);
             logger.info("Permiso " + idPermiso + " agregado al rol " + idRol);
         } catch (Exception e) {
             logger.error("Error al agregar permiso " + idPermiso + " al rol " + idRol, e);
@@ -96,11 +101,12 @@ public class RolServiceImpl implements RolService {
     @Override
     public void quitarPermisoARol(int idRol, int idPermiso) throws Exception {
         try {
-            Rol rol = rolDAO.findById(idRol);
+            Rol rol = rolCache.findById(idRol);
             if (rol == null) {
                 throw new Exception("Rol no encontrado.");
             }
             rolDAO.removePermisoFromRol(idRol, idPermiso);
+            rolCache.invalidar(idRol);
             logger.info("Permiso " + idPermiso + " quitado del rol " + idRol);
         } catch (Exception e) {
             logger.error("Error al quitar permiso " + idPermiso + " del rol " + idRol, e);
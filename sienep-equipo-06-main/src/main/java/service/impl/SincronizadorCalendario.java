@@ -0,0 +1,128 @@
+package service.impl;
+
+import dao.CalendarioOutboxDAO;
+import model.EventoCalendarioPendiente;
+import model.enums.OperacionCalendario;
+import org.apache.log4j.Logger;
+import service.CalendarioCliente;
+import utils.TareaProgramada;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker en segundo plano que vacía proyecto.calendario_outbox contra el calendario.
+ * - Cada ronda reclama un lote de operaciones vencidas y guarda el resultado de cada una apenas termina.
+ * - La creación es idempotente: el reclamo fija el event id en la fila antes de llamar al calendario, y crear
+ *   con un id ya existente no duplica. Reintentar (por error al registrar o por reclamo vencido) es seguro.
+ * - El reclamo tiene plazo (reclamado_en): lo que lleva más de plazoReclamo EN_PROCESO es de un worker caído
+ *   y vuelve a PENDIENTE; lo que otro worker vivo tiene reclamado no se toca.
+ * - Un fallo reprograma la operación con espera exponencial (esperaBase * 2^(intentos-1), tope esperaMaxima);
+ *   al llegar a maxIntentos queda FALLIDO para revisarla a mano.
+ * Guardar una instancia ya no espera al calendario: sólo escribe la fila de outbox.
+ */
+public class SincronizadorCalendario {
+    private static final Logger logger = Logger.getLogger(SincronizadorCalendario.class);
+
+    private final CalendarioOutboxDAO outboxDAO;
+    private final CalendarioCliente calendario;
+    private final int tamanioLote;
+    private final int maxIntentos;
+    private final long esperaBaseSegundos;
+    private final long esperaMaximaSegundos;
+    private final long plazoReclamoSegundos;
+    private final TareaProgramada tarea = new TareaProgramada("sincronizador-calendario", this::ronda);
+
+    public SincronizadorCalendario(CalendarioOutboxDAO outboxDAO, CalendarioCliente calendario, int tamanioLote,
+                                   int maxIntentos, long esperaBaseSegundos, long esperaMaximaSegundos,
+                                   long plazoReclamoSegundos) {
+        this.outboxDAO = outboxDAO;
+        this.calendario = calendario;
+        this.tamanioLote = tamanioLote;
+        this.maxIntentos = maxIntentos;
+        this.esperaBaseSegundos = esperaBaseSegundos;
+        this.esperaMaximaSegundos = esperaMaximaSegundos;
+        this.plazoReclamoSegundos = plazoReclamoSegundos;
+    }
+
+    public void iniciar(long intervaloSegundos) {
+        if (!tarea.iniciar(intervaloSegundos, TimeUnit.SECONDS)) {
+            return;
+        }
+        logger.info("Sincronizador de calendario iniciado (cada " + intervaloSegundos + " s, lote=" + tamanioLote + ")");
+    }
+
+    public void detener() {
+        tarea.detener();
+    }
+
+    // Procesa lotes hasta vaciar lo vencido; devuelve cuántas operaciones se intentaron
+    public int procesarPendientes() throws Exception {
+        int liberadas = outboxDAO.liberarReclamosVencidos(plazoReclamoSegundos);
+        if (liberadas > 0) {
+            logger.warn("Operaciones de calendario retomadas tras vencer su reclamo (" + plazoReclamoSegundos + " s): " + liberadas);
+        }
+        int total = 0;
+        List<EventoCalendarioPendiente> lote;
+        do {
+            lote = outboxDAO.reclamarPendientes(tamanioLote);
+            procesarLote(lote);
+            total += lote.size();
+        } while (lote.size() == tamanioLote);
+        return total;
+    }
+
+    // Métodos auxiliares
+
+    // un error corta la ronda; lo pendiente se retoma en la próxima
+    private void ronda() throws Exception {
+        int procesadas = procesarPendientes();
+        if (procesadas > 0) {
+            logger.info("Operaciones de calendario procesadas: " + procesadas);
+        }
+    }
+
+    private void procesarLote(List<EventoCalendarioPendiente> lote) {
+        for (EventoCalendarioPendiente evento : lote) {
+            try {
+                procesar(evento);
+            } catch (Exception e) {
+                reprogramar(evento, e);
+            }
+        }
+    }
+
+    private void procesar(EventoCalendarioPendiente evento) throws Exception {
+        if (evento.getOperacion() == OperacionCalendario.ELIMINAR) {
+            calendario.eliminarEvento(evento.getEventId());
+            outboxDAO.marcarProcesados(List.of(evento.getId()));
+            return;
+        }
+        // si registrarCreados falla, el reintento vuelve a "crear" con el mismo id y sólo completa el registro
+        evento.setEventId(calendario.crearEventoConRecordatorio(evento.getEventId(), evento.getTitulo(), evento.getDescripcion(),
+                evento.getFechaHora(), evento.getDuracionMinutos(), evento.getRecordatorioMinutos()));
+        if (!outboxDAO.registrarCreados(List.of(evento)).isEmpty()) {
+            logger.info("Evento creado para la instancia ya eliminada ID " + evento.getIdInstancia() + ", se encola para borrar");
+        }
+    }
+
+    // Un error al reprogramar no corta el lote: la operación queda EN_PROCESO y se retoma al vencer el reclamo
+    private void reprogramar(EventoCalendarioPendiente evento, Exception error) {
+        boolean agotado = evento.getIntentos() >= maxIntentos;
+        long espera = Math.min(esperaMaximaSegundos, esperaBaseSegundos << Math.min(evento.getIntentos() - 1, 30));
+        try {
+            outboxDAO.reprogramar(evento.getId(), error.getMessage(), LocalDateTime.now().plusSeconds(espera), agotado);
+        } catch (Exception e) {
+            logger.error("No se pudo reprogramar la operación de calendario ID " + evento.getId(), e);
+            return;
+        }
+        if (agotado) {
+            logger.error("Operación de calendario " + evento.getOperacion() + " para instancia ID " + evento.getIdInstancia() +
+                    " marcada FALLIDO tras " + evento.getIntentos() + " intentos", error);
+        } else {
+            logger.warn("Operación de calendario " + evento.getOperacion() + " para instancia ID " + evento.getIdInstancia() +
+                    " reintenta en " + espera + " s (intento " + evento.getIntentos() + "): " + error.getMessage());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package service.impl;
 
 import dao.UsuarioDAO;
 import dao.impl.UsuarioDAOImpl;
+import exception.AutenticacionFallidaException;
 import exception.CuentaInactivaException;
 import model.Usuario;
 import org.apache.log4j.Logger;
@@ -13,6 +14,8 @@ import java.util.regex.Pattern;
 public class UsuarioServiceImpl implements UsuarioService {
     private static final Logger logger = Logger.getLogger(UsuarioServiceImpl.class);
     private final UsuarioDAO usuarioDAO;
+    // índice de búsqueda de estudiantes a mantener al modificar o dar de baja usuarios (puede ser null)
+    private final IndiceEstudiantes indiceEstudiantes;
 
     // patrones regex para validaciones comunes a estudiantes y funcionarios
     private static final Pattern NOMBRE_APELLIDO_PATTERN = Pattern.compile("^[a-zA-ZáéíóúÁÉÍÓÚñÑ\\s]+$"); // Solo letras, espacios y acentos
@@ -21,11 +24,16 @@ public class UsuarioServiceImpl implements UsuarioService {
 
 
     public UsuarioServiceImpl() throws Exception {
+        this(null);
+    }
+
+    public UsuarioServiceImpl(IndiceEstudiantes indiceEstudiantes) throws Exception {
         this.usuarioDAO = new UsuarioDAOImpl();
+        this.indiceEstudiantes = indiceEstudiantes;
     }
 
-    // Método para validar datos comunes de Usuario
-    private void validateUsuarioData(Usuario usuario) throws IllegalArgumentException {
+    // Método para validar datos comunes de Usuario (también lo usa la importación masiva de estudiantes)
+    static void validateUsuarioData(Usuario usuario) throws IllegalArgumentException {
         // Validar nombre
         if (usuario.getNombre() == null || usuario.getNombre().isEmpty()) {
             throw new IllegalArgumentException("El nombre es obligatorio.");
@@ -57,7 +65,7 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     // Método privado para validar contraseña
-    private void validatePassword(String password) throws IllegalArgumentException {
+    private static void validatePassword(String password) throws IllegalArgumentException {
         if (password == null || password.isEmpty()) {
             throw new IllegalArgumentException("La contraseña no puede estar vacía.");
         }
@@ -105,12 +113,25 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
     }
 
+    @Override
+    public List<Usuario> listarUsuariosPagina(int despuesDeId, int tamanio) {
+        try {
+            return usuarioDAO.findPage(despuesDeId, tamanio);
+        } catch (Exception e) {
+            logger.error("Error al listar la página de usuarios después del ID: " + despuesDeId, e);
+            return null;
+        }
+    }
+
     @Override
     public void actualizarUsuario(Usuario usuario) throws IllegalArgumentException {
         // Validar datos comunes antes de actualizar
         validateUsuarioData(usuario);
         try {
             usuarioDAO.update(usuario);
+            if (indiceEstudiantes != null) {
+                indiceEstudiantes.agregar(usuario);
+            }
             logger.info("Usuario actualizado exitosamente: " + usuario.getEmail());
         } catch (Exception e) {
             logger.error("Error al actualizar el usuario: " + usuario.getEmail(), e);
@@ -122,6 +143,9 @@ public class UsuarioServiceImpl implements UsuarioService {
     public void eliminarUsuario(int id) {
         try {
             usuarioDAO.deleteLogical(id);
+            if (indiceEstudiantes != null) {
+                indiceEstudiantes.quitar(id);
+            }
             logger.info("Usuario eliminado exitosamente con ID: " + id);
         } catch (Exception e) {
             logger.error("Error al eliminar el usuario con ID: " + id, e);
@@ -163,6 +187,21 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
     }
 
+    // La contraseña elegida se valida como en el alta; un código inválido o ya usado es AutenticacionFallidaException
+    @Override
+    public Usuario activarCuenta(String email, String codigo, String nuevaContrasenia) throws Exception {
+        validatePassword(nuevaContrasenia);
+        try {
+            return usuarioDAO.activateAccount(email, codigo, nuevaContrasenia);
+        } catch (AutenticacionFallidaException e) {
+            logger.warn("Activación rechazada para: " + email);
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al activar la cuenta del usuario: " + email, e);
+            throw e;
+        }
+    }
+
     @Override
     public Usuario verDatosBasicos(int idUsuario) {
         try {
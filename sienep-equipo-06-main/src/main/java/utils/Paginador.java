@@ -0,0 +1,49 @@
+package utils;
+
+import java.util.List;
+import java.util.Scanner;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+// Recorre listados grandes de a una página (keyset por id) para no cargar la tabla entera en memoria
+public class Paginador {
+    public static final int TAMANIO_PAGINA = 20;
+
+    @FunctionalInterface
+    public interface FuentePagina<T> {
+        List<T> pagina(int despuesDeId, int tamanio) throws Exception;
+    }
+
+    // Para fuentes cuyo keyset no es sólo el id (p.ej. búsquedas ordenadas por fecha): reciben el último elemento mostrado
+    @FunctionalInterface
+    public interface FuenteCursor<T> {
+        List<T> pagina(T ultimo, int tamanio) throws Exception;
+    }
+
+    // Imprime página por página; entre páginas pregunta si seguir. Devuelve la cantidad de elementos mostrados
+    public static <T> int recorrer(FuentePagina<T> fuente, ToIntFunction<T> idDe, Consumer<T> imprimir, Scanner scanner) throws Exception {
+        return recorrer((T ultimo, int tamanio) -> fuente.pagina(ultimo == null ? 0 : idDe.applyAsInt(ultimo), tamanio),
+                imprimir, scanner);
+    }
+
+    public static <T> int recorrer(FuenteCursor<T> fuente, Consumer<T> imprimir, Scanner scanner) throws Exception {
+        T ultimo = null;
+        int mostrados = 0;
+        while (true) {
+            List<T> pagina = fuente.pagina(ultimo, TAMANIO_PAGINA);
+            if (pagina == null || pagina.isEmpty()) {
+                return mostrados;
+            }
+            pagina.forEach(imprimir);
+            mostrados += pagina.size();
+            if (pagina.size() < TAMANIO_PAGINA) {
+                return mostrados;
+            }
+            System.out.print("-- Enter para ver más, 'q' para terminar: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return mostrados;
+            }
+            ultimo = pagina.get(pagina.size() - 1);
+        }
+    }
+}
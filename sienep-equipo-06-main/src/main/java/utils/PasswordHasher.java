@@ -1,15 +1,142 @@
 package utils;
 
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Hash de contraseñas con PBKDF2-HMAC-SHA256 (sólo JDK) y sal aleatoria por hash.
+ * Formato guardado: pbkdf2-sha256$<iteraciones>$<sal base64>$<hash base64>. Cada hash lleva sus parámetros,
+ * así que cambiar las iteraciones no invalida los existentes: se rehashean en el próximo login (necesitaRehash).
+ * Los hashes del esquema anterior (desplazamiento + reversa, sin prefijo) se aceptan sólo para migrarlos.
+ * Una cuenta pendiente de activación guarda activacion-sha256$<sha256 base64 del código>: no verifica ninguna
+ * contraseña, sólo se canjea con verifyActivacion.
+ */
 public class PasswordHasher {
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    private static final String PREFIJO = "pbkdf2-sha256";
+    private static final int BYTES_SAL = 16;
+    private static final int BITS_HASH = 256;
+    private static final int ITERACIONES_MINIMAS = 1_000;
+    private static final String PREFIJO_ACTIVACION = "activacion-sha256";
+    private static final int BYTES_CODIGO = 16;
+    // calibrado con benchmarks/PasswordHasherBenchmark: ~90 ms por verificación en 1 vCPU (objetivo: login < 150 ms)
+    public static final int ITERACIONES_POR_DEFECTO = 210_000;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static volatile int iteraciones = ITERACIONES_POR_DEFECTO;
+
+    // Costo de los hashes nuevos (seguridad.hash.iteraciones en config.properties)
+    public static void setIteraciones(int nuevasIteraciones) {
+        if (nuevasIteraciones < ITERACIONES_MINIMAS) {
+            throw new IllegalArgumentException("Las iteraciones deben ser al menos " + ITERACIONES_MINIMAS);
+        }
+        iteraciones = nuevasIteraciones;
+    }
+
+    public static int getIteraciones() {
+        return iteraciones;
+    }
+
     public static String hash(String password) {
+        int costo = iteraciones;
+        byte[] sal = new byte[BYTES_SAL];
+        RANDOM.nextBytes(sal);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIJO + "$" + costo + "$" + base64.encodeToString(sal) + "$" + base64.encodeToString(pbkdf2(password, sal, costo));
+    }
+
+    public static boolean verify(String password, String hashed) {
+        if (password == null || hashed == null || esActivacion(hashed)) {
+            return false;
+        }
+        if (esLegado(hashed)) {
+            return MessageDigest.isEqual(hashLegado(password).getBytes(StandardCharsets.UTF_8), hashed.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] partes = hashed.split("\\$");
+        if (partes.length != 4 || !partes[0].equals(PREFIJO)) {
+            return false;
+        }
+        try {
+            int costo = Integer.parseInt(partes[1]);
+            byte[] sal = Base64.getDecoder().decode(partes[2]);
+            byte[] esperado = Base64.getDecoder().decode(partes[3]);
+            // comparación en tiempo constante
+            return MessageDigest.isEqual(esperado, pbkdf2(password, sal, costo));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // true si el hash es del esquema anterior o se hizo con otro costo: conviene regenerarlo tras un login correcto
+    public static boolean necesitaRehash(String hashed) {
+        if (hashed == null || esLegado(hashed)) {
+            return true;
+        }
+        String[] partes = hashed.split("\\$");
+        return partes.length != 4 || !partes[1].equals(String.valueOf(iteraciones));
+    }
+
+    // Código de un solo uso (128 bits aleatorios, en hex) para una cuenta creada sin contraseña.
+    // No se puede adivinar probando, así que alcanza con un SHA-256 sin sal ni costo para guardarlo.
+    public static String codigoActivacion() {
+        byte[] codigo = new byte[BYTES_CODIGO];
+        RANDOM.nextBytes(codigo);
+        return HexFormat.of().formatHex(codigo);
+    }
+
+    public static String hashActivacion(String codigo) {
+        return PREFIJO_ACTIVACION + "$" + Base64.getEncoder().withoutPadding().encodeToString(sha256(codigo));
+    }
+
+    public static boolean verifyActivacion(String codigo, String hashed) {
+        if (codigo == null || hashed == null || !esActivacion(hashed)) {
+            return false;
+        }
+        return MessageDigest.isEqual(hashActivacion(codigo.trim().toLowerCase()).getBytes(StandardCharsets.UTF_8),
+                hashed.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static boolean esActivacion(String hashed) {
+        return hashed != null && hashed.startsWith(PREFIJO_ACTIVACION + "$");
+    }
+
+    // Métodos auxiliares
+
+    private static byte[] sha256(String texto) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 no disponible en esta JVM", e);
+        }
+    }
+
+    private static byte[] pbkdf2(String password, byte[] sal, int costo) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), sal, costo, BITS_HASH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 no disponible en esta JVM", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static boolean esLegado(String hashed) {
+        return !hashed.startsWith(PREFIJO + "$") && !esActivacion(hashed);
+    }
+
+    // esquema anterior: cada carácter desplazado 3 posiciones y la cadena invertida (reversible, sólo para migrar)
+    private static String hashLegado(String password) {
         StringBuilder sb = new StringBuilder();
         for (char c : password.toCharArray()) {
-            sb.append((char)(c + 3)); // desplazamiento de 3 posiciones
+            sb.append((char) (c + 3));
         }
         return sb.reverse().toString();
     }
-
-    public static boolean verify(String password, String hashed) {
-        return hash(password).equals(hashed);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package utils;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tarea periódica en un hilo daemon propio (no impide que la JVM termine), con espera fija entre rondas.
+ * Una excepción de la tarea se registra y no cancela las rondas siguientes. iniciar y detener son idempotentes.
+ */
+public class TareaProgramada {
+    private static final Logger logger = Logger.getLogger(TareaProgramada.class);
+
+    @FunctionalInterface
+    public interface Tarea {
+        void ejecutar() throws Exception;
+    }
+
+    private final String nombreHilo;
+    private final Tarea tarea;
+    private ScheduledExecutorService ejecutor;
+
+    public TareaProgramada(String nombreHilo, Tarea tarea) {
+        this.nombreHilo = nombreHilo;
+        this.tarea = tarea;
+    }
+
+    // false si ya estaba iniciada
+    public synchronized boolean iniciar(long intervalo, TimeUnit unidad) {
+        if (ejecutor != null) {
+            return false;
+        }
+        ejecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, nombreHilo);
+            t.setDaemon(true);
+            return t;
+        });
+        ejecutor.scheduleWithFixedDelay(this::ronda, intervalo, intervalo, unidad);
+        return true;
+    }
+
+    // La ronda en curso, si la hay, termina; no se programan más
+    public synchronized void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdown();
+            ejecutor = null;
+        }
+    }
+
+    public synchronized boolean isIniciada() {
+        return ejecutor != null;
+    }
+
+    private void ronda() {
+        try {
+            tarea.ejecutar();
+        } catch (Exception e) {
+            // una excepción que escapara cancelaría las rondas siguientes
+            logger.error("Error en la tarea programada " + nombreHilo, e);
+        }
+    }
+}
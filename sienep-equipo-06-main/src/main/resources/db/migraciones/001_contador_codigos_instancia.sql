@@ -0,0 +1,25 @@
+-- Contador por año para los códigos de instancia (INST-<año>-NNNN).
+-- La aplicación reserva bloques de números con un único UPDATE ... RETURNING (ver ContadorCodigoDAOImpl),
+-- así los códigos no se repiten aunque haya varias instancias de la aplicación.
+CREATE TABLE IF NOT EXISTS proyecto.contador_codigos (
+    anio   INTEGER PRIMARY KEY,
+    ultimo INTEGER NOT NULL
+);
+
+-- Arranca cada año después del mayor código ya emitido con el generador aleatorio anterior
+INSERT INTO proyecto.contador_codigos (anio, ultimo)
+SELECT CAST(split_part(codigo, '-', 2) AS INTEGER), MAX(CAST(split_part(codigo, '-', 3) AS INTEGER))
+FROM proyecto.instancias
+WHERE codigo ~ '^INST-[0-9]{4}-[0-9]+$'
+GROUP BY split_part(codigo, '-', 2)
+ON CONFLICT (anio) DO UPDATE SET ultimo = GREATEST(proyecto.contador_codigos.ultimo, EXCLUDED.ultimo);
+
+-- Unicidad de código. Si ya hay duplicados del generador anterior se avisa y se deja para corregir a mano
+DO $$
+BEGIN
+    IF EXISTS (SELECT codigo FROM proyecto.instancias GROUP BY codigo HAVING COUNT(*) > 1) THEN
+        RAISE NOTICE 'Hay códigos de instancia duplicados; no se crea ux_instancias_codigo';
+    ELSE
+        CREATE UNIQUE INDEX IF NOT EXISTS ux_instancias_codigo ON proyecto.instancias (codigo);
+    END IF;
+END $$;
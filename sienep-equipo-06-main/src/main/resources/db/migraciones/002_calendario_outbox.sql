@@ -0,0 +1,26 @@
+-- Outbox de sincronización con Google Calendar.
+-- La instancia y su fila de outbox se guardan en la misma transacción; SincronizadorCalendario
+-- procesa las filas pendientes en segundo plano, reintenta con espera creciente y guarda el event id.
+CREATE TABLE IF NOT EXISTS proyecto.calendario_outbox (
+    id                   SERIAL PRIMARY KEY,
+    id_instancia         INTEGER      NOT NULL,
+    operacion            VARCHAR(10)  NOT NULL CHECK (operacion IN ('CREAR', 'ELIMINAR')),
+    titulo               VARCHAR(255),
+    descripcion          TEXT,
+    fecha_hora           TIMESTAMP,
+    duracion_minutos     INTEGER,
+    recordatorio_minutos INTEGER,
+    event_id             VARCHAR(255),
+    estado               VARCHAR(12)  NOT NULL DEFAULT 'PENDIENTE'
+                         CHECK (estado IN ('PENDIENTE', 'EN_PROCESO', 'PROCESADO', 'FALLIDO', 'CANCELADO')),
+    intentos             INTEGER      NOT NULL DEFAULT 0,
+    proximo_intento      TIMESTAMP    NOT NULL DEFAULT now(),
+    ultimo_error         TEXT,
+    creado               TIMESTAMP    NOT NULL DEFAULT now()
+);
+
+-- el worker sólo busca pendientes vencidos
+CREATE INDEX IF NOT EXISTS ix_calendario_outbox_pendientes
+    ON proyecto.calendario_outbox (proximo_intento, id) WHERE estado = 'PENDIENTE';
+CREATE INDEX IF NOT EXISTS ix_calendario_outbox_instancia
+    ON proyecto.calendario_outbox (id_instancia);
@@ -0,0 +1,33 @@
+-- Índices para la búsqueda por criterios de instancias (InstanciaDAOImpl.buscar).
+-- La consulta filtra por igualdad en alguna columna, por rango en fecha_hora y ordena por (fecha_hora, id)
+-- con LIMIT; cada índice tiene la columna de igualdad primero y luego (fecha_hora, id), así la página
+-- sale leyendo el índice en orden (hacia atrás) sin ordenar ni recorrer filas descartadas.
+-- CONCURRENTLY no bloquea las escrituras mientras se construye: ejecutar fuera de una transacción
+-- (psql sin -1 / --single-transaction).
+
+-- sólo rango de fechas, o criterios sin índice propio
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_instancias_fecha
+    ON proyecto.instancias (fecha_hora, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_instancias_categoria_fecha
+    ON proyecto.instancias (id_categoria, fecha_hora, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_instancias_creador_fecha
+    ON proyecto.instancias (id_creador, fecha_hora, id);
+
+-- también sirve a findByEstudiante
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_instancias_estudiante_fecha
+    ON proyecto.instancias (id_estudiante, fecha_hora, id);
+
+-- canal y tipo tienen pocos valores: solos no sirven, con la fecha sí
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_instancias_canal_fecha
+    ON proyecto.instancias (canal, fecha_hora, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_instancias_tipo_fecha
+    ON proyecto.instancias (tipo, fecha_hora, id);
+
+-- tutores y docentes sólo ven instancias no confidenciales
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_instancias_no_confidenciales_fecha
+    ON proyecto.instancias (fecha_hora, id) WHERE confidencial = FALSE;
+
+ANALYZE proyecto.instancias;
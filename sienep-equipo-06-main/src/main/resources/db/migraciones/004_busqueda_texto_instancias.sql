@@ -0,0 +1,63 @@
+-- Búsqueda de texto en instancias (InstanciaDAOImpl.buscarTexto): titulo y comentario de la instancia,
+-- motivacion de la instancia común y lugar de la incidencia, con stemming en español.
+-- El documento vive en una tabla aparte y no como columna de proyecto.instancias: así los SELECT * del resto
+-- de los DAOs no arrastran el tsvector y actualizar una instancia no reescribe una fila más ancha.
+-- Lo mantienen triggers en las tres tablas, también para los inserts en lote y el COPY de SembrarBase.
+
+CREATE TABLE IF NOT EXISTS proyecto.instancias_busqueda (
+    id        INTEGER PRIMARY KEY REFERENCES proyecto.instancias (id) ON DELETE CASCADE,
+    documento TSVECTOR NOT NULL
+);
+
+-- peso A el título, B el comentario, C motivación/lugar (ts_rank_cd ordena por estos pesos)
+CREATE OR REPLACE FUNCTION proyecto.instancia_documento(p_id INTEGER) RETURNS TSVECTOR
+LANGUAGE sql STABLE AS $$
+    SELECT setweight(to_tsvector('spanish', coalesce(i.titulo, '')), 'A')
+        || setweight(to_tsvector('spanish', coalesce(i.comentario, '')), 'B')
+        || setweight(to_tsvector('spanish', coalesce(c.motivacion, '') || ' ' || coalesce(inc.lugar, '')), 'C')
+    FROM proyecto.instancias i
+    LEFT JOIN proyecto.instancias_comunes c ON c.id = i.id
+    LEFT JOIN proyecto.incidencias inc ON inc.id = i.id
+    WHERE i.id = p_id
+$$;
+
+CREATE OR REPLACE FUNCTION proyecto.instancias_busqueda_actualizar() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO proyecto.instancias_busqueda (id, documento)
+    VALUES (NEW.id, proyecto.instancia_documento(NEW.id))
+    ON CONFLICT (id) DO UPDATE SET documento = EXCLUDED.documento;
+    RETURN NULL;
+END $$;
+
+-- la fila de instancias se inserta antes que la del subtipo: el segundo trigger completa el documento
+DROP TRIGGER IF EXISTS tr_instancias_busqueda ON proyecto.instancias;
+CREATE TRIGGER tr_instancias_busqueda
+    AFTER INSERT OR UPDATE OF titulo, comentario ON proyecto.instancias
+    FOR EACH ROW EXECUTE FUNCTION proyecto.instancias_busqueda_actualizar();
+
+DROP TRIGGER IF EXISTS tr_instancias_comunes_busqueda ON proyecto.instancias_comunes;
+CREATE TRIGGER tr_instancias_comunes_busqueda
+    AFTER INSERT OR UPDATE OF motivacion ON proyecto.instancias_comunes
+    FOR EACH ROW EXECUTE FUNCTION proyecto.instancias_busqueda_actualizar();
+
+DROP TRIGGER IF EXISTS tr_incidencias_busqueda ON proyecto.incidencias;
+CREATE TRIGGER tr_incidencias_busqueda
+    AFTER INSERT OR UPDATE OF lugar ON proyecto.incidencias
+    FOR EACH ROW EXECUTE FUNCTION proyecto.instancias_busqueda_actualizar();
+
+-- carga inicial en una sola pasada (antes del índice, que así se construye de una vez)
+INSERT INTO proyecto.instancias_busqueda (id, documento)
+SELECT i.id,
+       setweight(to_tsvector('spanish', coalesce(i.titulo, '')), 'A')
+    || setweight(to_tsvector('spanish', coalesce(i.comentario, '')), 'B')
+    || setweight(to_tsvector('spanish', coalesce(c.motivacion, '') || ' ' || coalesce(inc.lugar, '')), 'C')
+FROM proyecto.instancias i
+LEFT JOIN proyecto.instancias_comunes c ON c.id = i.id
+LEFT JOIN proyecto.incidencias inc ON inc.id = i.id
+ON CONFLICT (id) DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS ix_instancias_busqueda_documento
+    ON proyecto.instancias_busqueda USING GIN (documento);
+
+ANALYZE proyecto.instancias_busqueda;
@@ -0,0 +1,18 @@
+-- Búsqueda de estudiantes por fragmentos de nombre, apellido, documento o email (EstudianteDAOImpl.buscarPorTexto).
+-- LIKE '%texto%' no puede usar un btree; un índice GIN de trigramas (pg_trgm) sí, y además da similarity()
+-- para ordenar por parecido. El texto indexado sale de una función IMMUTABLE para que la consulta use
+-- exactamente la misma expresión que el índice.
+-- CONCURRENTLY: ejecutar fuera de una transacción (psql sin -1 / --single-transaction).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE OR REPLACE FUNCTION proyecto.usuario_texto_busqueda(nombre TEXT, apellido TEXT, documento TEXT, email TEXT)
+RETURNS TEXT
+LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT lower(coalesce(nombre, '') || ' ' || coalesce(apellido, '') || ' ' || coalesce(documento, '') || ' ' || coalesce(email, ''))
+$$;
+
+-- parcial: el selector sólo busca estudiantes
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_usuarios_estudiantes_trgm
+    ON proyecto.usuarios USING gin (proyecto.usuario_texto_busqueda(nombre, apellido, documento, email) gin_trgm_ops)
+    WHERE tipo = 'ESTUDIANTE';
@@ -0,0 +1,53 @@
+-- Observaciones confidenciales de estudiantes y personas involucradas en incidencias: de un texto unido con comas
+-- a una fila por elemento. Agregar una observación pasa a ser un INSERT (antes había que reescribir la lista
+-- entera) y un texto con comas ya no se parte en dos. El orden de la lista es el del id.
+-- Todo en una transacción: si algo falla las columnas viejas quedan como estaban.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS proyecto.estudiantes_observaciones (
+    id            SERIAL PRIMARY KEY,
+    id_estudiante INTEGER NOT NULL REFERENCES proyecto.estudiantes (id) ON DELETE CASCADE,
+    texto         TEXT NOT NULL,
+    fecha_hora    TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS proyecto.incidencias_personas (
+    id            SERIAL PRIMARY KEY,
+    id_incidencia INTEGER NOT NULL REFERENCES proyecto.incidencias (id) ON DELETE CASCADE,
+    persona       TEXT NOT NULL
+);
+
+-- migración de los datos: los textos viejos se parten por coma (lo mejor que se puede hacer con lo guardado)
+INSERT INTO proyecto.estudiantes_observaciones (id_estudiante, texto)
+SELECT e.id, trim(o.texto)
+FROM proyecto.estudiantes e
+CROSS JOIN LATERAL unnest(string_to_array(e.observaciones_confidenciales, ',')) WITH ORDINALITY AS o (texto, orden)
+WHERE trim(o.texto) <> ''
+ORDER BY e.id, o.orden;
+
+INSERT INTO proyecto.incidencias_personas (id_incidencia, persona)
+SELECT inc.id, trim(p.persona)
+FROM proyecto.incidencias inc
+CROSS JOIN LATERAL unnest(string_to_array(inc.personas_involucradas, ',')) WITH ORDINALITY AS p (persona, orden)
+WHERE trim(p.persona) <> ''
+ORDER BY inc.id, p.orden;
+
+ALTER TABLE proyecto.estudiantes DROP COLUMN observaciones_confidenciales;
+ALTER TABLE proyecto.incidencias DROP COLUMN personas_involucradas;
+
+-- índices después de la carga: se construyen de una vez
+-- la lista de cada estudiante/incidencia, en orden
+CREATE INDEX IF NOT EXISTS ix_estudiantes_observaciones_estudiante
+    ON proyecto.estudiantes_observaciones (id_estudiante, id);
+CREATE INDEX IF NOT EXISTS ix_incidencias_personas_incidencia
+    ON proyecto.incidencias_personas (id_incidencia, id);
+-- búsqueda de incidencias por persona (IncidenciaDAOImpl.findByPersona), sin distinguir mayúsculas;
+-- text_pattern_ops sirve también para LIKE 'prefijo%'
+CREATE INDEX IF NOT EXISTS ix_incidencias_personas_persona
+    ON proyecto.incidencias_personas (lower(persona) text_pattern_ops);
+
+COMMIT;
+
+ANALYZE proyecto.estudiantes_observaciones;
+ANALYZE proyecto.incidencias_personas;
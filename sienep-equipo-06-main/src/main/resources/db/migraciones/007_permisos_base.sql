@@ -0,0 +1,35 @@
+-- Permisos que consulta la consola (ver auth.Permisos) y su asignación inicial a los roles existentes.
+-- Hasta ahora el menú y las opciones se elegían comparando el nombre del rol; desde esta migración se
+-- decide por permiso, así que sin estas filas un funcionario no vería ningún menú.
+-- Idempotente: se puede correr de nuevo sin duplicar filas ni pisar reasignaciones hechas por el administrador.
+
+BEGIN;
+
+INSERT INTO proyecto.permisos (nombre)
+SELECT p.nombre
+FROM (VALUES ('GESTIONAR_USUARIOS'), ('GESTIONAR_ROLES'), ('GESTIONAR_CATEGORIAS'), ('GESTIONAR_INSTANCIAS'),
+             ('GESTIONAR_INCIDENCIAS'), ('VER_INSTANCIAS'), ('VER_DATOS_CONFIDENCIALES'), ('VER_REPORTES'),
+             ('VER_ESTUDIANTES')) AS p (nombre)
+WHERE NOT EXISTS (SELECT 1 FROM proyecto.permisos e WHERE e.nombre = p.nombre);
+
+INSERT INTO proyecto.rol_permisos (id_rol, id_permiso)
+SELECT r.id, p.id
+FROM (VALUES ('ADMINISTRADOR', 'GESTIONAR_USUARIOS'),
+             ('ADMINISTRADOR', 'GESTIONAR_ROLES'),
+             ('ADMINISTRADOR', 'GESTIONAR_CATEGORIAS'),
+             ('ADMINISTRADOR', 'VER_INSTANCIAS'),
+             ('ADMINISTRADOR', 'VER_ESTUDIANTES'),
+             ('PSICOPEDAGOGO', 'GESTIONAR_INSTANCIAS'),
+             ('PSICOPEDAGOGO', 'GESTIONAR_INCIDENCIAS'),
+             ('PSICOPEDAGOGO', 'VER_INSTANCIAS'),
+             ('PSICOPEDAGOGO', 'VER_DATOS_CONFIDENCIALES'),
+             ('PSICOPEDAGOGO', 'VER_ESTUDIANTES'),
+             ('TUTOR', 'VER_REPORTES'),
+             ('TUTOR', 'VER_ESTUDIANTES'),
+             ('DOCENTE', 'VER_REPORTES'),
+             ('DOCENTE', 'VER_ESTUDIANTES')) AS a (rol, permiso)
+JOIN proyecto.roles r ON r.nombre = a.rol
+JOIN proyecto.permisos p ON p.nombre = a.permiso
+WHERE NOT EXISTS (SELECT 1 FROM proyecto.rol_permisos rp WHERE rp.id_rol = r.id AND rp.id_permiso = p.id);
+
+COMMIT;
@@ -0,0 +1,9 @@
+-- Reclamo con plazo en el outbox de calendario. Antes, al arrancar, todo lo EN_PROCESO volvía a PENDIENTE:
+-- eso también tomaba filas que otro worker vivo estaba procesando y volvía a crear eventos ya creados.
+-- Ahora cada reclamo deja la hora en reclamado_en y sólo se recupera lo que lleva más de
+-- calendario.plazoReclamoSegundos en proceso (el worker que lo tenía se cayó).
+ALTER TABLE proyecto.calendario_outbox ADD COLUMN IF NOT EXISTS reclamado_en TIMESTAMP;
+
+-- las filas EN_PROCESO de antes de esta migración no tienen hora: se dan por vencidas
+CREATE INDEX IF NOT EXISTS ix_calendario_outbox_en_proceso
+    ON proyecto.calendario_outbox (reclamado_en) WHERE estado = 'EN_PROCESO';
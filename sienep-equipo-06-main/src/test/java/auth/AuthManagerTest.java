@@ -0,0 +1,192 @@
+package auth;
+
+import exception.AutenticacionFallidaException;
+import exception.IntentosExcedidosException;
+import model.Estudiante;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.UsuarioService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AuthManagerTest {
+
+    private UsuarioService mockUsuarioService;
+    private RegistroSesiones sesiones;
+    private AuthManager authManager;
+
+    @BeforeEach
+    void setUp() {
+        mockUsuarioService = mock(UsuarioService.class);
+        sesiones = new RegistroSesiones(15);
+        authManager = new AuthManager(mockUsuarioService, sesiones, null);
+    }
+
+    @Test
+    void testLoginYLogout() throws Exception {
+        Estudiante ana = estudiante("ana@mail.com");
+        when(mockUsuarioService.validarCredenciales("ana@mail.com", "Clave@123")).thenReturn(ana);
+
+        Sesion sesion = authManager.login("ana@mail.com", "Clave@123", "test");
+
+        assertNotNull(sesion);
+        assertTrue(authManager.isAutenticado(sesion.getToken()));
+        assertSame(ana, authManager.getUsuario(sesion.getToken()));
+        assertNull(authManager.getRol(sesion.getToken()));
+
+        authManager.logout(sesion.getToken());
+        assertFalse(authManager.isAutenticado(sesion.getToken()));
+        assertNull(authManager.getUsuario(sesion.getToken()));
+    }
+
+    @Test
+    void testActivarCuenta() throws Exception {
+        Estudiante ana = estudiante("ana@mail.com");
+        when(mockUsuarioService.activarCuenta("ana@mail.com", "codigo", "Clave@123")).thenReturn(ana);
+        when(mockUsuarioService.activarCuenta("luis@mail.com", "usado", "Clave@123"))
+                .thenThrow(new AutenticacionFallidaException("Código de activación inválido"));
+
+        Sesion sesion = authManager.activarCuenta("ana@mail.com", "codigo", "Clave@123", "test");
+
+        assertNotNull(sesion);
+        assertSame(ana, authManager.getUsuario(sesion.getToken()));
+        assertNull(authManager.activarCuenta("luis@mail.com", "usado", "Clave@123", "test"));
+        assertEquals(1, sesiones.cantidad());
+    }
+
+    @Test
+    void testLoginFallido() throws Exception {
+        when(mockUsuarioService.validarCredenciales(anyString(), anyString()))
+                .thenThrow(new AutenticacionFallidaException("Credenciales inválidas"));
+
+        assertNull(authManager.login("ana@mail.com", "mala", "test"));
+        assertEquals(0, sesiones.cantidad());
+        assertFalse(authManager.isAutenticado(null));
+    }
+
+    @Test
+    void testBloqueoTrasFallosNoConsultaLaBase() throws Exception {
+        authManager = new AuthManager(mockUsuarioService, sesiones, null,
+                new LimitadorIntentos("email", 3, 900, 60, 900, 100),
+                new LimitadorIntentos("origen", 100, 900, 60, 900, 100));
+        when(mockUsuarioService.validarCredenciales(anyString(), anyString()))
+                .thenThrow(new AutenticacionFallidaException("Credenciales inválidas"));
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(authManager.login("Ana@mail.com ", "mala" + i, "test"));
+        }
+        // mismo email normalizado: rechazado antes de validar
+        IntentosExcedidosException e = assertThrows(IntentosExcedidosException.class,
+                () -> authManager.login("ana@mail.com", "otra", "test"));
+        assertTrue(e.getEsperaSegundos() > 0 && e.getEsperaSegundos() <= 60);
+        verify(mockUsuarioService, times(3)).validarCredenciales(anyString(), anyString());
+
+        // otra cuenta desde el mismo origen sigue pudiendo intentar
+        assertNull(authManager.login("luis@mail.com", "mala", "test"));
+    }
+
+    @Test
+    void testErrorDeBaseNoCuentaComoFallo() throws Exception {
+        authManager = new AuthManager(mockUsuarioService, sesiones, null,
+                new LimitadorIntentos("email", 1, 900, 60, 900, 100),
+                new LimitadorIntentos("origen", 1, 900, 60, 900, 100));
+        when(mockUsuarioService.validarCredenciales(anyString(), anyString()))
+                .thenThrow(new java.sql.SQLException("conexión rechazada"));
+
+        assertNull(authManager.login("ana@mail.com", "x", "test"));
+        assertNull(authManager.login("ana@mail.com", "x", "test"));
+        verify(mockUsuarioService, times(2)).validarCredenciales(anyString(), anyString());
+    }
+
+    @Test
+    void testSesionesIndependientes() throws Exception {
+        when(mockUsuarioService.validarCredenciales("ana@mail.com", "a")).thenReturn(estudiante("ana@mail.com"));
+        when(mockUsuarioService.validarCredenciales("luis@mail.com", "b")).thenReturn(estudiante("luis@mail.com"));
+
+        Sesion ana = authManager.login("ana@mail.com", "a", "test");
+        Sesion luis = authManager.login("luis@mail.com", "b", "test");
+
+        assertNotEquals(ana.getToken(), luis.getToken());
+        authManager.logout(ana.getToken());
+        assertFalse(authManager.isAutenticado(ana.getToken()));
+        assertTrue(authManager.isAutenticado(luis.getToken()));
+    }
+
+    @Test
+    void testBarridoCierraSesionesInactivas() throws Exception {
+        Sesion vieja = sesiones.abrir(estudiante("ana@mail.com"));
+        Sesion nueva = sesiones.abrir(estudiante("luis@mail.com"));
+
+        // a los 10 minutos ninguna venció; a los 16 sin actividad vencen las dos
+        long ahora = System.nanoTime();
+        int cerradas = sesiones.barrer(ahora + TimeUnit.MINUTES.toNanos(10));
+        assertEquals(0, cerradas);
+
+        cerradas = sesiones.barrer(ahora + TimeUnit.MINUTES.toNanos(16));
+        assertEquals(2, cerradas);
+        assertFalse(authManager.isAutenticado(vieja.getToken()));
+        assertFalse(authManager.isAutenticado(nueva.getToken()));
+    }
+
+    @Test
+    void testConsultaDescartaSesionVencida() {
+        Sesion sesion = sesiones.abrir(estudiante("ana@mail.com"));
+        long ahora = System.nanoTime();
+
+        assertSame(sesion, sesiones.obtener(sesion.getToken(), ahora + TimeUnit.MINUTES.toNanos(14)));
+        assertNull(sesiones.obtener(sesion.getToken(), ahora + TimeUnit.MINUTES.toNanos(15)));
+        // ya no está registrada aunque el barrido no haya corrido
+        assertEquals(0, sesiones.cantidad());
+    }
+
+    @Test
+    void testActividadExtiendeVencimiento() throws Exception {
+        Sesion sesion = sesiones.abrir(estudiante("ana@mail.com"));
+        long vencimiento = sesion.getVencimientoNanos();
+        Thread.sleep(2);
+
+        authManager.actualizarActividad(sesion.getToken());
+
+        assertTrue(sesion.getVencimientoNanos() - vencimiento > 0);
+    }
+
+    @Test
+    void testLoginsConcurrentes() throws Exception {
+        when(mockUsuarioService.validarCredenciales(anyString(), anyString()))
+                .thenAnswer(inv -> estudiante(inv.getArgument(0)));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Sesion>> futuros = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String email = "op" + i + "@mail.com";
+                futuros.add(pool.submit(() -> authManager.login(email, "x", "test")));
+            }
+            Set<String> tokens = ConcurrentHashMap.newKeySet();
+            for (Future<Sesion> f : futuros) {
+                Sesion sesion = f.get(5, TimeUnit.SECONDS);
+                tokens.add(sesion.getToken());
+                assertEquals(sesion.getUsuario(), authManager.getUsuario(sesion.getToken()));
+            }
+            assertEquals(200, tokens.size());
+            assertEquals(200, sesiones.cantidad());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Estudiante estudiante(String email) {
+        Estudiante e = new Estudiante();
+        e.setEmail(email);
+        return e;
+    }
+}
@@ -0,0 +1,161 @@
+package auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LimitadorIntentosTest {
+
+    private static final long SEG = TimeUnit.SECONDS.toNanos(1);
+
+    private LimitadorIntentos limitador;
+    private long t0;
+
+    @BeforeEach
+    void setUp() {
+        // 3 fallos en 60 s bloquean; espera 10 s, 20 s, 40 s... con tope 100 s
+        limitador = new LimitadorIntentos("test", 3, 60, 10, 100, 1_000);
+        t0 = System.nanoTime();
+    }
+
+    @Test
+    void testBloqueaAlLlenarLaVentana() {
+        limitador.registrarFallo("ana", t0);
+        limitador.registrarFallo("ana", t0 + SEG);
+        assertEquals(0, limitador.esperaRestante("ana", t0 + 2 * SEG));
+
+        limitador.registrarFallo("ana", t0 + 2 * SEG);
+
+        assertEquals(10 * SEG, limitador.esperaRestante("ana", t0 + 2 * SEG));
+        assertEquals(0, limitador.esperaRestante("ana", t0 + 12 * SEG));
+        assertEquals(0, limitador.esperaRestante("luis", t0 + 2 * SEG));
+    }
+
+    @Test
+    void testFallosFueraDeLaVentanaNoSuman() {
+        limitador.registrarFallo("ana", t0);
+        limitador.registrarFallo("ana", t0 + SEG);
+        // el primero ya salió de la ventana de 60 s
+        limitador.registrarFallo("ana", t0 + 61 * SEG);
+
+        assertEquals(0, limitador.esperaRestante("ana", t0 + 61 * SEG));
+    }
+
+    @Test
+    void testEsperaExponencial() {
+        long t = t0;
+        for (int i = 0; i < 3; i++) {
+            limitador.registrarFallo("ana", t += SEG);
+        }
+        assertEquals(10 * SEG, limitador.esperaRestante("ana", t));
+
+        limitador.registrarFallo("ana", t += 11 * SEG);
+        assertEquals(20 * SEG, limitador.esperaRestante("ana", t));
+
+        limitador.registrarFallo("ana", t += 21 * SEG);
+        assertEquals(40 * SEG, limitador.esperaRestante("ana", t));
+
+        // las esperas ya superan la ventana: los fallos antiguos salen y se vuelve a empezar
+        limitador.registrarFallo("ana", t += 41 * SEG);
+        assertEquals(0, limitador.esperaRestante("ana", t));
+    }
+
+    @Test
+    void testExitoLimpiaLaClave() {
+        for (int i = 0; i < 3; i++) {
+            limitador.registrarFallo("ana", t0 + i);
+        }
+        assertTrue(limitador.esperaRestante("ana", t0 + 3) > 0);
+
+        limitador.registrarExito("ana");
+
+        assertEquals(0, limitador.esperaRestante("ana", t0 + 3));
+        assertEquals(0, limitador.cantidadClaves());
+    }
+
+    @Test
+    void testPurgaClavesInactivas() {
+        limitador.registrarFallo("a", t0);
+        limitador.registrarFallo("b", t0);
+        limitador.registrarFallo("c", t0 + 61 * SEG);
+        // registrar fallos no purga: eso queda para el barrido programado
+        assertEquals(3, limitador.cantidadClaves());
+
+        limitador.purgar(t0 + 61 * SEG);
+
+        // a y b no tienen fallos en la ventana ni bloqueo vigente
+        assertEquals(1, limitador.cantidadClaves());
+    }
+
+    @Test
+    void testTopeDesalojaLasClavesMasViejas() {
+        LimitadorIntentos chico = new LimitadorIntentos("test", 3, 60, 10, 100, 2);
+        for (int i = 0; i < 100; i++) {
+            chico.registrarFallo("clave" + i, t0);
+        }
+
+        assertEquals(2, chico.cantidadClaves());
+        // quedan las dos últimas dadas de alta
+        chico.registrarFallo("clave99", t0);
+        chico.registrarFallo("clave99", t0);
+        assertTrue(chico.esperaRestante("clave99", t0) > 0);
+    }
+
+    @Test
+    void testTopeNoDesalojaClavesBloqueadas() {
+        LimitadorIntentos chico = new LimitadorIntentos("test", 3, 60, 10, 100, 2);
+        for (int i = 0; i < 3; i++) {
+            chico.registrarFallo("victima", t0);
+        }
+        long espera = chico.esperaRestante("victima", t0);
+        assertTrue(espera > 0);
+
+        // inundación de claves nuevas: desalojan entre ellas, no a la bloqueada
+        for (int i = 0; i < 100; i++) {
+            chico.registrarFallo("relleno" + i, t0 + SEG);
+        }
+
+        assertEquals(2, chico.cantidadClaves());
+        assertEquals(espera - SEG, chico.esperaRestante("victima", t0 + SEG));
+        // la espera sigue creciendo: el registro (y sus excesos) no se reinició
+        chico.registrarFallo("victima", t0 + 2 * SEG);
+        assertEquals(20 * SEG, chico.esperaRestante("victima", t0 + 2 * SEG));
+    }
+
+    @Test
+    void testTopeConTodasBloqueadasRechazaClavesNuevas() {
+        LimitadorIntentos chico = new LimitadorIntentos("test", 3, 60, 10, 100, 2);
+        for (int i = 0; i < 3; i++) {
+            chico.registrarFallo("a", t0);
+            chico.registrarFallo("b", t0);
+        }
+
+        chico.registrarFallo("c", t0 + SEG);
+
+        assertEquals(2, chico.cantidadClaves());
+        assertTrue(chico.esperaRestante("a", t0 + SEG) > 0);
+        assertTrue(chico.esperaRestante("b", t0 + SEG) > 0);
+        assertEquals(0, chico.esperaRestante("c", t0 + SEG));
+    }
+
+    @Test
+    void testEntradaViejaDeLaColaNoDesalojaUnaClaveNueva() {
+        LimitadorIntentos chico = new LimitadorIntentos("test", 3, 60, 10, 100, 2);
+        chico.registrarFallo("a", t0);
+        chico.registrarExito("a");
+        // a vuelve a darse de alta: la entrada anterior de la cola ya no es su registro
+        chico.registrarFallo("a", t0 + SEG);
+        chico.registrarFallo("b", t0 + SEG);
+        chico.registrarFallo("c", t0 + SEG);
+
+        // se desaloja a (el alta más vieja vigente), no b
+        assertEquals(2, chico.cantidadClaves());
+        for (int i = 0; i < 2; i++) {
+            chico.registrarFallo("b", t0 + 2 * SEG);
+        }
+        assertTrue(chico.esperaRestante("b", t0 + 2 * SEG) > 0);
+    }
+}
@@ -0,0 +1,105 @@
+package auth;
+
+import dao.GenericDAO;
+import dao.impl.CachedDAO;
+import model.Estudiante;
+import model.Funcionario;
+import model.Permiso;
+import model.Rol;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class MotorPermisosTest {
+
+    private GenericDAO<Rol> mockRolDAO;
+    private GenericDAO<Permiso> mockPermisoDAO;
+    private CachedDAO<Rol> roles;
+    private MotorPermisos motor;
+    private RegistroSesiones sesiones;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        mockRolDAO = mock(GenericDAO.class);
+        mockPermisoDAO = mock(GenericDAO.class);
+        roles = new CachedDAO<>("roles", mockRolDAO, Rol::getId, 60_000, 100);
+        CachedDAO<Permiso> permisos = new CachedDAO<>("permisos", mockPermisoDAO, Permiso::getId, 60_000, 100);
+        permisos.agregarDependiente(roles);
+        motor = new MotorPermisos(roles, permisos, 300);
+        sesiones = new RegistroSesiones(15);
+
+        when(mockRolDAO.findById(1)).thenReturn(new Rol(1, "TUTOR",
+                new ArrayList<>(List.of(new Permiso(3, "VER_INSTANCIAS"), new Permiso(70, "CREAR_INCIDENCIA")))));
+        when(mockPermisoDAO.findAll()).thenReturn(List.of(new Permiso(3, "VER_INSTANCIAS"),
+                new Permiso(70, "CREAR_INCIDENCIA"), new Permiso(4, "GESTIONAR_USUARIOS")));
+    }
+
+    @Test
+    void testPermisosPorId() throws Exception {
+        Sesion sesion = sesiones.abrir(funcionario(1));
+
+        assertTrue(motor.tienePermiso(sesion, 3));
+        assertTrue(motor.tienePermiso(sesion, 70));
+        assertFalse(motor.tienePermiso(sesion, 4));
+        assertFalse(motor.tienePermiso(sesion, 1_000));
+        assertFalse(motor.tienePermiso(sesion, -1));
+        // compilado una vez y guardado en la sesión
+        verify(mockRolDAO, times(1)).findById(1);
+    }
+
+    @Test
+    void testPermisosPorNombre() throws Exception {
+        Sesion sesion = sesiones.abrir(funcionario(1));
+
+        assertTrue(motor.tienePermiso(sesion, "CREAR_INCIDENCIA"));
+        assertFalse(motor.tienePermiso(sesion, "GESTIONAR_USUARIOS"));
+        assertFalse(motor.tienePermiso(sesion, "NO_EXISTE"));
+    }
+
+    @Test
+    void testSinRolNoTienePermisos() throws Exception {
+        Sesion sesion = sesiones.abrir(new Estudiante());
+
+        assertFalse(motor.tienePermiso(sesion, 3));
+        verifyNoInteractions(mockRolDAO);
+    }
+
+    @Test
+    void testSesionesDelMismoRolCompartenCompilado() throws Exception {
+        Sesion a = sesiones.abrir(funcionario(1));
+        Sesion b = sesiones.abrir(funcionario(1));
+
+        assertTrue(motor.tienePermiso(a, 3));
+        assertTrue(motor.tienePermiso(b, 3));
+        assertSame(motor.permisosDe(a), motor.permisosDe(b));
+    }
+
+    @Test
+    void testInvalidarRolRecompila() throws Exception {
+        Sesion sesion = sesiones.abrir(funcionario(1));
+        assertFalse(motor.tienePermiso(sesion, 4));
+
+        // lo que hace RolServiceImpl.agregarPermisoARol tras escribir en la base
+        when(mockRolDAO.findById(1)).thenReturn(new Rol(1, "TUTOR",
+                List.of(new Permiso(3, "VER_INSTANCIAS"), new Permiso(4, "GESTIONAR_USUARIOS"))));
+        roles.invalidar(1);
+
+        assertTrue(motor.tienePermiso(sesion, 4));
+        assertFalse(motor.tienePermiso(sesion, 70));
+        verify(mockRolDAO, times(2)).findById(1);
+    }
+
+    private static Funcionario funcionario(int idRol) {
+        Funcionario f = new Funcionario();
+        Rol rol = new Rol();
+        rol.setId(idRol);
+        f.setRol(rol);
+        return f;
+    }
+}
@@ -0,0 +1,97 @@
+package dao.impl;
+
+import dao.GenericDAO;
+import model.Categoria;
+import model.Permiso;
+import model.Rol;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CachedDAOTest {
+
+    private GenericDAO<Categoria> mockCategoriaDAO;
+    private CachedDAO<Categoria> categoriaCache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        mockCategoriaDAO = mock(GenericDAO.class);
+        when(mockCategoriaDAO.findById(1)).thenReturn(new Categoria(1, "Académica", "Temas académicos"));
+        when(mockCategoriaDAO.findAll()).thenReturn(List.of(
+                new Categoria(1, "Académica", "Temas académicos"),
+                new Categoria(2, "Salud", "Temas de salud")));
+        categoriaCache = new CachedDAO<>("categorias", mockCategoriaDAO, Categoria::getId, 60_000, 10);
+    }
+
+    @Test
+    void testFindByIdUsaCache() throws Exception {
+        Categoria primera = categoriaCache.findById(1);
+        Categoria segunda = categoriaCache.findById(1);
+
+        assertSame(primera, segunda);
+        verify(mockCategoriaDAO, times(1)).findById(1);
+        assertEquals(1, categoriaCache.getHits());
+        assertEquals(1, categoriaCache.getMisses());
+    }
+
+    @Test
+    void testFindAllCargaPorId() throws Exception {
+        assertEquals(2, categoriaCache.findAll().size());
+        assertEquals(2, categoriaCache.findAll().size());
+        assertEquals("Salud", categoriaCache.findById(2).getNombre());
+
+        verify(mockCategoriaDAO, times(1)).findAll();
+        verify(mockCategoriaDAO, never()).findById(anyInt());
+    }
+
+    @Test
+    void testUpdateInvalida() throws Exception {
+        categoriaCache.findById(1);
+        categoriaCache.update(new Categoria(1, "Académica", "Actualizada"));
+        categoriaCache.findById(1);
+
+        verify(mockCategoriaDAO).update(any(Categoria.class));
+        verify(mockCategoriaDAO, times(2)).findById(1);
+    }
+
+    @Test
+    void testTtlVencido() throws Exception {
+        CachedDAO<Categoria> sinTtl = new CachedDAO<>("categorias", mockCategoriaDAO, Categoria::getId, 0, 10);
+        sinTtl.findById(1);
+        sinTtl.findById(1);
+
+        verify(mockCategoriaDAO, times(2)).findById(1);
+        assertEquals(0, sinTtl.getHits());
+    }
+
+    @Test
+    void testNoSuperaMaxEntradas() throws Exception {
+        CachedDAO<Categoria> chica = new CachedDAO<>("categorias", mockCategoriaDAO, Categoria::getId, 60_000, 1);
+        chica.findAll();
+
+        assertEquals(1, chica.getEntradas());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInvalidarPermisoInvalidaRoles() throws Exception {
+        GenericDAO<Permiso> mockPermisoDAO = mock(GenericDAO.class);
+        GenericDAO<Rol> mockRolDAO = mock(GenericDAO.class);
+        when(mockRolDAO.findById(1)).thenReturn(new Rol(1, "ADMINISTRADOR", new ArrayList<>()));
+        CachedDAO<Permiso> permisos = new CachedDAO<>("permisos", mockPermisoDAO, Permiso::getId, 60_000, 10);
+        CachedDAO<Rol> roles = new CachedDAO<>("roles", mockRolDAO, Rol::getId, 60_000, 10);
+        permisos.agregarDependiente(roles);
+
+        roles.findById(1);
+        permisos.update(new Permiso(3, "VER_REPORTES"));
+        roles.findById(1);
+
+        verify(mockRolDAO, times(2)).findById(1);
+    }
+}
@@ -0,0 +1,118 @@
+package dao.impl;
+
+import model.EventoCalendarioPendiente;
+import model.enums.OperacionCalendario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CalendarioOutboxDAOImplTest {
+
+    private Connection mockConnection;
+    private PreparedStatement mockStatement;
+    private ResultSet mockResultSet;
+    private CalendarioOutboxDAOImpl outboxDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockConnection = mock(Connection.class);
+        mockStatement = mock(PreparedStatement.class);
+        mockResultSet = mock(ResultSet.class);
+
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+
+        outboxDAO = new CalendarioOutboxDAOImpl(mockConnection);
+    }
+
+    @Test
+    void testReclamarPendientes() throws Exception {
+        when(mockResultSet.next()).thenReturn(true, false);
+        when(mockResultSet.getInt("id")).thenReturn(7);
+        when(mockResultSet.getInt("id_instancia")).thenReturn(3);
+        when(mockResultSet.getString("operacion")).thenReturn("CREAR");
+        when(mockResultSet.getString("titulo")).thenReturn("Reunión");
+        when(mockResultSet.getTimestamp("fecha_hora")).thenReturn(Timestamp.valueOf(LocalDateTime.of(2025, 5, 10, 9, 0)));
+        when(mockResultSet.getInt("duracion_minutos")).thenReturn(60);
+        when(mockResultSet.getInt("intentos")).thenReturn(1);
+
+        List<EventoCalendarioPendiente> eventos = outboxDAO.reclamarPendientes(20);
+
+        assertEquals(1, eventos.size());
+        EventoCalendarioPendiente evento = eventos.get(0);
+        assertEquals(7, evento.getId());
+        assertEquals(3, evento.getIdInstancia());
+        assertEquals(OperacionCalendario.CREAR, evento.getOperacion());
+        assertEquals(LocalDateTime.of(2025, 5, 10, 9, 0), evento.getFechaHora());
+        assertEquals(1, evento.getIntentos());
+        verify(mockStatement).setInt(1, 20);
+        // el event id se fija en el mismo UPDATE del reclamo, antes de llamar al calendario
+        verify(mockConnection).prepareStatement(argThat(sql -> sql.contains("event_id = COALESCE(event_id,")));
+    }
+
+    @Test
+    void testRegistrarCreadosDevuelveHuerfanos() throws Exception {
+        EventoCalendarioPendiente vigente = creado(1, 10, "evt-1");
+        EventoCalendarioPendiente borrada = creado(2, 11, "evt-2");
+        // la instancia 11 ya no existe: el UPDATE no toca filas
+        when(mockStatement.executeBatch()).thenReturn(new int[]{1, 0}, new int[]{1, 1});
+
+        List<EventoCalendarioPendiente> huerfanos = outboxDAO.registrarCreados(List.of(vigente, borrada));
+
+        assertEquals(1, huerfanos.size());
+        assertSame(borrada, huerfanos.get(0));
+        // se encola la eliminación del evento huérfano
+        verify(mockStatement).setString(2, "evt-2");
+        verify(mockStatement, times(1)).executeUpdate();
+        verify(mockStatement, times(2)).executeBatch();
+    }
+
+    @Test
+    void testRegistrarCreadosVacio() throws Exception {
+        assertTrue(outboxDAO.registrarCreados(List.of()).isEmpty());
+        verify(mockConnection, never()).prepareStatement(anyString());
+    }
+
+    @Test
+    void testReprogramarAgotado() throws Exception {
+        outboxDAO.reprogramar(5, "timeout", LocalDateTime.now(), true);
+
+        verify(mockStatement).setString(1, "FALLIDO");
+        verify(mockStatement).setString(2, "timeout");
+        verify(mockStatement).setInt(4, 5);
+    }
+
+    @Test
+    void testReprogramarPendiente() throws Exception {
+        outboxDAO.reprogramar(5, "timeout", LocalDateTime.now(), false);
+
+        verify(mockStatement).setString(1, "PENDIENTE");
+    }
+
+    @Test
+    void testLiberarSoloReclamosVencidos() throws Exception {
+        when(mockStatement.executeUpdate()).thenReturn(2);
+
+        assertEquals(2, outboxDAO.liberarReclamosVencidos(300));
+
+        verify(mockConnection).prepareStatement(argThat(sql -> sql.contains("reclamado_en <")));
+        verify(mockStatement).setLong(1, 300L);
+    }
+
+    private EventoCalendarioPendiente creado(int id, int idInstancia, String eventId) {
+        EventoCalendarioPendiente evento = new EventoCalendarioPendiente(idInstancia, "Titulo", "Desc",
+                LocalDateTime.of(2025, 5, 10, 9, 0), 60, 30);
+        evento.setId(id);
+        evento.setEventId(eventId);
+        return evento;
+    }
+}
@@ -0,0 +1,51 @@
+package dao.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ContadorCodigoDAOImplTest {
+
+    private Connection mockConnection;
+    private PreparedStatement mockStatement;
+    private ResultSet mockResultSet;
+    private ContadorCodigoDAOImpl contadorDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockConnection = mock(Connection.class);
+        mockStatement = mock(PreparedStatement.class);
+        mockResultSet = mock(ResultSet.class);
+
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+
+        contadorDAO = new ContadorCodigoDAOImpl(mockConnection);
+    }
+
+    @Test
+    void testReservarBloque() throws Exception {
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getInt("ultimo")).thenReturn(150);
+
+        int ultimo = contadorDAO.reservarBloque(2025, 50);
+
+        assertEquals(150, ultimo);
+        verify(mockStatement).setInt(1, 2025);
+        verify(mockStatement).setInt(2, 50);
+    }
+
+    @Test
+    void testReservarBloqueSinResultado() throws Exception {
+        when(mockResultSet.next()).thenReturn(false);
+
+        assertThrows(SQLException.class, () -> contadorDAO.reservarBloque(2025, 50));
+    }
+}
@@ -7,7 +7,9 @@ import dao.UsuarioDAO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Array;
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -42,6 +44,8 @@ public class EstudianteDAOImplTest {
 
         when(mockStatement.executeQuery()).thenReturn(mockResultSet);
 
+        // conexión recién prestada por el pool: autocommit encendido
+        when(mockConnection.getAutoCommit()).thenReturn(true);
         doNothing().when(mockConnection).setAutoCommit(anyBoolean());
         doNothing().when(mockConnection).commit();
         doNothing().when(mockConnection).rollback();
@@ -97,12 +101,19 @@ public class EstudianteDAOImplTest {
         estudiante.setEstadoSalud("Bueno");
         estudiante.setObservacionesConfidenciales(List.of("Obs1", "Obs2"));
 
+        PreparedStatement mockObservaciones = mock(PreparedStatement.class);
+        when(mockConnection.prepareStatement(contains("estudiantes_observaciones"))).thenReturn(mockObservaciones);
+
         doNothing().when(mockUsuarioDAO).save(estudiante);
         estudianteDAO.save(estudiante);
 
         verify(mockUsuarioDAO).save(estudiante);
         verify(mockStatement, times(1)).setInt(1, 1);
         verify(mockStatement, times(1)).executeUpdate();
+        // una fila por observación, en un solo lote y dentro de la misma transacción
+        verify(mockObservaciones, times(2)).addBatch();
+        verify(mockObservaciones).setString(2, "Obs1");
+        verify(mockObservaciones, times(1)).executeBatch();
         verify(mockConnection).commit();
     }
 
@@ -119,12 +130,51 @@ public class EstudianteDAOImplTest {
     @Test
     void testFindAll() throws Exception {
         when(mockResultSet.next()).thenReturn(true, false);
-        when(mockResultSet.getInt("id")).thenReturn(1);
+        mockFilaEstudiante();
 
         List<Estudiante> estudiantes = estudianteDAO.findAll();
         assertNotNull(estudiantes);
         assertEquals(1, estudiantes.size());
         assertEquals(1, estudiantes.get(0).getId());
+        assertEquals("Juan", estudiantes.get(0).getNombre());
+        // una sola consulta, sin findById por fila
+        verify(mockStatement, times(1)).executeQuery();
+        // los listados traen el resumen: sin contraseña ni datos confidenciales
+        assertFalse(estudiantes.get(0).isDetalleCargado());
+        assertNull(estudiantes.get(0).getContrasenia());
+        assertNull(estudiantes.get(0).getObservacionesConfidenciales());
+        verify(mockConnection).prepareStatement(argThat((String sql) ->
+                !sql.contains("contrasenia") && !sql.contains("e.foto") && !sql.contains("observaciones_confidenciales")));
+    }
+
+    @Test
+    void testCargarDetalle() throws Exception {
+        when(mockResultSet.next()).thenReturn(true, false);
+        mockFilaEstudiante();
+        Estudiante resumen = estudianteDAO.findPage(0, 20).get(0);
+
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getString("estado_salud")).thenReturn("Bueno");
+        estudianteDAO.cargarDetalle(resumen);
+
+        assertTrue(resumen.isDetalleCargado());
+        assertEquals("pass123", resumen.getContrasenia());
+        assertEquals("Bueno", resumen.getEstadoSalud());
+        assertEquals(List.of("Obs1", "Obs2"), resumen.getObservacionesConfidenciales());
+        // ya completo: no vuelve a la base
+        estudianteDAO.cargarDetalle(resumen);
+        verify(mockStatement, times(2)).executeQuery();
+    }
+
+    @Test
+    void testUpdate_resumenRechazado() throws Exception {
+        Estudiante resumen = new Estudiante();
+        resumen.setId(1);
+        resumen.setDetalleCargado(false);
+
+        assertThrows(IllegalStateException.class, () -> estudianteDAO.update(resumen));
+        verify(mockUsuarioDAO, never()).update(any());
+        verify(mockStatement, never()).executeUpdate();
     }
 
     @Test
@@ -157,10 +207,38 @@ public class EstudianteDAOImplTest {
 
         verify(mockUsuarioDAO).update(estudiante);
         verify(mockStatement).setString(1, "Nuevo motivo");
-        verify(mockStatement).setInt(13, 1);
+        verify(mockStatement).setInt(12, 1);
+        // las observaciones no se reescriben al actualizar
+        verify(mockConnection, never()).prepareStatement(contains("estudiantes_observaciones"));
         verify(mockConnection).commit();
     }
 
+    @Test
+    void testUpdate_dentroDeTransaccionAbierta() throws Exception {
+        // p. ej. llamado desde el procesador de un scanAll: la conexión ya tiene una transacción (y un cursor) abierta
+        when(mockConnection.getAutoCommit()).thenReturn(false);
+        Estudiante estudiante = new Estudiante();
+        estudiante.setId(1);
+        estudiante.setFechaNacimiento(LocalDate.of(2000, 1, 1));
+
+        estudianteDAO.update(estudiante);
+
+        verify(mockStatement).executeUpdate();
+        // se suma a la transacción de afuera: ni commit ni cambio de autocommit
+        verify(mockConnection, never()).commit();
+        verify(mockConnection, never()).setAutoCommit(anyBoolean());
+    }
+
+    @Test
+    void testAgregarObservacion() throws Exception {
+        estudianteDAO.agregarObservacion(1, "Dificultades de concentración, en seguimiento");
+
+        verify(mockConnection).prepareStatement(startsWith("INSERT INTO proyecto.estudiantes_observaciones"));
+        verify(mockStatement).setInt(1, 1);
+        verify(mockStatement).setString(2, "Dificultades de concentración, en seguimiento");
+        verify(mockStatement, times(1)).executeUpdate();
+    }
+
     @Test
     void testDelete() throws Exception {
         doNothing().when(mockUsuarioDAO).deleteLogical(1);
@@ -172,12 +250,50 @@ public class EstudianteDAOImplTest {
     @Test
     void testFindByCarrera() throws Exception {
         when(mockResultSet.next()).thenReturn(true, false);
-        when(mockResultSet.getInt("id")).thenReturn(1);
+        mockFilaEstudiante();
 
         List<Estudiante> estudiantes = estudianteDAO.findByCarrera("Ingeniería");
 
         assertNotNull(estudiantes);
         assertEquals(1, estudiantes.size());
         assertEquals("Ingeniería", estudiantes.get(0).getCarrera());
+        verify(mockStatement).setString(1, "Ingeniería");
+        verify(mockStatement, times(1)).executeQuery();
+    }
+
+    @Test
+    void testBuscarPorTexto() throws Exception {
+        when(mockResultSet.next()).thenReturn(true, false);
+        mockFilaEstudiante();
+
+        List<Estudiante> estudiantes = estudianteDAO.buscarPorTexto("  Pér 50%_ ", 10);
+
+        assertEquals(1, estudiantes.size());
+        assertEquals("Juan", estudiantes.get(0).getNombre());
+        // una condición por palabra, en minúsculas y con los comodines escapados
+        verify(mockConnection).prepareStatement(argThat((String sql) ->
+                sql.split("LIKE \\? ESCAPE", -1).length == 3 && sql.contains("similarity(") && !sql.contains("e.foto")));
+        verify(mockStatement).setString(1, "%pér%");
+        verify(mockStatement).setString(2, "%50\\%\\_%");
+        verify(mockStatement).setString(3, "pér 50%_");
+        verify(mockStatement).setInt(4, 10);
+    }
+
+    // Fila de usuarios JOIN estudiantes tal como la lee mapEstudianteFromRS
+    private void mockFilaEstudiante() throws Exception {
+        when(mockResultSet.getInt("id")).thenReturn(1);
+        when(mockResultSet.getString("nombre")).thenReturn("Juan");
+        when(mockResultSet.getString("apellido")).thenReturn("Pérez");
+        when(mockResultSet.getString("email")).thenReturn("juan@example.com");
+        when(mockResultSet.getString("contrasenia")).thenReturn("pass123");
+        when(mockResultSet.getString("documento")).thenReturn("12345678");
+        when(mockResultSet.getString("estado")).thenReturn("ACTIVO");
+        when(mockResultSet.getString("tipo")).thenReturn("ESTUDIANTE");
+        when(mockResultSet.getString("carrera")).thenReturn("Ingeniería");
+        when(mockResultSet.getString("grupo")).thenReturn("Grupo A");
+        when(mockResultSet.getDate("fecha_nacimiento")).thenReturn(Date.valueOf(LocalDate.of(2000, 1, 1)));
+        Array observaciones = mock(Array.class);
+        when(observaciones.getArray()).thenReturn(new String[]{"Obs1", "Obs2"});
+        when(mockResultSet.getArray("observaciones_confidenciales")).thenReturn(observaciones);
     }
 }
@@ -45,6 +45,8 @@ public class FuncionarioDAOImplTest {
         // Mock para executeQuery() - necesario para métodos como findAll, findByRol, etc.
         when(mockStatement.executeQuery()).thenReturn(mockResultSet);
         // Mock para transacciones
+        // conexión recién prestada por el pool: autocommit encendido
+        when(mockConnection.getAutoCommit()).thenReturn(true);
         doNothing().when(mockConnection).setAutoCommit(anyBoolean());
         doNothing().when(mockConnection).commit();
         doNothing().when(mockConnection).rollback();
@@ -86,13 +88,39 @@ public class FuncionarioDAOImplTest {
 
     @Test
     void testFindAll() throws Exception {
-        // Mockea el ResultSet para devolver IDs
+        // Mockea el ResultSet con una fila de funcionario JOIN rol
         when(mockResultSet.next()).thenReturn(true, false);
-        when(mockResultSet.getInt("id")).thenReturn(1);
+        mockFilaFuncionario(1, "Ana");
         List<Funcionario> funcionarios = funcionarioDAO.findAll();
         assertNotNull(funcionarios);
         assertEquals(1, funcionarios.size());
         assertEquals("Ana", funcionarios.get(0).getNombre());
+        assertEquals("ADMINISTRADOR", funcionarios.get(0).getRol().getNombre());
+        // consulta de funcionarios + una consulta de permisos para todos los roles
+        verify(mockStatement, times(2)).executeQuery();
+    }
+
+    @Test
+    void testFindByRolCompartenRol() throws Exception {
+        when(mockResultSet.next()).thenReturn(true, true, false);
+        mockFilaFuncionario(1, "Ana");
+        when(mockResultSet.getInt("id")).thenReturn(1, 2);
+        List<Funcionario> funcionarios = funcionarioDAO.findByRol("ADMINISTRADOR");
+        assertEquals(2, funcionarios.size());
+        assertSame(funcionarios.get(0).getRol(), funcionarios.get(1).getRol());
+        verify(mockStatement).setString(1, "ADMINISTRADOR");
+        verify(mockStatement, times(2)).executeQuery();
+    }
+
+    // Fila de usuarios JOIN funcionarios JOIN roles
+    private void mockFilaFuncionario(int id, String nombre) throws Exception {
+        when(mockResultSet.getInt("id")).thenReturn(id);
+        when(mockResultSet.getString("nombre")).thenReturn(nombre);
+        when(mockResultSet.getString("apellido")).thenReturn("Gómez");
+        when(mockResultSet.getString("estado")).thenReturn("ACTIVO");
+        when(mockResultSet.getString("tipo")).thenReturn("FUNCIONARIO");
+        when(mockResultSet.getInt("id_rol")).thenReturn(1);
+        when(mockResultSet.getString("rol_nombre")).thenReturn("ADMINISTRADOR");
     }
 
     @Test
@@ -0,0 +1,85 @@
+package dao.impl;
+
+import dao.UsuarioDAO;
+import model.Funcionario;
+import model.Incidencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class IncidenciaDAOImplTest {
+
+    private Connection mockConnection;
+    private PreparedStatement mockStatement;
+    private PreparedStatement mockPersonas;
+    private ResultSet mockResultSet;
+    private InstanciaDAOImpl mockInstanciaDAO;
+    private IncidenciaDAOImpl incidenciaDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockConnection = mock(Connection.class);
+        mockStatement = mock(PreparedStatement.class);
+        mockPersonas = mock(PreparedStatement.class);
+        mockResultSet = mock(ResultSet.class);
+        mockInstanciaDAO = mock(InstanciaDAOImpl.class);
+
+        when(mockConnection.getAutoCommit()).thenReturn(true);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockConnection.prepareStatement(startsWith("INSERT INTO proyecto.incidencias_personas"))).thenReturn(mockPersonas);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+
+        incidenciaDAO = new IncidenciaDAOImpl(mockConnection, mockInstanciaDAO, mock(UsuarioDAO.class));
+    }
+
+    @Test
+    void testSaveAll_personasEnLote() throws Exception {
+        Incidencia primera = incidencia(10, List.of("Juan Pérez", "Ana Gómez, madre"));
+        Incidencia segunda = incidencia(11, List.of("Luis Sosa"));
+
+        incidenciaDAO.saveAll(List.of(primera, segunda));
+
+        // una fila por incidencia y una por persona (con comas incluidas), dos lotes en la misma transacción
+        verify(mockStatement, times(2)).addBatch();
+        verify(mockPersonas, times(3)).addBatch();
+        verify(mockPersonas).setString(2, "Ana Gómez, madre");
+        verify(mockPersonas, times(1)).executeBatch();
+        verify(mockConnection).commit();
+    }
+
+    @Test
+    void testFindByPersona() throws Exception {
+        when(mockResultSet.next()).thenReturn(true, false);
+        when(mockInstanciaDAO.mapInstanciaFromRS(mockResultSet)).thenReturn(new Incidencia());
+        Array personas = mock(Array.class);
+        when(personas.getArray()).thenReturn(new String[]{"Juan Pérez", "Ana Gómez"});
+        when(mockResultSet.getArray("personas_involucradas")).thenReturn(personas);
+
+        List<Incidencia> incidencias = incidenciaDAO.findByPersona(" Juan P_ ");
+
+        assertEquals(1, incidencias.size());
+        assertEquals(List.of("Juan Pérez", "Ana Gómez"), incidencias.get(0).getPersonasInvolucradas());
+        verify(mockConnection).prepareStatement(contains("lower(p.persona) LIKE ?"));
+        // prefijo en minúsculas con los comodines escapados
+        verify(mockStatement).setString(1, "juan p\\_%");
+    }
+
+    private static Incidencia incidencia(int id, List<String> personas) {
+        Incidencia incidencia = new Incidencia();
+        incidencia.setId(id);
+        incidencia.setLugar("Aula 3");
+        incidencia.setPersonasInvolucradas(personas);
+        Funcionario reportadoPor = new Funcionario();
+        reportadoPor.setId(5);
+        incidencia.setReportadoPor(reportadoPor);
+        return incidencia;
+    }
+}
@@ -1,6 +1,7 @@
 package dao.impl;
 
 import dao.EstudianteDAO;
+import dao.FiltroInstancias;
 import dao.GenericDAO;
 import dao.UsuarioDAO;
 import model.*;
@@ -15,6 +16,7 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -103,6 +105,77 @@ public class InstanciaDAOImplTest {
         assertEquals(1, instancia.getId());
     }
 
+    @Test
+    void testSaveAll() throws Exception {
+        when(mockConnection.prepareStatement(anyString(), any(String[].class))).thenReturn(mockStatement);
+        when(mockResultSet.next()).thenReturn(true, true, false);
+        when(mockResultSet.getInt(1)).thenReturn(10, 11);
+
+        List<InstanciaComun> instancias = List.of(nuevaInstancia("Sesión grupal 1"), nuevaInstancia("Sesión grupal 2"));
+        instanciaDAO.saveAll(instancias);
+
+        // un solo viaje para todo el lote, sin executeUpdate por fila
+        verify(mockStatement, times(2)).addBatch();
+        verify(mockStatement).executeBatch();
+        verify(mockStatement, never()).executeUpdate();
+        assertEquals(10, instancias.get(0).getId());
+        assertEquals(11, instancias.get(1).getId());
+    }
+
+    @Test
+    void testSaveAllVacio() throws Exception {
+        instanciaDAO.saveAll(List.of());
+
+        verify(mockConnection, never()).prepareStatement(anyString(), any(String[].class));
+    }
+
+    @Test
+    void testCargarRelacionesMasivoUnaConsultaPorRelacion() throws Exception {
+        // sin sobrescribir mapInstanciaFromRS: las relaciones las resuelve cargarRelacionesMasivo
+        InstanciaDAOImpl dao = new InstanciaDAOImpl(mockConnection, mockCategoriaDAO, mockEstudianteDAO, mockUsuarioDAO);
+        ResultSet filas = mock(ResultSet.class);
+        PreparedStatement psInstancias = mock(PreparedStatement.class);
+        when(mockConnection.prepareStatement("SELECT * FROM proyecto.instancias")).thenReturn(psInstancias);
+        when(psInstancias.executeQuery()).thenReturn(filas);
+        // 4 instancias: estudiantes 5, 5, 6, 5; categorías 1, 1, 2, 1; creadores 20, 20, 21, 20
+        when(filas.next()).thenReturn(true, true, true, true, false);
+        when(filas.getInt("id")).thenReturn(1, 2, 3, 4);
+        when(filas.getString("tipo")).thenReturn("COMUN");
+        when(filas.getString("canal")).thenReturn("EMAIL");
+        when(filas.getTimestamp("fecha_hora")).thenReturn(Timestamp.valueOf(LocalDateTime.of(2023, 10, 1, 10, 0)));
+        when(filas.getInt("id_estudiante")).thenReturn(5, 5, 6, 5);
+        when(filas.getInt("id_categoria")).thenReturn(1, 1, 2, 1);
+        when(filas.getInt("id_creador")).thenReturn(20, 20, 21, 20);
+
+        when(mockEstudianteDAO.findByIds(anyCollection())).thenReturn(List.of(estudiante(5), estudiante(6)));
+        when(mockCategoriaDAO.findById(anyInt())).thenAnswer(inv -> {
+            Categoria categoria = new Categoria();
+            categoria.setId(inv.getArgument(0));
+            return categoria;
+        });
+        ResultSet filasCreadores = mock(ResultSet.class);
+        when(mockStatement.executeQuery()).thenReturn(filasCreadores);
+        when(filasCreadores.next()).thenReturn(true, true, false);
+        when(mockUsuarioDAO.mapUsuarioFromRS(filasCreadores)).thenReturn(funcionario(20), funcionario(21));
+
+        List<Instancia> instancias = dao.findAll();
+
+        assertEquals(4, instancias.size());
+        // una consulta por relación, no una por instancia
+        verify(mockEstudianteDAO).findByIds(Set.of(5, 6));
+        verify(mockEstudianteDAO, never()).findById(anyInt());
+        verify(mockCategoriaDAO, times(2)).findById(anyInt());
+        verify(mockConnection, times(1)).prepareStatement(contains("proyecto.usuarios"));
+        verify(mockStatement, times(1)).executeQuery();
+        // las instancias del mismo estudiante comparten el objeto
+        assertSame(instancias.get(0).getEstudianteAsociado(), instancias.get(1).getEstudianteAsociado());
+        assertSame(instancias.get(0).getEstudianteAsociado(), instancias.get(3).getEstudianteAsociado());
+        assertEquals(6, instancias.get(2).getEstudianteAsociado().getId());
+        assertSame(instancias.get(0).getCreador(), instancias.get(3).getCreador());
+        assertEquals(21, instancias.get(2).getCreador().getId());
+        assertEquals(2, instancias.get(2).getCategoria().getId());
+    }
+
     @Test
     void testFindById() throws Exception {
         Instancia instancia = instanciaDAO.findById(1);
@@ -126,6 +199,71 @@ public class InstanciaDAOImplTest {
         assertEquals("COMUN", instancias.get(0).getTipo());
     }
 
+    @Test
+    void testFindPage() throws Exception {
+        when(mockResultSet.next()).thenReturn(true, false);
+
+        List<Instancia> instancias = instanciaDAO.findPage(0, 20);
+
+        assertEquals(1, instancias.size());
+        assertEquals("Instancia Test", instancias.get(0).getTitulo());
+        verify(mockStatement).setInt(1, 0);
+        verify(mockStatement).setInt(2, 20);
+    }
+
+    @Test
+    void testBuscarConCriterios() throws Exception {
+        when(mockResultSet.next()).thenReturn(true, false);
+        FiltroInstancias filtro = new FiltroInstancias();
+        filtro.setIdCategoria(3);
+        filtro.setCanal(Canal.PRESENCIAL);
+        filtro.setConfidencial(false);
+        filtro.setDesde(LocalDateTime.of(2025, 3, 1, 0, 0));
+        Instancia ultima = new InstanciaComun();
+        ultima.setId(40);
+        ultima.setFechaHora(LocalDateTime.of(2025, 5, 2, 9, 30));
+
+        List<Instancia> instancias = instanciaDAO.buscar(filtro, ultima, 20);
+
+        assertEquals(1, instancias.size());
+        verify(mockConnection).prepareStatement("SELECT * FROM proyecto.instancias WHERE TRUE AND id_categoria = ?" +
+                " AND canal = ? AND confidencial = ? AND fecha_hora >= ? AND (fecha_hora, id) < (?, ?)" +
+                " ORDER BY fecha_hora DESC, id DESC LIMIT ?");
+        verify(mockStatement).setObject(1, 3);
+        verify(mockStatement).setObject(2, "PRESENCIAL");
+        verify(mockStatement).setObject(3, false);
+        verify(mockStatement).setObject(4, Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 0, 0)));
+        verify(mockStatement).setObject(5, Timestamp.valueOf(LocalDateTime.of(2025, 5, 2, 9, 30)));
+        verify(mockStatement).setObject(6, 40);
+        verify(mockStatement).setObject(7, 20);
+    }
+
+    @Test
+    void testBuscarSinCriterios() throws Exception {
+        when(mockResultSet.next()).thenReturn(false);
+
+        assertTrue(instanciaDAO.buscar(new FiltroInstancias(), null, 20).isEmpty());
+
+        verify(mockConnection).prepareStatement("SELECT * FROM proyecto.instancias WHERE TRUE" +
+                " ORDER BY fecha_hora DESC, id DESC LIMIT ?");
+        verify(mockStatement).setObject(1, 20);
+    }
+
+    @Test
+    void testBuscarTexto() throws Exception {
+        when(mockResultSet.next()).thenReturn(true, false);
+
+        List<Instancia> instancias = instanciaDAO.buscarTexto("ansiedad \"examen final\"", false, 20, 10);
+
+        assertEquals(1, instancias.size());
+        verify(mockConnection).prepareStatement(argThat((String sql) -> sql.contains("websearch_to_tsquery('spanish', ?)")
+                && sql.contains("(? OR NOT i.confidencial)") && sql.contains("ORDER BY ts_rank_cd(b.documento, q) DESC")));
+        verify(mockStatement).setString(1, "ansiedad \"examen final\"");
+        verify(mockStatement).setBoolean(2, false);
+        verify(mockStatement).setInt(3, 10);
+        verify(mockStatement).setInt(4, 20);
+    }
+
     @Test
     void testUpdate() throws Exception {
         Instancia instancia = new InstanciaComun();
@@ -190,4 +328,28 @@ public class InstanciaDAOImplTest {
         assertEquals("Instancia Test", instancias.get(0).getTitulo());
         assertEquals("COMUN", instancias.get(0).getTipo());
     }
+
+    private InstanciaComun nuevaInstancia(String titulo) {
+        InstanciaComun instancia = new InstanciaComun();
+        instancia.setTitulo(titulo);
+        instancia.setCodigo("CODE-" + titulo.hashCode());
+        instancia.setFechaHora(LocalDateTime.of(2023, 11, 20, 14, 0));
+        instancia.setCanal(Canal.PRESENCIAL);
+        instancia.setCategoria(new Categoria("Categoria Test", "Categoria Test"));
+        instancia.setEstudianteAsociado(new Estudiante());
+        instancia.setCreador(new Funcionario());
+        return instancia;
+    }
+
+    private Estudiante estudiante(int id) {
+        Estudiante estudiante = new Estudiante();
+        estudiante.setId(id);
+        return estudiante;
+    }
+
+    private Funcionario funcionario(int id) {
+        Funcionario funcionario = new Funcionario();
+        funcionario.setId(id);
+        return funcionario;
+    }
 }
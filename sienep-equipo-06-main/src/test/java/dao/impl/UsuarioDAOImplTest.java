@@ -31,6 +31,87 @@ public class UsuarioDAOImplTest {
         usuarioDAO = new UsuarioDAOImpl(mockConnection); // Constructor que recibe Connection
     }
 
+    @Test
+    void testSaveAll() throws Exception {
+        when(mockConnection.prepareStatement(anyString(), any(String[].class))).thenReturn(mockStatement);
+        when(mockStatement.getGeneratedKeys()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, true, false);
+        when(mockResultSet.getInt(1)).thenReturn(7, 8);
+
+        Estudiante ana = new Estudiante("Ana", "Pérez", "ana@estudiantes.utec.edu.uy", "Clave@123", "1234567",
+                EstadoUsuario.ACTIVO, TipoUsuario.ESTUDIANTE, null, null, null, null, null, null, null, null, null, null, null, List.of());
+        Estudiante luis = new Estudiante("Luis", "Gómez", "luis@estudiantes.utec.edu.uy", "Clave@456", "7654321",
+                EstadoUsuario.ACTIVO, TipoUsuario.ESTUDIANTE, null, null, null, null, null, null, null, null, null, null, null, List.of());
+
+        usuarioDAO.saveAll(List.of(ana, luis));
+
+        verify(mockStatement, times(2)).addBatch();
+        verify(mockStatement).executeBatch();
+        assertEquals(7, ana.getId());
+        assertEquals(8, luis.getId());
+        // el modelo conserva la contraseña en claro (para poder reintentar), la base recibe el hash
+        assertEquals("Clave@123", ana.getContrasenia());
+        verify(mockStatement).setString(eq(4), argThat(hash -> utils.PasswordHasher.verify("Clave@123", hash)));
+    }
+
+    @Test
+    void testSaveAllGuardaElCodigoDeActivacionSinHashear() throws Exception {
+        when(mockConnection.prepareStatement(anyString(), any(String[].class))).thenReturn(mockStatement);
+        when(mockStatement.getGeneratedKeys()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, false);
+        String activacion = utils.PasswordHasher.hashActivacion("0123456789abcdef0123456789abcdef");
+        Estudiante ana = new Estudiante("Ana", "Pérez", "ana@estudiantes.utec.edu.uy", activacion, "1234567",
+                EstadoUsuario.ACTIVO, TipoUsuario.ESTUDIANTE, null, null, null, null, null, null, null, null, null, null, null, List.of());
+
+        usuarioDAO.saveAll(List.of(ana));
+
+        verify(mockStatement).setString(4, activacion);
+    }
+
+    @Test
+    void testActivateAccount() throws Exception {
+        Estudiante ana = new Estudiante();
+        ana.setId(4);
+        ana.setEstado(EstadoUsuario.ACTIVO);
+        ana.setContrasenia(utils.PasswordHasher.hashActivacion("0123456789abcdef0123456789abcdef"));
+        UsuarioDAOImpl spyDAO = spy(usuarioDAO);
+        doReturn(ana).when(spyDAO).findByEmail("ana@mail.com");
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeUpdate()).thenReturn(1, 0);
+
+        assertThrows(AutenticacionFallidaException.class,
+                () -> spyDAO.activateAccount("ana@mail.com", "ffffffffffffffffffffffffffffffff", "Clave@123"));
+        verify(mockStatement, never()).executeUpdate();
+
+        String activacion = ana.getContrasenia();
+        utils.PasswordHasher.setIteraciones(1_000);
+        try {
+            assertSame(ana, spyDAO.activateAccount("ana@mail.com", "0123456789abcdef0123456789abcdef", "Clave@123"));
+            assertTrue(utils.PasswordHasher.verify("Clave@123", ana.getContrasenia()));
+            // el UPDATE sólo pisa el código que se canjeó
+            verify(mockStatement).setString(3, activacion);
+
+            // otro canje con el mismo código (p. ej. simultáneo) ya no encuentra la fila
+            ana.setContrasenia(activacion);
+            assertThrows(AutenticacionFallidaException.class,
+                    () -> spyDAO.activateAccount("ana@mail.com", "0123456789abcdef0123456789abcdef", "Otra@123"));
+        } finally {
+            utils.PasswordHasher.setIteraciones(utils.PasswordHasher.ITERACIONES_POR_DEFECTO);
+        }
+    }
+
+    @Test
+    void testFindEmailsExistentes() throws Exception {
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, false);
+        when(mockResultSet.getString("email")).thenReturn("ana@estudiantes.utec.edu.uy");
+
+        assertEquals(java.util.Set.of("ana@estudiantes.utec.edu.uy"),
+                usuarioDAO.findEmailsExistentes(List.of("ana@estudiantes.utec.edu.uy", "luis@estudiantes.utec.edu.uy")));
+        verify(mockStatement, times(1)).executeQuery();
+    }
+
     @Test
     void testSave() throws Exception {
         when(mockConnection.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS)))
@@ -98,6 +179,46 @@ public class UsuarioDAOImplTest {
         assertTrue(usuarios.get(1) instanceof Funcionario);
     }
 
+    @Test
+    void testFindPage() throws Exception {
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, false);
+        when(mockResultSet.getString("tipo")).thenReturn("FUNCIONARIO");
+        when(mockResultSet.getInt("id")).thenReturn(21);
+        when(mockResultSet.getString("estado")).thenReturn("ACTIVO");
+
+        List<Usuario> usuarios = usuarioDAO.findPage(20, 20);
+
+        assertEquals(1, usuarios.size());
+        assertEquals(21, usuarios.get(0).getId());
+        verify(mockStatement).setInt(1, 20);  // después del último ID mostrado
+        verify(mockStatement).setInt(2, 20);  // tamaño de página
+    }
+
+    @Test
+    void testScanAll() throws Exception {
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockConnection.getAutoCommit()).thenReturn(true);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, true, false);
+        when(mockResultSet.getString("tipo")).thenReturn("ESTUDIANTE", "FUNCIONARIO");
+        when(mockResultSet.getInt("id")).thenReturn(1, 2);
+        when(mockResultSet.getString("estado")).thenReturn("ACTIVO", "ACTIVO");
+
+        List<Integer> ids = new java.util.ArrayList<>();
+        usuarioDAO.scanAll(u -> ids.add(u.getId()));
+
+        assertEquals(List.of(1, 2), ids);
+        // cursor del servidor: autocommit apagado + fetch size, y se restaura al terminar
+        verify(mockConnection).setAutoCommit(false);
+        verify(mockStatement).setFetchSize(LecturaCursor.TAMANIO_FETCH);
+        verify(mockConnection).commit();
+        verify(mockConnection).setAutoCommit(true);
+        verify(mockResultSet).close();
+        verify(mockConnection).close();
+    }
+
     @Test
     void testUpdate() throws Exception {
         when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
@@ -175,6 +296,54 @@ public class UsuarioDAOImplTest {
                 () -> spyDAO.validateCredentials("email@mail.com", "wrongpass"));
     }
 
+    @Test
+    void testValidateCredentials_emailDesconocidoNoVuelveALaBase() throws Exception {
+        UsuarioDAOImpl spyDAO = spy(usuarioDAO);
+        doReturn(null).when(spyDAO).findByEmail("nadie@mail.com");
+
+        assertThrows(AutenticacionFallidaException.class,
+                () -> spyDAO.validateCredentials("nadie@mail.com", "x"));
+        assertThrows(AutenticacionFallidaException.class,
+                () -> spyDAO.validateCredentials("nadie@mail.com", "y"));
+        verify(spyDAO, times(1)).findByEmail("nadie@mail.com");
+
+        // al registrarse el email vuelve a consultarse
+        Estudiante nuevo = new Estudiante();
+        nuevo.setId(9);
+        nuevo.setEmail("nadie@mail.com");
+        nuevo.setEstado(EstadoUsuario.ACTIVO);
+        nuevo.setTipo(TipoUsuario.ESTUDIANTE);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeUpdate()).thenReturn(1);
+        spyDAO.update(nuevo);
+
+        assertThrows(AutenticacionFallidaException.class,
+                () -> spyDAO.validateCredentials("nadie@mail.com", "z"));
+        verify(spyDAO, times(2)).findByEmail("nadie@mail.com");
+    }
+
+    @Test
+    void testValidateCredentials_rehashLegado() throws Exception {
+        Estudiante usuario = new Estudiante();
+        usuario.setId(5);
+        usuario.setContrasenia("fed");  // "abc" con el esquema anterior
+        UsuarioDAOImpl spyDAO = spy(usuarioDAO);
+        doReturn(usuario).when(spyDAO).findByEmail("email@mail.com");
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeUpdate()).thenReturn(1);
+
+        utils.PasswordHasher.setIteraciones(1_000);
+        try {
+            assertSame(usuario, spyDAO.validateCredentials("email@mail.com", "abc"));
+        } finally {
+            utils.PasswordHasher.setIteraciones(utils.PasswordHasher.ITERACIONES_POR_DEFECTO);
+        }
+
+        verify(mockStatement).setString(3, "fed");
+        verify(mockStatement).executeUpdate();
+        assertTrue(usuario.getContrasenia().startsWith("pbkdf2-sha256$"));
+    }
+
     @Test
     void testViewNonSensitiveData() throws Exception {
         when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
@@ -0,0 +1,154 @@
+package db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConnectionPoolTest {
+
+    private static final long VIDA_MAXIMA_MS = 60_000;
+
+    // conexiones físicas abiertas por el pool, en orden
+    private List<Connection> fisicas;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        fisicas = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void testPrestamoReentranteDevuelveAlCerrarElUltimo() throws Exception {
+        pool = crearPool(2, 0, 1_000);
+
+        Connection externa = pool.getConnection();
+        Connection interna = pool.getConnection();  // p. ej. un DAO llamado desde otro dentro de una transacción
+        interna.createStatement();
+        interna.close();
+
+        assertEquals(1, fisicas.size());
+        verify(fisicas.get(0)).createStatement();
+        assertEquals(1, pool.getConexionesActivas());
+        assertEquals(0, pool.getConexionesOciosas());
+
+        externa.close();
+        assertEquals(0, pool.getConexionesActivas());
+        assertEquals(1, pool.getConexionesOciosas());
+        // el handle devuelto ya no se puede usar; cerrarlo de nuevo no libera otra vez
+        assertThrows(SQLException.class, externa::createStatement);
+        externa.close();
+        assertEquals(0, pool.getConexionesActivas());
+        verify(fisicas.get(0), never()).close();
+    }
+
+    @Test
+    void testDevolverHaceRollbackYRestauraAutocommit() throws Exception {
+        pool = crearPool(1, 0, 1_000);
+
+        Connection conexion = pool.getConnection();
+        conexion.setAutoCommit(false);
+        Connection fisica = fisicas.get(0);
+        when(fisica.getAutoCommit()).thenReturn(false);
+        conexion.close();  // sin commit: la transacción quedó abierta
+
+        verify(fisica).rollback();
+        verify(fisica).setAutoCommit(true);
+        assertEquals(1, pool.getConexionesOciosas());
+    }
+
+    @Test
+    void testTimeoutDePrestamo() throws Exception {
+        pool = crearPool(1, 0, 50);
+        Connection prestada = pool.getConnection();
+
+        // otro hilo: en el mismo el préstamo sería reentrante
+        ExecutorService hilo = Executors.newSingleThreadExecutor();
+        try {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> hilo.submit(() -> pool.getConnection()).get());
+            assertInstanceOf(SQLTimeoutException.class, e.getCause());
+        } finally {
+            hilo.shutdownNow();
+        }
+        assertEquals(1, pool.getTimeouts());
+        assertEquals(1, fisicas.size());
+
+        prestada.close();
+        assertNotNull(pool.getConnection());
+    }
+
+    @Test
+    void testDescartaConexionesExpiradas() throws Exception {
+        pool = crearPool(2, 0, 1_000);
+        pool.getConnection().close();
+        assertEquals(1, pool.getConexionesOciosas());
+
+        pool.desalojarOciosas(System.currentTimeMillis());
+        assertEquals(1, pool.getConexionesOciosas());
+
+        pool.desalojarOciosas(System.currentTimeMillis() + VIDA_MAXIMA_MS + 1);
+        assertEquals(0, pool.getConexionesOciosas());
+        assertEquals(1, pool.getConexionesDescartadas());
+        verify(fisicas.get(0)).close();
+    }
+
+    @Test
+    void testPrellenaYMantieneMinIdle() throws Exception {
+        pool = crearPool(3, 2, 1_000);
+        assertEquals(2, pool.getConexionesOciosas());
+        assertEquals(2, fisicas.size());
+
+        Connection prestada = pool.getConnection();
+        pool.desalojarOciosas(System.currentTimeMillis());
+        assertEquals(2, pool.getConexionesOciosas());
+        assertEquals(3, fisicas.size());
+
+        // vencen todas: se descartan y se reponen hasta el mínimo sin pasar de maxSize físicas
+        pool.desalojarOciosas(System.currentTimeMillis() + VIDA_MAXIMA_MS + 1);
+        assertEquals(2, pool.getConexionesOciosas());
+        assertEquals(2, pool.getConexionesDescartadas());
+        assertEquals(5, fisicas.size());
+        prestada.close();
+    }
+
+    @Test
+    void testBaseCaidaNoImpideCrearElPool() throws Exception {
+        pool = new ConnectionPool(() -> {
+            throw new SQLException("Connection refused");
+        }, 2, 2, 1_000, VIDA_MAXIMA_MS, VIDA_MAXIMA_MS, 1);
+
+        assertEquals(0, pool.getConexionesOciosas());
+        assertThrows(SQLException.class, pool::getConnection);
+        assertEquals(0, pool.getConexionesActivas());
+    }
+
+    // Métodos auxiliares
+
+    private ConnectionPool crearPool(int maxSize, int minIdle, long borrowTimeoutMs) {
+        return new ConnectionPool(() -> {
+            Connection fisica = mock(Connection.class);
+            when(fisica.getAutoCommit()).thenReturn(true);
+            when(fisica.isValid(anyInt())).thenReturn(true);
+            fisicas.add(fisica);
+            return fisica;
+        }, maxSize, minIdle, borrowTimeoutMs, VIDA_MAXIMA_MS, VIDA_MAXIMA_MS, 1);
+    }
+}
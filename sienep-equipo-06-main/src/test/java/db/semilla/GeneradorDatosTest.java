@@ -0,0 +1,56 @@
+package db.semilla;
+
+import model.Categoria;
+import model.Estudiante;
+import model.Incidencia;
+import model.Rol;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeneradorDatosTest {
+
+    private final List<Categoria> categorias = List.of(new Categoria(1, "Académica", "Temas académicos"),
+            new Categoria(2, "Salud", "Temas de salud"));
+    private final int[] idsEstudiantes = {10, 11, 12};
+    private final int[] idsFuncionarios = {20, 21};
+
+    @Test
+    void testMismaSemillaMismosDatos() {
+        Estudiante a = new GeneradorDatos(7).estudiante(123);
+        Estudiante b = new GeneradorDatos(7).estudiante(123);
+
+        assertEquals(a.getEmail(), b.getEmail());
+        assertEquals(a.getNombre(), b.getNombre());
+        assertEquals(a.getFechaNacimiento(), b.getFechaNacimiento());
+        assertEquals(a.getObservacionesConfidenciales(), b.getObservacionesConfidenciales());
+    }
+
+    @Test
+    void testFilaNoDependeDelOrden() {
+        GeneradorDatos generador = new GeneradorDatos(7);
+        Incidencia primera = generador.incidencia(500, categorias, idsEstudiantes, idsFuncionarios);
+        generador.incidencia(501, categorias, idsEstudiantes, idsFuncionarios);
+        Incidencia otraVez = generador.incidencia(500, categorias, idsEstudiantes, idsFuncionarios);
+
+        assertEquals(primera.getFechaHora(), otraVez.getFechaHora());
+        assertEquals(primera.getPersonasInvolucradas(), otraVez.getPersonasInvolucradas());
+        assertEquals(primera.getReportadoPor().getId(), otraVez.getReportadoPor().getId());
+    }
+
+    @Test
+    void testSemillasDistintasNoChocan() {
+        assertNotEquals(new GeneradorDatos(1).estudiante(0).getEmail(), new GeneradorDatos(2).estudiante(0).getEmail());
+        assertNotEquals(new GeneradorDatos(1).estudiante(0).getDocumento(), new GeneradorDatos(2).estudiante(0).getDocumento());
+        assertEquals(8, new GeneradorDatos(1).funcionario(3, List.of(new Rol(1, "TUTOR", new ArrayList<>()))).getDocumento().length());
+    }
+
+    @Test
+    void testCampoCopyEscapado() {
+        assertEquals("\\N", EscritorCopy.campo(null));
+        assertEquals("a\\tb\\nc\\\\d", EscritorCopy.campo("a\tb\nc\\d"));
+    }
+}
@@ -0,0 +1,115 @@
+package service.impl;
+
+import dao.EstudianteDAO;
+import dao.UsuarioDAO;
+import exception.InvalidInputException;
+import model.Estudiante;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import service.ResultadoImportacion;
+import utils.PasswordHasher;
+
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ImportadorEstudiantesCsvTest {
+
+    private static final String ENCABEZADO = "nombre,apellido,email,documento,contrasenia,fecha_nacimiento,observaciones_confidenciales\n";
+
+    private EstudianteDAO mockEstudianteDAO;
+    private UsuarioDAO mockUsuarioDAO;
+    private ImportadorEstudiantesCsv importador;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockEstudianteDAO = mock(EstudianteDAO.class);
+        mockUsuarioDAO = mock(UsuarioDAO.class);
+        when(mockUsuarioDAO.findEmailsExistentes(anyCollection())).thenReturn(Set.of());
+        importador = new ImportadorEstudiantesCsv(mockEstudianteDAO, mockUsuarioDAO, 2);
+    }
+
+    @Test
+    void testImportaEnLotes() throws Exception {
+        String csv = ENCABEZADO +
+                "Ana,Pérez,ana@estudiantes.utec.edu.uy,1234567,Clave@123,2000-05-01,\"Alergia, Asma\"\n" +
+                "Luis,Gómez,luis@estudiantes.utec.edu.uy,7654321,Clave@456,1999-01-20,\n" +
+                "Eva,Sosa,eva@estudiantes.utec.edu.uy,1112223,Clave@789,2001-03-15,\n";
+
+        ResultadoImportacion resultado = importador.importar(new StringReader(csv));
+
+        assertEquals(3, resultado.getFilasLeidas());
+        assertEquals(3, resultado.getImportadas());
+        assertTrue(resultado.getErrores().isEmpty());
+        assertEquals(3, resultado.getActivaciones().size());
+        // tamaño de lote 2: un lote de 2 y otro de 1
+        verify(mockEstudianteDAO, times(2)).saveAll(anyList());
+        verify(mockEstudianteDAO, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCuentasSinContraseniaConCodigoDeActivacion() throws Exception {
+        String csv = "nombre,apellido,email,documento,fecha_nacimiento\n" +
+                "Ana,Pérez,ana@estudiantes.utec.edu.uy,1234567,2000-05-01\n";
+        ArgumentCaptor<List<Estudiante>> lote = ArgumentCaptor.forClass(List.class);
+
+        ResultadoImportacion resultado = importador.importar(new StringReader(csv));
+
+        verify(mockEstudianteDAO).saveAll(lote.capture());
+        String guardada = lote.getValue().get(0).getContrasenia();
+        ResultadoImportacion.CodigoActivacion activacion = resultado.getActivaciones().get(0);
+        assertEquals("ana@estudiantes.utec.edu.uy", activacion.email());
+        // no hay contraseña que verifique: sólo se entra canjeando el código
+        assertTrue(PasswordHasher.verifyActivacion(activacion.codigo(), guardada));
+        assertFalse(PasswordHasher.verify(activacion.codigo(), guardada));
+    }
+
+    @Test
+    void testInformaErroresPorFila() throws Exception {
+        when(mockUsuarioDAO.findEmailsExistentes(anyCollection())).thenReturn(Set.of("eva@estudiantes.utec.edu.uy"));
+        String csv = ENCABEZADO +
+                "Ana,Pérez,ana@estudiantes.utec.edu.uy,1234567,Clave@123,2000-05-01,\n" +
+                "Luis,Gómez,luis@gmail.com,7654321,Clave@456,1999-01-20,\n" +
+                "Ana,Pérez,ana@estudiantes.utec.edu.uy,1234568,Clave@123,2000-05-01,\n" +
+                "Eva,Sosa,eva@estudiantes.utec.edu.uy,1112223,Clave@789,2001-03-15,\n" +
+                "Juan,Díaz,juan@estudiantes.utec.edu.uy,1112224,Clave@789,15/03/2001,\n";
+
+        ResultadoImportacion resultado = importador.importar(new StringReader(csv));
+
+        assertEquals(5, resultado.getFilasLeidas());
+        assertEquals(1, resultado.getImportadas());
+        List<Integer> lineas = resultado.getErrores().stream().map(ResultadoImportacion.ErrorFila::linea).toList();
+        assertEquals(List.of(3, 4, 5, 6), lineas);
+        assertTrue(resultado.getErrores().get(0).mensaje().contains("usuario@estudiantes.utec.edu.uy"));
+    }
+
+    @Test
+    void testLoteRechazadoSeReintentaPorFila() throws Exception {
+        doThrow(new SQLException("duplicate key")).when(mockEstudianteDAO).saveAll(anyList());
+        doThrow(new SQLException("documento duplicado")).when(mockEstudianteDAO)
+                .save(argThat((Estudiante e) -> e.getDocumento().equals("7654321")));
+        String csv = ENCABEZADO +
+                "Ana,Pérez,ana@estudiantes.utec.edu.uy,1234567,Clave@123,2000-05-01,\n" +
+                "Luis,Gómez,luis@estudiantes.utec.edu.uy,7654321,Clave@456,1999-01-20,\n";
+
+        ResultadoImportacion resultado = importador.importar(new StringReader(csv));
+
+        assertEquals(1, resultado.getImportadas());
+        assertEquals(1, resultado.getErrores().size());
+        assertEquals(3, resultado.getErrores().get(0).linea());
+        assertEquals(List.of("ana@estudiantes.utec.edu.uy"),
+                resultado.getActivaciones().stream().map(ResultadoImportacion.CodigoActivacion::email).toList());
+    }
+
+    @Test
+    void testFaltaColumnaObligatoria() {
+        assertThrows(InvalidInputException.class,
+                () -> importador.importar(new StringReader("nombre,apellido,email\nAna,Pérez,ana@estudiantes.utec.edu.uy\n")));
+    }
+}
@@ -0,0 +1,68 @@
+package service.impl;
+
+import model.Estudiante;
+import model.enums.EstadoUsuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndiceEstudiantesTest {
+
+    private IndiceEstudiantes indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceEstudiantes();
+        indice.agregar(estudiante(1, "Ana", "Pérez", "1234567", "ana.perez@estudiantes.utec.edu.uy"));
+        indice.agregar(estudiante(2, "Andrés", "Gómez", "7654321", "andres.gomez@estudiantes.utec.edu.uy"));
+        indice.agregar(estudiante(3, "Lucía", "Pereira", "1122334", "lucia.pereira@estudiantes.utec.edu.uy"));
+    }
+
+    @Test
+    void testBuscarPorPrefijo() {
+        assertEquals(List.of(2, 1), ids(indice.buscar("an", 10)));
+        // todas las palabras tienen que coincidir, en cualquier campo
+        assertEquals(List.of(1), ids(indice.buscar("AN pe", 10)));
+        assertEquals(List.of(3), ids(indice.buscar("112", 10)));
+        assertEquals(List.of(3), ids(indice.buscar("lucia.pe", 10)));
+        assertEquals(List.of(2), ids(indice.buscar("an", 1)));
+        assertTrue(indice.buscar("zz", 10).isEmpty());
+        assertTrue(indice.buscar("   ", 10).isEmpty());
+    }
+
+    @Test
+    void testActualizacionesIncrementales() {
+        // modificación: las palabras viejas dejan de encontrarlo
+        indice.agregar(estudiante(1, "Ana", "Suárez", "1234567", "ana.suarez@estudiantes.utec.edu.uy"));
+        assertEquals(List.of(3), ids(indice.buscar("pere", 10)));
+        assertEquals(List.of(1), ids(indice.buscar("suá", 10)));
+
+        // un estudiante que queda inactivo sale del índice
+        Estudiante inactivo = estudiante(2, "Andrés", "Gómez", "7654321", "andres.gomez@estudiantes.utec.edu.uy");
+        inactivo.setEstado(EstadoUsuario.INACTIVO);
+        indice.agregar(inactivo);
+        assertTrue(indice.buscar("gómez", 10).isEmpty());
+
+        indice.quitar(3);
+        assertEquals(1, indice.cantidad());
+        assertTrue(indice.buscar("lucía", 10).isEmpty());
+    }
+
+    private static Estudiante estudiante(int id, String nombre, String apellido, String documento, String email) {
+        Estudiante estudiante = new Estudiante();
+        estudiante.setId(id);
+        estudiante.setNombre(nombre);
+        estudiante.setApellido(apellido);
+        estudiante.setDocumento(documento);
+        estudiante.setEmail(email);
+        estudiante.setEstado(EstadoUsuario.ACTIVO);
+        return estudiante;
+    }
+
+    private static List<Integer> ids(List<Estudiante> estudiantes) {
+        return estudiantes.stream().map(Estudiante::getId).toList();
+    }
+}
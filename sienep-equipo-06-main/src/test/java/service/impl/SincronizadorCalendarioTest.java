@@ -0,0 +1,104 @@
+package service.impl;
+
+import dao.CalendarioOutboxDAO;
+import model.EventoCalendarioPendiente;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.CalendarioCliente;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SincronizadorCalendarioTest {
+
+    private CalendarioOutboxDAO outboxDAO;
+    private CalendarioCliente calendario;
+    private SincronizadorCalendario sincronizador;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        outboxDAO = mock(CalendarioOutboxDAO.class);
+        calendario = mock(CalendarioCliente.class);
+        sincronizador = new SincronizadorCalendario(outboxDAO, calendario, 20, 8, 30, 3600, 300);
+        when(outboxDAO.registrarCreados(anyList())).thenReturn(List.of());
+    }
+
+    @Test
+    void testLiberaReclamosVencidosAntesDeReclamar() throws Exception {
+        when(outboxDAO.reclamarPendientes(20)).thenReturn(List.of());
+
+        sincronizador.procesarPendientes();
+
+        verify(outboxDAO).liberarReclamosVencidos(300);
+    }
+
+    @Test
+    void testCadaEventoSeRegistraAlTerminar() throws Exception {
+        EventoCalendarioPendiente primero = creacion(1, 10);
+        EventoCalendarioPendiente segundo = creacion(2, 11);
+        when(outboxDAO.reclamarPendientes(20)).thenReturn(List.of(primero, segundo));
+        when(calendario.crearEventoConRecordatorio(any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenAnswer(inv -> inv.getArgument(0));
+        // registrar el primero falla: el segundo igual queda registrado
+        when(outboxDAO.registrarCreados(List.of(primero))).thenThrow(new SQLException("conexión perdida"));
+
+        assertEquals(2, sincronizador.procesarPendientes());
+
+        verify(outboxDAO).registrarCreados(List.of(segundo));
+        verify(calendario).crearEventoConRecordatorio(eq("sienep2"), any(), any(), any(), anyInt(), anyInt());
+        // el primero se reintenta: con el mismo event id, reintentar no duplica
+        verify(outboxDAO).reprogramar(eq(1), any(), any(), eq(false));
+    }
+
+    @Test
+    void testReclamoVencidoNoDuplicaElEvento() throws Exception {
+        CalendarioLocal local = new CalendarioLocal();
+        SincronizadorCalendario conLocal = new SincronizadorCalendario(outboxDAO, local, 20, 8, 30, 3600, 300);
+        EventoCalendarioPendiente evento = creacion(1, 10);
+        // primera ronda: el evento se crea pero no se puede registrar ni reprogramar (la base se cayó);
+        // la fila queda EN_PROCESO hasta que vence el reclamo y la siguiente ronda la retoma
+        when(outboxDAO.reclamarPendientes(20)).thenReturn(List.of(evento), List.of(evento));
+        when(outboxDAO.registrarCreados(List.of(evento)))
+                .thenThrow(new SQLException("conexión perdida"))
+                .thenReturn(List.of());
+        doThrow(new SQLException("conexión perdida")).when(outboxDAO).reprogramar(anyInt(), any(), any(), anyBoolean());
+        conLocal.procesarPendientes();
+
+        when(outboxDAO.liberarReclamosVencidos(300)).thenReturn(1);
+        evento.setIntentos(2);
+        conLocal.procesarPendientes();
+
+        assertEquals(1, local.cantidadEventos());
+        assertTrue(local.existeEvento("sienep1"));
+        verify(outboxDAO, times(2)).registrarCreados(List.of(evento));
+    }
+
+    @Test
+    void testErrorAlReprogramarNoCortaElLote() throws Exception {
+        EventoCalendarioPendiente primero = creacion(1, 10);
+        EventoCalendarioPendiente segundo = creacion(2, 11);
+        when(outboxDAO.reclamarPendientes(20)).thenReturn(List.of(primero, segundo));
+        when(calendario.crearEventoConRecordatorio(any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenThrow(new RuntimeException("calendario caído"))
+                .thenReturn("sienep2");
+        doThrow(new SQLException("conexión perdida")).when(outboxDAO).reprogramar(eq(1), any(), any(), anyBoolean());
+
+        sincronizador.procesarPendientes();
+
+        verify(outboxDAO).registrarCreados(List.of(segundo));
+    }
+
+    private EventoCalendarioPendiente creacion(int id, int idInstancia) {
+        EventoCalendarioPendiente evento = new EventoCalendarioPendiente(idInstancia, "Titulo", "Desc",
+                LocalDateTime.of(2025, 5, 10, 9, 0), 60, 30);
+        evento.setId(id);
+        evento.setIntentos(1);
+        // el reclamo ya le asignó el event id
+        evento.setEventId("sienep" + id);
+        return evento;
+    }
+}
@@ -0,0 +1,78 @@
+package utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTest {
+
+    @BeforeEach
+    void setUp() {
+        // costo bajo para que los tests sean rápidos
+        PasswordHasher.setIteraciones(1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PasswordHasher.setIteraciones(PasswordHasher.ITERACIONES_POR_DEFECTO);
+    }
+
+    @Test
+    void testHashYVerify() {
+        String hash = PasswordHasher.hash("Clave@123");
+
+        assertTrue(hash.startsWith("pbkdf2-sha256$1000$"));
+        assertTrue(PasswordHasher.verify("Clave@123", hash));
+        assertFalse(PasswordHasher.verify("Clave@124", hash));
+        assertFalse(PasswordHasher.necesitaRehash(hash));
+    }
+
+    @Test
+    void testSalDistintaPorHash() {
+        assertNotEquals(PasswordHasher.hash("Clave@123"), PasswordHasher.hash("Clave@123"));
+    }
+
+    @Test
+    void testHashLegadoSeAceptaYPideRehash() {
+        // "abc" con el esquema anterior: +3 a cada carácter y reversa
+        String legado = "fed";
+
+        assertTrue(PasswordHasher.verify("abc", legado));
+        assertFalse(PasswordHasher.verify("abd", legado));
+        assertTrue(PasswordHasher.necesitaRehash(legado));
+    }
+
+    @Test
+    void testCambioDeCostoPideRehash() {
+        String hash = PasswordHasher.hash("Clave@123");
+        PasswordHasher.setIteraciones(2_000);
+
+        // el hash viejo sigue verificando con sus propios parámetros
+        assertTrue(PasswordHasher.verify("Clave@123", hash));
+        assertTrue(PasswordHasher.necesitaRehash(hash));
+    }
+
+    @Test
+    void testCodigoActivacion() {
+        String codigo = PasswordHasher.codigoActivacion();
+        String hash = PasswordHasher.hashActivacion(codigo);
+
+        assertEquals(32, codigo.length());
+        assertTrue(PasswordHasher.verifyActivacion(codigo, hash));
+        assertTrue(PasswordHasher.verifyActivacion(" " + codigo.toUpperCase() + " ", hash));
+        assertFalse(PasswordHasher.verifyActivacion(PasswordHasher.codigoActivacion(), hash));
+        // ni el código ni el propio valor guardado sirven como contraseña
+        assertFalse(PasswordHasher.verify(codigo, hash));
+        assertFalse(PasswordHasher.verify(hash, hash));
+        // un hash de contraseña no se canjea como código
+        assertFalse(PasswordHasher.verifyActivacion(codigo, PasswordHasher.hash(codigo)));
+    }
+
+    @Test
+    void testHashMalformado() {
+        assertFalse(PasswordHasher.verify("Clave@123", "pbkdf2-sha256$abc$$"));
+        assertFalse(PasswordHasher.verify("Clave@123", null));
+    }
+}
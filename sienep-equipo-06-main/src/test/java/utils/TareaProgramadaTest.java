@@ -0,0 +1,45 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TareaProgramadaTest {
+
+    @Test
+    void testUnaExcepcionNoCancelaLasRondasSiguientes() throws Exception {
+        AtomicInteger rondas = new AtomicInteger();
+        CountDownLatch tresRondas = new CountDownLatch(3);
+        TareaProgramada tarea = new TareaProgramada("prueba", () -> {
+            tresRondas.countDown();
+            if (rondas.incrementAndGet() == 1) {
+                throw new IllegalStateException("falla la primera ronda");
+            }
+        });
+
+        assertTrue(tarea.iniciar(10, TimeUnit.MILLISECONDS));
+        try {
+            assertTrue(tresRondas.await(5, TimeUnit.SECONDS));
+        } finally {
+            tarea.detener();
+        }
+    }
+
+    @Test
+    void testIniciarYDetenerSonIdempotentes() {
+        TareaProgramada tarea = new TareaProgramada("prueba", () -> { });
+
+        assertTrue(tarea.iniciar(1, TimeUnit.HOURS));
+        assertFalse(tarea.iniciar(1, TimeUnit.HOURS));
+        tarea.detener();
+        tarea.detener();
+        assertFalse(tarea.isIniciada());
+        // se puede volver a iniciar después de detenerla
+        assertTrue(tarea.iniciar(1, TimeUnit.HOURS));
+        tarea.detener();
+    }
+}